@@ -0,0 +1,135 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.benchmarks.core;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextThreadFactory;
+import org.springframework.security.core.context.ScopedValueSecurityContextHolderStrategy;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.context.ThreadLocalSecurityContextHolderStrategy;
+
+/**
+ * Compares the throughput of tasks submitted to an executor creating a new thread for
+ * each task, and run with the submitter's {@code SecurityContext}, when the context is
+ * propagated by a {@link DelegatingSecurityContextExecutor} or by a
+ * {@link DelegatingSecurityContextThreadFactory}. The threads are virtual when the
+ * benchmarks run on Java 21 or later. With a
+ * {@link ScopedValueSecurityContextHolderStrategy}, the tasks are submitted within a
+ * scope binding the context, using {@code ScopedValue} when it is available, see
+ * {@link ScopedValueSecurityContextHolderStrategy#isScopedValueAvailable()}.
+ *
+ * @since 6.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SecurityContextPropagationBenchmarks {
+
+	private static final int TASKS = 100;
+
+	@Param({ "ThreadLocal", "ScopedValue" })
+	public String strategy;
+
+	private final SecurityContext securityContext = new SecurityContextImpl(
+			new TestingAuthenticationToken("user", "password", "ROLE_USER"));
+
+	private SecurityContextHolderStrategy securityContextHolderStrategy;
+
+	private Executor delegatingExecutor;
+
+	private Executor threadFactoryExecutor;
+
+	@Setup
+	public void setup() {
+		this.securityContextHolderStrategy = "ScopedValue".equals(this.strategy)
+				? new ScopedValueSecurityContextHolderStrategy() : new ThreadLocalSecurityContextHolderStrategy();
+		this.securityContextHolderStrategy.setContext(this.securityContext);
+		ThreadFactory threads = DelegatingSecurityContextThreadFactory.virtualThreadFactory();
+		DelegatingSecurityContextExecutor delegatingExecutor = new DelegatingSecurityContextExecutor(
+				(task) -> threads.newThread(task).start());
+		delegatingExecutor.setSecurityContextHolderStrategy(this.securityContextHolderStrategy);
+		this.delegatingExecutor = delegatingExecutor;
+		DelegatingSecurityContextThreadFactory contextThreads = new DelegatingSecurityContextThreadFactory(threads);
+		contextThreads.setSecurityContextHolderStrategy(this.securityContextHolderStrategy);
+		this.threadFactoryExecutor = (task) -> contextThreads.newThread(task).start();
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.securityContextHolderStrategy.clearContext();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TASKS)
+	public void delegatingSecurityContextExecutor() throws InterruptedException {
+		submit(this.delegatingExecutor);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TASKS)
+	public void delegatingSecurityContextThreadFactory() throws InterruptedException {
+		submit(this.threadFactoryExecutor);
+	}
+
+	private void submit(Executor executor) throws InterruptedException {
+		CountDownLatch done = new CountDownLatch(TASKS);
+		Runnable task = () -> {
+			if (this.securityContextHolderStrategy.getContext().getAuthentication() != null) {
+				done.countDown();
+			}
+		};
+		Runnable submitAll = () -> {
+			for (int i = 0; i < TASKS; i++) {
+				executor.execute(task);
+			}
+		};
+		if (this.securityContextHolderStrategy instanceof ScopedValueSecurityContextHolderStrategy) {
+			((ScopedValueSecurityContextHolderStrategy) this.securityContextHolderStrategy)
+					.runWhere(() -> this.securityContext, submitAll);
+		}
+		else {
+			submitAll.run();
+		}
+		done.await();
+	}
+
+}
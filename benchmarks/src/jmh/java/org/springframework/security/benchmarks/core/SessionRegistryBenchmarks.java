@@ -0,0 +1,122 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.benchmarks.core;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.security.core.session.SessionInformation;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.security.core.session.SessionRegistryImpl;
+import org.springframework.security.core.session.ShardedSessionRegistry;
+
+/**
+ * Compares {@link SessionRegistryImpl} with {@link ShardedSessionRegistry} holding a
+ * million sessions, spread over principals with a few sessions each, under concurrent
+ * access. The operations are those performed on each request by
+ * {@code ConcurrentSessionFilter}, and on each login by
+ * {@code ConcurrentSessionControlAuthenticationStrategy} and
+ * {@code RegisterSessionAuthenticationStrategy}.
+ *
+ * @since 6.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(16)
+@State(Scope.Benchmark)
+public class SessionRegistryBenchmarks {
+
+	@Param({ "SessionRegistryImpl", "ShardedSessionRegistry" })
+	public String registry;
+
+	@Param("1000000")
+	public int sessions;
+
+	@Param("4")
+	public int sessionsPerPrincipal;
+
+	private SessionRegistry sessionRegistry;
+
+	private int principals;
+
+	@Setup
+	public void setup() {
+		this.sessionRegistry = "ShardedSessionRegistry".equals(this.registry) ? new ShardedSessionRegistry()
+				: new SessionRegistryImpl();
+		this.principals = this.sessions / this.sessionsPerPrincipal;
+		for (int i = 0; i < this.sessions; i++) {
+			this.sessionRegistry.registerNewSession(sessionId(i), principal(i % this.principals));
+		}
+	}
+
+	@Benchmark
+	public SessionInformation refreshLastRequest() {
+		String sessionId = sessionId(ThreadLocalRandom.current().nextInt(this.sessions));
+		SessionInformation info = this.sessionRegistry.getSessionInformation(sessionId);
+		this.sessionRegistry.refreshLastRequest(sessionId);
+		return info;
+	}
+
+	@Benchmark
+	public int countSessions() {
+		String principal = principal(ThreadLocalRandom.current().nextInt(this.principals));
+		if (this.sessionRegistry instanceof ShardedSessionRegistry) {
+			return ((ShardedSessionRegistry) this.sessionRegistry).getSessionCount(principal);
+		}
+		return this.sessionRegistry.getAllSessions(principal, false).size();
+	}
+
+	@Benchmark
+	public List<SessionInformation> getAllSessions() {
+		String principal = principal(ThreadLocalRandom.current().nextInt(this.principals));
+		return this.sessionRegistry.getAllSessions(principal, false);
+	}
+
+	@Benchmark
+	public void replaceSession() {
+		int session = ThreadLocalRandom.current().nextInt(this.sessions);
+		String sessionId = sessionId(session);
+		this.sessionRegistry.removeSessionInformation(sessionId);
+		this.sessionRegistry.registerNewSession(sessionId, principal(session % this.principals));
+	}
+
+	private static String sessionId(int session) {
+		return "session-" + session;
+	}
+
+	private static String principal(int principal) {
+		return "user-" + principal;
+	}
+
+}
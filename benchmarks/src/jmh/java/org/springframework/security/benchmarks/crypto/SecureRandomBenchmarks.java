@@ -0,0 +1,81 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.benchmarks.crypto;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.security.crypto.keygen.BytesKeyGenerator;
+import org.springframework.security.crypto.keygen.KeyGenerators;
+import org.springframework.security.crypto.keygen.PrefetchingSecureRandom;
+
+/**
+ * Compares a single {@link SecureRandom} shared by all threads, which is how the token
+ * generating components use it by default, with the {@link PrefetchingSecureRandom},
+ * under 64 concurrent threads. The key lengths are those of a CSRF token mask, a
+ * remember-me series and an OAuth 2.0 state.
+ * <p>
+ * Other thread counts can be selected with the {@code -t} JMH option.
+ *
+ * @since 6.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class SecureRandomBenchmarks {
+
+	@Param({ "16", "32", "36" })
+	public int keyLength;
+
+	private BytesKeyGenerator sharedSecureRandom;
+
+	private BytesKeyGenerator prefetchingSecureRandom;
+
+	@Setup
+	public void setup() {
+		this.sharedSecureRandom = KeyGenerators.secureRandom(this.keyLength);
+		this.prefetchingSecureRandom = KeyGenerators.prefetchingSecureRandom(this.keyLength);
+	}
+
+	@Benchmark
+	public byte[] sharedSecureRandom() {
+		return this.sharedSecureRandom.generateKey();
+	}
+
+	@Benchmark
+	public byte[] prefetchingSecureRandom() {
+		return this.prefetchingSecureRandom.generateKey();
+	}
+
+}
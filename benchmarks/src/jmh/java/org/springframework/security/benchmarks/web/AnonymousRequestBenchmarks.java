@@ -0,0 +1,145 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.benchmarks.web;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+/**
+ * Measures the throughput and, with the {@code gc} profiler, the allocation rate of
+ * anonymous requests, with and without
+ * {@link AnonymousAuthenticationFilter#setShareAnonymousContext(boolean)}. The
+ * application reads the {@code Authentication} of each request, so that the anonymous
+ * {@code SecurityContext} is resolved. Compare the {@code gc.alloc.rate.norm} results
+ * to see the garbage created per request.
+ *
+ * @since 6.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnonymousRequestBenchmarks {
+
+	private static final FilterChain READ_AUTHENTICATION_CHAIN = (request, response) -> request
+			.setAttribute("authentication", SecurityContextHolder.getContext().getAuthentication());
+
+	@Param({ "false", "true" })
+	public boolean shareAnonymousContext;
+
+	private AnnotationConfigWebApplicationContext context;
+
+	private Filter springSecurityFilterChain;
+
+	@Setup
+	public void setup() {
+		this.context = new AnnotationConfigWebApplicationContext();
+		this.context.setServletContext(new MockServletContext());
+		this.context.register(this.shareAnonymousContext ? SharedAnonymousConfig.class : AnonymousConfig.class);
+		this.context.refresh();
+		this.springSecurityFilterChain = SecurityScenario.getSpringSecurityFilterChain(this.context);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public int springSecurityFilterChain() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/public");
+		request.setServletPath("/public");
+		MockHttpServletResponse response = SecurityScenario.createResponse();
+		this.springSecurityFilterChain.doFilter(request, response, READ_AUTHENTICATION_CHAIN);
+		return response.getStatus();
+	}
+
+	@Configuration
+	@EnableWebSecurity
+	static class AnonymousConfig {
+
+		private static final String KEY = "key";
+
+		@Bean
+		SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+			AnonymousAuthenticationFilter anonymousFilter = new AnonymousAuthenticationFilter(KEY, "anonymousUser",
+					AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+			anonymousFilter.setShareAnonymousContext(shareAnonymousContext());
+			// @formatter:off
+			http
+				.authorizeHttpRequests((authorize) -> authorize
+					.anyRequest().permitAll()
+				)
+				.sessionManagement((sessions) -> sessions
+					.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+				)
+				.anonymous((anonymous) -> anonymous
+					.key(KEY)
+					.authenticationFilter(anonymousFilter)
+				);
+			// @formatter:on
+			return http.build();
+		}
+
+		boolean shareAnonymousContext() {
+			return false;
+		}
+
+	}
+
+	@Configuration
+	@EnableWebSecurity
+	static class SharedAnonymousConfig extends AnonymousConfig {
+
+		@Override
+		boolean shareAnonymousContext() {
+			return true;
+		}
+
+	}
+
+}
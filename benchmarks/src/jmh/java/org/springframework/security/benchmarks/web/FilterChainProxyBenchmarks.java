@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.benchmarks.web;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+/**
+ * Measures the throughput and, with the {@code gc} profiler, the allocation rate of a
+ * whole {@code springSecurityFilterChain} for each {@link SecurityScenario}. Run with
+ * {@code ./gradlew :spring-security-benchmarks:jmh}, optionally passing
+ * {@code -Pbenchmarks=FilterChainProxyBenchmarks} to select benchmarks.
+ * <p>
+ * The {@link #baseline()} benchmark only creates the mock request and response, so
+ * that its allocation rate can be subtracted from the other results.
+ *
+ * @since 6.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilterChainProxyBenchmarks {
+
+	@Param
+	public SecurityScenario scenario;
+
+	private AnnotationConfigWebApplicationContext context;
+
+	private Filter springSecurityFilterChain;
+
+	@Setup
+	public void setup() {
+		this.context = this.scenario.createContext();
+		this.springSecurityFilterChain = SecurityScenario.getSpringSecurityFilterChain(this.context);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public int springSecurityFilterChain() throws Exception {
+		MockHttpServletRequest request = this.scenario.createRequest();
+		MockHttpServletResponse response = SecurityScenario.createResponse();
+		this.springSecurityFilterChain.doFilter(request, response, SecurityScenario.NOOP_CHAIN);
+		return response.getStatus();
+	}
+
+	@Benchmark
+	public int baseline() {
+		MockHttpServletRequest request = this.scenario.createRequest();
+		MockHttpServletResponse response = SecurityScenario.createResponse();
+		return request.hashCode() + response.getStatus();
+	}
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.benchmarks.web;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+/**
+ * Measures each security filter of a {@link SecurityScenario} in isolation, so that the
+ * cost of the whole chain measured by {@link FilterChainProxyBenchmarks} can be
+ * attributed to individual filters. Each invocation starts with the scenario's user
+ * authenticated, as it would be once {@code SecurityContextHolderFilter} has run.
+ * <p>
+ * The filters are selected by simple class name. Other filters or scenarios can be
+ * selected with the {@code -p filter=...} and {@code -p scenario=...} JMH options.
+ *
+ * @since 6.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SecurityFilterBenchmarks {
+
+	@Param("DEFAULTS")
+	public SecurityScenario scenario;
+
+	@Param({ "DisableEncodeUrlFilter", "WebAsyncManagerIntegrationFilter", "SecurityContextHolderFilter",
+			"HeaderWriterFilter", "CsrfFilter", "LogoutFilter", "UsernamePasswordAuthenticationFilter",
+			"DefaultLoginPageGeneratingFilter", "DefaultLogoutPageGeneratingFilter", "BasicAuthenticationFilter",
+			"RequestCacheAwareFilter", "SecurityContextHolderAwareRequestFilter", "AnonymousAuthenticationFilter",
+			"ExceptionTranslationFilter", "AuthorizationFilter" })
+	public String filter;
+
+	private AnnotationConfigWebApplicationContext context;
+
+	private Filter securityFilter;
+
+	@Setup
+	public void setup() {
+		this.context = this.scenario.createContext();
+		FilterChainProxy proxy = (FilterChainProxy) SecurityScenario.getSpringSecurityFilterChain(this.context);
+		List<Filter> filters = proxy.getFilterChains().get(0).getFilters();
+		this.securityFilter = filters.stream().filter((f) -> f.getClass().getSimpleName().equals(this.filter))
+				.findFirst()
+				.orElseThrow(() -> new IllegalStateException("Could not find " + this.filter + " in "
+						+ filters.stream().map((f) -> f.getClass().getSimpleName()).collect(Collectors.toList())));
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public int securityFilter() throws Exception {
+		MockHttpServletRequest request = this.scenario.createRequest();
+		MockHttpServletResponse response = SecurityScenario.createResponse();
+		SecurityContextHolder.setContext(SecurityScenario.Fixtures.AUTHENTICATED_CONTEXT);
+		try {
+			this.securityFilter.doFilter(request, response, SecurityScenario.NOOP_CHAIN);
+		}
+		finally {
+			SecurityContextHolder.clearContext();
+		}
+		return response.getStatus();
+	}
+
+}
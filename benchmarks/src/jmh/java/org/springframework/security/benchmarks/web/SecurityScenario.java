@@ -0,0 +1,349 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.benchmarks.web;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.UUID;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.security.web.csrf.HttpSessionCsrfTokenRepository;
+import org.springframework.security.web.csrf.XorCsrfTokenRequestAttributeHandler;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import static org.springframework.security.config.Customizer.withDefaults;
+
+/**
+ * The security configurations and requests exercised by the servlet filter chain
+ * benchmarks. Each scenario builds its filter chain through {@link HttpSecurity} in a
+ * real application context, so the benchmarks measure what applications actually get.
+ */
+public enum SecurityScenario {
+
+	/**
+	 * An authenticated {@code GET} against the default {@link HttpSecurity} with form
+	 * login and HTTP Basic, the user's {@link SecurityContext} being in the session
+	 */
+	DEFAULTS(DefaultsConfig.class) {
+		@Override
+		MockHttpServletRequest createRequest() {
+			MockHttpServletRequest request = get("/resource");
+			request.setSession(authenticatedSession());
+			return request;
+		}
+	},
+
+	/**
+	 * An unauthenticated {@code GET} against the default {@link HttpSecurity}, which is
+	 * saved in the request cache and redirected to the login page
+	 */
+	UNAUTHENTICATED(DefaultsConfig.class) {
+		@Override
+		MockHttpServletRequest createRequest() {
+			return get("/resource");
+		}
+	},
+
+	/**
+	 * A successful form login, including CSRF validation and session fixation protection
+	 */
+	FORM_LOGIN(DefaultsConfig.class) {
+		@Override
+		MockHttpServletRequest createRequest() {
+			MockHttpServletRequest request = post("/login");
+			request.setSession(csrfSession());
+			request.setParameter("username", "user");
+			request.setParameter("password", "password");
+			request.setParameter(Fixtures.CSRF_TOKEN.getParameterName(), Fixtures.MASKED_CSRF_TOKEN);
+			return request;
+		}
+	},
+
+	/**
+	 * An authenticated {@code POST} carrying a valid CSRF token
+	 */
+	CSRF(DefaultsConfig.class) {
+		@Override
+		MockHttpServletRequest createRequest() {
+			MockHttpServletRequest request = post("/transfer");
+			request.setSession(authenticatedSession());
+			request.setParameter(Fixtures.CSRF_TOKEN.getParameterName(), Fixtures.MASKED_CSRF_TOKEN);
+			return request;
+		}
+	},
+
+	/**
+	 * An authenticated {@code GET} with concurrent session control enabled
+	 */
+	SESSION_MANAGEMENT(SessionManagementConfig.class) {
+		@Override
+		MockHttpServletRequest createRequest() {
+			MockHttpServletRequest request = get("/resource");
+			request.setSession(authenticatedSession());
+			return request;
+		}
+	},
+
+	/**
+	 * A stateless resource server request carrying an RS256 signed JWT
+	 */
+	BEARER_JWT(BearerJwtConfig.class) {
+		@Override
+		MockHttpServletRequest createRequest() {
+			MockHttpServletRequest request = get("/api/resource");
+			request.addHeader("Authorization", "Bearer " + Fixtures.JWT);
+			return request;
+		}
+	};
+
+	/**
+	 * The {@link FilterChain} that the security filters delegate to once they are done
+	 */
+	static final FilterChain NOOP_CHAIN = (request, response) -> {
+	};
+
+	private final Class<?> configuration;
+
+	SecurityScenario(Class<?> configuration) {
+		this.configuration = configuration;
+	}
+
+	/**
+	 * Creates a new request for this scenario. A new request is created for each
+	 * invocation, since filters store state in the request and the session.
+	 * @return the request
+	 */
+	abstract MockHttpServletRequest createRequest();
+
+	/**
+	 * Creates the application context containing the {@code springSecurityFilterChain}
+	 * for this scenario
+	 * @return the refreshed application context
+	 */
+	AnnotationConfigWebApplicationContext createContext() {
+		AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+		context.setServletContext(new MockServletContext());
+		context.register(this.configuration);
+		context.refresh();
+		return context;
+	}
+
+	static Filter getSpringSecurityFilterChain(AnnotationConfigWebApplicationContext context) {
+		return context.getBean("springSecurityFilterChain", Filter.class);
+	}
+
+	static MockHttpServletResponse createResponse() {
+		return new MockHttpServletResponse();
+	}
+
+	private static MockHttpServletRequest get(String path) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		request.setServletPath(path);
+		return request;
+	}
+
+	private static MockHttpServletRequest post(String path) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+		request.setServletPath(path);
+		return request;
+	}
+
+	private static MockHttpSession csrfSession() {
+		MockHttpSession session = new MockHttpSession();
+		session.setAttribute(Fixtures.CSRF_TOKEN_ATTRIBUTE, Fixtures.CSRF_TOKEN);
+		return session;
+	}
+
+	private static MockHttpSession authenticatedSession() {
+		MockHttpSession session = csrfSession();
+		session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+				Fixtures.AUTHENTICATED_CONTEXT);
+		return session;
+	}
+
+	/**
+	 * The state shared by all scenarios, created once
+	 */
+	static final class Fixtures {
+
+		static final UserDetails USER = User.withUsername("user").password("{noop}password").roles("USER")
+				.build();
+
+		static final SecurityContext AUTHENTICATED_CONTEXT = new SecurityContextImpl(
+				UsernamePasswordAuthenticationToken.authenticated(USER, null, USER.getAuthorities()));
+
+		static final CsrfToken CSRF_TOKEN = new DefaultCsrfToken("X-CSRF-TOKEN", "_csrf",
+				UUID.randomUUID().toString());
+
+		static final String CSRF_TOKEN_ATTRIBUTE = csrfTokenAttribute();
+
+		static final String MASKED_CSRF_TOKEN = maskedCsrfToken();
+
+		static final KeyPair KEY_PAIR = keyPair();
+
+		static final String JWT = jwt();
+
+		private Fixtures() {
+		}
+
+		private static String csrfTokenAttribute() {
+			MockHttpServletRequest request = new MockHttpServletRequest();
+			new HttpSessionCsrfTokenRepository().saveToken(CSRF_TOKEN, request, new MockHttpServletResponse());
+			return request.getSession().getAttributeNames().nextElement();
+		}
+
+		private static String maskedCsrfToken() {
+			MockHttpServletRequest request = new MockHttpServletRequest();
+			new XorCsrfTokenRequestAttributeHandler().handle(request, new MockHttpServletResponse(), () -> CSRF_TOKEN);
+			return ((CsrfToken) request.getAttribute(CsrfToken.class.getName())).getToken();
+		}
+
+		private static KeyPair keyPair() {
+			try {
+				KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+				generator.initialize(2048);
+				return generator.generateKeyPair();
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		private static String jwt() {
+			RSAKey key = new RSAKey.Builder((RSAPublicKey) KEY_PAIR.getPublic())
+					.privateKey((RSAPrivateKey) KEY_PAIR.getPrivate()).build();
+			NimbusJwtEncoder encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(key)));
+			Instant now = Instant.now();
+			JwtClaimsSet claims = JwtClaimsSet.builder().subject("user").issuedAt(now)
+					.expiresAt(now.plusSeconds(86400)).claim("scope", "message:read").build();
+			return encoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+		}
+
+	}
+
+	@Configuration
+	@EnableWebSecurity
+	static class DefaultsConfig {
+
+		@Bean
+		SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+			// @formatter:off
+			http
+				.authorizeHttpRequests((authorize) -> authorize
+					.anyRequest().authenticated()
+				)
+				.formLogin(withDefaults())
+				.httpBasic(withDefaults());
+			// @formatter:on
+			return http.build();
+		}
+
+		@Bean
+		UserDetailsService userDetailsService() {
+			return new InMemoryUserDetailsManager(Fixtures.USER);
+		}
+
+	}
+
+	@Configuration
+	@EnableWebSecurity
+	static class SessionManagementConfig {
+
+		@Bean
+		SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+			// @formatter:off
+			http
+				.authorizeHttpRequests((authorize) -> authorize
+					.anyRequest().authenticated()
+				)
+				.formLogin(withDefaults())
+				.sessionManagement((sessions) -> sessions
+					.maximumSessions(1)
+				);
+			// @formatter:on
+			return http.build();
+		}
+
+		@Bean
+		UserDetailsService userDetailsService() {
+			return new InMemoryUserDetailsManager(Fixtures.USER);
+		}
+
+	}
+
+	@Configuration
+	@EnableWebSecurity
+	static class BearerJwtConfig {
+
+		@Bean
+		SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+			// @formatter:off
+			http
+				.authorizeHttpRequests((authorize) -> authorize
+					.anyRequest().authenticated()
+				)
+				.sessionManagement((sessions) -> sessions
+					.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+				)
+				.oauth2ResourceServer((resourceServer) -> resourceServer
+					.jwt(withDefaults())
+				);
+			// @formatter:on
+			return http.build();
+		}
+
+		@Bean
+		JwtDecoder jwtDecoder() {
+			return NimbusJwtDecoder.withPublicKey((RSAPublicKey) Fixtures.KEY_PAIR.getPublic()).build();
+		}
+
+	}
+
+}
@@ -17,6 +17,8 @@
 package org.springframework.security.config.annotation.web.builders;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import io.micrometer.observation.ObservationRegistry;
@@ -60,6 +62,7 @@ import org.springframework.security.web.firewall.HttpFirewall;
 import org.springframework.security.web.firewall.ObservationMarkingRequestRejectedHandler;
 import org.springframework.security.web.firewall.RequestRejectedHandler;
 import org.springframework.security.web.firewall.StrictHttpFirewall;
+import org.springframework.security.web.util.matcher.BypassPathRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcherEntry;
 import org.springframework.util.Assert;
@@ -102,10 +105,18 @@ public final class WebSecurity extends AbstractConfiguredSecurityBuilder<Filter,
 
 	private boolean debugEnabled;
 
+	private boolean filterChainIndexEnabled;
+
+	private boolean requestMatcherResultCacheEnabled;
+
+	private final List<String> bypassPaths = new ArrayList<>();
+
 	private WebInvocationPrivilegeEvaluator privilegeEvaluator;
 
 	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
 
+	private FilterChainProxy.FilterChainDecorator filterChainDecorator;
+
 	private DefaultWebSecurityExpressionHandler defaultWebSecurityExpressionHandler = new DefaultWebSecurityExpressionHandler();
 
 	private SecurityExpressionHandler<FilterInvocation> expressionHandler = this.defaultWebSecurityExpressionHandler;
@@ -168,6 +179,38 @@ public final class WebSecurity extends AbstractConfiguredSecurityBuilder<Filter,
 		return this.ignoredRequestRegistry;
 	}
 
+	/**
+	 * <p>
+	 * Adds paths for which Spring Security should be skipped entirely. Unlike
+	 * {@link #ignoring()}, matching requests are passed on by the
+	 * {@link FilterChainProxy} before the {@link HttpFirewall} is applied and before any
+	 * {@link SecurityFilterChain} is looked up, so that nothing is allocated for them.
+	 * This is meant for high traffic paths that need no security at all, such as static
+	 * resources and health checks.
+	 * </p>
+	 *
+	 * <p>
+	 * Each path is either exact or followed by {@code /**}. Only requests whose URI
+	 * consists of unreserved characters and {@code /}, without {@code .} or {@code ..}
+	 * segments, are bypassed. Other requests go through Spring Security as usual.
+	 * </p>
+	 *
+	 * Example Usage:
+	 *
+	 * <pre>
+	 * webSecurityBuilder.bypass(&quot;/static/**&quot;, &quot;/actuator/health&quot;);
+	 * </pre>
+	 * @param paths the paths to bypass
+	 * @return the {@link WebSecurity} for further customizations
+	 * @since 6.1
+	 * @see BypassPathRequestMatcher
+	 */
+	public WebSecurity bypass(String... paths) {
+		Assert.notNull(paths, "paths cannot be null");
+		this.bypassPaths.addAll(Arrays.asList(paths));
+		return this;
+	}
+
 	/**
 	 * Allows customizing the {@link HttpFirewall}. The default is
 	 * {@link StrictHttpFirewall}.
@@ -191,6 +234,52 @@ public final class WebSecurity extends AbstractConfiguredSecurityBuilder<Filter,
 		return this;
 	}
 
+	/**
+	 * Controls whether the {@link FilterChainProxy} selects the {@link SecurityFilterChain}
+	 * for each request through an index of the chains' path patterns instead of trying
+	 * every chain in order. This is useful for applications with many filter chains.
+	 * @param filterChainIndexEnabled if true, indexes the filter chains. Default is false.
+	 * @return the {@link WebSecurity} for further customization.
+	 * @since 6.1
+	 * @see FilterChainProxy#setFilterChainIndexEnabled(boolean)
+	 */
+	public WebSecurity filterChainIndex(boolean filterChainIndexEnabled) {
+		this.filterChainIndexEnabled = filterChainIndexEnabled;
+		return this;
+	}
+
+	/**
+	 * Controls whether the results of request matchers are remembered for the duration
+	 * of each dispatch, so that equal matchers used by different filters only evaluate
+	 * the request once.
+	 * @param requestMatcherResultCacheEnabled if true, remembers the results of request
+	 * matchers. Default is false.
+	 * @return the {@link WebSecurity} for further customization.
+	 * @since 6.1
+	 * @see FilterChainProxy#setRequestMatcherResultCacheEnabled(boolean)
+	 */
+	public WebSecurity requestMatcherResultCache(boolean requestMatcherResultCacheEnabled) {
+		this.requestMatcherResultCacheEnabled = requestMatcherResultCacheEnabled;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link FilterChainProxy.FilterChainDecorator} used to decorate the
+	 * {@link SecurityFilterChain} for each request, for example a
+	 * {@link org.springframework.security.web.TimingFilterChainDecorator}. The default
+	 * wraps each filter in an observation when an {@link ObservationRegistry} is
+	 * available, and otherwise iterates through the filters.
+	 * @param filterChainDecorator the {@link FilterChainProxy.FilterChainDecorator} to
+	 * use
+	 * @return the {@link WebSecurity} for further customizations
+	 * @since 6.1
+	 */
+	public WebSecurity filterChainDecorator(FilterChainProxy.FilterChainDecorator filterChainDecorator) {
+		Assert.notNull(filterChainDecorator, "filterChainDecorator cannot be null");
+		this.filterChainDecorator = filterChainDecorator;
+		return this;
+	}
+
 	/**
 	 * <p>
 	 * Adds builders to create {@link SecurityFilterChain} instances.
@@ -283,6 +372,14 @@ public final class WebSecurity extends AbstractConfiguredSecurityBuilder<Filter,
 		int chainSize = this.ignoredRequests.size() + this.securityFilterChainBuilders.size();
 		List<SecurityFilterChain> securityFilterChains = new ArrayList<>(chainSize);
 		List<RequestMatcherEntry<List<WebInvocationPrivilegeEvaluator>>> requestMatcherPrivilegeEvaluatorsEntries = new ArrayList<>();
+		RequestMatcher bypassRequestMatcher = null;
+		if (!this.bypassPaths.isEmpty()) {
+			bypassRequestMatcher = new BypassPathRequestMatcher(this.bypassPaths);
+			WebSecurity.this.logger.warn("You are asking Spring Security to bypass " + bypassRequestMatcher
+					+ ". This is not recommended -- please use permitAll via HttpSecurity#authorizeHttpRequests instead.");
+			requestMatcherPrivilegeEvaluatorsEntries
+					.add(new RequestMatcherEntry<>(bypassRequestMatcher, Collections.emptyList()));
+		}
 		for (RequestMatcher ignoredRequest : this.ignoredRequests) {
 			WebSecurity.this.logger.warn("You are asking Spring Security to ignore " + ignoredRequest
 					+ ". This is not recommended -- please use permitAll via HttpSecurity#authorizeHttpRequests instead.");
@@ -313,6 +410,9 @@ public final class WebSecurity extends AbstractConfiguredSecurityBuilder<Filter,
 					.setRequestRejectedHandler(new ObservationMarkingRequestRejectedHandler(this.observationRegistry));
 		}
 		filterChainProxy.setFilterChainDecorator(getFilterChainDecorator());
+		filterChainProxy.setFilterChainIndexEnabled(this.filterChainIndexEnabled);
+		filterChainProxy.setRequestMatcherResultCacheEnabled(this.requestMatcherResultCacheEnabled);
+		filterChainProxy.setBypassRequestMatcher(bypassRequestMatcher);
 		filterChainProxy.afterPropertiesSet();
 
 		Filter result = filterChainProxy;
@@ -390,6 +490,9 @@ public final class WebSecurity extends AbstractConfiguredSecurityBuilder<Filter,
 	}
 
 	FilterChainProxy.FilterChainDecorator getFilterChainDecorator() {
+		if (this.filterChainDecorator != null) {
+			return this.filterChainDecorator;
+		}
 		if (this.observationRegistry.isNoop()) {
 			return new FilterChainProxy.VirtualFilterChainDecorator();
 		}
@@ -16,6 +16,7 @@
 
 package org.springframework.security.config.annotation.web.configurers;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import io.micrometer.observation.ObservationRegistry;
@@ -24,6 +25,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.context.ApplicationContext;
 import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
 import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorityRegistry;
 import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authorization.AuthorizationEventPublisher;
 import org.springframework.security.authorization.AuthorizationManager;
@@ -132,6 +134,11 @@ public final class AuthorizeHttpRequestsConfigurer<H extends HttpSecurityBuilder
 
 		private boolean shouldFilterAllDispatcherTypes = true;
 
+		private final List<AuthorityAuthorizationManager<RequestAuthorizationContext>> authorityManagers =
+				new ArrayList<>();
+
+		private boolean indexAuthorities;
+
 		private AuthorizationManagerRequestMatcherRegistry(ApplicationContext context) {
 			setApplicationContext(context);
 		}
@@ -154,6 +161,10 @@ public final class AuthorizeHttpRequestsConfigurer<H extends HttpSecurityBuilder
 							+ ". Try completing it with something like requestUrls().<something>.hasRole('USER')");
 			Assert.state(this.mappingCount > 0,
 					"At least one mapping is required (for example, authorizeHttpRequests().anyRequest().authenticated())");
+			if (this.indexAuthorities) {
+				AuthorityRegistry authorityRegistry = new AuthorityRegistry();
+				this.authorityManagers.forEach((manager) -> manager.setAuthorityRegistry(authorityRegistry));
+			}
 			ObservationRegistry registry = getObservationRegistry();
 			RequestMatcherDelegatingAuthorizationManager manager = postProcess(this.managerBuilder.build());
 			if (registry.isNoop()) {
@@ -192,6 +203,39 @@ public final class AuthorizeHttpRequestsConfigurer<H extends HttpSecurityBuilder
 			return this;
 		}
 
+		/**
+		 * Sets whether the path-based request matchers should be compiled into an index
+		 * keyed by HTTP method and literal path prefix, so that only the request matchers
+		 * which may match a given request are evaluated.
+		 * @param compile whether to compile the request matchers. Default is
+		 * {@code false}
+		 * @return the {@link AuthorizationManagerRequestMatcherRegistry} for further
+		 * customizations
+		 * @since 6.1
+		 * @see RequestMatcherDelegatingAuthorizationManager.Builder#compiled(boolean)
+		 */
+		public AuthorizationManagerRequestMatcherRegistry compileRequestMatchers(boolean compile) {
+			this.managerBuilder.compiled(compile);
+			return this;
+		}
+
+		/**
+		 * Sets whether the authorities required by {@code hasRole}, {@code hasAnyRole},
+		 * {@code hasAuthority} and {@code hasAnyAuthority} should be indexed in a shared
+		 * {@link AuthorityRegistry}, so that each rule is checked with a bitset
+		 * intersection instead of comparing the authorities of the user one by one.
+		 * @param indexAuthorities whether to index the authorities. Default is
+		 * {@code false}
+		 * @return the {@link AuthorizationManagerRequestMatcherRegistry} for further
+		 * customizations
+		 * @since 6.1
+		 * @see AuthorityAuthorizationManager#setAuthorityRegistry(AuthorityRegistry)
+		 */
+		public AuthorizationManagerRequestMatcherRegistry indexAuthorities(boolean indexAuthorities) {
+			this.indexAuthorities = indexAuthorities;
+			return this;
+		}
+
 		/**
 		 * Return the {@link HttpSecurityBuilder} when done using the
 		 * {@link AuthorizeHttpRequestsConfigurer}. This is useful for method chaining.
@@ -251,7 +295,7 @@ public final class AuthorizeHttpRequestsConfigurer<H extends HttpSecurityBuilder
 		 * customizations
 		 */
 		public AuthorizationManagerRequestMatcherRegistry hasRole(String role) {
-			return access(AuthorityAuthorizationManager.hasRole(role));
+			return authority(AuthorityAuthorizationManager.hasRole(role));
 		}
 
 		/**
@@ -263,7 +307,7 @@ public final class AuthorizeHttpRequestsConfigurer<H extends HttpSecurityBuilder
 		 * customizations
 		 */
 		public AuthorizationManagerRequestMatcherRegistry hasAnyRole(String... roles) {
-			return access(AuthorityAuthorizationManager.hasAnyRole(roles));
+			return authority(AuthorityAuthorizationManager.hasAnyRole(roles));
 		}
 
 		/**
@@ -273,7 +317,7 @@ public final class AuthorizeHttpRequestsConfigurer<H extends HttpSecurityBuilder
 		 * customizations
 		 */
 		public AuthorizationManagerRequestMatcherRegistry hasAuthority(String authority) {
-			return access(AuthorityAuthorizationManager.hasAuthority(authority));
+			return authority(AuthorityAuthorizationManager.hasAuthority(authority));
 		}
 
 		/**
@@ -284,7 +328,7 @@ public final class AuthorizeHttpRequestsConfigurer<H extends HttpSecurityBuilder
 		 * customizations
 		 */
 		public AuthorizationManagerRequestMatcherRegistry hasAnyAuthority(String... authorities) {
-			return access(AuthorityAuthorizationManager.hasAnyAuthority(authorities));
+			return authority(AuthorityAuthorizationManager.hasAnyAuthority(authorities));
 		}
 
 		/**
@@ -329,6 +373,12 @@ public final class AuthorizeHttpRequestsConfigurer<H extends HttpSecurityBuilder
 			return access(AuthenticatedAuthorizationManager.anonymous());
 		}
 
+		private AuthorizationManagerRequestMatcherRegistry authority(
+				AuthorityAuthorizationManager<RequestAuthorizationContext> manager) {
+			AuthorizeHttpRequestsConfigurer.this.registry.authorityManagers.add(manager);
+			return access(manager);
+		}
+
 		/**
 		 * Allows specifying a custom {@link AuthorizationManager}.
 		 * @param manager the {@link AuthorizationManager} to use
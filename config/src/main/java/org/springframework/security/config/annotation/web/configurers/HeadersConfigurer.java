@@ -107,6 +107,8 @@ public class HeadersConfigurer<H extends HttpSecurityBuilder<H>>
 
 	private final CrossOriginResourcePolicyConfig crossOriginResourcePolicy = new CrossOriginResourcePolicyConfig();
 
+	private boolean precomputeHeaders;
+
 	/**
 	 * Creates a new instance
 	 *
@@ -373,6 +375,22 @@ public class HeadersConfigurer<H extends HttpSecurityBuilder<H>>
 		return this;
 	}
 
+	/**
+	 * Computes the headers which do not depend on the request once, when the
+	 * {@link HeaderWriterFilter} is created, so that they are written in a single loop
+	 * instead of by invoking each {@link HeaderWriter} for every request. Headers that
+	 * depend on the request, like {@link HstsHeaderWriter Strict-Transport-Security}, are
+	 * still written for every request.
+	 * @param precomputeHeaders whether to precompute the headers. The default is false.
+	 * @return the {@link HeadersConfigurer} for additional customization
+	 * @since 6.1
+	 * @see HeaderWriterFilter#setPrecomputeHeaders(boolean)
+	 */
+	public HeadersConfigurer<H> precomputeHeaders(boolean precomputeHeaders) {
+		this.precomputeHeaders = precomputeHeaders;
+		return this;
+	}
+
 	@Override
 	public void configure(H http) {
 		HeaderWriterFilter headersFilter = createHeaderWriterFilter();
@@ -390,6 +408,7 @@ public class HeadersConfigurer<H extends HttpSecurityBuilder<H>>
 					"Headers security is enabled, but no headers will be added. Either add headers or disable headers security");
 		}
 		HeaderWriterFilter headersFilter = new HeaderWriterFilter(writers);
+		headersFilter.setPrecomputeHeaders(this.precomputeHeaders);
 		headersFilter = postProcess(headersFilter);
 		return headersFilter;
 	}
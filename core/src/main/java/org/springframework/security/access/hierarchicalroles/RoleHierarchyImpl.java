@@ -18,10 +18,15 @@ package org.springframework.security.access.hierarchicalroles;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -30,6 +35,7 @@ import org.springframework.core.log.LogMessage;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.Assert;
 
 /**
  * <p>
@@ -73,6 +79,10 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
  * In addition to shorter rules this will also make your access rules more readable and
  * your intentions clearer.
  *
+ * <p>
+ * Since applications usually have few distinct combinations of roles, the reachable
+ * authorities of each combination can be memoized with {@link #setCacheSize(int)}.
+ *
  * @author Michael Mayr
  */
 public class RoleHierarchyImpl implements RoleHierarchy {
@@ -99,6 +109,18 @@ public class RoleHierarchyImpl implements RoleHierarchy {
 	 */
 	private Map<String, Set<GrantedAuthority>> rolesReachableInOneOrMoreStepsMap = null;
 
+	/**
+	 * The reachable authorities memoized for each combination of
+	 * {@link SimpleGrantedAuthority}s, or {@code null} if memoization is disabled
+	 */
+	private volatile Map<AuthoritiesKey, Collection<GrantedAuthority>> reachableAuthoritiesCache = null;
+
+	private int cacheSize = 0;
+
+	private final LongAdder cacheHits = new LongAdder();
+
+	private final LongAdder cacheMisses = new LongAdder();
+
 	/**
 	 * Set the role hierarchy and pre-calculate for every role the set of all reachable
 	 * roles, i.e. all roles lower in the hierarchy of every given role. Pre-calculation
@@ -113,6 +135,49 @@ public class RoleHierarchyImpl implements RoleHierarchy {
 				roleHierarchyStringRepresentation));
 		buildRolesReachableInOneStepMap();
 		buildRolesReachableInOneOrMoreStepsMap();
+		resetCache();
+	}
+
+	/**
+	 * Sets the maximum number of combinations of authorities whose reachable authorities
+	 * are memoized. Only combinations made of {@link SimpleGrantedAuthority}s are
+	 * memoized, since other {@link GrantedAuthority} types may carry more state than
+	 * their textual representation. Once the maximum number is reached, the reachable
+	 * authorities of new combinations are computed on each call. Memoized results are
+	 * shared between callers and cannot be modified. Default is {@code 0}, which disables
+	 * memoization.
+	 * @param cacheSize the maximum number of memoized combinations of authorities
+	 * @since 6.1
+	 */
+	public void setCacheSize(int cacheSize) {
+		Assert.isTrue(cacheSize >= 0, "cacheSize cannot be negative");
+		this.cacheSize = cacheSize;
+		resetCache();
+	}
+
+	/**
+	 * The number of calls to {@link #getReachableGrantedAuthorities(Collection)} that
+	 * were answered from the memoized results
+	 * @return the number of cache hits
+	 * @since 6.1
+	 */
+	public long getCacheHitCount() {
+		return this.cacheHits.sum();
+	}
+
+	/**
+	 * The number of calls to {@link #getReachableGrantedAuthorities(Collection)} that
+	 * had to compute the reachable authorities of a combination of
+	 * {@link SimpleGrantedAuthority}s, while memoization was enabled
+	 * @return the number of cache misses
+	 * @since 6.1
+	 */
+	public long getCacheMissCount() {
+		return this.cacheMisses.sum();
+	}
+
+	private void resetCache() {
+		this.reachableAuthoritiesCache = (this.cacheSize > 0) ? new ConcurrentHashMap<>() : null;
 	}
 
 	@Override
@@ -121,6 +186,26 @@ public class RoleHierarchyImpl implements RoleHierarchy {
 		if (authorities == null || authorities.isEmpty()) {
 			return AuthorityUtils.NO_AUTHORITIES;
 		}
+		Map<AuthoritiesKey, Collection<GrantedAuthority>> cache = this.reachableAuthoritiesCache;
+		if (cache == null || !AuthoritiesKey.isCacheable(authorities)) {
+			return computeReachableGrantedAuthorities(authorities);
+		}
+		Collection<GrantedAuthority> cached = cache.get(new AuthoritiesKey(authorities));
+		if (cached != null) {
+			this.cacheHits.increment();
+			return cached;
+		}
+		this.cacheMisses.increment();
+		Collection<GrantedAuthority> reachableRoles = Collections
+				.unmodifiableList(computeReachableGrantedAuthorities(authorities));
+		if (cache.size() < this.cacheSize) {
+			cache.putIfAbsent(new AuthoritiesKey(List.copyOf(authorities)), reachableRoles);
+		}
+		return reachableRoles;
+	}
+
+	private List<GrantedAuthority> computeReachableGrantedAuthorities(
+			Collection<? extends GrantedAuthority> authorities) {
 		Set<GrantedAuthority> reachableRoles = new HashSet<>();
 		Set<String> processedNames = new HashSet<>();
 		for (GrantedAuthority authority : authorities) {
@@ -213,4 +298,61 @@ public class RoleHierarchyImpl implements RoleHierarchy {
 
 	}
 
+	/**
+	 * A combination of {@link SimpleGrantedAuthority}s, compared by their textual
+	 * representations in iteration order. Lookups wrap the caller's collection, while
+	 * memoized keys hold an immutable copy of it.
+	 */
+	private static final class AuthoritiesKey {
+
+		private final Collection<? extends GrantedAuthority> authorities;
+
+		private final int hashCode;
+
+		private AuthoritiesKey(Collection<? extends GrantedAuthority> authorities) {
+			this.authorities = authorities;
+			int hashCode = 1;
+			for (GrantedAuthority authority : authorities) {
+				hashCode = 31 * hashCode + authority.getAuthority().hashCode();
+			}
+			this.hashCode = hashCode;
+		}
+
+		private static boolean isCacheable(Collection<? extends GrantedAuthority> authorities) {
+			for (GrantedAuthority authority : authorities) {
+				if (!(authority instanceof SimpleGrantedAuthority)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof AuthoritiesKey)) {
+				return false;
+			}
+			AuthoritiesKey other = (AuthoritiesKey) obj;
+			if (this.hashCode != other.hashCode || this.authorities.size() != other.authorities.size()) {
+				return false;
+			}
+			Iterator<? extends GrantedAuthority> otherAuthorities = other.authorities.iterator();
+			for (GrantedAuthority authority : this.authorities) {
+				if (!authority.getAuthority().equals(otherAuthorities.next().getAuthority())) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+	}
+
 }
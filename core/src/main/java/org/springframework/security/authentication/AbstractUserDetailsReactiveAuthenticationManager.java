@@ -16,6 +16,8 @@
 
 package org.springframework.security.authentication;
 
+import java.util.concurrent.RejectedExecutionException;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import reactor.core.publisher.Mono;
@@ -26,11 +28,13 @@ import org.springframework.context.MessageSource;
 import org.springframework.context.MessageSourceAware;
 import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.SpringSecurityMessageSource;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsChecker;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.AsyncPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.util.Assert;
 
@@ -97,8 +101,7 @@ public abstract class AbstractUserDetailsReactiveAuthenticationManager
 		// @formatter:off
 		return retrieveUser(username)
 				.doOnNext(this.preAuthenticationChecks::check)
-				.publishOn(this.scheduler)
-				.filter((userDetails) -> this.passwordEncoder.matches(presentedPassword, userDetails.getPassword()))
+				.flatMap((userDetails) -> matches(userDetails, presentedPassword))
 				.switchIfEmpty(Mono.defer(() -> Mono.error(new BadCredentialsException("Invalid Credentials"))))
 				.flatMap((userDetails) -> upgradeEncodingIfNecessary(userDetails, presentedPassword))
 				.doOnNext(this.postAuthenticationChecks::check)
@@ -106,14 +109,43 @@ public abstract class AbstractUserDetailsReactiveAuthenticationManager
 		// @formatter:on
 	}
 
+	/**
+	 * Matches the password on the {@link Scheduler}, unless the {@link PasswordEncoder}
+	 * is an {@link AsyncPasswordEncoder}, which manages its own threads
+	 */
+	private Mono<UserDetails> matches(UserDetails userDetails, String presentedPassword) {
+		if (this.passwordEncoder instanceof AsyncPasswordEncoder) {
+			AsyncPasswordEncoder passwordEncoder = (AsyncPasswordEncoder) this.passwordEncoder;
+			return Mono.fromFuture(() -> passwordEncoder.matchesAsync(presentedPassword, userDetails.getPassword()))
+					.onErrorMap(RejectedExecutionException.class, this::hashRejected).filter(Boolean::booleanValue)
+					.map((matches) -> userDetails);
+		}
+		return Mono.just(userDetails).publishOn(this.scheduler)
+				.filter((user) -> this.passwordEncoder.matches(presentedPassword, user.getPassword()));
+	}
+
 	private Mono<UserDetails> upgradeEncodingIfNecessary(UserDetails userDetails, String presentedPassword) {
 		boolean upgradeEncoding = this.userDetailsPasswordService != null
 				&& this.passwordEncoder.upgradeEncoding(userDetails.getPassword());
-		if (upgradeEncoding) {
-			String newPassword = this.passwordEncoder.encode(presentedPassword);
-			return this.userDetailsPasswordService.updatePassword(userDetails, newPassword);
+		if (!upgradeEncoding) {
+			return Mono.just(userDetails);
 		}
-		return Mono.just(userDetails);
+		if (this.passwordEncoder instanceof AsyncPasswordEncoder) {
+			AsyncPasswordEncoder passwordEncoder = (AsyncPasswordEncoder) this.passwordEncoder;
+			return Mono.fromFuture(() -> passwordEncoder.encodeAsync(presentedPassword))
+					.onErrorMap(RejectedExecutionException.class, this::hashRejected)
+					.flatMap((newPassword) -> this.userDetailsPasswordService.updatePassword(userDetails, newPassword));
+		}
+		String newPassword = this.passwordEncoder.encode(presentedPassword);
+		return this.userDetailsPasswordService.updatePassword(userDetails, newPassword);
+	}
+
+	/**
+	 * Fails the authentication when the {@link AsyncPasswordEncoder} rejects the hash,
+	 * such as when its queue is full
+	 */
+	private AuthenticationException hashRejected(RejectedExecutionException ex) {
+		return new AuthenticationServiceException(ex.getMessage(), ex);
 	}
 
 	private UsernamePasswordAuthenticationToken createUsernamePasswordAuthenticationToken(UserDetails userDetails) {
@@ -123,7 +155,9 @@ public abstract class AbstractUserDetailsReactiveAuthenticationManager
 
 	/**
 	 * The {@link PasswordEncoder} that is used for validating the password. The default
-	 * is {@link PasswordEncoderFactories#createDelegatingPasswordEncoder()}
+	 * is {@link PasswordEncoderFactories#createDelegatingPasswordEncoder()}. An
+	 * {@link AsyncPasswordEncoder} is used asynchronously, without the
+	 * {@link #setScheduler(Scheduler) Scheduler}.
 	 * @param passwordEncoder the {@link PasswordEncoder} to use. Cannot be null
 	 */
 	public void setPasswordEncoder(PasswordEncoder passwordEncoder) {
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.context.support.MessageSourceAccessor;
+import org.springframework.core.log.LogMessage;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.SpringSecurityMessageSource;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link AuthenticationManager}, typically placed in front of a
+ * {@link ProviderManager}, that rejects the authentication requests exceeding the limits
+ * of an {@link AuthenticationAttemptLimiter} with an
+ * {@link AuthenticationAttemptsExceededException}, before any password is hashed.
+ * <p>
+ * The username of a request is its {@link Authentication#getName() name}, and its client
+ * is resolved from the request by the
+ * {@link #setClientResolver(Function) client resolver}. In a servlet application, whose
+ * authentication filters set a {@code WebAuthenticationDetails}, the client can be its
+ * remote address:
+ *
+ * <pre>
+ * manager.setClientResolver((authentication) -&gt; (authentication.getDetails() instanceof WebAuthenticationDetails)
+ * 		? ((WebAuthenticationDetails) authentication.getDetails()).getRemoteAddress() : null);
+ * </pre>
+ *
+ * @since 6.1
+ */
+public final class AdmissionControlAuthenticationManager implements AuthenticationManager {
+
+	private static final Log logger = LogFactory.getLog(AdmissionControlAuthenticationManager.class);
+
+	private final AuthenticationManager delegate;
+
+	private final AuthenticationAttemptLimiter limiter;
+
+	private MessageSourceAccessor messages = SpringSecurityMessageSource.getAccessor();
+
+	private Function<Authentication, String> clientResolver = (authentication) -> null;
+
+	private Duration rejectionDelay = Duration.ZERO;
+
+	public AdmissionControlAuthenticationManager(AuthenticationManager delegate, AuthenticationAttemptLimiter limiter) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		Assert.notNull(limiter, "limiter cannot be null");
+		this.delegate = delegate;
+		this.limiter = limiter;
+	}
+
+	@Override
+	public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+		String client = this.clientResolver.apply(authentication);
+		if (!this.limiter.tryAcquire(client, authentication.getName())) {
+			logger.debug(LogMessage.format("Rejecting authentication attempt from %s for %s", client,
+					authentication.getName()));
+			delay();
+			throw new AuthenticationAttemptsExceededException(this.messages.getMessage(
+					"AdmissionControlAuthenticationManager.attemptsExceeded", "Too many authentication attempts"));
+		}
+		return this.delegate.authenticate(authentication);
+	}
+
+	private void delay() {
+		if (this.rejectionDelay.isZero()) {
+			return;
+		}
+		try {
+			Thread.sleep(this.rejectionDelay.toMillis());
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Sets the strategy resolving the client, such as its IP address, that an
+	 * authentication request comes from. It may return {@code null} when the client is
+	 * unknown, in which case only the username is limited. The default always returns
+	 * {@code null}.
+	 * @param clientResolver the strategy to use
+	 */
+	public void setClientResolver(Function<Authentication, String> clientResolver) {
+		Assert.notNull(clientResolver, "clientResolver cannot be null");
+		this.clientResolver = clientResolver;
+	}
+
+	/**
+	 * Sets how long a rejected request is held before failing, which slows down the
+	 * clients that exceed the limits. Note that the calling thread is blocked during that
+	 * time. The default is {@link Duration#ZERO}.
+	 * @param rejectionDelay the delay before failing a rejected request
+	 */
+	public void setRejectionDelay(Duration rejectionDelay) {
+		Assert.notNull(rejectionDelay, "rejectionDelay cannot be null");
+		Assert.isTrue(!rejectionDelay.isNegative(), "rejectionDelay cannot be negative");
+		this.rejectionDelay = rejectionDelay;
+	}
+
+}
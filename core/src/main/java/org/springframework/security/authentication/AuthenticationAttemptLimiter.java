@@ -0,0 +1,132 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.util.Assert;
+
+/**
+ * Limits the number of authentication attempts made from each client and for each
+ * username over a sliding time window, so that requests exceeding the limits can be
+ * rejected before any password is hashed.
+ * <p>
+ * Attempts are counted whether they succeed or not, since each of them costs a password
+ * hash, in counters that use a fixed amount of memory whatever the number of clients and
+ * usernames, and that are updated without locking. The counters hash the clients and
+ * usernames into a bounded number of slots, so that two of them sharing slots may be
+ * rejected sooner than their own attempts alone would warrant, but never later.
+ *
+ * @since 6.1
+ * @see AdmissionControlAuthenticationManager
+ */
+public final class AuthenticationAttemptLimiter {
+
+	private static final int DEFAULT_SLOTS = 1 << 16;
+
+	private final int maxAttemptsPerClient;
+
+	private final int maxAttemptsPerUsername;
+
+	private final SlidingWindowCounter clientAttempts;
+
+	private final SlidingWindowCounter usernameAttempts;
+
+	private final LongAdder rejected = new LongAdder();
+
+	private Clock clock = Clock.systemUTC();
+
+	/**
+	 * Creates a new instance
+	 * @param maxAttemptsPerClient the maximum number of attempts from a client within the
+	 * window
+	 * @param maxAttemptsPerUsername the maximum number of attempts for a username within
+	 * the window
+	 * @param window the duration of the sliding window
+	 */
+	public AuthenticationAttemptLimiter(int maxAttemptsPerClient, int maxAttemptsPerUsername, Duration window) {
+		this(maxAttemptsPerClient, maxAttemptsPerUsername, window, DEFAULT_SLOTS);
+	}
+
+	/**
+	 * Creates a new instance
+	 * @param maxAttemptsPerClient the maximum number of attempts from a client within the
+	 * window
+	 * @param maxAttemptsPerUsername the maximum number of attempts for a username within
+	 * the window
+	 * @param window the duration of the sliding window
+	 * @param slots the number of slots of each counter, which bounds their memory to 16
+	 * bytes per slot
+	 */
+	public AuthenticationAttemptLimiter(int maxAttemptsPerClient, int maxAttemptsPerUsername, Duration window,
+			int slots) {
+		Assert.isTrue(maxAttemptsPerClient > 0 && maxAttemptsPerClient < SlidingWindowCounter.MAX_COUNT,
+				() -> "maxAttemptsPerClient must be between 1 and " + (SlidingWindowCounter.MAX_COUNT - 1));
+		Assert.isTrue(maxAttemptsPerUsername > 0 && maxAttemptsPerUsername < SlidingWindowCounter.MAX_COUNT,
+				() -> "maxAttemptsPerUsername must be between 1 and " + (SlidingWindowCounter.MAX_COUNT - 1));
+		Assert.notNull(window, "window cannot be null");
+		Assert.isTrue(window.toMillis() > 0, "window must be at least one millisecond");
+		Assert.isTrue(slots > 0, "slots must be positive");
+		this.maxAttemptsPerClient = maxAttemptsPerClient;
+		this.maxAttemptsPerUsername = maxAttemptsPerUsername;
+		this.clientAttempts = new SlidingWindowCounter(slots, window);
+		this.usernameAttempts = new SlidingWindowCounter(slots, window);
+	}
+
+	/**
+	 * Counts an authentication attempt, and tells whether it is within the limits
+	 * @param client the client making the attempt, such as its IP address, or
+	 * {@code null} if unknown
+	 * @param username the username of the attempt, or {@code null} if unknown
+	 * @return true if the attempt may proceed, false if it should be rejected
+	 */
+	public boolean tryAcquire(String client, String username) {
+		long now = this.clock.millis();
+		boolean admitted = true;
+		if (client != null) {
+			admitted = this.clientAttempts.increment(client, now) <= this.maxAttemptsPerClient;
+		}
+		if (username != null) {
+			admitted &= this.usernameAttempts.increment(username, now) <= this.maxAttemptsPerUsername;
+		}
+		if (!admitted) {
+			this.rejected.increment();
+		}
+		return admitted;
+	}
+
+	/**
+	 * Sets the {@link Clock} used to slide the window. The default is
+	 * {@link Clock#systemUTC()}.
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * The number of attempts that exceeded a limit
+	 * @return the number of rejected attempts
+	 */
+	public long getRejectedCount() {
+		return this.rejected.sum();
+	}
+
+}
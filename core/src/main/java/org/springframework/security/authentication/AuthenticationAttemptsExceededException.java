@@ -0,0 +1,40 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication;
+
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Thrown if an authentication request is rejected because too many attempts were made
+ * recently from the same client or for the same username. Makes no assertion as to
+ * whether or not the credentials were valid, since they are not checked.
+ *
+ * @since 6.1
+ * @see AuthenticationAttemptLimiter
+ */
+public class AuthenticationAttemptsExceededException extends AuthenticationException {
+
+	/**
+	 * Constructs an <code>AuthenticationAttemptsExceededException</code> with the
+	 * specified message.
+	 * @param msg the detail message
+	 */
+	public AuthenticationAttemptsExceededException(String msg) {
+		super(msg);
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the occurrences of keys over a sliding time window, in a fixed amount of memory
+ * and without locking.
+ * <p>
+ * Keys are hashed into two rows of slots, as in a count-min sketch, and the estimate of
+ * a key is the smallest count among its slots. Collisions can therefore only overestimate
+ * a count. Each slot packs, in a single {@code long} updated by compare-and-set, the
+ * window it was last updated in along with its counts for that window and for the
+ * previous one. The count over the sliding window is approximated by weighting the
+ * previous count by the part of the previous window that is still covered. Counts
+ * saturate at {@value #MAX_COUNT}.
+ * <p>
+ * The hash of the keys is seeded with a random value, so that keys cannot be crafted to
+ * collide with the slots of another key.
+ *
+ * @since 6.1
+ */
+final class SlidingWindowCounter {
+
+	static final int MAX_COUNT = 0xFFFF;
+
+	private static final int ROWS = 2;
+
+	private final AtomicLongArray slots;
+
+	private final int mask;
+
+	private final long windowMillis;
+
+	private final long seed = new SecureRandom().nextLong();
+
+	/**
+	 * Creates a new instance
+	 * @param slots the number of slots of each row, rounded up to a power of two
+	 * @param window the duration of the sliding window
+	 */
+	SlidingWindowCounter(int slots, Duration window) {
+		int size = Integer.highestOneBit(Math.max(slots - 1, 1)) << 1;
+		this.slots = new AtomicLongArray(ROWS * size);
+		this.mask = size - 1;
+		this.windowMillis = window.toMillis();
+	}
+
+	/**
+	 * Counts an occurrence of the key
+	 * @param key the key
+	 * @param now the current time, in milliseconds since the epoch
+	 * @return the estimated number of occurrences of the key over the sliding window,
+	 * including this one
+	 */
+	int increment(String key, long now) {
+		return count(key, now, true);
+	}
+
+	/**
+	 * Estimates the number of occurrences of the key over the sliding window
+	 * @param key the key
+	 * @param now the current time, in milliseconds since the epoch
+	 * @return the estimated number of occurrences
+	 */
+	int estimate(String key, long now) {
+		return count(key, now, false);
+	}
+
+	private int count(String key, long now, boolean increment) {
+		long window = (now / this.windowMillis) & 0xFFFFFFFFL;
+		double previousWeight = 1 - (double) (now % this.windowMillis) / this.windowMillis;
+		long hash = hash(key);
+		int estimate = Integer.MAX_VALUE;
+		for (int row = 0; row < ROWS; row++) {
+			int index = row * (this.mask + 1) + ((int) (hash >>> (32 * row)) & this.mask);
+			long slot = update(index, window, increment);
+			int count = (int) (previous(slot) * previousWeight) + current(slot);
+			estimate = Math.min(estimate, count);
+		}
+		return estimate;
+	}
+
+	/**
+	 * Rolls the slot over to the current window and, if requested, increments it
+	 * @return the updated slot
+	 */
+	private long update(int index, long window, boolean increment) {
+		while (true) {
+			long slot = this.slots.get(index);
+			long slotWindow = slot >>> 32;
+			int previous;
+			int current;
+			if (slotWindow == window) {
+				previous = previous(slot);
+				current = current(slot);
+			}
+			else if (slotWindow == ((window - 1) & 0xFFFFFFFFL)) {
+				previous = current(slot);
+				current = 0;
+			}
+			else {
+				previous = 0;
+				current = 0;
+			}
+			if (increment) {
+				current = Math.min(current + 1, MAX_COUNT);
+			}
+			long updated = (window << 32) | ((long) previous << 16) | current;
+			if (updated == slot || !increment || this.slots.compareAndSet(index, slot, updated)) {
+				return updated;
+			}
+		}
+	}
+
+	private static int previous(long slot) {
+		return (int) (slot >>> 16) & MAX_COUNT;
+	}
+
+	private static int current(long slot) {
+		return (int) slot & MAX_COUNT;
+	}
+
+	/**
+	 * A seeded 64-bit FNV-1a hash of the key, followed by a finalizer to spread its bits
+	 */
+	private long hash(String key) {
+		long hash = 0xcbf29ce484222325L ^ this.seed;
+		for (int i = 0; i < key.length(); i++) {
+			hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+		}
+		hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+		hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return hash ^ (hash >>> 33);
+	}
+
+}
@@ -16,7 +16,10 @@
 
 package org.springframework.security.authentication.dao;
 
+import java.util.concurrent.RejectedExecutionException;
+
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -59,6 +62,8 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 
 	private UserDetailsPasswordService userDetailsPasswordService;
 
+	private VerifiedCredentialsCache verifiedCredentialsCache;
+
 	public DaoAuthenticationProvider() {
 		setPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder());
 	}
@@ -73,11 +78,19 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 					.getMessage("AbstractUserDetailsAuthenticationProvider.badCredentials", "Bad credentials"));
 		}
 		String presentedPassword = authentication.getCredentials().toString();
-		if (!this.passwordEncoder.matches(presentedPassword, userDetails.getPassword())) {
+		String username = userDetails.getUsername();
+		VerifiedCredentialsCache cache = (userDetails.getPassword() != null) ? this.verifiedCredentialsCache : null;
+		if (cache != null && cache.isVerified(username, presentedPassword, userDetails.getPassword())) {
+			return;
+		}
+		if (!matches(presentedPassword, userDetails.getPassword())) {
 			this.logger.debug("Failed to authenticate since password does not match stored value");
 			throw new BadCredentialsException(this.messages
 					.getMessage("AbstractUserDetailsAuthenticationProvider.badCredentials", "Bad credentials"));
 		}
+		if (cache != null) {
+			cache.putVerified(username, presentedPassword, userDetails.getPassword());
+		}
 	}
 
 	@Override
@@ -118,6 +131,9 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 			String presentedPassword = authentication.getCredentials().toString();
 			String newPassword = this.passwordEncoder.encode(presentedPassword);
 			user = this.userDetailsPasswordService.updatePassword(user, newPassword);
+			if (this.verifiedCredentialsCache != null) {
+				this.verifiedCredentialsCache.evict(user.getUsername());
+			}
 		}
 		return super.createSuccessAuthentication(principal, authentication, user);
 	}
@@ -131,7 +147,20 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 	private void mitigateAgainstTimingAttack(UsernamePasswordAuthenticationToken authentication) {
 		if (authentication.getCredentials() != null) {
 			String presentedPassword = authentication.getCredentials().toString();
-			this.passwordEncoder.matches(presentedPassword, this.userNotFoundEncodedPassword);
+			matches(presentedPassword, this.userNotFoundEncodedPassword);
+		}
+	}
+
+	/**
+	 * Verifies the password, failing the authentication when the {@link PasswordEncoder}
+	 * rejects the hash, such as an {@code ExecutorPasswordEncoder} whose queue is full
+	 */
+	private boolean matches(String presentedPassword, String encodedPassword) {
+		try {
+			return this.passwordEncoder.matches(presentedPassword, encodedPassword);
+		}
+		catch (RejectedExecutionException ex) {
+			throw new AuthenticationServiceException(ex.getMessage(), ex);
 		}
 	}
 
@@ -164,4 +193,17 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 		this.userDetailsPasswordService = userDetailsPasswordService;
 	}
 
+	/**
+	 * Sets the {@link VerifiedCredentialsCache} used to skip
+	 * {@link PasswordEncoder#matches(CharSequence, String)} when the same credentials were
+	 * recently verified. The verifications of a user are evicted when the password is
+	 * upgraded through the {@link UserDetailsPasswordService}. The default is
+	 * {@code null}, which verifies the password on each authentication.
+	 * @param verifiedCredentialsCache the {@link VerifiedCredentialsCache} to use
+	 * @since 6.1
+	 */
+	public void setVerifiedCredentialsCache(VerifiedCredentialsCache verifiedCredentialsCache) {
+		this.verifiedCredentialsCache = verifiedCredentialsCache;
+	}
+
 }
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication.dao;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.Assert;
+
+/**
+ * A cache of the credentials that were recently verified by
+ * {@link DaoAuthenticationProvider}, which allows clients that send their password on
+ * every request, such as with HTTP Basic, to skip the deliberately slow
+ * {@link PasswordEncoder#matches(CharSequence, String)} on repeated requests.
+ * <p>
+ * Neither the presented password nor a fast hash of it is stored. Each entry is keyed by
+ * an HMAC-SHA256, under a secret that never leaves this instance, of the username, the
+ * presented password and the encoded password of the user. Changing the password of a
+ * user therefore invalidates the cached verifications of the previous password, even
+ * when the change is made outside of this application. The verifications of a user can
+ * also be evicted with {@link #evict(String)}.
+ * <p>
+ * Entries expire after a short time to live, one minute by default. Once the maximum
+ * number of entries is reached, expired entries are purged and new verifications are
+ * not cached until there is room again.
+ *
+ * @since 6.1
+ * @see DaoAuthenticationProvider#setVerifiedCredentialsCache(VerifiedCredentialsCache)
+ */
+public final class VerifiedCredentialsCache {
+
+	private static final String ALGORITHM = "HmacSHA256";
+
+	private static final int MINIMUM_SECRET_LENGTH = 32;
+
+	private final SecretKeySpec key;
+
+	private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private Duration timeToLive = Duration.ofMinutes(1);
+
+	private int maximumSize = 10000;
+
+	private Clock clock = Clock.systemUTC();
+
+	/**
+	 * Creates a new instance keyed by a random secret
+	 */
+	public VerifiedCredentialsCache() {
+		this(randomSecret());
+	}
+
+	/**
+	 * Creates a new instance
+	 * @param secret the secret used to key the entries, at least 32 bytes long
+	 */
+	public VerifiedCredentialsCache(byte[] secret) {
+		Assert.notNull(secret, "secret cannot be null");
+		Assert.isTrue(secret.length >= MINIMUM_SECRET_LENGTH,
+				() -> "secret must be at least " + MINIMUM_SECRET_LENGTH + " bytes long");
+		this.key = new SecretKeySpec(secret, ALGORITHM);
+	}
+
+	/**
+	 * Whether the presented password was verified against the encoded password of the
+	 * user within the time to live
+	 * @param username the username
+	 * @param presentedPassword the password presented by the client
+	 * @param encodedPassword the encoded password of the user
+	 * @return true if the verification is cached
+	 */
+	public boolean isVerified(String username, String presentedPassword, String encodedPassword) {
+		Entry entry = this.entries.get(key(username, presentedPassword, encodedPassword));
+		if (entry != null && entry.expiresAt > this.clock.millis()) {
+			this.hits.increment();
+			return true;
+		}
+		this.misses.increment();
+		return false;
+	}
+
+	/**
+	 * Caches a successful verification of the presented password against the encoded
+	 * password of the user
+	 * @param username the username
+	 * @param presentedPassword the password presented by the client
+	 * @param encodedPassword the encoded password of the user
+	 */
+	public void putVerified(String username, String presentedPassword, String encodedPassword) {
+		long now = this.clock.millis();
+		if (this.entries.size() >= this.maximumSize) {
+			this.entries.values().removeIf((entry) -> entry.expiresAt <= now);
+			if (this.entries.size() >= this.maximumSize) {
+				return;
+			}
+		}
+		this.entries.put(key(username, presentedPassword, encodedPassword),
+				new Entry(username, now + this.timeToLive.toMillis()));
+	}
+
+	/**
+	 * Evicts the cached verifications of a user, for example when the password of the
+	 * user is changed
+	 * @param username the username
+	 */
+	public void evict(String username) {
+		this.entries.values().removeIf((entry) -> entry.username.equals(username));
+	}
+
+	/**
+	 * Evicts all the cached verifications
+	 */
+	public void clear() {
+		this.entries.clear();
+	}
+
+	/**
+	 * Sets how long a verification is cached. The default is one minute.
+	 * @param timeToLive the time to live of the cached verifications
+	 */
+	public void setTimeToLive(Duration timeToLive) {
+		Assert.notNull(timeToLive, "timeToLive cannot be null");
+		Assert.isTrue(timeToLive.toMillis() > 0, "timeToLive must be at least one millisecond");
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Sets the maximum number of cached verifications. The default is 10000.
+	 * @param maximumSize the maximum number of cached verifications
+	 */
+	public void setMaximumSize(int maximumSize) {
+		Assert.isTrue(maximumSize > 0, "maximumSize must be positive");
+		this.maximumSize = maximumSize;
+	}
+
+	/**
+	 * Sets the {@link Clock} used to expire the cached verifications. The default is
+	 * {@link Clock#systemUTC()}.
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * The number of verifications found in the cache
+	 * @return the number of cache hits
+	 */
+	public long getHitCount() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * The number of verifications not found in the cache, or expired
+	 * @return the number of cache misses
+	 */
+	public long getMissCount() {
+		return this.misses.sum();
+	}
+
+	int size() {
+		return this.entries.size();
+	}
+
+	private Key key(String username, String presentedPassword, String encodedPassword) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(this.key);
+			update(mac, username);
+			update(mac, presentedPassword);
+			update(mac, encodedPassword);
+			return new Key(mac.doFinal());
+		}
+		catch (GeneralSecurityException ex) {
+			throw new IllegalStateException("Unable to compute the key of the verified credentials", ex);
+		}
+	}
+
+	/**
+	 * Length-prefixes each value, so that different values cannot produce the same input
+	 */
+	private static void update(Mac mac, String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		mac.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+		mac.update(bytes);
+	}
+
+	private static byte[] randomSecret() {
+		byte[] secret = new byte[MINIMUM_SECRET_LENGTH];
+		new SecureRandom().nextBytes(secret);
+		return secret;
+	}
+
+	private static final class Key {
+
+		private final byte[] mac;
+
+		private final int hashCode;
+
+		private Key(byte[] mac) {
+			this.mac = mac;
+			this.hashCode = Arrays.hashCode(mac);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			return MessageDigest.isEqual(this.mac, ((Key) obj).mac);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+	}
+
+	private static final class Entry {
+
+		private final String username;
+
+		private final long expiresAt;
+
+		private Entry(String username, long expiresAt) {
+			this.username = username;
+			this.expiresAt = expiresAt;
+		}
+
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.security.authorization;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -42,10 +43,17 @@ public final class AuthorityAuthorizationManager<T> implements AuthorizationMana
 
 	private final List<GrantedAuthority> authorities;
 
+	private final Set<String> authoritySet;
+
 	private RoleHierarchy roleHierarchy = new NullRoleHierarchy();
 
+	private AuthorityRegistry authorityRegistry;
+
+	private BitSet requiredAuthorities;
+
 	private AuthorityAuthorizationManager(String... authorities) {
 		this.authorities = AuthorityUtils.createAuthorityList(authorities);
+		this.authoritySet = AuthorityUtils.authorityListToSet(this.authorities);
 	}
 
 	/**
@@ -59,6 +67,22 @@ public final class AuthorityAuthorizationManager<T> implements AuthorizationMana
 		this.roleHierarchy = roleHierarchy;
 	}
 
+	/**
+	 * Sets the {@link AuthorityRegistry} to check the authorities with. The required
+	 * authorities are compiled into a {@link BitSet} of the indexes assigned by the
+	 * {@link AuthorityRegistry}, so that checking them is a word-wise AND with the
+	 * indexes of the authorities of the {@link Authentication}, which the
+	 * {@link AuthorityRegistry} remembers across the rules that are evaluated for it. By
+	 * default, the authorities of the {@link Authentication} are compared one by one.
+	 * @param authorityRegistry the {@link AuthorityRegistry} to use
+	 * @since 6.1
+	 */
+	public void setAuthorityRegistry(AuthorityRegistry authorityRegistry) {
+		Assert.notNull(authorityRegistry, "authorityRegistry cannot be null");
+		this.requiredAuthorities = authorityRegistry.compile(this.authoritySet);
+		this.authorityRegistry = authorityRegistry;
+	}
+
 	/**
 	 * Creates an instance of {@link AuthorityAuthorizationManager} with the provided
 	 * authority.
@@ -148,9 +172,12 @@ public final class AuthorityAuthorizationManager<T> implements AuthorizationMana
 	}
 
 	private boolean isAuthorized(Authentication authentication) {
-		Set<String> authorities = AuthorityUtils.authorityListToSet(this.authorities);
+		if (this.authorityRegistry != null) {
+			return this.authorityRegistry.getAuthorities(authentication, this.roleHierarchy)
+					.intersects(this.requiredAuthorities);
+		}
 		for (GrantedAuthority grantedAuthority : getGrantedAuthorities(authentication)) {
-			if (authorities.contains(grantedAuthority.getAuthority())) {
+			if (this.authoritySet.contains(grantedAuthority.getAuthority())) {
 				return true;
 			}
 		}
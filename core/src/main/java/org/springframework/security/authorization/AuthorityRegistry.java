@@ -0,0 +1,147 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authorization;
+
+import java.lang.ref.WeakReference;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.util.Assert;
+
+/**
+ * Assigns a dense index to each authority that authorization rules require, so that
+ * checking whether an {@link Authentication} has any of the authorities of a rule is a
+ * word-wise AND of two {@link BitSet}s instead of a comparison of strings.
+ * <p>
+ * The authorities of a rule are compiled once with {@link #compile(Collection)}. The
+ * authorities of an {@link Authentication}, after applying the {@link RoleHierarchy},
+ * are translated to a {@link BitSet} by {@link #getAuthorities(Authentication,
+ * RoleHierarchy)}; granted authorities that no rule requires are ignored, so the
+ * registry only grows with the rules. The last translated {@link Authentication} is
+ * remembered for each thread, since several rules are usually evaluated one after the
+ * other for the same {@link Authentication}.
+ * <p>
+ * A single {@link AuthorityRegistry} is meant to be shared by all the
+ * {@link AuthorityAuthorizationManager}s of an application.
+ *
+ * @since 6.1
+ * @see AuthorityAuthorizationManager#setAuthorityRegistry(AuthorityRegistry)
+ */
+public final class AuthorityRegistry {
+
+	private final Map<String, Integer> indexes = new ConcurrentHashMap<>();
+
+	private final ThreadLocal<CachedAuthorities> cachedAuthorities = new ThreadLocal<>();
+
+	/**
+	 * Registers the provided authorities and returns a {@link BitSet} with their indexes
+	 * set
+	 * @param authorities the authorities to compile
+	 * @return the indexes of the authorities
+	 */
+	public BitSet compile(Collection<String> authorities) {
+		Assert.notNull(authorities, "authorities cannot be null");
+		BitSet compiled = new BitSet();
+		for (String authority : authorities) {
+			Assert.notNull(authority, "authorities cannot contain null values");
+			compiled.set(register(authority));
+		}
+		return compiled;
+	}
+
+	/**
+	 * Returns the indexes of the authorities that are reachable from the authorities of
+	 * the provided {@link Authentication}. Callers must not modify the returned
+	 * {@link BitSet}.
+	 * @param authentication the {@link Authentication}
+	 * @param roleHierarchy the {@link RoleHierarchy} to apply
+	 * @return the indexes of the registered authorities held by the
+	 * {@link Authentication}
+	 */
+	public BitSet getAuthorities(Authentication authentication, RoleHierarchy roleHierarchy) {
+		int size = this.indexes.size();
+		CachedAuthorities cached = this.cachedAuthorities.get();
+		if (cached != null && cached.matches(authentication, roleHierarchy, size)) {
+			return cached.authorities;
+		}
+		BitSet authorities = new BitSet(size);
+		for (GrantedAuthority granted : roleHierarchy.getReachableGrantedAuthorities(authentication.getAuthorities())) {
+			String authority = granted.getAuthority();
+			Integer index = (authority != null) ? this.indexes.get(authority) : null;
+			if (index != null) {
+				authorities.set(index);
+			}
+		}
+		this.cachedAuthorities.set(new CachedAuthorities(authentication, roleHierarchy, size, authorities));
+		return authorities;
+	}
+
+	/**
+	 * The number of registered authorities
+	 * @return the number of registered authorities
+	 */
+	public int size() {
+		return this.indexes.size();
+	}
+
+	private synchronized int register(String authority) {
+		Integer index = this.indexes.get(authority);
+		if (index != null) {
+			return index;
+		}
+		index = this.indexes.size();
+		this.indexes.put(authority, index);
+		return index;
+	}
+
+	/**
+	 * The authorities of the last {@link Authentication} translated by a thread. The
+	 * {@link Authentication} is weakly referenced so that the cache does not keep it
+	 * alive, and the number of registered authorities is recorded so that the cache is
+	 * ignored once new authorities are registered.
+	 */
+	private static final class CachedAuthorities {
+
+		private final WeakReference<Authentication> authentication;
+
+		private final RoleHierarchy roleHierarchy;
+
+		private final int size;
+
+		private final BitSet authorities;
+
+		private CachedAuthorities(Authentication authentication, RoleHierarchy roleHierarchy, int size,
+				BitSet authorities) {
+			this.authentication = new WeakReference<>(authentication);
+			this.roleHierarchy = roleHierarchy;
+			this.size = size;
+			this.authorities = authorities;
+		}
+
+		private boolean matches(Authentication authentication, RoleHierarchy roleHierarchy, int size) {
+			return this.authentication.get() == authentication && this.roleHierarchy == roleHierarchy
+					&& this.size == size;
+		}
+
+	}
+
+}
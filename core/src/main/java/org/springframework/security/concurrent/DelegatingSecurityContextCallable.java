@@ -18,6 +18,7 @@ package org.springframework.security.concurrent;
 
 import java.util.concurrent.Callable;
 
+import org.springframework.security.core.context.ScopedValueSecurityContextHolderStrategy;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextHolderStrategy;
@@ -33,6 +34,11 @@ import org.springframework.util.Assert;
  * If there is a {@link SecurityContext} that already exists, it will be restored after
  * the {@link #call()} method is invoked.
  * </p>
+ * <p>
+ * With a {@link ScopedValueSecurityContextHolderStrategy}, the {@link SecurityContext}
+ * is instead bound for the duration of the delegate {@link Callable}, so there is
+ * nothing to restore.
+ * </p>
  *
  * @author Rob Winch
  * @since 3.2
@@ -90,6 +96,11 @@ public final class DelegatingSecurityContextCallable<V> implements Callable<V> {
 
 	@Override
 	public V call() throws Exception {
+		if (this.securityContextHolderStrategy instanceof ScopedValueSecurityContextHolderStrategy) {
+			SecurityContext delegateSecurityContext = this.delegateSecurityContext;
+			return ((ScopedValueSecurityContextHolderStrategy) this.securityContextHolderStrategy)
+					.callWhere(() -> delegateSecurityContext, this.delegate);
+		}
 		this.originalSecurityContext = this.securityContextHolderStrategy.getContext();
 		try {
 			this.securityContextHolderStrategy.setContext(this.delegateSecurityContext);
@@ -16,6 +16,7 @@
 
 package org.springframework.security.concurrent;
 
+import org.springframework.security.core.context.ScopedValueSecurityContextHolderStrategy;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextHolderStrategy;
@@ -31,6 +32,11 @@ import org.springframework.util.Assert;
  * If there is a {@link SecurityContext} that already exists, it will be restored after
  * the {@link #run()} method is invoked.
  * </p>
+ * <p>
+ * With a {@link ScopedValueSecurityContextHolderStrategy}, the {@link SecurityContext}
+ * is instead bound for the duration of the delegate {@link Runnable}, so there is
+ * nothing to restore.
+ * </p>
  *
  * @author Rob Winch
  * @since 3.2
@@ -88,6 +94,12 @@ public final class DelegatingSecurityContextRunnable implements Runnable {
 
 	@Override
 	public void run() {
+		if (this.securityContextHolderStrategy instanceof ScopedValueSecurityContextHolderStrategy) {
+			SecurityContext delegateSecurityContext = this.delegateSecurityContext;
+			((ScopedValueSecurityContextHolderStrategy) this.securityContextHolderStrategy)
+					.runWhere(() -> delegateSecurityContext, this.delegate);
+			return;
+		}
 		this.originalSecurityContext = this.securityContextHolderStrategy.getContext();
 		try {
 			this.securityContextHolderStrategy.setContext(this.delegateSecurityContext);
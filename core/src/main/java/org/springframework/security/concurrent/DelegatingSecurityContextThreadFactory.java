@@ -0,0 +1,146 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.concurrent;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.security.core.context.ScopedValueSecurityContextHolderStrategy;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ThreadFactory} which runs each new thread with the {@link SecurityContext}
+ * that was current when the thread was created, or with a specific
+ * {@link SecurityContext}.
+ * <p>
+ * This is meant for executors and scopes that create a new thread for each task, such as
+ * {@code Executors.newThreadPerTaskExecutor(ThreadFactory)} with virtual threads, see
+ * {@link #ofVirtual()}, or a {@code java.util.concurrent.StructuredTaskScope} created
+ * with this factory, whose subtasks are forked by the thread that owns the
+ * {@link SecurityContext}. Since each thread starts without a {@link SecurityContext},
+ * there is nothing to restore when it completes: the {@link SecurityContext} is set
+ * before the task runs and cleared afterwards, and the task is not wrapped in a
+ * {@link DelegatingSecurityContextRunnable}. With a
+ * {@link ScopedValueSecurityContextHolderStrategy}, the {@link SecurityContext} is bound
+ * for the duration of the task instead.
+ * <p>
+ * Thread pools reuse their threads for many tasks, and should use the
+ * {@link DelegatingSecurityContextExecutorService} instead.
+ *
+ * @since 6.1
+ */
+public final class DelegatingSecurityContextThreadFactory implements ThreadFactory {
+
+	private final ThreadFactory delegate;
+
+	private final SecurityContext securityContext;
+
+	private SecurityContextHolderStrategy securityContextHolderStrategy = SecurityContextHolder
+			.getContextHolderStrategy();
+
+	/**
+	 * Creates a new {@link DelegatingSecurityContextThreadFactory} that uses the current
+	 * {@link SecurityContext} from the {@link SecurityContextHolder} at the time each
+	 * thread is created.
+	 * @param delegate the {@link ThreadFactory} to delegate to. Cannot be null.
+	 */
+	public DelegatingSecurityContextThreadFactory(ThreadFactory delegate) {
+		this(delegate, null);
+	}
+
+	/**
+	 * Creates a new {@link DelegatingSecurityContextThreadFactory} that uses the
+	 * specified {@link SecurityContext}.
+	 * @param delegate the {@link ThreadFactory} to delegate to. Cannot be null.
+	 * @param securityContext the {@link SecurityContext} to run each thread with or null
+	 * to default to the current {@link SecurityContext}
+	 */
+	public DelegatingSecurityContextThreadFactory(ThreadFactory delegate, SecurityContext securityContext) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		this.delegate = delegate;
+		this.securityContext = securityContext;
+	}
+
+	/**
+	 * Creates a new {@link DelegatingSecurityContextThreadFactory} that creates virtual
+	 * threads, which are only available as of Java 21. On earlier versions of Java, the
+	 * threads are created by {@link Executors#defaultThreadFactory()}.
+	 * @return the {@link DelegatingSecurityContextThreadFactory}
+	 */
+	public static DelegatingSecurityContextThreadFactory ofVirtual() {
+		return new DelegatingSecurityContextThreadFactory(virtualThreadFactory());
+	}
+
+	@Override
+	public Thread newThread(Runnable task) {
+		Assert.notNull(task, "task cannot be null");
+		SecurityContextHolderStrategy strategy = this.securityContextHolderStrategy;
+		SecurityContext context = (this.securityContext != null) ? this.securityContext : strategy.getContext();
+		if (strategy instanceof ScopedValueSecurityContextHolderStrategy) {
+			ScopedValueSecurityContextHolderStrategy scoped = (ScopedValueSecurityContextHolderStrategy) strategy;
+			return this.delegate.newThread(() -> scoped.runWhere(() -> context, task));
+		}
+		return this.delegate.newThread(() -> {
+			strategy.setContext(context);
+			try {
+				task.run();
+			}
+			finally {
+				strategy.clearContext();
+			}
+		});
+	}
+
+	/**
+	 * Sets the {@link SecurityContextHolderStrategy} to use. The default action is to use
+	 * the {@link SecurityContextHolderStrategy} stored in {@link SecurityContextHolder}.
+	 * @param securityContextHolderStrategy the {@link SecurityContextHolderStrategy} to
+	 * use
+	 */
+	public void setSecurityContextHolderStrategy(SecurityContextHolderStrategy securityContextHolderStrategy) {
+		Assert.notNull(securityContextHolderStrategy, "securityContextHolderStrategy cannot be null");
+		this.securityContextHolderStrategy = securityContextHolderStrategy;
+	}
+
+	/**
+	 * Returns {@code Thread.ofVirtual().factory()}, which is only available as of Java
+	 * 21. On earlier versions of Java, returns {@link Executors#defaultThreadFactory()}.
+	 * Unlike {@link #ofVirtual()}, the returned {@link ThreadFactory} does not propagate
+	 * the {@link SecurityContext}.
+	 * @return a {@link ThreadFactory} creating virtual threads if they are available
+	 */
+	public static ThreadFactory virtualThreadFactory() {
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Class<?> ofVirtualClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			Object builder = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtualClass))
+					.invoke();
+			return (ThreadFactory) lookup
+					.findVirtual(builderClass, "factory", MethodType.methodType(ThreadFactory.class)).invoke(builder);
+		}
+		catch (Throwable ex) {
+			return Executors.defaultThreadFactory();
+		}
+	}
+
+}
@@ -73,7 +73,7 @@ public final class AuthorityUtils {
 	public static List<GrantedAuthority> createAuthorityList(String... authorities) {
 		List<GrantedAuthority> grantedAuthorities = new ArrayList<>(authorities.length);
 		for (String authority : authorities) {
-			grantedAuthorities.add(new SimpleGrantedAuthority(authority));
+			grantedAuthorities.add(GrantedAuthorityInterner.intern(authority));
 		}
 		return grantedAuthorities;
 	}
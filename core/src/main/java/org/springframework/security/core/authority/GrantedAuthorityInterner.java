@@ -0,0 +1,114 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.authority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.util.Assert;
+
+/**
+ * Returns a canonical {@link SimpleGrantedAuthority} instance for each authority, so that
+ * the principals and {@link org.springframework.security.core.Authentication}s of all
+ * sessions share the same few instances instead of each holding its own copies.
+ * <p>
+ * Since {@link SimpleGrantedAuthority} is immutable, sharing instances is invisible to
+ * callers. Applications usually have a small, fixed set of authorities, but some derive
+ * authorities from user input, like OAuth 2.0 scopes. In order to not retain an unbounded
+ * number of authorities, at most {@link #MAXIMUM_SIZE} authorities are interned; once
+ * that number is reached, authorities that were not interned yet are returned as is.
+ * <p>
+ * It is used by {@link AuthorityUtils}, the
+ * {@link org.springframework.security.core.userdetails.User} builder,
+ * {@link org.springframework.security.core.userdetails.jdbc.JdbcDaoImpl}, the Jackson
+ * deserializers and when a {@link SimpleGrantedAuthority} is deserialized.
+ *
+ * @since 6.1
+ */
+public final class GrantedAuthorityInterner {
+
+	/**
+	 * The maximum number of authorities that are interned
+	 */
+	public static final int MAXIMUM_SIZE = 4096;
+
+	private static final ConcurrentMap<String, SimpleGrantedAuthority> authorities = new ConcurrentHashMap<>();
+
+	private GrantedAuthorityInterner() {
+	}
+
+	/**
+	 * Returns the canonical {@link SimpleGrantedAuthority} for the provided authority
+	 * @param authority the textual representation of the authority
+	 * @return the canonical {@link SimpleGrantedAuthority}, or a new one if the maximum
+	 * number of authorities was reached
+	 */
+	public static SimpleGrantedAuthority intern(String authority) {
+		Assert.hasText(authority, "A granted authority textual representation is required");
+		SimpleGrantedAuthority interned = authorities.get(authority);
+		if (interned != null) {
+			return interned;
+		}
+		return putIfAbsent(new SimpleGrantedAuthority(authority));
+	}
+
+	/**
+	 * Returns the canonical instance of the provided {@link GrantedAuthority} if it is a
+	 * {@link SimpleGrantedAuthority}
+	 * @param authority the authority
+	 * @return the canonical {@link SimpleGrantedAuthority}, or the provided authority if
+	 * it is of another type or if the maximum number of authorities was reached
+	 */
+	public static GrantedAuthority intern(GrantedAuthority authority) {
+		if (!(authority instanceof SimpleGrantedAuthority)) {
+			return authority;
+		}
+		SimpleGrantedAuthority interned = authorities.get(authority.getAuthority());
+		if (interned != null) {
+			return interned;
+		}
+		return putIfAbsent((SimpleGrantedAuthority) authority);
+	}
+
+	/**
+	 * Returns a list of the canonical instances of the provided {@link GrantedAuthority}s
+	 * @param authorities the authorities
+	 * @return a new list with the canonical instances, in the same order
+	 * @see #intern(GrantedAuthority)
+	 */
+	public static List<GrantedAuthority> internAll(Collection<? extends GrantedAuthority> authorities) {
+		Assert.notNull(authorities, "authorities cannot be null");
+		List<GrantedAuthority> interned = new ArrayList<>(authorities.size());
+		for (GrantedAuthority authority : authorities) {
+			interned.add(intern(authority));
+		}
+		return interned;
+	}
+
+	private static SimpleGrantedAuthority putIfAbsent(SimpleGrantedAuthority authority) {
+		if (authorities.size() >= MAXIMUM_SIZE) {
+			return authority;
+		}
+		SimpleGrantedAuthority existing = authorities.putIfAbsent(authority.getAuthority(), authority);
+		return (existing != null) ? existing : authority;
+	}
+
+}
@@ -66,4 +66,15 @@ public final class SimpleGrantedAuthority implements GrantedAuthority {
 		return this.role;
 	}
 
+	/**
+	 * Replaces the deserialized instance with its canonical instance, so that sessions
+	 * which are deserialized do not each hold their own copies of the authorities
+	 * @return the canonical instance
+	 * @since 6.1
+	 * @see GrantedAuthorityInterner
+	 */
+	private Object readResolve() {
+		return GrantedAuthorityInterner.intern(this);
+	}
+
 }
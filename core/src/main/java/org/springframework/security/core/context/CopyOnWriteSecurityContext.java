@@ -0,0 +1,78 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.context;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.SpringSecurityCoreVersion;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link SecurityContext} which can be shared by many threads, such as the same
+ * anonymous {@link SecurityContext} for every unauthenticated request.
+ * <p>
+ * Its {@link Authentication} never changes. Instead, {@link #setAuthentication} copies
+ * it: a new {@link SecurityContext} is created with the provided {@link Authentication}
+ * and set as the context of the current thread on the {@link SecurityContextHolderStrategy}.
+ * This keeps the usual {@code getContext().setAuthentication(authentication)} idiom
+ * working. However, a reference to this {@link SecurityContext} still sees the previous
+ * {@link Authentication} afterwards, so the {@link SecurityContext} to save, for example
+ * in a {@code SecurityContextRepository}, must be obtained from the
+ * {@link SecurityContextHolderStrategy} again, or be created with
+ * {@link SecurityContextHolderStrategy#createEmptyContext()}.
+ * <p>
+ * It is serialized as a {@link SecurityContextImpl}.
+ *
+ * @since 6.1
+ */
+public final class CopyOnWriteSecurityContext extends SecurityContextImpl {
+
+	private static final long serialVersionUID = SpringSecurityCoreVersion.SERIAL_VERSION_UID;
+
+	private final transient SecurityContextHolderStrategy securityContextHolderStrategy;
+
+	/**
+	 * Creates a new instance
+	 * @param securityContextHolderStrategy the {@link SecurityContextHolderStrategy} to
+	 * set the copies on
+	 * @param authentication the {@link Authentication} of this {@link SecurityContext},
+	 * which may be null
+	 */
+	public CopyOnWriteSecurityContext(SecurityContextHolderStrategy securityContextHolderStrategy,
+			Authentication authentication) {
+		super(authentication);
+		Assert.notNull(securityContextHolderStrategy, "securityContextHolderStrategy cannot be null");
+		this.securityContextHolderStrategy = securityContextHolderStrategy;
+	}
+
+	/**
+	 * Sets a copy of this {@link SecurityContext} with the provided
+	 * {@link Authentication} as the context of the current thread, leaving this
+	 * {@link SecurityContext} unchanged
+	 * @param authentication the new {@link Authentication}, which may be null
+	 */
+	@Override
+	public void setAuthentication(Authentication authentication) {
+		SecurityContext copy = this.securityContextHolderStrategy.createEmptyContext();
+		copy.setAuthentication(authentication);
+		this.securityContextHolderStrategy.setContext(copy);
+	}
+
+	private Object writeReplace() {
+		return new SecurityContextImpl(getAuthentication());
+	}
+
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.context;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+import org.springframework.util.Assert;
+
+/**
+ * A {@link SecurityContextHolderStrategy} which binds the {@link SecurityContext} to a
+ * {@code java.lang.ScopedValue} for the duration of
+ * {@link #runWhere(Supplier, Runnable)} or {@link #callWhere(Supplier, Callable)}.
+ * <p>
+ * Unlike a {@link ThreadLocal}, a scoped value is bound once for a bounded scope and is
+ * read by the subtasks forked in a {@code java.util.concurrent.StructuredTaskScope}
+ * without being copied, which suits applications running one virtual thread per request
+ * and fanning out with structured concurrency. {@code SecurityContextHolderFilter} and
+ * the {@code DelegatingSecurityContext*} classes of
+ * {@link org.springframework.security.concurrent} open such a scope when they are given
+ * this strategy.
+ * <p>
+ * The binding itself is immutable. Within a scope, {@link #setContext(SecurityContext)}
+ * and {@link #clearContext()} replace the context seen by the scope, and may only be
+ * called by the thread that opened it, so that subtasks cannot change the context of
+ * their parent. For the same reason, a subtask which reads the context of a scope that
+ * has none fails, instead of getting an empty context that would be lost. Outside of any
+ * scope, this strategy behaves like the default {@link ThreadLocal} based strategy.
+ * <p>
+ * {@code ScopedValue} is looked up at runtime, since it is a preview API before Java 25.
+ * When it is not available, {@link #runWhere(Supplier, Runnable)} and
+ * {@link #callWhere(Supplier, Callable)} set the context in the {@link ThreadLocal} for
+ * their duration instead, see {@link #isScopedValueAvailable()}.
+ * <p>
+ * This strategy can be selected by setting the {@link SecurityContextHolder#SYSTEM_PROPERTY}
+ * to the name of this class.
+ *
+ * @since 6.1
+ */
+public final class ScopedValueSecurityContextHolderStrategy implements SecurityContextHolderStrategy {
+
+	private static final ScopedValueAccessor scopedValue = ScopedValueAccessor.create();
+
+	private static final ThreadLocal<Supplier<SecurityContext>> contextHolder = new ThreadLocal<>();
+
+	/**
+	 * Whether {@code java.lang.ScopedValue} is available in this JVM. If not, the
+	 * contexts are bound to a {@link ThreadLocal}.
+	 * @return true if {@code ScopedValue} is used
+	 */
+	public static boolean isScopedValueAvailable() {
+		return scopedValue != null;
+	}
+
+	/**
+	 * Runs the task with the provided context bound for its duration
+	 * @param deferredContext a {@link Supplier} of the {@link SecurityContext} to bind
+	 * @param task the task to run
+	 */
+	public void runWhere(Supplier<SecurityContext> deferredContext, Runnable task) {
+		Assert.notNull(deferredContext, "Only non-null Supplier instances are permitted");
+		Assert.notNull(task, "task cannot be null");
+		Scope scope = new Scope(notNull(deferredContext));
+		if (scopedValue != null) {
+			scopedValue.run(scope, task);
+			return;
+		}
+		Supplier<SecurityContext> original = contextHolder.get();
+		contextHolder.set(scope.deferredContext);
+		try {
+			task.run();
+		}
+		finally {
+			if (original != null) {
+				contextHolder.set(original);
+			}
+			else {
+				contextHolder.remove();
+			}
+		}
+	}
+
+	/**
+	 * Calls the task with the provided context bound for its duration
+	 * @param <V> the type of the result
+	 * @param deferredContext a {@link Supplier} of the {@link SecurityContext} to bind
+	 * @param task the task to call
+	 * @return the result of the task
+	 * @throws Exception if the task throws an exception
+	 */
+	public <V> V callWhere(Supplier<SecurityContext> deferredContext, Callable<V> task) throws Exception {
+		Assert.notNull(task, "task cannot be null");
+		Object[] result = new Object[1];
+		Exception[] failure = new Exception[1];
+		runWhere(deferredContext, () -> {
+			try {
+				result[0] = task.call();
+			}
+			catch (Exception ex) {
+				failure[0] = ex;
+			}
+		});
+		if (failure[0] != null) {
+			throw failure[0];
+		}
+		@SuppressWarnings("unchecked")
+		V value = (V) result[0];
+		return value;
+	}
+
+	@Override
+	public void clearContext() {
+		Scope scope = currentScope();
+		if (scope != null) {
+			scope.setDeferredContext(null);
+		}
+		else {
+			contextHolder.remove();
+		}
+	}
+
+	@Override
+	public SecurityContext getContext() {
+		return getDeferredContext().get();
+	}
+
+	@Override
+	public Supplier<SecurityContext> getDeferredContext() {
+		Scope scope = currentScope();
+		Supplier<SecurityContext> result = (scope != null) ? scope.deferredContext : contextHolder.get();
+		if (result == null) {
+			SecurityContext context = createEmptyContext();
+			result = () -> context;
+			// A subtask cannot store an empty context in the scope of its parent
+			if (scope != null) {
+				scope.setDeferredContext(result);
+			}
+			else {
+				contextHolder.set(result);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void setContext(SecurityContext context) {
+		Assert.notNull(context, "Only non-null SecurityContext instances are permitted");
+		setDeferredContext(() -> context);
+	}
+
+	@Override
+	public void setDeferredContext(Supplier<SecurityContext> deferredContext) {
+		Assert.notNull(deferredContext, "Only non-null Supplier instances are permitted");
+		Supplier<SecurityContext> notNullDeferredContext = notNull(deferredContext);
+		Scope scope = currentScope();
+		if (scope != null) {
+			scope.setDeferredContext(notNullDeferredContext);
+		}
+		else {
+			contextHolder.set(notNullDeferredContext);
+		}
+	}
+
+	@Override
+	public SecurityContext createEmptyContext() {
+		return new SecurityContextImpl();
+	}
+
+	private static Scope currentScope() {
+		return (scopedValue != null) ? scopedValue.get() : null;
+	}
+
+	private static Supplier<SecurityContext> notNull(Supplier<SecurityContext> deferredContext) {
+		return () -> {
+			SecurityContext result = deferredContext.get();
+			Assert.notNull(result, "A Supplier<SecurityContext> returned null and is not allowed.");
+			return result;
+		};
+	}
+
+	/**
+	 * The context seen by a scope, which can only be changed by the thread that opened it
+	 */
+	private static final class Scope {
+
+		private final Thread owner = Thread.currentThread();
+
+		private volatile Supplier<SecurityContext> deferredContext;
+
+		private Scope(Supplier<SecurityContext> deferredContext) {
+			this.deferredContext = deferredContext;
+		}
+
+		private void setDeferredContext(Supplier<SecurityContext> deferredContext) {
+			Assert.state(Thread.currentThread() == this.owner,
+					"The SecurityContext can only be changed by the thread that bound it");
+			this.deferredContext = deferredContext;
+		}
+
+	}
+
+	/**
+	 * Accesses a {@code ScopedValue<Scope>} reflectively, since it is not available in
+	 * all the supported versions of Java
+	 */
+	private static final class ScopedValueAccessor {
+
+		private final Object scopedValue;
+
+		private final MethodHandle where;
+
+		private final MethodHandle run;
+
+		private final MethodHandle isBound;
+
+		private final MethodHandle get;
+
+		private ScopedValueAccessor(Object scopedValue, MethodHandle where, MethodHandle run, MethodHandle isBound,
+				MethodHandle get) {
+			this.scopedValue = scopedValue;
+			this.where = where;
+			this.run = run;
+			this.isBound = isBound;
+			this.get = get;
+		}
+
+		/**
+		 * Looks up {@code ScopedValue} and binds it once, which fails if it is a preview
+		 * API that is not enabled
+		 * @return the accessor, or {@code null} if {@code ScopedValue} is not available
+		 */
+		private static ScopedValueAccessor create() {
+			try {
+				Class<?> scopedValueClass = Class.forName("java.lang.ScopedValue");
+				Class<?> carrierClass = Class.forName("java.lang.ScopedValue$Carrier");
+				MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+				Object scopedValue = lookup
+						.findStatic(scopedValueClass, "newInstance", MethodType.methodType(scopedValueClass)).invoke();
+				MethodHandle where = lookup.findStatic(scopedValueClass, "where",
+						MethodType.methodType(carrierClass, scopedValueClass, Object.class));
+				MethodHandle run = lookup.findVirtual(carrierClass, "run",
+						MethodType.methodType(void.class, Runnable.class));
+				MethodHandle isBound = lookup.findVirtual(scopedValueClass, "isBound",
+						MethodType.methodType(boolean.class));
+				MethodHandle get = lookup.findVirtual(scopedValueClass, "get", MethodType.methodType(Object.class));
+				ScopedValueAccessor accessor = new ScopedValueAccessor(scopedValue, where, run, isBound, get);
+				accessor.run(new Scope(null), () -> {
+				});
+				return accessor;
+			}
+			catch (Throwable ex) {
+				return null;
+			}
+		}
+
+		private void run(Scope scope, Runnable task) {
+			try {
+				Object carrier = this.where.invoke(this.scopedValue, scope);
+				this.run.invoke(carrier, task);
+			}
+			catch (RuntimeException | Error ex) {
+				throw ex;
+			}
+			catch (Throwable ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		private Scope get() {
+			try {
+				if (!(boolean) this.isBound.invoke(this.scopedValue)) {
+					return null;
+				}
+				return (Scope) this.get.invoke(this.scopedValue);
+			}
+			catch (RuntimeException | Error ex) {
+				throw ex;
+			}
+			catch (Throwable ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.session;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.log.LogMessage;
+import org.springframework.security.core.SpringSecurityCoreVersion;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link SessionRegistry} for large numbers of sessions, which keeps the sessions of
+ * each principal ordered from the least to the most recently used.
+ * <p>
+ * The principals are spread over a fixed number of shards, each guarded by its own lock,
+ * so that registering, refreshing and removing the sessions of different principals
+ * rarely contend. Within a shard, the sessions of a principal are kept in two doubly
+ * linked lists: one of the sessions which are not expired, ordered by their last
+ * request, and one of the expired sessions. Since the {@link SessionInformation}s handed
+ * out by this registry notify it when {@link SessionInformation#refreshLastRequest()} or
+ * {@link SessionInformation#expireNow()} is invoked, registering, refreshing, expiring
+ * and removing a session, and counting the sessions of a principal, all take constant
+ * time. Sessions are looked up by id in a {@link ConcurrentHashMap} without locking.
+ * <p>
+ * {@link #getAllSessions(Object, boolean)} returns the sessions of a principal from the
+ * least to the most recently used, followed by the expired sessions if requested.
+ * <p>
+ * Like {@link SessionRegistryImpl}, it must be notified of destroyed sessions, typically
+ * through an {@code HttpSessionEventPublisher}.
+ *
+ * @since 6.1
+ * @see SessionRegistryImpl
+ */
+public class ShardedSessionRegistry implements SessionRegistry, ApplicationListener<AbstractSessionEvent> {
+
+	private static final int DEFAULT_SHARDS = 64;
+
+	protected final Log logger = LogFactory.getLog(ShardedSessionRegistry.class);
+
+	private final Map<String, RegisteredSession> sessionIds = new ConcurrentHashMap<>();
+
+	private final Shard[] shards;
+
+	private final int mask;
+
+	/**
+	 * Creates a new instance with 64 shards
+	 */
+	public ShardedSessionRegistry() {
+		this(DEFAULT_SHARDS);
+	}
+
+	/**
+	 * Creates a new instance
+	 * @param shards the number of shards, rounded up to a power of two
+	 */
+	public ShardedSessionRegistry(int shards) {
+		Assert.isTrue(shards > 0, "shards must be greater than 0");
+		int size = (shards == 1) ? 1 : Integer.highestOneBit(shards - 1) << 1;
+		this.shards = new Shard[size];
+		for (int i = 0; i < size; i++) {
+			this.shards[i] = new Shard();
+		}
+		this.mask = size - 1;
+	}
+
+	@Override
+	public List<Object> getAllPrincipals() {
+		List<Object> principals = new ArrayList<>();
+		for (Shard shard : this.shards) {
+			shard.lock.lock();
+			try {
+				principals.addAll(shard.principals.keySet());
+			}
+			finally {
+				shard.lock.unlock();
+			}
+		}
+		return principals;
+	}
+
+	@Override
+	public List<SessionInformation> getAllSessions(Object principal, boolean includeExpiredSessions) {
+		Shard shard = shard(principal);
+		shard.lock.lock();
+		try {
+			PrincipalSessions sessions = shard.principals.get(principal);
+			if (sessions == null) {
+				return Collections.emptyList();
+			}
+			int size = sessions.active.size + (includeExpiredSessions ? sessions.expired.size : 0);
+			List<SessionInformation> list = new ArrayList<>(size);
+			sessions.active.addTo(list);
+			if (includeExpiredSessions) {
+				sessions.expired.addTo(list);
+			}
+			return list;
+		}
+		finally {
+			shard.lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of sessions of the provided principal which are not expired
+	 * @param principal the principal
+	 * @return the number of sessions which are not expired
+	 */
+	public int getSessionCount(Object principal) {
+		Shard shard = shard(principal);
+		shard.lock.lock();
+		try {
+			PrincipalSessions sessions = shard.principals.get(principal);
+			return (sessions != null) ? sessions.active.size : 0;
+		}
+		finally {
+			shard.lock.unlock();
+		}
+	}
+
+	@Override
+	public SessionInformation getSessionInformation(String sessionId) {
+		Assert.hasText(sessionId, "SessionId required as per interface contract");
+		return this.sessionIds.get(sessionId);
+	}
+
+	@Override
+	public void onApplicationEvent(AbstractSessionEvent event) {
+		if (event instanceof SessionDestroyedEvent) {
+			SessionDestroyedEvent sessionDestroyedEvent = (SessionDestroyedEvent) event;
+			removeSessionInformation(sessionDestroyedEvent.getId());
+		}
+		else if (event instanceof SessionIdChangedEvent) {
+			SessionIdChangedEvent sessionIdChangedEvent = (SessionIdChangedEvent) event;
+			SessionInformation info = this.sessionIds.get(sessionIdChangedEvent.getOldSessionId());
+			if (info != null) {
+				removeSessionInformation(sessionIdChangedEvent.getOldSessionId());
+				registerNewSession(sessionIdChangedEvent.getNewSessionId(), info.getPrincipal());
+			}
+		}
+	}
+
+	@Override
+	public void refreshLastRequest(String sessionId) {
+		Assert.hasText(sessionId, "SessionId required as per interface contract");
+		SessionInformation info = getSessionInformation(sessionId);
+		if (info != null) {
+			info.refreshLastRequest();
+		}
+	}
+
+	@Override
+	public void registerNewSession(String sessionId, Object principal) {
+		Assert.hasText(sessionId, "SessionId required as per interface contract");
+		Assert.notNull(principal, "Principal required as per interface contract");
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug(LogMessage.format("Registering session %s, for principal %s", sessionId, principal));
+		}
+		Shard shard = shard(principal);
+		RegisteredSession session = new RegisteredSession(principal, sessionId, new Date(), shard);
+		shard.lock.lock();
+		try {
+			shard.principals.computeIfAbsent(principal, (key) -> new PrincipalSessions()).active.addLast(session);
+		}
+		finally {
+			shard.lock.unlock();
+		}
+		RegisteredSession previous = this.sessionIds.put(sessionId, session);
+		if (previous != null) {
+			previous.shard.unregister(previous);
+		}
+	}
+
+	@Override
+	public void removeSessionInformation(String sessionId) {
+		Assert.hasText(sessionId, "SessionId required as per interface contract");
+		RegisteredSession session = this.sessionIds.remove(sessionId);
+		if (session == null) {
+			return;
+		}
+		this.logger.debug(LogMessage.format("Removing session %s from set of registered sessions", sessionId));
+		session.shard.unregister(session);
+	}
+
+	private Shard shard(Object principal) {
+		int hash = principal.hashCode();
+		return this.shards[(hash ^ (hash >>> 16)) & this.mask];
+	}
+
+	/**
+	 * The principals of a shard and the lock guarding them
+	 */
+	private static final class Shard {
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		private final Map<Object, PrincipalSessions> principals = new HashMap<>();
+
+		private void touch(RegisteredSession session) {
+			this.lock.lock();
+			try {
+				if (session.list != null && !session.list.expired) {
+					session.list.moveToLast(session);
+				}
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		private void expire(RegisteredSession session) {
+			this.lock.lock();
+			try {
+				if (session.list != null && !session.list.expired) {
+					PrincipalSessions sessions = this.principals.get(session.getPrincipal());
+					sessions.active.unlink(session);
+					sessions.expired.addLast(session);
+				}
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		private void unregister(RegisteredSession session) {
+			this.lock.lock();
+			try {
+				if (session.list == null) {
+					return;
+				}
+				PrincipalSessions sessions = this.principals.get(session.getPrincipal());
+				session.list.unlink(session);
+				if (sessions.active.size == 0 && sessions.expired.size == 0) {
+					this.principals.remove(session.getPrincipal());
+				}
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+	}
+
+	/**
+	 * The sessions of a principal which are not expired, from the least to the most
+	 * recently used, and those which are expired
+	 */
+	private static final class PrincipalSessions {
+
+		private final SessionList active = new SessionList(false);
+
+		private final SessionList expired = new SessionList(true);
+
+	}
+
+	/**
+	 * A doubly linked list of {@link RegisteredSession}s, which are their own nodes
+	 */
+	private static final class SessionList {
+
+		private final boolean expired;
+
+		private RegisteredSession head;
+
+		private RegisteredSession tail;
+
+		private int size;
+
+		private SessionList(boolean expired) {
+			this.expired = expired;
+		}
+
+		private void addLast(RegisteredSession session) {
+			session.list = this;
+			session.previous = this.tail;
+			session.next = null;
+			if (this.tail == null) {
+				this.head = session;
+			}
+			else {
+				this.tail.next = session;
+			}
+			this.tail = session;
+			this.size++;
+		}
+
+		private void unlink(RegisteredSession session) {
+			if (session.previous == null) {
+				this.head = session.next;
+			}
+			else {
+				session.previous.next = session.next;
+			}
+			if (session.next == null) {
+				this.tail = session.previous;
+			}
+			else {
+				session.next.previous = session.previous;
+			}
+			session.list = null;
+			session.previous = null;
+			session.next = null;
+			this.size--;
+		}
+
+		private void moveToLast(RegisteredSession session) {
+			if (this.tail != session) {
+				unlink(session);
+				addLast(session);
+			}
+		}
+
+		private void addTo(List<SessionInformation> list) {
+			for (RegisteredSession session = this.head; session != null; session = session.next) {
+				list.add(session);
+			}
+		}
+
+	}
+
+	/**
+	 * A {@link SessionInformation} which notifies its shard when it is used or expired,
+	 * and which is a node of the {@link SessionList} it is in
+	 */
+	private static final class RegisteredSession extends SessionInformation {
+
+		private static final long serialVersionUID = SpringSecurityCoreVersion.SERIAL_VERSION_UID;
+
+		private final transient Shard shard;
+
+		private transient SessionList list;
+
+		private transient RegisteredSession previous;
+
+		private transient RegisteredSession next;
+
+		private RegisteredSession(Object principal, String sessionId, Date lastRequest, Shard shard) {
+			super(principal, sessionId, lastRequest);
+			this.shard = shard;
+		}
+
+		@Override
+		public void refreshLastRequest() {
+			super.refreshLastRequest();
+			if (this.shard != null) {
+				this.shard.touch(this);
+			}
+		}
+
+		@Override
+		public void expireNow() {
+			super.expireNow();
+			if (this.shard != null) {
+				this.shard.expire(this);
+			}
+		}
+
+	}
+
+}
@@ -35,7 +35,7 @@ import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.SpringSecurityCoreVersion;
 import org.springframework.security.core.authority.AuthorityUtils;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.authority.GrantedAuthorityInterner;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.util.Assert;
@@ -413,7 +413,7 @@ public class User implements UserDetails, CredentialsContainer {
 			for (String role : roles) {
 				Assert.isTrue(!role.startsWith("ROLE_"),
 						() -> role + " cannot start with ROLE_ (it is automatically added)");
-				authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+				authorities.add(GrantedAuthorityInterner.intern("ROLE_" + role));
 			}
 			return authorities(authorities);
 		}
@@ -439,7 +439,7 @@ public class User implements UserDetails, CredentialsContainer {
 		 * @see #roles(String...)
 		 */
 		public UserBuilder authorities(Collection<? extends GrantedAuthority> authorities) {
-			this.authorities = new ArrayList<>(authorities);
+			this.authorities = GrantedAuthorityInterner.internAll(authorities);
 			return this;
 		}
 
@@ -30,7 +30,7 @@ import org.springframework.jdbc.core.support.JdbcDaoSupport;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.SpringSecurityMessageSource;
 import org.springframework.security.core.authority.AuthorityUtils;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.authority.GrantedAuthorityInterner;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -228,7 +228,7 @@ public class JdbcDaoImpl extends JdbcDaoSupport implements UserDetailsService, M
 	protected List<GrantedAuthority> loadUserAuthorities(String username) {
 		return getJdbcTemplate().query(this.authoritiesByUsernameQuery, new String[] { username }, (rs, rowNum) -> {
 			String roleName = JdbcDaoImpl.this.rolePrefix + rs.getString(2);
-			return new SimpleGrantedAuthority(roleName);
+			return GrantedAuthorityInterner.intern(roleName);
 		});
 	}
 
@@ -241,7 +241,7 @@ public class JdbcDaoImpl extends JdbcDaoSupport implements UserDetailsService, M
 		return getJdbcTemplate().query(this.groupAuthoritiesByUsernameQuery, new String[] { username },
 				(rs, rowNum) -> {
 					String roleName = getRolePrefix() + rs.getString(3);
-					return new SimpleGrantedAuthority(roleName);
+					return GrantedAuthorityInterner.intern(roleName);
 				});
 	}
 
@@ -29,6 +29,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.MissingNode;
 
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.GrantedAuthorityInterner;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 
@@ -70,7 +71,7 @@ class UserDeserializer extends JsonDeserializer<User> {
 		boolean credentialsNonExpired = readJsonNode(jsonNode, "credentialsNonExpired").asBoolean();
 		boolean accountNonLocked = readJsonNode(jsonNode, "accountNonLocked").asBoolean();
 		User result = new User(username, password, enabled, accountNonExpired, credentialsNonExpired, accountNonLocked,
-				authorities);
+				GrantedAuthorityInterner.internAll(authorities));
 		if (passwordNode.asText(null) == null) {
 			result.eraseCredentials();
 		}
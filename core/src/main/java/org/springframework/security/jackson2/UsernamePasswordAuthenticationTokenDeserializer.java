@@ -32,6 +32,7 @@ import com.fasterxml.jackson.databind.node.MissingNode;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.GrantedAuthorityInterner;
 
 /**
  * Custom deserializer for {@link UsernamePasswordAuthenticationToken}. At the time of
@@ -77,6 +78,9 @@ class UsernamePasswordAuthenticationTokenDeserializer extends JsonDeserializer<U
 		Object credentials = getCredentials(credentialsNode);
 		List<GrantedAuthority> authorities = mapper.readValue(readJsonNode(jsonNode, "authorities").traverse(mapper),
 				GRANTED_AUTHORITY_LIST);
+		if (authorities != null) {
+			authorities = GrantedAuthorityInterner.internAll(authorities);
+		}
 		UsernamePasswordAuthenticationToken token = (!authenticated)
 				? UsernamePasswordAuthenticationToken.unauthenticated(principal, credentials)
 				: UsernamePasswordAuthenticationToken.authenticated(principal, credentials, authorities);
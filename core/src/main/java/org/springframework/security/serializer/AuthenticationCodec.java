@@ -0,0 +1,281 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.serializer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link Serializer} and {@link Deserializer} which writes a {@link SecurityContext},
+ * an {@link Authentication}, or any other object, in a versioned compact binary format
+ * that is much smaller and faster to read and write than Java serialization.
+ * <p>
+ * The types that have an {@link AuthenticationTypeCodec} are written field by field,
+ * without any class descriptor. The types of {@code spring-security-core} are always
+ * supported and, by default, the types of the other Spring Security modules on the
+ * classpath are supported as well, see {@link AuthenticationCodecModules}. Any other
+ * {@link java.io.Serializable} object is embedded with Java serialization, unless this
+ * is disabled with {@link #setJavaSerializationEnabled(boolean)}.
+ * <p>
+ * Strings, including authorities, are dictionary encoded: a string that was already
+ * written is written again as a reference of typically one byte, and so are the strings
+ * of a dictionary that is shared by every payload. The dictionary contains a few
+ * well-known values, like {@code ROLE_USER} and the standard OpenID Connect claim names,
+ * and can be extended with the authorities of the application with
+ * {@link #setDictionary(List)}. Since the dictionary is needed to read what was written
+ * with it, a fingerprint of it is written along with the version of the format, and
+ * payloads written with a different dictionary are rejected. Payloads written with Java
+ * serialization are read as well, so that existing sessions remain readable.
+ * <p>
+ * It can be used wherever Spring's {@link Serializer} and {@link Deserializer} are
+ * supported, for example by session repositories through
+ * {@link org.springframework.core.serializer.support.SerializingConverter} and
+ * {@link org.springframework.core.serializer.support.DeserializingConverter}, or by a
+ * {@code SecurityContextRepository} that serializes the {@link SecurityContext}.
+ *
+ * @since 6.1
+ */
+public final class AuthenticationCodec implements Serializer<Object>, Deserializer<Object> {
+
+	static final int VERSION = 1;
+
+	static final int MAX_DEPTH = 32;
+
+	static final int STRING_NULL = 0;
+
+	static final int STRING_LITERAL = 1;
+
+	static final int STRING_REFERENCE = 2;
+
+	static final int TAG_NULL = 0;
+
+	static final int TAG_STRING = 1;
+
+	static final int TAG_TRUE = 2;
+
+	static final int TAG_FALSE = 3;
+
+	static final int TAG_INTEGER = 4;
+
+	static final int TAG_LONG = 5;
+
+	static final int TAG_DOUBLE = 6;
+
+	static final int TAG_INSTANT = 7;
+
+	static final int TAG_URL = 8;
+
+	static final int TAG_LIST = 9;
+
+	static final int TAG_SET = 10;
+
+	static final int TAG_MAP = 11;
+
+	static final int TAG_TYPE = 12;
+
+	static final int TAG_SERIALIZED = 13;
+
+	private static final int JAVA_SERIALIZATION_MAGIC = 0xAC;
+
+	private static final List<String> DEFAULT_DICTIONARY = Arrays.asList("ROLE_USER", "ROLE_ADMIN",
+			"ROLE_ANONYMOUS", "anonymousUser", "OAUTH2_USER", "OIDC_USER", "SCOPE_openid", "SCOPE_profile",
+			"SCOPE_email", "SCOPE_address", "SCOPE_phone", "iss", "sub", "aud", "exp", "iat", "auth_time", "nonce",
+			"acr", "amr", "azp", "at_hash", "c_hash", "sid", "name", "given_name", "family_name", "middle_name",
+			"nickname", "preferred_username", "profile", "picture", "website", "email", "email_verified", "gender",
+			"birthdate", "zoneinfo", "locale", "phone_number", "phone_number_verified", "address", "updated_at",
+			"127.0.0.1", "0:0:0:0:0:0:0:1");
+
+	private final Map<Class<?>, AuthenticationTypeCodec<?>> typeCodecsByType = new HashMap<>();
+
+	private final Map<Integer, AuthenticationTypeCodec<?>> typeCodecsById = new HashMap<>();
+
+	private final Deserializer<Object> javaDeserializer = new DefaultDeserializer();
+
+	private List<String> dictionary;
+
+	private Map<String, Integer> dictionaryIndexes;
+
+	private byte[] dictionaryFingerprint;
+
+	private boolean javaSerializationEnabled = true;
+
+	/**
+	 * Creates an instance which supports the types of the Spring Security modules on the
+	 * classpath
+	 * @see AuthenticationCodecModules#getModules(ClassLoader)
+	 */
+	public AuthenticationCodec() {
+		this(AuthenticationCodecModules.getModules(AuthenticationCodec.class.getClassLoader()));
+	}
+
+	/**
+	 * Creates an instance which supports the types of the provided modules, in addition
+	 * to the types of {@code spring-security-core}
+	 * @param modules the modules to use
+	 */
+	public AuthenticationCodec(List<? extends AuthenticationCodecModule> modules) {
+		Assert.notNull(modules, "modules cannot be null");
+		register(new CoreAuthenticationCodecModule());
+		for (AuthenticationCodecModule module : modules) {
+			Assert.notNull(module, "modules cannot contain null values");
+			if (!(module instanceof CoreAuthenticationCodecModule)) {
+				register(module);
+			}
+		}
+		setDictionary(new ArrayList<>());
+	}
+
+	private void register(AuthenticationCodecModule module) {
+		for (AuthenticationTypeCodec<?> typeCodec : module.getTypeCodecs()) {
+			Assert.isTrue(typeCodec.getTypeId() > 0, () -> "typeId must be positive for " + typeCodec);
+			Assert.notNull(typeCodec.getType(), () -> "type cannot be null for " + typeCodec);
+			AuthenticationTypeCodec<?> existing = this.typeCodecsById.putIfAbsent(typeCodec.getTypeId(), typeCodec);
+			Assert.isNull(existing, () -> "typeId " + typeCodec.getTypeId() + " is used by both " + existing
+					+ " and " + typeCodec);
+			Assert.isNull(this.typeCodecsByType.putIfAbsent(typeCodec.getType(), typeCodec),
+					() -> "Found several AuthenticationTypeCodec for " + typeCodec.getType());
+		}
+	}
+
+	/**
+	 * Sets the strings, typically the authorities of the application, to add to the
+	 * dictionary that is shared by every payload. Each string in the dictionary is written
+	 * as a reference of one or two bytes. Payloads can only be read with the dictionary
+	 * they were written with.
+	 * @param dictionary the strings to add to the default dictionary
+	 */
+	public void setDictionary(List<String> dictionary) {
+		Assert.notNull(dictionary, "dictionary cannot be null");
+		List<String> entries = new ArrayList<>(DEFAULT_DICTIONARY);
+		Map<String, Integer> indexes = new HashMap<>();
+		for (String entry : DEFAULT_DICTIONARY) {
+			indexes.put(entry, indexes.size());
+		}
+		for (String entry : dictionary) {
+			Assert.notNull(entry, "dictionary cannot contain null values");
+			if (!indexes.containsKey(entry)) {
+				indexes.put(entry, entries.size());
+				entries.add(entry);
+			}
+		}
+		this.dictionary = entries;
+		this.dictionaryIndexes = indexes;
+		this.dictionaryFingerprint = fingerprint(entries);
+	}
+
+	/**
+	 * Whether objects which have no {@link AuthenticationTypeCodec} are written with Java
+	 * serialization, and whether payloads written with Java serialization can be read.
+	 * When disabled, writing such objects fails with a
+	 * {@link java.io.NotSerializableException}.
+	 * @param javaSerializationEnabled whether Java serialization can be used. The default
+	 * is true.
+	 */
+	public void setJavaSerializationEnabled(boolean javaSerializationEnabled) {
+		this.javaSerializationEnabled = javaSerializationEnabled;
+	}
+
+	@Override
+	public void serialize(Object object, OutputStream outputStream) throws IOException {
+		outputStream.write(VERSION);
+		outputStream.write(this.dictionaryFingerprint);
+		new AuthenticationCodecOutput(this, outputStream).writeObject(object);
+	}
+
+	@Override
+	public Object deserialize(InputStream inputStream) throws IOException {
+		PushbackInputStream in = new PushbackInputStream(inputStream, 1);
+		int version = in.read();
+		if (version == -1) {
+			throw new EOFException();
+		}
+		if (version == JAVA_SERIALIZATION_MAGIC && this.javaSerializationEnabled) {
+			in.unread(version);
+			return deserializeWithJava(in);
+		}
+		if (version != VERSION) {
+			throw new StreamCorruptedException("Unsupported version " + version);
+		}
+		byte[] fingerprint = in.readNBytes(this.dictionaryFingerprint.length);
+		if (!Arrays.equals(fingerprint, this.dictionaryFingerprint)) {
+			throw new StreamCorruptedException("The payload was written with a different dictionary");
+		}
+		return new AuthenticationCodecInput(this, in).readObject();
+	}
+
+	Object deserializeWithJava(InputStream in) throws IOException {
+		return this.javaDeserializer.deserialize(in);
+	}
+
+	boolean isJavaSerializationEnabled() {
+		return this.javaSerializationEnabled;
+	}
+
+	AuthenticationTypeCodec<?> getTypeCodec(Class<?> type) {
+		return this.typeCodecsByType.get(type);
+	}
+
+	AuthenticationTypeCodec<?> getTypeCodec(int typeId) {
+		return this.typeCodecsById.get(typeId);
+	}
+
+	Integer getDictionaryIndex(String value) {
+		return this.dictionaryIndexes.get(value);
+	}
+
+	int getDictionarySize() {
+		return this.dictionary.size();
+	}
+
+	String getDictionaryEntry(int index) {
+		return this.dictionary.get(index);
+	}
+
+	private static byte[] fingerprint(List<String> entries) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (String entry : entries) {
+				digest.update(entry.getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) 0);
+			}
+			return Arrays.copyOf(digest.digest(), 4);
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.serializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.GrantedAuthorityInterner;
+
+/**
+ * Reads values written by an {@link AuthenticationCodecOutput}. An
+ * {@link AuthenticationCodecInput} is created for each object that is deserialized, and
+ * is not thread-safe.
+ *
+ * @since 6.1
+ * @see AuthenticationCodecOutput
+ */
+public final class AuthenticationCodecInput {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final AuthenticationCodec codec;
+
+	private final InputStream in;
+
+	private final List<String> strings = new ArrayList<>();
+
+	private int depth;
+
+	AuthenticationCodecInput(AuthenticationCodec codec, InputStream in) {
+		this.codec = codec;
+		this.in = in;
+	}
+
+	/**
+	 * Reads a boolean written by {@link AuthenticationCodecOutput#writeBoolean(boolean)}
+	 * @return the value
+	 * @throws IOException if the value cannot be read
+	 */
+	public boolean readBoolean() throws IOException {
+		return readByte() != 0;
+	}
+
+	/**
+	 * Reads an int written by {@link AuthenticationCodecOutput#writeVarInt(int)}
+	 * @return the value
+	 * @throws IOException if the value cannot be read
+	 */
+	public int readVarInt() throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = readByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				if (value < 0) {
+					throw new StreamCorruptedException("Invalid varint");
+				}
+				return value;
+			}
+		}
+		throw new StreamCorruptedException("Invalid varint");
+	}
+
+	/**
+	 * Reads a long written by {@link AuthenticationCodecOutput#writeLong(long)}
+	 * @return the value
+	 * @throws IOException if the value cannot be read
+	 */
+	public long readLong() throws IOException {
+		long zigzag = 0;
+		for (int shift = 0; shift < 70; shift += 7) {
+			int b = readByte();
+			zigzag |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return (zigzag >>> 1) ^ -(zigzag & 1);
+			}
+		}
+		throw new StreamCorruptedException("Invalid varlong");
+	}
+
+	/**
+	 * Reads a, possibly {@code null}, {@link String} written by
+	 * {@link AuthenticationCodecOutput#writeString(String)}
+	 * @return the value
+	 * @throws IOException if the value cannot be read
+	 */
+	public String readString() throws IOException {
+		int code = readVarInt();
+		if (code == AuthenticationCodec.STRING_NULL) {
+			return null;
+		}
+		if (code == AuthenticationCodec.STRING_LITERAL) {
+			int length = readVarInt();
+			byte[] bytes = this.in.readNBytes(length);
+			if (bytes.length != length) {
+				throw new EOFException();
+			}
+			String value = new String(bytes, StandardCharsets.UTF_8);
+			this.strings.add(value);
+			return value;
+		}
+		int index = code - AuthenticationCodec.STRING_REFERENCE;
+		int dictionarySize = this.codec.getDictionarySize();
+		if (index < dictionarySize) {
+			return this.codec.getDictionaryEntry(index);
+		}
+		if (index - dictionarySize >= this.strings.size()) {
+			throw new StreamCorruptedException("Invalid string reference " + index);
+		}
+		return this.strings.get(index - dictionarySize);
+	}
+
+	/**
+	 * Reads the authorities written by
+	 * {@link AuthenticationCodecOutput#writeAuthorities(Collection)}
+	 * @return the authorities, or {@code null} if {@code null} was written
+	 * @throws IOException if the authorities cannot be read
+	 */
+	public List<GrantedAuthority> readAuthorities() throws IOException {
+		int size = readVarInt();
+		if (size == 0) {
+			return null;
+		}
+		size--;
+		List<GrantedAuthority> authorities = new ArrayList<>(Math.min(size, INITIAL_CAPACITY));
+		for (int i = 0; i < size; i++) {
+			String authority = readString();
+			if (authority != null) {
+				authorities.add(GrantedAuthorityInterner.intern(authority));
+			}
+			else {
+				authorities.add(readObject(GrantedAuthority.class));
+			}
+		}
+		return authorities;
+	}
+
+	/**
+	 * Reads an object written by {@link AuthenticationCodecOutput#writeObject(Object)}
+	 * and checks that it is of the expected type
+	 * @param <T> the expected type
+	 * @param type the expected type
+	 * @return the object, possibly {@code null}
+	 * @throws IOException if the object cannot be read, or is not of the expected type
+	 */
+	public <T> T readObject(Class<T> type) throws IOException {
+		Object value = readObject();
+		if (value != null && !type.isInstance(value)) {
+			throw new StreamCorruptedException(
+					"Expected " + type.getName() + " but found " + value.getClass().getName());
+		}
+		return type.cast(value);
+	}
+
+	/**
+	 * Reads an object written by {@link AuthenticationCodecOutput#writeObject(Object)}.
+	 * Lists, sets and maps are read as {@link ArrayList}, {@link LinkedHashSet} and
+	 * {@link LinkedHashMap}.
+	 * @return the object, possibly {@code null}
+	 * @throws IOException if the object cannot be read
+	 */
+	public Object readObject() throws IOException {
+		int tag = readByte();
+		switch (tag) {
+		case AuthenticationCodec.TAG_NULL:
+			return null;
+		case AuthenticationCodec.TAG_STRING:
+			return readString();
+		case AuthenticationCodec.TAG_TRUE:
+			return Boolean.TRUE;
+		case AuthenticationCodec.TAG_FALSE:
+			return Boolean.FALSE;
+		case AuthenticationCodec.TAG_INTEGER:
+			return Math.toIntExact(readLong());
+		case AuthenticationCodec.TAG_LONG:
+			return readLong();
+		case AuthenticationCodec.TAG_DOUBLE:
+			return readDouble();
+		case AuthenticationCodec.TAG_INSTANT:
+			return Instant.ofEpochSecond(readLong(), readVarInt());
+		case AuthenticationCodec.TAG_URL:
+			return new URL(readString());
+		case AuthenticationCodec.TAG_LIST:
+			return readElements(new ArrayList<>());
+		case AuthenticationCodec.TAG_SET:
+			return readElements(new LinkedHashSet<>());
+		case AuthenticationCodec.TAG_MAP:
+			return readMap();
+		case AuthenticationCodec.TAG_TYPE:
+			return readTyped();
+		case AuthenticationCodec.TAG_SERIALIZED:
+			return readSerialized();
+		default:
+			throw new StreamCorruptedException("Invalid tag " + tag);
+		}
+	}
+
+	private double readDouble() throws IOException {
+		long bits = 0;
+		for (int i = 0; i < 8; i++) {
+			bits = (bits << 8) | readByte();
+		}
+		return Double.longBitsToDouble(bits);
+	}
+
+	private <C extends Collection<Object>> C readElements(C elements) throws IOException {
+		int size = readVarInt();
+		enter();
+		for (int i = 0; i < size; i++) {
+			elements.add(readObject());
+		}
+		this.depth--;
+		return elements;
+	}
+
+	private Map<Object, Object> readMap() throws IOException {
+		int size = readVarInt();
+		Map<Object, Object> map = new LinkedHashMap<>(Math.min(size, INITIAL_CAPACITY));
+		enter();
+		for (int i = 0; i < size; i++) {
+			map.put(readObject(), readObject());
+		}
+		this.depth--;
+		return map;
+	}
+
+	private Object readTyped() throws IOException {
+		int typeId = readVarInt();
+		AuthenticationTypeCodec<?> typeCodec = this.codec.getTypeCodec(typeId);
+		if (typeCodec == null) {
+			throw new StreamCorruptedException("No AuthenticationTypeCodec with id " + typeId);
+		}
+		enter();
+		Object value = typeCodec.read(this);
+		this.depth--;
+		return value;
+	}
+
+	private Object readSerialized() throws IOException {
+		if (!this.codec.isJavaSerializationEnabled()) {
+			throw new StreamCorruptedException("Java serialization is disabled");
+		}
+		int length = readVarInt();
+		byte[] bytes = this.in.readNBytes(length);
+		if (bytes.length != length) {
+			throw new EOFException();
+		}
+		return this.codec.deserializeWithJava(new ByteArrayInputStream(bytes));
+	}
+
+	private int readByte() throws IOException {
+		int b = this.in.read();
+		if (b == -1) {
+			throw new EOFException();
+		}
+		return b;
+	}
+
+	private void enter() throws IOException {
+		if (++this.depth > AuthenticationCodec.MAX_DEPTH) {
+			throw new StreamCorruptedException("Objects are nested deeper than " + AuthenticationCodec.MAX_DEPTH);
+		}
+	}
+
+}
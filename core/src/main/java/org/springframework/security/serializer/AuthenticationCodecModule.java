@@ -0,0 +1,36 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.serializer;
+
+import java.util.List;
+
+/**
+ * Contributes the {@link AuthenticationTypeCodec}s of a Spring Security module, or of an
+ * application, to an {@link AuthenticationCodec}.
+ *
+ * @since 6.1
+ * @see AuthenticationCodecModules
+ */
+public interface AuthenticationCodecModule {
+
+	/**
+	 * The {@link AuthenticationTypeCodec}s of this module
+	 * @return the {@link AuthenticationTypeCodec}s
+	 */
+	List<AuthenticationTypeCodec<?>> getTypeCodecs();
+
+}
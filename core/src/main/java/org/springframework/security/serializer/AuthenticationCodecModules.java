@@ -0,0 +1,82 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.serializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.log.LogMessage;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Finds the {@link AuthenticationCodecModule}s of the Spring Security modules that are
+ * available on the classpath.
+ *
+ * @since 6.1
+ * @see AuthenticationCodec#AuthenticationCodec()
+ */
+public final class AuthenticationCodecModules {
+
+	private static final Log logger = LogFactory.getLog(AuthenticationCodecModules.class);
+
+	private static final List<String> authenticationCodecModuleClasses = Arrays.asList(
+			"org.springframework.security.web.serializer.WebAuthenticationCodecModule",
+			"org.springframework.security.oauth2.client.serializer.OAuth2ClientAuthenticationCodecModule",
+			"org.springframework.security.saml2.serializer.Saml2AuthenticationCodecModule");
+
+	private AuthenticationCodecModules() {
+	}
+
+	/**
+	 * Returns the {@link CoreAuthenticationCodecModule} followed by the
+	 * {@link AuthenticationCodecModule}s of the other Spring Security modules that can be
+	 * loaded.
+	 * @param loader the ClassLoader to use
+	 * @return the available {@link AuthenticationCodecModule}s
+	 */
+	public static List<AuthenticationCodecModule> getModules(ClassLoader loader) {
+		List<AuthenticationCodecModule> modules = new ArrayList<>();
+		modules.add(new CoreAuthenticationCodecModule());
+		for (String className : authenticationCodecModuleClasses) {
+			AuthenticationCodecModule module = loadAndGetInstance(className, loader);
+			if (module != null) {
+				modules.add(module);
+			}
+		}
+		return modules;
+	}
+
+	private static AuthenticationCodecModule loadAndGetInstance(String className, ClassLoader loader) {
+		if (!ClassUtils.isPresent(className, loader)) {
+			return null;
+		}
+		try {
+			Class<?> moduleClass = ClassUtils.forName(className, loader);
+			logger.debug(LogMessage.format("Loaded module %s, now registering", className));
+			return (AuthenticationCodecModule) moduleClass.getDeclaredConstructor().newInstance();
+		}
+		catch (Exception | LinkageError ex) {
+			logger.debug(LogMessage.format("Cannot load module %s", className), ex);
+			return null;
+		}
+	}
+
+}
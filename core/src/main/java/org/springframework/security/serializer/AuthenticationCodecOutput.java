@@ -0,0 +1,259 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Writes values in the compact binary format of {@link AuthenticationCodec}. An
+ * {@link AuthenticationCodecOutput} is created for each object that is serialized, and
+ * is not thread-safe.
+ *
+ * @since 6.1
+ * @see AuthenticationCodecInput
+ */
+public final class AuthenticationCodecOutput {
+
+	private final AuthenticationCodec codec;
+
+	private final OutputStream out;
+
+	private final Map<String, Integer> strings = new HashMap<>();
+
+	private int depth;
+
+	AuthenticationCodecOutput(AuthenticationCodec codec, OutputStream out) {
+		this.codec = codec;
+		this.out = out;
+	}
+
+	/**
+	 * Writes a boolean as a single byte
+	 * @param value the value to write
+	 * @throws IOException if the value cannot be written
+	 */
+	public void writeBoolean(boolean value) throws IOException {
+		this.out.write(value ? 1 : 0);
+	}
+
+	/**
+	 * Writes a non-negative int, like a size, as a variable length quantity of one to
+	 * five bytes
+	 * @param value the value to write
+	 * @throws IOException if the value cannot be written
+	 */
+	public void writeVarInt(int value) throws IOException {
+		if (value < 0) {
+			throw new IOException("Cannot write negative value " + value + " as a varint");
+		}
+		while ((value & ~0x7F) != 0) {
+			this.out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		this.out.write(value);
+	}
+
+	/**
+	 * Writes a long as a zigzag encoded variable length quantity of one to ten bytes, so
+	 * that values close to zero take the least space
+	 * @param value the value to write
+	 * @throws IOException if the value cannot be written
+	 */
+	public void writeLong(long value) throws IOException {
+		long zigzag = (value << 1) ^ (value >> 63);
+		while ((zigzag & ~0x7FL) != 0) {
+			this.out.write((int) ((zigzag & 0x7F) | 0x80));
+			zigzag >>>= 7;
+		}
+		this.out.write((int) zigzag);
+	}
+
+	/**
+	 * Writes a, possibly {@code null}, {@link String}. Strings that are in the dictionary
+	 * of the {@link AuthenticationCodec}, or that were already written to this output,
+	 * are written as a reference of typically one byte.
+	 * @param value the value to write
+	 * @throws IOException if the value cannot be written
+	 */
+	public void writeString(String value) throws IOException {
+		if (value == null) {
+			writeVarInt(AuthenticationCodec.STRING_NULL);
+			return;
+		}
+		Integer index = this.codec.getDictionaryIndex(value);
+		if (index == null) {
+			index = this.strings.get(value);
+		}
+		if (index != null) {
+			writeVarInt(AuthenticationCodec.STRING_REFERENCE + index);
+			return;
+		}
+		this.strings.put(value, this.codec.getDictionarySize() + this.strings.size());
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(AuthenticationCodec.STRING_LITERAL);
+		writeVarInt(bytes.length);
+		this.out.write(bytes);
+	}
+
+	/**
+	 * Writes a collection of {@link GrantedAuthority}. A {@link SimpleGrantedAuthority}
+	 * is written as its {@link #writeString(String) dictionary encoded} authority, and
+	 * any other {@link GrantedAuthority} with {@link #writeObject(Object)}.
+	 * @param authorities the authorities to write, may be {@code null}
+	 * @throws IOException if the authorities cannot be written
+	 */
+	public void writeAuthorities(Collection<? extends GrantedAuthority> authorities) throws IOException {
+		if (authorities == null) {
+			writeVarInt(0);
+			return;
+		}
+		writeVarInt(authorities.size() + 1);
+		for (GrantedAuthority authority : authorities) {
+			if (authority != null && authority.getClass() == SimpleGrantedAuthority.class) {
+				writeString(authority.getAuthority());
+			}
+			else {
+				writeString(null);
+				writeObject(authority);
+			}
+		}
+	}
+
+	/**
+	 * Writes any object. {@code null}, {@link String}, {@link Boolean}, {@link Integer},
+	 * {@link Long}, {@link Double}, {@link Instant}, {@link URL}, and {@link List},
+	 * {@link Set} and {@link Map} of those are written directly. Objects of a type that
+	 * has an {@link AuthenticationTypeCodec} are written with it. Any other
+	 * {@link Serializable} object is written with Java serialization, unless it was
+	 * disabled with {@link AuthenticationCodec#setJavaSerializationEnabled(boolean)}.
+	 * @param value the value to write
+	 * @throws IOException if the value cannot be written
+	 */
+	public void writeObject(Object value) throws IOException {
+		if (value == null) {
+			this.out.write(AuthenticationCodec.TAG_NULL);
+		}
+		else if (value instanceof String) {
+			this.out.write(AuthenticationCodec.TAG_STRING);
+			writeString((String) value);
+		}
+		else if (value instanceof Boolean) {
+			this.out.write(((Boolean) value) ? AuthenticationCodec.TAG_TRUE : AuthenticationCodec.TAG_FALSE);
+		}
+		else if (value instanceof Integer) {
+			this.out.write(AuthenticationCodec.TAG_INTEGER);
+			writeLong((Integer) value);
+		}
+		else if (value instanceof Long) {
+			this.out.write(AuthenticationCodec.TAG_LONG);
+			writeLong((Long) value);
+		}
+		else if (value instanceof Double) {
+			long bits = Double.doubleToLongBits((Double) value);
+			this.out.write(AuthenticationCodec.TAG_DOUBLE);
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				this.out.write((int) (bits >>> shift));
+			}
+		}
+		else if (value instanceof Instant) {
+			Instant instant = (Instant) value;
+			this.out.write(AuthenticationCodec.TAG_INSTANT);
+			writeLong(instant.getEpochSecond());
+			writeVarInt(instant.getNano());
+		}
+		else if (value instanceof URL) {
+			this.out.write(AuthenticationCodec.TAG_URL);
+			writeString(((URL) value).toExternalForm());
+		}
+		else if (value instanceof List) {
+			this.out.write(AuthenticationCodec.TAG_LIST);
+			writeElements((List<?>) value);
+		}
+		else if (value instanceof Set) {
+			this.out.write(AuthenticationCodec.TAG_SET);
+			writeElements((Set<?>) value);
+		}
+		else if (value instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) value;
+			this.out.write(AuthenticationCodec.TAG_MAP);
+			writeVarInt(map.size());
+			enter();
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				writeObject(entry.getKey());
+				writeObject(entry.getValue());
+			}
+			this.depth--;
+		}
+		else {
+			writeTyped(value);
+		}
+	}
+
+	private void writeElements(Collection<?> elements) throws IOException {
+		writeVarInt(elements.size());
+		enter();
+		for (Object element : elements) {
+			writeObject(element);
+		}
+		this.depth--;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void writeTyped(Object value) throws IOException {
+		AuthenticationTypeCodec<Object> typeCodec = (AuthenticationTypeCodec<Object>) this.codec
+				.getTypeCodec(value.getClass());
+		if (typeCodec != null) {
+			this.out.write(AuthenticationCodec.TAG_TYPE);
+			writeVarInt(typeCodec.getTypeId());
+			enter();
+			typeCodec.write(value, this);
+			this.depth--;
+			return;
+		}
+		if (!this.codec.isJavaSerializationEnabled() || !(value instanceof Serializable)) {
+			throw new NotSerializableException(value.getClass().getName());
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		new DefaultSerializer().serialize(value, bytes);
+		this.out.write(AuthenticationCodec.TAG_SERIALIZED);
+		writeVarInt(bytes.size());
+		bytes.writeTo(this.out);
+	}
+
+	private void enter() throws IOException {
+		if (++this.depth > AuthenticationCodec.MAX_DEPTH) {
+			throw new IOException("Cannot write objects nested deeper than " + AuthenticationCodec.MAX_DEPTH);
+		}
+	}
+
+}
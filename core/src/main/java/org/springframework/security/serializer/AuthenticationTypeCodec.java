@@ -0,0 +1,75 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.serializer;
+
+import java.io.IOException;
+
+/**
+ * Writes and reads one type of object in the compact binary format of
+ * {@link AuthenticationCodec}.
+ * <p>
+ * Each {@link AuthenticationTypeCodec} is identified in the written bytes by its
+ * {@link #getTypeId() type id}, which must therefore never change once data has been
+ * written with it. The ids are allocated as follows:
+ *
+ * <ul>
+ * <li>{@code 1} to {@code 15} - {@code spring-security-core}</li>
+ * <li>{@code 16} to {@code 31} - {@code spring-security-web}</li>
+ * <li>{@code 32} to {@code 47} - {@code spring-security-oauth2-client}</li>
+ * <li>{@code 48} to {@code 63} - {@code spring-security-saml2-service-provider}</li>
+ * <li>{@code 1024} and above - applications</li>
+ * </ul>
+ *
+ * An {@link AuthenticationTypeCodec} is only used for objects whose class is exactly
+ * {@link #getType()}, so that subclasses are never written as one of their parents.
+ *
+ * @param <T> the type of object that is written and read
+ * @since 6.1
+ * @see AuthenticationCodecModule
+ */
+public interface AuthenticationTypeCodec<T> {
+
+	/**
+	 * The id that identifies this {@link AuthenticationTypeCodec} in the written bytes
+	 * @return the type id, which must be positive
+	 */
+	int getTypeId();
+
+	/**
+	 * The exact type of the objects that this {@link AuthenticationTypeCodec} writes and
+	 * reads
+	 * @return the type
+	 */
+	Class<T> getType();
+
+	/**
+	 * Writes the state of the provided object
+	 * @param value the object to write
+	 * @param output the output to write to
+	 * @throws IOException if the object cannot be written
+	 */
+	void write(T value, AuthenticationCodecOutput output) throws IOException;
+
+	/**
+	 * Reads an object from what was written by {@link #write}
+	 * @param input the input to read from
+	 * @return the object
+	 * @throws IOException if the object cannot be read
+	 */
+	T read(AuthenticationCodecInput input) throws IOException;
+
+}
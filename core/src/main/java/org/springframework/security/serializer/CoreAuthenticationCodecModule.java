@@ -0,0 +1,182 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.serializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.GrantedAuthorityInterner;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * The {@link AuthenticationCodecModule} of {@code spring-security-core}, which supports
+ * {@link SecurityContextImpl}, {@link UsernamePasswordAuthenticationToken}, {@link User}
+ * and {@link SimpleGrantedAuthority}. It is always registered by
+ * {@link AuthenticationCodec}.
+ *
+ * @since 6.1
+ */
+public final class CoreAuthenticationCodecModule implements AuthenticationCodecModule {
+
+	@Override
+	public List<AuthenticationTypeCodec<?>> getTypeCodecs() {
+		return Arrays.asList(new SecurityContextImplCodec(), new UsernamePasswordAuthenticationTokenCodec(),
+				new UserCodec(), new SimpleGrantedAuthorityCodec());
+	}
+
+	private static final class SecurityContextImplCodec implements AuthenticationTypeCodec<SecurityContextImpl> {
+
+		@Override
+		public int getTypeId() {
+			return 1;
+		}
+
+		@Override
+		public Class<SecurityContextImpl> getType() {
+			return SecurityContextImpl.class;
+		}
+
+		@Override
+		public void write(SecurityContextImpl value, AuthenticationCodecOutput output) throws IOException {
+			output.writeObject(value.getAuthentication());
+		}
+
+		@Override
+		public SecurityContextImpl read(AuthenticationCodecInput input) throws IOException {
+			return new SecurityContextImpl(input.readObject(Authentication.class));
+		}
+
+	}
+
+	private static final class UsernamePasswordAuthenticationTokenCodec
+			implements AuthenticationTypeCodec<UsernamePasswordAuthenticationToken> {
+
+		@Override
+		public int getTypeId() {
+			return 2;
+		}
+
+		@Override
+		public Class<UsernamePasswordAuthenticationToken> getType() {
+			return UsernamePasswordAuthenticationToken.class;
+		}
+
+		@Override
+		public void write(UsernamePasswordAuthenticationToken value, AuthenticationCodecOutput output)
+				throws IOException {
+			output.writeObject(value.getPrincipal());
+			output.writeObject(value.getCredentials());
+			output.writeBoolean(value.isAuthenticated());
+			output.writeAuthorities(value.getAuthorities());
+			output.writeObject(value.getDetails());
+		}
+
+		@Override
+		public UsernamePasswordAuthenticationToken read(AuthenticationCodecInput input) throws IOException {
+			Object principal = input.readObject();
+			Object credentials = input.readObject();
+			boolean authenticated = input.readBoolean();
+			UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(principal,
+					credentials, input.readAuthorities());
+			if (!authenticated) {
+				token.setAuthenticated(false);
+			}
+			token.setDetails(input.readObject());
+			return token;
+		}
+
+	}
+
+	private static final class UserCodec implements AuthenticationTypeCodec<User> {
+
+		private static final int ENABLED = 1;
+
+		private static final int ACCOUNT_NON_EXPIRED = 1 << 1;
+
+		private static final int CREDENTIALS_NON_EXPIRED = 1 << 2;
+
+		private static final int ACCOUNT_NON_LOCKED = 1 << 3;
+
+		@Override
+		public int getTypeId() {
+			return 3;
+		}
+
+		@Override
+		public Class<User> getType() {
+			return User.class;
+		}
+
+		@Override
+		public void write(User value, AuthenticationCodecOutput output) throws IOException {
+			int flags = 0;
+			flags |= value.isEnabled() ? ENABLED : 0;
+			flags |= value.isAccountNonExpired() ? ACCOUNT_NON_EXPIRED : 0;
+			flags |= value.isCredentialsNonExpired() ? CREDENTIALS_NON_EXPIRED : 0;
+			flags |= value.isAccountNonLocked() ? ACCOUNT_NON_LOCKED : 0;
+			output.writeString(value.getUsername());
+			output.writeString(value.getPassword());
+			output.writeVarInt(flags);
+			output.writeAuthorities(value.getAuthorities());
+		}
+
+		@Override
+		public User read(AuthenticationCodecInput input) throws IOException {
+			String username = input.readString();
+			String password = input.readString();
+			int flags = input.readVarInt();
+			User user = new User(username, (password != null) ? password : "", (flags & ENABLED) != 0,
+					(flags & ACCOUNT_NON_EXPIRED) != 0, (flags & CREDENTIALS_NON_EXPIRED) != 0,
+					(flags & ACCOUNT_NON_LOCKED) != 0, input.readAuthorities());
+			if (password == null) {
+				user.eraseCredentials();
+			}
+			return user;
+		}
+
+	}
+
+	private static final class SimpleGrantedAuthorityCodec implements AuthenticationTypeCodec<SimpleGrantedAuthority> {
+
+		@Override
+		public int getTypeId() {
+			return 4;
+		}
+
+		@Override
+		public Class<SimpleGrantedAuthority> getType() {
+			return SimpleGrantedAuthority.class;
+		}
+
+		@Override
+		public void write(SimpleGrantedAuthority value, AuthenticationCodecOutput output) throws IOException {
+			output.writeString(value.getAuthority());
+		}
+
+		@Override
+		public SimpleGrantedAuthority read(AuthenticationCodecInput input) throws IOException {
+			return GrantedAuthorityInterner.intern(input.readString());
+		}
+
+	}
+
+}
@@ -17,15 +17,18 @@
 package org.springframework.security.access.hierarchicalroles;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.assertThatNoException;
 
 /**
@@ -191,4 +194,70 @@ public class RoleHierarchyImplTests {
 				.containsExactlyInAnyOrderElementsOf(allAuthorities);
 	}
 
+	@Test
+	public void setCacheSizeWhenNegativeThenException() {
+		RoleHierarchyImpl roleHierarchyImpl = new RoleHierarchyImpl();
+		assertThatIllegalArgumentException().isThrownBy(() -> roleHierarchyImpl.setCacheSize(-1));
+	}
+
+	@Test
+	public void getReachableGrantedAuthoritiesWhenCacheSizeSetThenMemoized() {
+		RoleHierarchyImpl roleHierarchyImpl = new RoleHierarchyImpl();
+		roleHierarchyImpl.setHierarchy("ROLE_A > ROLE_B\nROLE_B > ROLE_C");
+		roleHierarchyImpl.setCacheSize(10);
+		Collection<GrantedAuthority> reachable = roleHierarchyImpl
+				.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_A", "ROLE_X"));
+		assertThat(reachable).extracting(GrantedAuthority::getAuthority).containsExactlyInAnyOrder("ROLE_A",
+				"ROLE_B", "ROLE_C", "ROLE_X");
+		assertThat(roleHierarchyImpl
+				.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_A", "ROLE_X")))
+						.isSameAs(reachable);
+		assertThat(roleHierarchyImpl.getCacheHitCount()).isEqualTo(1);
+		assertThat(roleHierarchyImpl.getCacheMissCount()).isEqualTo(1);
+		assertThatExceptionOfType(UnsupportedOperationException.class)
+				.isThrownBy(() -> reachable.add(new SimpleGrantedAuthority("ROLE_Y")));
+	}
+
+	@Test
+	public void getReachableGrantedAuthoritiesWhenCacheFullThenComputed() {
+		RoleHierarchyImpl roleHierarchyImpl = new RoleHierarchyImpl();
+		roleHierarchyImpl.setHierarchy("ROLE_A > ROLE_B");
+		roleHierarchyImpl.setCacheSize(1);
+		roleHierarchyImpl.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_A"));
+		List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList("ROLE_B");
+		Collection<GrantedAuthority> reachable = roleHierarchyImpl.getReachableGrantedAuthorities(authorities);
+		assertThat(roleHierarchyImpl.getReachableGrantedAuthorities(authorities)).isNotSameAs(reachable)
+				.isEqualTo(reachable);
+		roleHierarchyImpl.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_A"));
+		assertThat(roleHierarchyImpl.getCacheHitCount()).isEqualTo(1);
+		assertThat(roleHierarchyImpl.getCacheMissCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void getReachableGrantedAuthoritiesWhenNotSimpleGrantedAuthorityThenNotMemoized() {
+		RoleHierarchyImpl roleHierarchyImpl = new RoleHierarchyImpl();
+		roleHierarchyImpl.setHierarchy("ROLE_A > ROLE_B");
+		roleHierarchyImpl.setCacheSize(10);
+		List<GrantedAuthority> authorities = List.of(() -> "ROLE_A");
+		Collection<GrantedAuthority> reachable = roleHierarchyImpl.getReachableGrantedAuthorities(authorities);
+		assertThat(reachable).extracting(GrantedAuthority::getAuthority).containsExactlyInAnyOrder("ROLE_A",
+				"ROLE_B");
+		assertThat(reachable).contains(authorities.get(0));
+		assertThat(roleHierarchyImpl.getReachableGrantedAuthorities(authorities)).isNotSameAs(reachable);
+		assertThat(roleHierarchyImpl.getCacheHitCount()).isZero();
+		assertThat(roleHierarchyImpl.getCacheMissCount()).isZero();
+	}
+
+	@Test
+	public void setHierarchyWhenMemoizedThenCacheCleared() {
+		RoleHierarchyImpl roleHierarchyImpl = new RoleHierarchyImpl();
+		roleHierarchyImpl.setHierarchy("ROLE_A > ROLE_B");
+		roleHierarchyImpl.setCacheSize(10);
+		List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList("ROLE_A");
+		roleHierarchyImpl.getReachableGrantedAuthorities(authorities);
+		roleHierarchyImpl.setHierarchy("ROLE_A > ROLE_C");
+		assertThat(roleHierarchyImpl.getReachableGrantedAuthorities(authorities))
+				.extracting(GrantedAuthority::getAuthority).containsExactlyInAnyOrder("ROLE_A", "ROLE_C");
+	}
+
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.core.Authentication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link AdmissionControlAuthenticationManager}
+ */
+public class AdmissionControlAuthenticationManagerTests {
+
+	private final AuthenticationManager delegate = mock(AuthenticationManager.class);
+
+	@Test
+	public void constructorWhenNullThenException() {
+		AuthenticationAttemptLimiter limiter = new AuthenticationAttemptLimiter(1, 1, Duration.ofMinutes(1));
+		assertThatIllegalArgumentException().isThrownBy(() -> new AdmissionControlAuthenticationManager(null, limiter));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new AdmissionControlAuthenticationManager(this.delegate, null));
+	}
+
+	@Test
+	public void authenticateWhenUsernameExceedsLimitThenRejectedBeforeDelegate() {
+		AdmissionControlAuthenticationManager manager = new AdmissionControlAuthenticationManager(this.delegate,
+				new AuthenticationAttemptLimiter(100, 2, Duration.ofMinutes(1)));
+		Authentication result = new TestingAuthenticationToken("user", "password", "ROLE_USER");
+		given(this.delegate.authenticate(any())).willReturn(result);
+		Authentication request = UsernamePasswordAuthenticationToken.unauthenticated("user", "password");
+		assertThat(manager.authenticate(request)).isSameAs(result);
+		assertThat(manager.authenticate(request)).isSameAs(result);
+		assertThatExceptionOfType(AuthenticationAttemptsExceededException.class)
+				.isThrownBy(() -> manager.authenticate(request));
+		verify(this.delegate, times(2)).authenticate(request);
+	}
+
+	@Test
+	public void authenticateWhenClientExceedsLimitThenRejected() {
+		AdmissionControlAuthenticationManager manager = new AdmissionControlAuthenticationManager(this.delegate,
+				new AuthenticationAttemptLimiter(1, 100, Duration.ofMinutes(1)));
+		manager.setClientResolver((authentication) -> (String) authentication.getDetails());
+		manager.setRejectionDelay(Duration.ofMillis(1));
+		UsernamePasswordAuthenticationToken first = UsernamePasswordAuthenticationToken.unauthenticated("user",
+				"password");
+		first.setDetails("10.0.0.1");
+		UsernamePasswordAuthenticationToken second = UsernamePasswordAuthenticationToken.unauthenticated("admin",
+				"password");
+		second.setDetails("10.0.0.1");
+		manager.authenticate(first);
+		assertThatExceptionOfType(AuthenticationAttemptsExceededException.class)
+				.isThrownBy(() -> manager.authenticate(second));
+		verify(this.delegate).authenticate(first);
+	}
+
+}
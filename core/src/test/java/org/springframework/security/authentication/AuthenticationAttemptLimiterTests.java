@@ -0,0 +1,149 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link AuthenticationAttemptLimiter}
+ */
+public class AuthenticationAttemptLimiterTests {
+
+	private static final Instant WINDOW_START = Instant.ofEpochSecond(540);
+
+	@Test
+	public void constructorWhenInvalidThenException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new AuthenticationAttemptLimiter(0, 1, Duration.ofMinutes(1)));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new AuthenticationAttemptLimiter(1, 0xFFFF, Duration.ofMinutes(1)));
+		assertThatIllegalArgumentException().isThrownBy(() -> new AuthenticationAttemptLimiter(1, 1, Duration.ZERO));
+	}
+
+	@Test
+	public void tryAcquireWhenClientExceedsLimitThenRejected() {
+		AuthenticationAttemptLimiter limiter = limiter(3, 100);
+		for (int i = 0; i < 3; i++) {
+			assertThat(limiter.tryAcquire("10.0.0.1", "user" + i)).isTrue();
+		}
+		assertThat(limiter.tryAcquire("10.0.0.1", "other")).isFalse();
+		assertThat(limiter.tryAcquire("10.0.0.2", "other")).isTrue();
+		assertThat(limiter.getRejectedCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void tryAcquireWhenUsernameExceedsLimitThenRejected() {
+		AuthenticationAttemptLimiter limiter = limiter(100, 2);
+		assertThat(limiter.tryAcquire("10.0.0.1", "user")).isTrue();
+		assertThat(limiter.tryAcquire("10.0.0.2", "user")).isTrue();
+		assertThat(limiter.tryAcquire("10.0.0.3", "user")).isFalse();
+		assertThat(limiter.tryAcquire(null, "user")).isFalse();
+		assertThat(limiter.tryAcquire("10.0.0.3", "admin")).isTrue();
+		assertThat(limiter.tryAcquire(null, null)).isTrue();
+	}
+
+	@Test
+	public void tryAcquireWhenWindowSlidesThenPreviousAttemptsDecay() {
+		AuthenticationAttemptLimiter limiter = limiter(100, 4);
+		for (int i = 0; i < 4; i++) {
+			assertThat(limiter.tryAcquire(null, "user")).isTrue();
+		}
+		assertThat(limiter.tryAcquire(null, "user")).isFalse();
+		// Half of the previous window is still covered, which counts as 5 * 0.5 attempts
+		limiter.setClock(clock(WINDOW_START.plusSeconds(270)));
+		assertThat(limiter.tryAcquire(null, "user")).isTrue();
+		assertThat(limiter.tryAcquire(null, "user")).isTrue();
+		assertThat(limiter.tryAcquire(null, "user")).isFalse();
+		limiter.setClock(clock(WINDOW_START.plusSeconds(540)));
+		assertThat(limiter.tryAcquire(null, "user")).isTrue();
+	}
+
+	@Test
+	public void tryAcquireWhenManyKeysThenBoundedSlotsOnlyOverestimate() {
+		AuthenticationAttemptLimiter limiter = new AuthenticationAttemptLimiter(100, 1, Duration.ofMinutes(1), 16);
+		limiter.setClock(clock(WINDOW_START));
+		int admitted = 0;
+		for (int i = 0; i < 1000; i++) {
+			if (limiter.tryAcquire(null, "user" + i)) {
+				admitted++;
+			}
+		}
+		assertThat(admitted).isLessThan(1000);
+		assertThat(limiter.tryAcquire(null, "user0")).isFalse();
+	}
+
+	@Test
+	public void tryAcquireWhenConcurrentThenExactlyLimitAdmitted() throws Exception {
+		int limit = 5000;
+		AuthenticationAttemptLimiter limiter = limiter(limit, limit);
+		int threads = 8;
+		AtomicInteger admitted = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < limit; i++) {
+						if (limiter.tryAcquire("10.0.0.1", "user")) {
+							admitted.incrementAndGet();
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(admitted.get()).isEqualTo(limit);
+		assertThat(limiter.getRejectedCount()).isEqualTo((long) threads * limit - limit);
+	}
+
+	private static AuthenticationAttemptLimiter limiter(int maxAttemptsPerClient, int maxAttemptsPerUsername) {
+		AuthenticationAttemptLimiter limiter = new AuthenticationAttemptLimiter(maxAttemptsPerClient,
+				maxAttemptsPerUsername, Duration.ofMinutes(3));
+		limiter.setClock(clock(WINDOW_START));
+		return limiter;
+	}
+
+	private static Clock clock(Instant instant) {
+		return Clock.fixed(instant, ZoneOffset.UTC);
+	}
+
+}
@@ -16,6 +16,9 @@
 
 package org.springframework.security.authentication;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -32,6 +35,7 @@ import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsChecker;
+import org.springframework.security.crypto.password.AsyncPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -42,6 +46,7 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 /**
@@ -101,6 +106,51 @@ public class UserDetailsRepositoryReactiveAuthenticationManagerTests {
 		verify(this.scheduler).schedule(any());
 	}
 
+	@Test
+	public void authenticateWhenAsyncPasswordEncoderThenSchedulerNotUsed() {
+		AsyncPasswordEncoder encoder = mock(AsyncPasswordEncoder.class);
+		given(this.userDetailsService.findByUsername(any())).willReturn(Mono.just(this.user));
+		given(encoder.matchesAsync(any(), any())).willReturn(CompletableFuture.completedFuture(true));
+		given(encoder.upgradeEncoding(any())).willReturn(true);
+		given(encoder.encodeAsync(any())).willReturn(CompletableFuture.completedFuture("encoded"));
+		given(this.userDetailsPasswordService.updatePassword(any(), any())).willReturn(Mono.just(this.user));
+		this.manager.setScheduler(this.scheduler);
+		this.manager.setPasswordEncoder(encoder);
+		this.manager.setUserDetailsPasswordService(this.userDetailsPasswordService);
+		UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.unauthenticated(this.user,
+				this.user.getPassword());
+		Authentication result = this.manager.authenticate(token).block();
+		verify(encoder).matchesAsync(this.user.getPassword(), this.user.getPassword());
+		verify(this.userDetailsPasswordService).updatePassword(eq(this.user), eq("encoded"));
+		verifyNoInteractions(this.scheduler);
+	}
+
+	@Test
+	public void authenticateWhenAsyncPasswordEncoderAndBadCredentialsThenException() {
+		AsyncPasswordEncoder encoder = mock(AsyncPasswordEncoder.class);
+		given(this.userDetailsService.findByUsername(any())).willReturn(Mono.just(this.user));
+		given(encoder.matchesAsync(any(), any())).willReturn(CompletableFuture.completedFuture(false));
+		this.manager.setPasswordEncoder(encoder);
+		UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.unauthenticated(this.user,
+				this.user.getPassword());
+		assertThatExceptionOfType(BadCredentialsException.class)
+				.isThrownBy(() -> this.manager.authenticate(token).block());
+	}
+
+	@Test
+	public void authenticateWhenAsyncPasswordEncoderRejectsThenAuthenticationServiceException() {
+		AsyncPasswordEncoder encoder = mock(AsyncPasswordEncoder.class);
+		given(this.userDetailsService.findByUsername(any())).willReturn(Mono.just(this.user));
+		given(encoder.matchesAsync(any(), any()))
+				.willReturn(CompletableFuture.failedFuture(new RejectedExecutionException("queue full")));
+		this.manager.setPasswordEncoder(encoder);
+		UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.unauthenticated(this.user,
+				this.user.getPassword());
+		assertThatExceptionOfType(AuthenticationServiceException.class)
+				.isThrownBy(() -> this.manager.authenticate(token).block())
+				.withCauseInstanceOf(RejectedExecutionException.class);
+	}
+
 	@Test
 	public void authenticateWhenPasswordServiceThenUpdated() {
 		String encodedPassword = "encoded";
@@ -19,6 +19,7 @@ package org.springframework.security.authentication.dao;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.junit.jupiter.api.Test;
 
@@ -287,6 +288,43 @@ public class DaoAuthenticationProviderTests {
 		verify(passwordManager).updatePassword(eq(user), eq(encodedPassword));
 	}
 
+	@Test
+	public void authenticateWhenVerifiedCredentialsCacheThenPasswordMatchedOnce() {
+		PasswordEncoder encoder = mock(PasswordEncoder.class);
+		UserDetailsService userDetailsService = mock(UserDetailsService.class);
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setPasswordEncoder(encoder);
+		provider.setUserDetailsService(userDetailsService);
+		provider.setVerifiedCredentialsCache(new VerifiedCredentialsCache());
+		given(encoder.matches("password", "encoded")).willReturn(true);
+		given(userDetailsService.loadUserByUsername(any()))
+				.willReturn(User.withUsername("user").password("encoded").roles("USER").build());
+		provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "password"));
+		provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "password"));
+		verify(encoder).matches("password", "encoded");
+		assertThatExceptionOfType(BadCredentialsException.class).isThrownBy(
+				() -> provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "wrong")));
+		verify(encoder).matches("wrong", "encoded");
+	}
+
+	@Test
+	public void authenticateWhenVerifiedCredentialsCacheAndPasswordChangedThenPasswordMatched() {
+		PasswordEncoder encoder = mock(PasswordEncoder.class);
+		UserDetailsService userDetailsService = mock(UserDetailsService.class);
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setPasswordEncoder(encoder);
+		provider.setUserDetailsService(userDetailsService);
+		provider.setVerifiedCredentialsCache(new VerifiedCredentialsCache());
+		given(encoder.matches("password", "encoded")).willReturn(true);
+		given(userDetailsService.loadUserByUsername(any()))
+				.willReturn(User.withUsername("user").password("encoded").roles("USER").build())
+				.willReturn(User.withUsername("user").password("changed").roles("USER").build());
+		provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "password"));
+		assertThatExceptionOfType(BadCredentialsException.class).isThrownBy(
+				() -> provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "password")));
+		verify(encoder).matches("password", "changed");
+	}
+
 	@Test
 	public void authenticateWhenBadCredentialsAndPasswordManagerThenNoUpdate() {
 		UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.unauthenticated("user",
@@ -441,6 +479,19 @@ public class DaoAuthenticationProviderTests {
 		assertThatExceptionOfType(UsernameNotFoundException.class).isThrownBy(() -> provider.authenticate(token));
 	}
 
+	@Test
+	public void authenticateWhenPasswordEncoderRejectsThenAuthenticationServiceException() {
+		UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.unauthenticated("rod",
+				"koala");
+		PasswordEncoder encoder = mock(PasswordEncoder.class);
+		given(encoder.matches(any(), any())).willThrow(new RejectedExecutionException("queue full"));
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setPasswordEncoder(encoder);
+		provider.setUserDetailsService(new MockUserDetailsServiceUserRod());
+		assertThatExceptionOfType(AuthenticationServiceException.class).isThrownBy(() -> provider.authenticate(token))
+				.withCauseInstanceOf(RejectedExecutionException.class);
+	}
+
 	/**
 	 * This is an explicit test for SEC-2056. It is intentionally ignored since this test
 	 * is not deterministic and {@link #testUserNotFoundEncodesPassword()} ensures that
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication.dao;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link VerifiedCredentialsCache}
+ */
+public class VerifiedCredentialsCacheTests {
+
+	private final VerifiedCredentialsCache cache = new VerifiedCredentialsCache();
+
+	@Test
+	public void constructorWhenSecretTooShortThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new VerifiedCredentialsCache(new byte[31]));
+	}
+
+	@Test
+	public void isVerifiedWhenPutThenTrue() {
+		this.cache.putVerified("user", "password", "encoded");
+		assertThat(this.cache.isVerified("user", "password", "encoded")).isTrue();
+		assertThat(this.cache.getHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void isVerifiedWhenDifferentCredentialsThenFalse() {
+		this.cache.putVerified("user", "password", "encoded");
+		assertThat(this.cache.isVerified("user", "other", "encoded")).isFalse();
+		assertThat(this.cache.isVerified("other", "password", "encoded")).isFalse();
+		assertThat(this.cache.isVerified("user", "password", "changed")).isFalse();
+		assertThat(this.cache.isVerified("userp", "assword", "encoded")).isFalse();
+		assertThat(this.cache.getMissCount()).isEqualTo(4);
+	}
+
+	@Test
+	public void isVerifiedWhenExpiredThenFalse() {
+		Instant now = Instant.now();
+		this.cache.setClock(Clock.fixed(now, ZoneOffset.UTC));
+		this.cache.setTimeToLive(Duration.ofSeconds(30));
+		this.cache.putVerified("user", "password", "encoded");
+		this.cache.setClock(Clock.fixed(now.plusSeconds(29), ZoneOffset.UTC));
+		assertThat(this.cache.isVerified("user", "password", "encoded")).isTrue();
+		this.cache.setClock(Clock.fixed(now.plusSeconds(30), ZoneOffset.UTC));
+		assertThat(this.cache.isVerified("user", "password", "encoded")).isFalse();
+	}
+
+	@Test
+	public void evictThenOnlyUserEvicted() {
+		this.cache.putVerified("user", "password", "encoded");
+		this.cache.putVerified("admin", "password", "encoded");
+		this.cache.evict("user");
+		assertThat(this.cache.isVerified("user", "password", "encoded")).isFalse();
+		assertThat(this.cache.isVerified("admin", "password", "encoded")).isTrue();
+	}
+
+	@Test
+	public void putVerifiedWhenFullThenExpiredPurgedOrNotCached() {
+		Instant now = Instant.now();
+		this.cache.setClock(Clock.fixed(now, ZoneOffset.UTC));
+		this.cache.setMaximumSize(2);
+		this.cache.putVerified("user1", "password", "encoded");
+		this.cache.putVerified("user2", "password", "encoded");
+		this.cache.putVerified("user3", "password", "encoded");
+		assertThat(this.cache.size()).isEqualTo(2);
+		assertThat(this.cache.isVerified("user3", "password", "encoded")).isFalse();
+		this.cache.setClock(Clock.fixed(now.plus(Duration.ofMinutes(1)), ZoneOffset.UTC));
+		this.cache.putVerified("user3", "password", "encoded");
+		assertThat(this.cache.size()).isEqualTo(1);
+		assertThat(this.cache.isVerified("user3", "password", "encoded")).isTrue();
+	}
+
+}
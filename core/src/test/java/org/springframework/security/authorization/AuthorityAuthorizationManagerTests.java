@@ -247,4 +247,56 @@ public class AuthorityAuthorizationManagerTests {
 		assertThat(manager.check(authentication, object).isGranted()).isTrue();
 	}
 
+	@Test
+	public void setAuthorityRegistryWhenNullThenIllegalArgumentException() {
+		AuthorityAuthorizationManager<Object> manager = AuthorityAuthorizationManager.hasRole("USER");
+		assertThatIllegalArgumentException().isThrownBy(() -> manager.setAuthorityRegistry(null))
+				.withMessage("authorityRegistry cannot be null");
+	}
+
+	@Test
+	public void hasAnyAuthorityWhenAuthorityRegistrySetThenSameDecisionsAsWithout() {
+		AuthorityRegistry authorityRegistry = new AuthorityRegistry();
+		AuthorityAuthorizationManager<Object> admin = AuthorityAuthorizationManager.hasAnyAuthority("ADMIN",
+				"SUPERUSER");
+		AuthorityAuthorizationManager<Object> user = AuthorityAuthorizationManager.hasAuthority("USER");
+		AuthorityAuthorizationManager<Object> indexedAdmin = AuthorityAuthorizationManager.hasAnyAuthority("ADMIN",
+				"SUPERUSER");
+		indexedAdmin.setAuthorityRegistry(authorityRegistry);
+		AuthorityAuthorizationManager<Object> indexedUser = AuthorityAuthorizationManager.hasAuthority("USER");
+		indexedUser.setAuthorityRegistry(authorityRegistry);
+		Object object = new Object();
+		for (String[] authorities : new String[][] { {}, { "USER" }, { "SUPERUSER", "OTHER" }, { "OTHER" } }) {
+			Authentication token = new TestingAuthenticationToken("user", "password", authorities);
+			Supplier<Authentication> authentication = () -> token;
+			assertThat(indexedAdmin.check(authentication, object).isGranted())
+					.isEqualTo(admin.check(authentication, object).isGranted());
+			assertThat(indexedUser.check(authentication, object).isGranted())
+					.isEqualTo(user.check(authentication, object).isGranted());
+		}
+	}
+
+	@Test
+	public void hasRoleWhenAuthorityRegistryAndRoleHierarchySetThenGreaterRoleTakesPrecedence() {
+		AuthorityAuthorizationManager<Object> manager = AuthorityAuthorizationManager.hasRole("USER");
+		RoleHierarchyImpl roleHierarchy = new RoleHierarchyImpl();
+		roleHierarchy.setHierarchy("ROLE_ADMIN > ROLE_USER");
+		manager.setRoleHierarchy(roleHierarchy);
+		manager.setAuthorityRegistry(new AuthorityRegistry());
+		Supplier<Authentication> authentication = () -> new TestingAuthenticationToken("user", "password",
+				"ROLE_ADMIN");
+		Object object = new Object();
+		assertThat(manager.check(authentication, object).isGranted()).isTrue();
+	}
+
+	@Test
+	public void hasRoleWhenAuthorityRegistrySetAndNotAuthenticatedThenDenied() {
+		AuthorityAuthorizationManager<Object> manager = AuthorityAuthorizationManager.hasRole("USER");
+		manager.setAuthorityRegistry(new AuthorityRegistry());
+		TestingAuthenticationToken token = new TestingAuthenticationToken("user", "password", "ROLE_USER");
+		token.setAuthenticated(false);
+		Object object = new Object();
+		assertThat(manager.check(() -> token, object).isGranted()).isFalse();
+	}
+
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authorization;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.access.hierarchicalroles.NullRoleHierarchy;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link AuthorityRegistry}
+ */
+public class AuthorityRegistryTests {
+
+	private final RoleHierarchy roleHierarchy = new NullRoleHierarchy();
+
+	@Test
+	public void compileWhenNullThenException() {
+		AuthorityRegistry registry = new AuthorityRegistry();
+		assertThatIllegalArgumentException().isThrownBy(() -> registry.compile(null));
+		assertThatIllegalArgumentException().isThrownBy(() -> registry.compile(Collections.singletonList(null)));
+	}
+
+	@Test
+	public void compileWhenSameAuthoritiesThenSameIndexes() {
+		AuthorityRegistry registry = new AuthorityRegistry();
+		BitSet first = registry.compile(Arrays.asList("ROLE_USER", "ROLE_ADMIN"));
+		BitSet second = registry.compile(Arrays.asList("ROLE_ADMIN", "ROLE_OTHER"));
+		assertThat(registry.size()).isEqualTo(3);
+		assertThat(first.cardinality()).isEqualTo(2);
+		assertThat(first.intersects(second)).isTrue();
+		assertThat(registry.compile(Collections.singletonList("ROLE_USER")).intersects(second)).isFalse();
+	}
+
+	@Test
+	public void getAuthoritiesWhenUnregisteredAuthoritiesThenIgnored() {
+		AuthorityRegistry registry = new AuthorityRegistry();
+		BitSet required = registry.compile(Collections.singletonList("ROLE_ADMIN"));
+		Authentication authentication = new TestingAuthenticationToken("user", "password", "ROLE_USER", "ROLE_ADMIN");
+		BitSet authorities = registry.getAuthorities(authentication, this.roleHierarchy);
+		assertThat(authorities).isEqualTo(required);
+		assertThat(registry.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void getAuthoritiesWhenSameAuthenticationThenCached() {
+		AuthorityRegistry registry = new AuthorityRegistry();
+		registry.compile(Collections.singletonList("ROLE_USER"));
+		Authentication authentication = new TestingAuthenticationToken("user", "password", "ROLE_USER");
+		BitSet authorities = registry.getAuthorities(authentication, this.roleHierarchy);
+		assertThat(registry.getAuthorities(authentication, this.roleHierarchy)).isSameAs(authorities);
+		Authentication other = new TestingAuthenticationToken("user", "password", "ROLE_USER");
+		assertThat(registry.getAuthorities(other, this.roleHierarchy)).isNotSameAs(authorities)
+				.isEqualTo(authorities);
+	}
+
+	@Test
+	public void getAuthoritiesWhenAuthorityRegisteredAfterwardsThenRecomputed() {
+		AuthorityRegistry registry = new AuthorityRegistry();
+		registry.compile(Collections.singletonList("ROLE_USER"));
+		Authentication authentication = new TestingAuthenticationToken("user", "password", "ROLE_USER", "ROLE_ADMIN");
+		assertThat(registry.getAuthorities(authentication, this.roleHierarchy).cardinality()).isEqualTo(1);
+		BitSet admin = registry.compile(Collections.singletonList("ROLE_ADMIN"));
+		assertThat(registry.getAuthorities(authentication, this.roleHierarchy).intersects(admin)).isTrue();
+	}
+
+	@Test
+	public void getAuthoritiesWhenRoleHierarchyThenReachableAuthorities() {
+		AuthorityRegistry registry = new AuthorityRegistry();
+		BitSet user = registry.compile(Collections.singletonList("ROLE_USER"));
+		RoleHierarchyImpl roleHierarchy = new RoleHierarchyImpl();
+		roleHierarchy.setHierarchy("ROLE_ADMIN > ROLE_USER");
+		Authentication authentication = new TestingAuthenticationToken("user", "password", "ROLE_ADMIN");
+		assertThat(registry.getAuthorities(authentication, this.roleHierarchy).intersects(user)).isFalse();
+		assertThat(registry.getAuthorities(authentication, roleHierarchy).intersects(user)).isTrue();
+	}
+
+}
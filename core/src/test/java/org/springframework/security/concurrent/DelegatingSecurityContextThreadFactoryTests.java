@@ -0,0 +1,155 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.concurrent;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.MockSecurityContextHolderStrategy;
+import org.springframework.security.core.context.ScopedValueSecurityContextHolderStrategy;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link DelegatingSecurityContextThreadFactory}
+ */
+public class DelegatingSecurityContextThreadFactoryTests {
+
+	private final SecurityContext securityContext = new SecurityContextImpl(
+			new TestingAuthenticationToken("user", "password"));
+
+	@AfterEach
+	public void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	public void constructorWhenNullDelegateThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new DelegatingSecurityContextThreadFactory(null));
+	}
+
+	@Test
+	public void setSecurityContextHolderStrategyWhenNullThenException() {
+		DelegatingSecurityContextThreadFactory factory = new DelegatingSecurityContextThreadFactory(Thread::new);
+		assertThatIllegalArgumentException().isThrownBy(() -> factory.setSecurityContextHolderStrategy(null));
+	}
+
+	@Test
+	public void newThreadWhenCurrentContextThenRunsWithContextCapturedOnCreation() throws Exception {
+		DelegatingSecurityContextThreadFactory factory = new DelegatingSecurityContextThreadFactory(Thread::new);
+		AtomicReference<SecurityContext> inThread = new AtomicReference<>();
+		SecurityContextHolder.setContext(this.securityContext);
+		Thread thread = factory.newThread(() -> inThread.set(SecurityContextHolder.getContext()));
+		SecurityContextHolder.clearContext();
+		thread.start();
+		thread.join();
+		assertThat(inThread.get()).isSameAs(this.securityContext);
+	}
+
+	@Test
+	public void newThreadWhenExplicitContextThenRunsWithContext() throws Exception {
+		DelegatingSecurityContextThreadFactory factory = new DelegatingSecurityContextThreadFactory(Thread::new,
+				this.securityContext);
+		AtomicReference<SecurityContext> inThread = new AtomicReference<>();
+		Thread thread = factory.newThread(() -> inThread.set(SecurityContextHolder.getContext()));
+		thread.start();
+		thread.join();
+		assertThat(inThread.get()).isSameAs(this.securityContext);
+	}
+
+	@Test
+	public void newThreadWhenTaskCompletesThenContextCleared() {
+		CapturingThreadFactory delegate = new CapturingThreadFactory();
+		DelegatingSecurityContextThreadFactory factory = new DelegatingSecurityContextThreadFactory(delegate,
+				this.securityContext);
+		factory.newThread(() -> assertThat(SecurityContextHolder.getContext()).isSameAs(this.securityContext));
+		delegate.task.run();
+		assertThat(SecurityContextHolder.getContext()).isEqualTo(SecurityContextHolder.createEmptyContext());
+	}
+
+	@Test
+	public void newThreadWhenCustomSecurityContextHolderStrategyThenUsed() {
+		SecurityContextHolderStrategy strategy = new MockSecurityContextHolderStrategy();
+		strategy.setContext(this.securityContext);
+		CapturingThreadFactory delegate = new CapturingThreadFactory();
+		DelegatingSecurityContextThreadFactory factory = new DelegatingSecurityContextThreadFactory(delegate);
+		factory.setSecurityContextHolderStrategy(strategy);
+		factory.newThread(() -> assertThat(strategy.getContext()).isSameAs(this.securityContext));
+		strategy.clearContext();
+		delegate.task.run();
+		assertThat(strategy.getContext()).isNull();
+	}
+
+	@Test
+	public void newThreadWhenScopedValueSecurityContextHolderStrategyThenBoundForTask() {
+		ScopedValueSecurityContextHolderStrategy strategy = new ScopedValueSecurityContextHolderStrategy();
+		CapturingThreadFactory delegate = new CapturingThreadFactory();
+		DelegatingSecurityContextThreadFactory factory = new DelegatingSecurityContextThreadFactory(delegate,
+				this.securityContext);
+		factory.setSecurityContextHolderStrategy(strategy);
+		AtomicReference<SecurityContext> inTask = new AtomicReference<>();
+		factory.newThread(() -> inTask.set(strategy.getContext()));
+		delegate.task.run();
+		assertThat(inTask.get()).isSameAs(this.securityContext);
+		assertThat(strategy.getContext()).isEqualTo(strategy.createEmptyContext());
+		strategy.clearContext();
+	}
+
+	@Test
+	public void ofVirtualThenRunsWithContext() throws Exception {
+		DelegatingSecurityContextThreadFactory factory = DelegatingSecurityContextThreadFactory.ofVirtual();
+		AtomicReference<SecurityContext> inThread = new AtomicReference<>();
+		SecurityContextHolder.setContext(this.securityContext);
+		Thread thread = factory.newThread(() -> inThread.set(SecurityContextHolder.getContext()));
+		thread.start();
+		thread.join();
+		assertThat(inThread.get()).isSameAs(this.securityContext);
+	}
+
+	@Test
+	public void virtualThreadFactoryThenDoesNotPropagateContext() throws Exception {
+		ThreadFactory factory = DelegatingSecurityContextThreadFactory.virtualThreadFactory();
+		AtomicReference<SecurityContext> inThread = new AtomicReference<>();
+		SecurityContextHolder.setContext(this.securityContext);
+		Thread thread = factory.newThread(() -> inThread.set(SecurityContextHolder.getContext()));
+		thread.start();
+		thread.join();
+		assertThat(inThread.get()).isNotSameAs(this.securityContext);
+	}
+
+	private static final class CapturingThreadFactory implements ThreadFactory {
+
+		private Runnable task;
+
+		@Override
+		public Thread newThread(Runnable task) {
+			this.task = task;
+			return new Thread(task);
+		}
+
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.authority;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link GrantedAuthorityInterner}
+ */
+public class GrantedAuthorityInternerTests {
+
+	private static final int SESSIONS = 10_000;
+
+	private static final int ROLES = 40;
+
+	/**
+	 * The shallow size of a {@link SimpleGrantedAuthority} plus its {@code String} and
+	 * the {@code byte[]} of a 16 characters long Latin-1 role, with compressed oops
+	 */
+	private static final int AUTHORITY_FOOTPRINT = 16 + 24 + 32;
+
+	@Test
+	public void internWhenEmptyThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> GrantedAuthorityInterner.intern(""));
+	}
+
+	@Test
+	public void internWhenEqualAuthoritiesThenSameInstance() {
+		SimpleGrantedAuthority authority = GrantedAuthorityInterner.intern("ROLE_INTERNED");
+		assertThat(GrantedAuthorityInterner.intern("ROLE_INTERNED")).isSameAs(authority);
+		assertThat(GrantedAuthorityInterner.intern(new SimpleGrantedAuthority("ROLE_INTERNED"))).isSameAs(authority);
+		assertThat(AuthorityUtils.createAuthorityList("ROLE_INTERNED").get(0)).isSameAs(authority);
+		assertThat(User.withUsername("user").password("password").roles("INTERNED").build().getAuthorities())
+				.singleElement().isSameAs(authority);
+	}
+
+	@Test
+	public void internWhenOtherGrantedAuthorityThenSameInstance() {
+		GrantedAuthority authority = () -> "ROLE_CUSTOM";
+		assertThat(GrantedAuthorityInterner.intern(authority)).isSameAs(authority);
+	}
+
+	@Test
+	public void internAllWhenNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> GrantedAuthorityInterner.internAll(null));
+	}
+
+	@Test
+	public void readResolveWhenDeserializedThenCanonicalInstance() throws Exception {
+		SimpleGrantedAuthority authority = GrantedAuthorityInterner.intern("ROLE_SERIALIZED");
+		byte[] bytes = new DefaultSerializer().serializeToByteArray(new SimpleGrantedAuthority("ROLE_SERIALIZED"));
+		assertThat(new DefaultDeserializer().deserializeFromByteArray(bytes)).isSameAs(authority);
+	}
+
+	@Test
+	public void internWhenManySessionsThenAuthorityFootprintIndependentOfSessions() {
+		List<Authentication> copies = sessions((role) -> new SimpleGrantedAuthority(role));
+		List<Authentication> interned = sessions(GrantedAuthorityInterner::intern);
+		long copiesFootprint = (long) distinctInstances(copies) * AUTHORITY_FOOTPRINT;
+		long internedFootprint = (long) distinctInstances(interned) * AUTHORITY_FOOTPRINT;
+		assertThat(distinctInstances(copies)).isEqualTo(SESSIONS * ROLES);
+		assertThat(distinctInstances(interned)).isEqualTo(ROLES);
+		// about 28 MB of authorities for 10,000 sessions, versus under 3 KB
+		assertThat(copiesFootprint - internedFootprint).isGreaterThan(SESSIONS * ROLES * 70L);
+	}
+
+	private static List<Authentication> sessions(Function<String, SimpleGrantedAuthority> authorityFactory) {
+		List<Authentication> sessions = new ArrayList<>(SESSIONS);
+		for (int session = 0; session < SESSIONS; session++) {
+			List<GrantedAuthority> authorities = new ArrayList<>(ROLES);
+			for (int role = 0; role < ROLES; role++) {
+				// a new String each time, as when read from a database or a session
+				authorities.add(authorityFactory.apply(new String("ROLE_FOOTPRINT_" + role)));
+			}
+			UserDetails user = new User("user" + session, "", authorities);
+			sessions.add(UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+		}
+		return sessions;
+	}
+
+	private static int distinctInstances(List<Authentication> sessions) {
+		Set<Object> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Authentication authentication : sessions) {
+			for (GrantedAuthority authority : authentication.getAuthorities()) {
+				instances.add(authority);
+			}
+			for (GrantedAuthority authority : ((UserDetails) authentication.getPrincipal()).getAuthorities()) {
+				instances.add(authority);
+			}
+		}
+		return instances.size();
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.context;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link CopyOnWriteSecurityContext}
+ */
+public class CopyOnWriteSecurityContextTests {
+
+	private final SecurityContextHolderStrategy strategy = new ThreadLocalSecurityContextHolderStrategy();
+
+	private final Authentication shared = new TestingAuthenticationToken("anonymous", "", "ROLE_ANONYMOUS");
+
+	@AfterEach
+	public void clearContext() {
+		this.strategy.clearContext();
+	}
+
+	@Test
+	public void constructorWhenNullStrategyThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new CopyOnWriteSecurityContext(null, this.shared));
+	}
+
+	@Test
+	public void setAuthenticationThenCopySetOnStrategy() {
+		CopyOnWriteSecurityContext context = new CopyOnWriteSecurityContext(this.strategy, this.shared);
+		this.strategy.setContext(context);
+		Authentication user = new TestingAuthenticationToken("user", "password", "ROLE_USER");
+		this.strategy.getContext().setAuthentication(user);
+		assertThat(this.strategy.getContext()).isNotSameAs(context).isInstanceOf(SecurityContextImpl.class);
+		assertThat(this.strategy.getContext().getAuthentication()).isSameAs(user);
+		assertThat(context.getAuthentication()).isSameAs(this.shared);
+	}
+
+	@Test
+	public void setAuthenticationWhenOtherThreadThenOnlyOtherThreadChanged() throws Exception {
+		CopyOnWriteSecurityContext context = new CopyOnWriteSecurityContext(this.strategy, this.shared);
+		this.strategy.setContext(context);
+		Authentication user = new TestingAuthenticationToken("user", "password", "ROLE_USER");
+		Thread thread = new Thread(() -> {
+			this.strategy.setContext(context);
+			this.strategy.getContext().setAuthentication(user);
+		});
+		thread.start();
+		thread.join();
+		assertThat(this.strategy.getContext()).isSameAs(context);
+		assertThat(this.strategy.getContext().getAuthentication()).isSameAs(this.shared);
+	}
+
+	@Test
+	public void equalsWhenSameAuthenticationThenEqualToSecurityContextImpl() {
+		CopyOnWriteSecurityContext context = new CopyOnWriteSecurityContext(this.strategy, null);
+		assertThat(context).isEqualTo(new SecurityContextImpl());
+		assertThat(new SecurityContextImpl()).isEqualTo(context);
+		assertThat(new SecurityContextImpl(this.shared))
+				.isEqualTo(new CopyOnWriteSecurityContext(this.strategy, this.shared));
+	}
+
+	@Test
+	public void serializeThenSecurityContextImpl() throws Exception {
+		CopyOnWriteSecurityContext context = new CopyOnWriteSecurityContext(this.strategy, this.shared);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(context);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			Object deserialized = in.readObject();
+			assertThat(deserialized).isExactlyInstanceOf(SecurityContextImpl.class);
+			assertThat(((SecurityContext) deserialized).getAuthentication()).isEqualTo(this.shared);
+		}
+	}
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.context;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.core.Authentication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Tests for {@link ScopedValueSecurityContextHolderStrategy}
+ */
+class ScopedValueSecurityContextHolderStrategyTests {
+
+	ScopedValueSecurityContextHolderStrategy strategy = new ScopedValueSecurityContextHolderStrategy();
+
+	@AfterEach
+	void clearContext() {
+		this.strategy.clearContext();
+	}
+
+	@Test
+	void runWhereWhenContextThenBoundForDuration() {
+		SecurityContext context = new SecurityContextImpl(mock(Authentication.class));
+		AtomicReference<SecurityContext> inScope = new AtomicReference<>();
+		this.strategy.runWhere(() -> context, () -> inScope.set(this.strategy.getContext()));
+		assertThat(inScope.get()).isSameAs(context);
+		assertThat(this.strategy.getContext()).isEqualTo(this.strategy.createEmptyContext());
+	}
+
+	@Test
+	void runWhereWhenDeferredThenNotInvoked() {
+		Supplier<SecurityContext> deferredContext = mock(Supplier.class);
+		this.strategy.runWhere(deferredContext, () -> this.strategy.getDeferredContext());
+		verifyNoInteractions(deferredContext);
+	}
+
+	@Test
+	void runWhereWhenDeferredReturnsNullThenValidates() {
+		this.strategy.runWhere(() -> null, () -> assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.strategy.getDeferredContext().get()));
+	}
+
+	@Test
+	void runWhereWhenNestedThenOuterContextRestored() {
+		SecurityContext outer = new SecurityContextImpl(mock(Authentication.class));
+		SecurityContext inner = new SecurityContextImpl(mock(Authentication.class));
+		AtomicReference<SecurityContext> afterInner = new AtomicReference<>();
+		this.strategy.runWhere(() -> outer, () -> {
+			this.strategy.runWhere(() -> inner, () -> assertThat(this.strategy.getContext()).isSameAs(inner));
+			afterInner.set(this.strategy.getContext());
+		});
+		assertThat(afterInner.get()).isSameAs(outer);
+	}
+
+	@Test
+	void runWhereWhenContextSetOutsideScopeThenRestored() {
+		SecurityContext outside = new SecurityContextImpl(mock(Authentication.class));
+		this.strategy.setContext(outside);
+		this.strategy.runWhere(() -> new SecurityContextImpl(), () -> {
+		});
+		assertThat(this.strategy.getContext()).isSameAs(outside);
+	}
+
+	@Test
+	void setContextWhenInScopeThenVisibleOnlyInScope() {
+		SecurityContext context = new SecurityContextImpl(mock(Authentication.class));
+		AtomicReference<SecurityContext> inScope = new AtomicReference<>();
+		this.strategy.runWhere(() -> new SecurityContextImpl(), () -> {
+			this.strategy.setContext(context);
+			inScope.set(this.strategy.getContext());
+		});
+		assertThat(inScope.get()).isSameAs(context);
+		assertThat(this.strategy.getContext()).isEqualTo(this.strategy.createEmptyContext());
+	}
+
+	@Test
+	void clearContextWhenInScopeThenEmptyContext() {
+		AtomicReference<SecurityContext> inScope = new AtomicReference<>();
+		this.strategy.runWhere(() -> new SecurityContextImpl(mock(Authentication.class)), () -> {
+			this.strategy.clearContext();
+			inScope.set(this.strategy.getContext());
+		});
+		assertThat(inScope.get()).isEqualTo(this.strategy.createEmptyContext());
+	}
+
+	@Test
+	void callWhereThenReturnsResult() throws Exception {
+		SecurityContext context = new SecurityContextImpl(mock(Authentication.class));
+		assertThat(this.strategy.callWhere(() -> context, this.strategy::getContext)).isSameAs(context);
+	}
+
+	@Test
+	void callWhereWhenExceptionThenPropagated() {
+		Exception failure = new Exception("failed");
+		assertThatExceptionOfType(Exception.class)
+				.isThrownBy(() -> this.strategy.callWhere(SecurityContextImpl::new, () -> {
+					throw failure;
+				})).isSameAs(failure);
+	}
+
+	@Test
+	void setContextWhenNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.strategy.setContext(null));
+	}
+
+	@Test
+	void getContextWhenOutsideScopeThenSameInstance() {
+		Authentication authentication = mock(Authentication.class);
+		this.strategy.getContext().setAuthentication(authentication);
+		assertThat(this.strategy.getContext().getAuthentication()).isSameAs(authentication);
+	}
+
+}
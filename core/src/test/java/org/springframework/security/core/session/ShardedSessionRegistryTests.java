@@ -0,0 +1,205 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.core.context.SecurityContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link ShardedSessionRegistry}
+ */
+public class ShardedSessionRegistryTests {
+
+	private final ShardedSessionRegistry sessionRegistry = new ShardedSessionRegistry(4);
+
+	@Test
+	public void constructorWhenNotPositiveThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new ShardedSessionRegistry(0));
+	}
+
+	@Test
+	public void registerNewSessionThenOrderedFromLeastRecentlyUsed() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.registerNewSession("2", "user");
+		this.sessionRegistry.registerNewSession("3", "user");
+		this.sessionRegistry.refreshLastRequest("1");
+		assertThat(sessionIds(this.sessionRegistry.getAllSessions("user", false))).containsExactly("2", "3", "1");
+		assertThat(this.sessionRegistry.getSessionCount("user")).isEqualTo(3);
+		assertThat(this.sessionRegistry.getAllPrincipals()).containsExactly("user");
+	}
+
+	@Test
+	public void expireNowThenCountedAsExpired() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.registerNewSession("2", "user");
+		this.sessionRegistry.getSessionInformation("1").expireNow();
+		this.sessionRegistry.refreshLastRequest("1");
+		assertThat(this.sessionRegistry.getSessionCount("user")).isEqualTo(1);
+		assertThat(sessionIds(this.sessionRegistry.getAllSessions("user", false))).containsExactly("2");
+		assertThat(sessionIds(this.sessionRegistry.getAllSessions("user", true))).containsExactly("2", "1");
+	}
+
+	@Test
+	public void removeSessionInformationThenPrincipalRemovedWithLastSession() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.registerNewSession("2", "user");
+		this.sessionRegistry.getSessionInformation("2").expireNow();
+		this.sessionRegistry.removeSessionInformation("1");
+		assertThat(this.sessionRegistry.getAllPrincipals()).containsExactly("user");
+		this.sessionRegistry.removeSessionInformation("2");
+		assertThat(this.sessionRegistry.getSessionInformation("2")).isNull();
+		assertThat(this.sessionRegistry.getAllPrincipals()).isEmpty();
+		assertThat(this.sessionRegistry.getAllSessions("user", true)).isEmpty();
+		assertThat(this.sessionRegistry.getSessionCount("user")).isZero();
+	}
+
+	@Test
+	public void registerNewSessionWhenSameSessionIdThenReplaced() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.registerNewSession("1", "other");
+		assertThat(this.sessionRegistry.getAllSessions("user", true)).isEmpty();
+		assertThat(this.sessionRegistry.getSessionInformation("1").getPrincipal()).isEqualTo("other");
+		assertThat(this.sessionRegistry.getAllPrincipals()).containsExactly("other");
+	}
+
+	@Test
+	public void onApplicationEventWhenSessionDestroyedThenRemoved() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.onApplicationEvent(new SessionDestroyedEvent("") {
+			@Override
+			public String getId() {
+				return "1";
+			}
+
+			@Override
+			public List<SecurityContext> getSecurityContexts() {
+				return null;
+			}
+		});
+		assertThat(this.sessionRegistry.getSessionInformation("1")).isNull();
+		assertThat(this.sessionRegistry.getSessionCount("user")).isZero();
+	}
+
+	@Test
+	public void onApplicationEventWhenSessionIdChangedThenReplaced() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.onApplicationEvent(new SessionIdChangedEvent("") {
+			@Override
+			public String getOldSessionId() {
+				return "1";
+			}
+
+			@Override
+			public String getNewSessionId() {
+				return "2";
+			}
+		});
+		assertThat(this.sessionRegistry.getSessionInformation("1")).isNull();
+		assertThat(sessionIds(this.sessionRegistry.getAllSessions("user", false))).containsExactly("2");
+	}
+
+	@Test
+	public void concurrentOperationsThenConsistent() throws Exception {
+		ShardedSessionRegistry registry = new ShardedSessionRegistry();
+		int threads = 16;
+		int principals = 50;
+		int operations = 20000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int i = 0; i < operations; i++) {
+						String sessionId = String.valueOf(random.nextInt(2000));
+						String principal = "user" + random.nextInt(principals);
+						int operation = random.nextInt(5);
+						if (operation == 0) {
+							registry.registerNewSession(sessionId, principal);
+						}
+						else if (operation == 1) {
+							registry.removeSessionInformation(sessionId);
+						}
+						else if (operation == 2) {
+							registry.refreshLastRequest(sessionId);
+						}
+						else if (operation == 3) {
+							SessionInformation info = registry.getSessionInformation(sessionId);
+							if (info != null) {
+								info.expireNow();
+							}
+						}
+						else {
+							registry.getAllSessions(principal, false);
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		int registered = 0;
+		for (Object principal : registry.getAllPrincipals()) {
+			List<SessionInformation> all = registry.getAllSessions(principal, true);
+			List<SessionInformation> active = registry.getAllSessions(principal, false);
+			assertThat(all).isNotEmpty();
+			assertThat(registry.getSessionCount(principal)).isEqualTo(active.size());
+			assertThat(active).noneMatch(SessionInformation::isExpired);
+			for (SessionInformation info : all) {
+				assertThat(info.getPrincipal()).isEqualTo(principal);
+				assertThat(registry.getSessionInformation(info.getSessionId())).isSameAs(info);
+			}
+			registered += all.size();
+		}
+		int indexed = 0;
+		for (int i = 0; i < 2000; i++) {
+			if (registry.getSessionInformation(String.valueOf(i)) != null) {
+				indexed++;
+			}
+		}
+		assertThat(registered).isEqualTo(indexed);
+	}
+
+	private static List<String> sessionIds(List<SessionInformation> sessions) {
+		List<String> sessionIds = new ArrayList<>();
+		for (SessionInformation session : sessions) {
+			sessionIds.add(session.getSessionId());
+		}
+		return sessionIds;
+	}
+
+}
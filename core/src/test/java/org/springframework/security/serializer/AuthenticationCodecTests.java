@@ -0,0 +1,273 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.serializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.net.URL;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link AuthenticationCodec}
+ */
+public class AuthenticationCodecTests {
+
+	private final AuthenticationCodec codec = new AuthenticationCodec(Collections.emptyList());
+
+	@Test
+	public void constructorWhenDuplicateTypeIdThenException() {
+		AuthenticationCodecModule module = () -> Arrays.asList(new DetailsCodec(1024), new DetailsCodec(1024));
+		assertThatIllegalArgumentException().isThrownBy(() -> new AuthenticationCodec(Arrays.asList(module)));
+	}
+
+	@Test
+	public void constructorWhenTypeIdUsedByCoreThenException() {
+		AuthenticationCodecModule module = () -> Arrays.asList(new DetailsCodec(1));
+		assertThatIllegalArgumentException().isThrownBy(() -> new AuthenticationCodec(Arrays.asList(module)));
+	}
+
+	@Test
+	public void setDictionaryWhenNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.codec.setDictionary(null));
+	}
+
+	@Test
+	public void serializeWhenSecurityContextThenRoundTrips() throws Exception {
+		SecurityContext context = new SecurityContextImpl(authentication());
+		SecurityContext result = (SecurityContext) roundTrip(context);
+		assertThat(result).isEqualTo(context);
+		User principal = (User) result.getAuthentication().getPrincipal();
+		assertThat(principal.getPassword()).isNull();
+		assertThat(principal.isAccountNonLocked()).isFalse();
+		assertThat(principal.isEnabled()).isTrue();
+		assertThat(result.getAuthentication().getDetails()).isEqualTo(new Details("127.0.0.1"));
+	}
+
+	@Test
+	public void serializeWhenUnauthenticatedTokenThenRoundTrips() throws Exception {
+		UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.unauthenticated("user",
+				"password");
+		UsernamePasswordAuthenticationToken result = (UsernamePasswordAuthenticationToken) roundTrip(token);
+		assertThat(result).isEqualTo(token);
+		assertThat(result.isAuthenticated()).isFalse();
+	}
+
+	@Test
+	public void serializeWhenValuesThenRoundTrips() throws Exception {
+		Map<String, Object> values = new LinkedHashMap<>();
+		values.put("string", "value");
+		values.put("true", true);
+		values.put("false", false);
+		values.put("int", -42);
+		values.put("long", Long.MAX_VALUE);
+		values.put("double", 0.5);
+		values.put("instant", Instant.ofEpochSecond(1681000000, 123));
+		values.put("list", Arrays.asList("a", null, 1L));
+		values.put("set", Collections.singleton("s"));
+		values.put("map", Collections.singletonMap(1, "one"));
+		values.put("null", null);
+		assertThat(roundTrip(values)).isEqualTo(values);
+	}
+
+	@Test
+	public void serializeWhenUrlThenRoundTrips() throws Exception {
+		URL url = new URL("https://example.org/issuer");
+		assertThat(((URL) roundTrip(url)).toExternalForm()).isEqualTo(url.toExternalForm());
+	}
+
+	@Test
+	public void serializeWhenTypeCodecThenUsed() throws Exception {
+		AuthenticationCodecModule module = () -> Arrays.asList(new DetailsCodec(1024));
+		AuthenticationCodec codec = new AuthenticationCodec(Arrays.asList(module));
+		Details details = new Details("127.0.0.1");
+		byte[] bytes = codec.serializeToByteArray(details);
+		assertThat(bytes).hasSizeLessThan(10);
+		assertThat(codec.deserializeFromByteArray(bytes)).isEqualTo(details);
+	}
+
+	@Test
+	public void serializeWhenRepeatedAuthoritiesThenSmallerThanJavaSerialization() throws Exception {
+		SecurityContext context = new SecurityContextImpl(authentication());
+		byte[] bytes = this.codec.serializeToByteArray(context);
+		byte[] java = new DefaultSerializer().serializeToByteArray(context);
+		assertThat(bytes.length).isLessThan(java.length / 2);
+	}
+
+	@Test
+	public void serializeWhenDictionaryThenSmaller() throws Exception {
+		List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList("ROLE_CUSTOMER", "ROLE_AUDITOR");
+		byte[] bytes = this.codec.serializeToByteArray(authorities);
+		AuthenticationCodec codec = new AuthenticationCodec(Collections.emptyList());
+		codec.setDictionary(Arrays.asList("ROLE_CUSTOMER", "ROLE_AUDITOR"));
+		byte[] dictionaryBytes = codec.serializeToByteArray(authorities);
+		assertThat(dictionaryBytes).hasSizeLessThan(bytes.length);
+		assertThat(codec.deserializeFromByteArray(dictionaryBytes)).isEqualTo(authorities);
+	}
+
+	@Test
+	public void deserializeWhenDifferentDictionaryThenException() throws Exception {
+		AuthenticationCodec codec = new AuthenticationCodec(Collections.emptyList());
+		codec.setDictionary(Arrays.asList("ROLE_CUSTOMER"));
+		byte[] bytes = codec.serializeToByteArray(AuthorityUtils.createAuthorityList("ROLE_CUSTOMER"));
+		assertThatExceptionOfType(StreamCorruptedException.class)
+				.isThrownBy(() -> this.codec.deserializeFromByteArray(bytes));
+	}
+
+	@Test
+	public void deserializeWhenJavaSerializationThenReads() throws Exception {
+		SecurityContext context = new SecurityContextImpl(authentication());
+		byte[] java = new DefaultSerializer().serializeToByteArray(context);
+		assertThat(this.codec.deserializeFromByteArray(java)).isEqualTo(context);
+	}
+
+	@Test
+	public void deserializeWhenJavaSerializationDisabledThenException() throws Exception {
+		byte[] java = new DefaultSerializer().serializeToByteArray(new SecurityContextImpl(authentication()));
+		this.codec.setJavaSerializationEnabled(false);
+		assertThatExceptionOfType(StreamCorruptedException.class)
+				.isThrownBy(() -> this.codec.deserializeFromByteArray(java));
+	}
+
+	@Test
+	public void serializeWhenJavaSerializationDisabledAndNoTypeCodecThenException() {
+		this.codec.setJavaSerializationEnabled(false);
+		assertThatExceptionOfType(NotSerializableException.class)
+				.isThrownBy(() -> this.codec.serializeToByteArray(new Details("127.0.0.1")));
+	}
+
+	@Test
+	public void serializeWhenSubclassOfSupportedTypeThenJavaSerialization() throws Exception {
+		TestingAuthenticationToken token = new TestingAuthenticationToken("user", "password", "ROLE_USER");
+		this.codec.setJavaSerializationEnabled(false);
+		assertThatExceptionOfType(NotSerializableException.class)
+				.isThrownBy(() -> this.codec.serializeToByteArray(token));
+	}
+
+	@Test
+	public void deserializeWhenTruncatedThenException() throws Exception {
+		byte[] bytes = this.codec.serializeToByteArray(new SecurityContextImpl(authentication()));
+		byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+		assertThatExceptionOfType(IOException.class)
+				.isThrownBy(() -> this.codec.deserialize(new ByteArrayInputStream(truncated)));
+	}
+
+	@Test
+	public void deserializeWhenUnsupportedVersionThenException() {
+		assertThatExceptionOfType(StreamCorruptedException.class)
+				.isThrownBy(() -> this.codec.deserializeFromByteArray(new byte[] { 2, 0, 0, 0, 0, 0 }));
+	}
+
+	@Test
+	public void convertersWhenCodecThenRoundTrips() {
+		SecurityContext context = new SecurityContextImpl(authentication());
+		byte[] bytes = new SerializingConverter(this.codec).convert(context);
+		assertThat(new DeserializingConverter(this.codec).convert(bytes)).isEqualTo(context);
+	}
+
+	private Object roundTrip(Object value) throws IOException {
+		return this.codec.deserializeFromByteArray(this.codec.serializeToByteArray(value));
+	}
+
+	private static UsernamePasswordAuthenticationToken authentication() {
+		List<GrantedAuthority> authorities = Arrays.asList(new SimpleGrantedAuthority("ROLE_USER"),
+				new SimpleGrantedAuthority("ROLE_CUSTOMER"), new SimpleGrantedAuthority("SCOPE_message:read"));
+		User user = new User("user", "password", true, true, true, false, authorities);
+		user.eraseCredentials();
+		UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.authenticated(user, null,
+				user.getAuthorities());
+		token.setDetails(new Details("127.0.0.1"));
+		return token;
+	}
+
+	static final class Details implements Serializable {
+
+		private final String remoteAddress;
+
+		Details(String remoteAddress) {
+			this.remoteAddress = remoteAddress;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Details && Objects.equals(this.remoteAddress, ((Details) obj).remoteAddress);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(this.remoteAddress);
+		}
+
+	}
+
+	static final class DetailsCodec implements AuthenticationTypeCodec<Details> {
+
+		private final int typeId;
+
+		DetailsCodec(int typeId) {
+			this.typeId = typeId;
+		}
+
+		@Override
+		public int getTypeId() {
+			return this.typeId;
+		}
+
+		@Override
+		public Class<Details> getType() {
+			return Details.class;
+		}
+
+		@Override
+		public void write(Details value, AuthenticationCodecOutput output) throws IOException {
+			output.writeString(value.remoteAddress);
+		}
+
+		@Override
+		public Details read(AuthenticationCodecInput input) throws IOException {
+			return new Details(input.readString());
+		}
+
+	}
+
+}
@@ -46,6 +46,28 @@ public final class KeyGenerators {
 		return new SecureRandomBytesKeyGenerator(keyLength);
 	}
 
+	/**
+	 * Create a {@link BytesKeyGenerator} that draws keys of 8 bytes in length from the
+	 * {@link PrefetchingSecureRandom#getSharedInstance() shared}
+	 * {@link PrefetchingSecureRandom}, so that concurrent callers do not contend on a
+	 * single {@link SecureRandom}.
+	 * @since 6.1
+	 */
+	public static BytesKeyGenerator prefetchingSecureRandom() {
+		return prefetchingSecureRandom(8);
+	}
+
+	/**
+	 * Create a {@link BytesKeyGenerator} that draws keys of a custom length from the
+	 * {@link PrefetchingSecureRandom#getSharedInstance() shared}
+	 * {@link PrefetchingSecureRandom}.
+	 * @param keyLength the key length in bytes, e.g. 16, for a 16 byte key.
+	 * @since 6.1
+	 */
+	public static BytesKeyGenerator prefetchingSecureRandom(int keyLength) {
+		return new SecureRandomBytesKeyGenerator(PrefetchingSecureRandom.getSharedInstance(), keyLength);
+	}
+
 	/**
 	 * Create a {@link BytesKeyGenerator} that returns a single, shared
 	 * {@link SecureRandom} key of a custom length.
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.crypto.keygen;
+
+import java.io.InvalidObjectException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link SecureRandom} that serves random bytes from buffers which are prefetched from
+ * several underlying {@link SecureRandom} instances, so that concurrent callers neither
+ * contend on a single {@link SecureRandom} nor wait for it to produce bytes.
+ * <p>
+ * The buffers are striped: each thread draws from the stripe selected by its id, and
+ * each stripe has its own {@link SecureRandom}, its own lock and a current and a spare
+ * buffer. When the current buffer is exhausted, it is replaced by the spare buffer and a
+ * new spare buffer is filled in the background by the refill {@link Executor}. Only when
+ * the spare buffer is not ready yet is the current buffer filled by the calling thread.
+ * Bytes are handed out exactly once, and are cleared from the buffer once handed out.
+ * Requests larger than a buffer are served directly by the stripe's
+ * {@link SecureRandom}.
+ * <p>
+ * It can be passed anywhere a {@link SecureRandom} is accepted, for example to
+ * {@code XorCsrfTokenRequestAttributeHandler#setSecureRandom} or
+ * {@code PersistentTokenBasedRememberMeServices#setSecureRandom}, and
+ * {@link KeyGenerators#prefetchingSecureRandom(int)} creates a {@link BytesKeyGenerator}
+ * backed by the {@link #getSharedInstance() shared instance}.
+ * <p>
+ * Although {@link SecureRandom} is {@link java.io.Serializable}, this class is not,
+ * since its buffers and refill {@link Executor} cannot be serialized.
+ *
+ * @since 6.1
+ */
+public final class PrefetchingSecureRandom extends SecureRandom {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int DEFAULT_BUFFER_SIZE = 4096;
+
+	private final transient Stripe[] stripes;
+
+	private final transient int mask;
+
+	private final transient int bufferSize;
+
+	private final transient Executor refillExecutor;
+
+	/**
+	 * Creates a new instance with one stripe per two available processors and 4 KiB
+	 * buffers, refilled by a single daemon thread shared by all instances
+	 */
+	public PrefetchingSecureRandom() {
+		this(2 * Runtime.getRuntime().availableProcessors(), DEFAULT_BUFFER_SIZE, RefillExecutorHolder.EXECUTOR);
+	}
+
+	/**
+	 * Creates a new instance
+	 * @param stripes the number of stripes, rounded up to a power of two
+	 * @param bufferSize the size in bytes of each buffer
+	 * @param refillExecutor the {@link Executor} that fills the spare buffers
+	 */
+	public PrefetchingSecureRandom(int stripes, int bufferSize, Executor refillExecutor) {
+		if (stripes <= 0) {
+			throw new IllegalArgumentException("stripes must be greater than 0");
+		}
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("bufferSize must be greater than 0");
+		}
+		if (refillExecutor == null) {
+			throw new IllegalArgumentException("refillExecutor cannot be null");
+		}
+		int size = (stripes == 1) ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+		this.stripes = new Stripe[size];
+		for (int i = 0; i < size; i++) {
+			this.stripes[i] = new Stripe(bufferSize);
+		}
+		this.mask = size - 1;
+		this.bufferSize = bufferSize;
+		this.refillExecutor = refillExecutor;
+	}
+
+	/**
+	 * Returns the {@link PrefetchingSecureRandom} shared by the application, created
+	 * with the defaults on first use
+	 * @return the shared instance
+	 */
+	public static PrefetchingSecureRandom getSharedInstance() {
+		return SharedInstanceHolder.INSTANCE;
+	}
+
+	@Override
+	public void nextBytes(byte[] bytes) {
+		Stripe stripe = this.stripes[stripeIndex()];
+		if (bytes.length > this.bufferSize) {
+			stripe.random.nextBytes(bytes);
+			return;
+		}
+		stripe.read(bytes, this.refillExecutor);
+	}
+
+	@Override
+	public String getAlgorithm() {
+		return "Prefetching" + this.stripes[0].random.getAlgorithm();
+	}
+
+	private void writeObject(ObjectOutputStream out) throws NotSerializableException {
+		throw new NotSerializableException(PrefetchingSecureRandom.class.getName());
+	}
+
+	private void readObject(ObjectInputStream in) throws InvalidObjectException {
+		throw new InvalidObjectException(PrefetchingSecureRandom.class.getName() + " cannot be deserialized");
+	}
+
+	private int stripeIndex() {
+		long id = Thread.currentThread().getId();
+		return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & this.mask;
+	}
+
+	private static final class Stripe {
+
+		private final SecureRandom random = new SecureRandom();
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		private final AtomicBoolean refilling = new AtomicBoolean();
+
+		private final int bufferSize;
+
+		private byte[] buffer;
+
+		private int position;
+
+		private volatile byte[] spare;
+
+		private Stripe(int bufferSize) {
+			this.bufferSize = bufferSize;
+			this.buffer = new byte[bufferSize];
+			this.position = bufferSize;
+		}
+
+		private void read(byte[] bytes, Executor refillExecutor) {
+			this.lock.lock();
+			try {
+				int copied = 0;
+				while (copied < bytes.length) {
+					if (this.position == this.buffer.length) {
+						nextBuffer(refillExecutor);
+					}
+					int length = Math.min(bytes.length - copied, this.buffer.length - this.position);
+					System.arraycopy(this.buffer, this.position, bytes, copied, length);
+					Arrays.fill(this.buffer, this.position, this.position + length, (byte) 0);
+					this.position += length;
+					copied += length;
+				}
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		private void nextBuffer(Executor refillExecutor) {
+			byte[] spare = this.spare;
+			if (spare != null) {
+				this.spare = null;
+				this.buffer = spare;
+			}
+			else {
+				this.random.nextBytes(this.buffer);
+			}
+			this.position = 0;
+			refill(refillExecutor);
+		}
+
+		private void refill(Executor refillExecutor) {
+			if (this.spare != null || !this.refilling.compareAndSet(false, true)) {
+				return;
+			}
+			try {
+				refillExecutor.execute(() -> {
+					try {
+						byte[] spare = new byte[this.bufferSize];
+						this.random.nextBytes(spare);
+						this.spare = spare;
+					}
+					finally {
+						this.refilling.set(false);
+					}
+				});
+			}
+			catch (RejectedExecutionException ex) {
+				this.refilling.set(false);
+			}
+		}
+
+	}
+
+	private static final class SharedInstanceHolder {
+
+		private static final PrefetchingSecureRandom INSTANCE = new PrefetchingSecureRandom();
+
+	}
+
+	private static final class RefillExecutorHolder {
+
+		private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor((runnable) -> {
+			Thread thread = new Thread(runnable, "secure-random-refill");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+	}
+
+}
@@ -45,7 +45,15 @@ final class SecureRandomBytesKeyGenerator implements BytesKeyGenerator {
 	 * Creates a secure random key generator with a custom key length.
 	 */
 	SecureRandomBytesKeyGenerator(int keyLength) {
-		this.random = new SecureRandom();
+		this(new SecureRandom(), keyLength);
+	}
+
+	/**
+	 * Creates a key generator that uses the provided {@link SecureRandom} with a custom
+	 * key length.
+	 */
+	SecureRandomBytesKeyGenerator(SecureRandom random, int keyLength) {
+		this.random = random;
 		this.keyLength = keyLength;
 	}
 
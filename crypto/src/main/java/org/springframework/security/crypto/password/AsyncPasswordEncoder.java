@@ -0,0 +1,48 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.crypto.password;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link PasswordEncoder} that can also encode and match passwords asynchronously, so
+ * that callers do not have to block while a deliberately slow hash is computed.
+ *
+ * @since 6.1
+ * @see ExecutorPasswordEncoder
+ */
+public interface AsyncPasswordEncoder extends PasswordEncoder {
+
+	/**
+	 * Encodes the raw password asynchronously
+	 * @param rawPassword the raw password to encode
+	 * @return a {@link CompletableFuture} completed with the encoded password
+	 * @see #encode(CharSequence)
+	 */
+	CompletableFuture<String> encodeAsync(CharSequence rawPassword);
+
+	/**
+	 * Verifies asynchronously that the encoded password obtained from storage matches
+	 * the submitted raw password
+	 * @param rawPassword the raw password to match
+	 * @param encodedPassword the encoded password from storage to compare with
+	 * @return a {@link CompletableFuture} completed with true if the passwords match
+	 * @see #matches(CharSequence, String)
+	 */
+	CompletableFuture<Boolean> matchesAsync(CharSequence rawPassword, String encodedPassword);
+
+}
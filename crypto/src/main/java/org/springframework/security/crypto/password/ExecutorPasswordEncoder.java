@@ -0,0 +1,376 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.crypto.password;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * An {@link AsyncPasswordEncoder} which computes the hashes of another
+ * {@link PasswordEncoder}, such as a {@link DelegatingPasswordEncoder}, on a dedicated,
+ * bounded pool of threads.
+ * <p>
+ * The pool has a fixed number of threads, one per available processor by default, since
+ * password hashing is CPU bound, and a bounded queue of pending hashes. When the queue is
+ * full, the {@link RejectionPolicy} decides whether the hash fails with a
+ * {@link RejectedExecutionException} or is computed by the calling thread. A login storm
+ * therefore queues up to a known limit instead of occupying every request thread with
+ * hashing. The synchronous {@link #encode(CharSequence)} and
+ * {@link #matches(CharSequence, String)} go through the same pool and wait for the
+ * result, so that existing callers are bounded in the same way.
+ * <p>
+ * Virtual threads are never used to compute a hash, since a long CPU bound computation
+ * would hold on to its carrier thread. When the queue is full and the policy is
+ * {@link RejectionPolicy#CALLER_RUNS}, a virtual thread instead waits for room in the
+ * queue, which does not block any platform thread.
+ * <p>
+ * The time that hashes spend in the queue and the time spent computing them are
+ * recorded, along with the number of rejected hashes.
+ *
+ * @since 6.1
+ */
+public final class ExecutorPasswordEncoder implements AsyncPasswordEncoder, AutoCloseable {
+
+	private static final MethodHandle IS_VIRTUAL = isVirtualMethod();
+
+	private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+	private final PasswordEncoder delegate;
+
+	private final ThreadPoolExecutor executor;
+
+	private volatile RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+
+	private final LongAdder completed = new LongAdder();
+
+	private final LongAdder rejected = new LongAdder();
+
+	private final LongAdder callerRuns = new LongAdder();
+
+	private final LongAdder queueNanos = new LongAdder();
+
+	private final LongAccumulator maxQueueNanos = new LongAccumulator(Math::max, 0);
+
+	private final LongAdder hashNanos = new LongAdder();
+
+	/**
+	 * Creates a new instance with one thread per available processor, and a queue of 64
+	 * pending hashes per thread
+	 * @param delegate the {@link PasswordEncoder} computing the hashes
+	 */
+	public ExecutorPasswordEncoder(PasswordEncoder delegate) {
+		this(delegate, Runtime.getRuntime().availableProcessors(),
+				64 * Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new instance
+	 * @param delegate the {@link PasswordEncoder} computing the hashes
+	 * @param threads the number of threads computing the hashes
+	 * @param queueCapacity the maximum number of pending hashes
+	 */
+	public ExecutorPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+		if (delegate == null) {
+			throw new IllegalArgumentException("delegate cannot be null");
+		}
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads must be at least 1");
+		}
+		if (queueCapacity < 1) {
+			throw new IllegalArgumentException("queueCapacity must be at least 1");
+		}
+		this.delegate = delegate;
+		String prefix = "password-encoder-" + POOL_NUMBER.incrementAndGet() + "-";
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.NANOSECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				(runnable) -> new HashingThread(this, runnable, prefix + threadNumber.incrementAndGet()),
+				new ThreadPoolExecutor.AbortPolicy());
+		// Hashes queued directly by virtual threads are only picked up by running threads
+		this.executor.prestartAllCoreThreads();
+	}
+
+	@Override
+	public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+		return submit(() -> this.delegate.encode(rawPassword));
+	}
+
+	@Override
+	public CompletableFuture<Boolean> matchesAsync(CharSequence rawPassword, String encodedPassword) {
+		return submit(() -> this.delegate.matches(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		if (isHashingThread()) {
+			return this.delegate.encode(rawPassword);
+		}
+		return await(encodeAsync(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		if (isHashingThread()) {
+			return this.delegate.matches(rawPassword, encodedPassword);
+		}
+		return await(matchesAsync(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return this.delegate.upgradeEncoding(encodedPassword);
+	}
+
+	/**
+	 * Stops accepting new hashes. The pending hashes are still computed.
+	 */
+	@Override
+	public void close() {
+		this.executor.shutdown();
+	}
+
+	/**
+	 * Sets what happens to a hash when the queue is full. The default is
+	 * {@link RejectionPolicy#ABORT}.
+	 * @param rejectionPolicy the {@link RejectionPolicy} to use
+	 */
+	public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+		if (rejectionPolicy == null) {
+			throw new IllegalArgumentException("rejectionPolicy cannot be null");
+		}
+		this.rejectionPolicy = rejectionPolicy;
+	}
+
+	/**
+	 * The number of hashes that were computed, including those computed by the calling
+	 * thread
+	 * @return the number of computed hashes
+	 */
+	public long getCompletedCount() {
+		return this.completed.sum();
+	}
+
+	/**
+	 * The number of hashes that failed because the queue was full
+	 * @return the number of rejected hashes
+	 */
+	public long getRejectedCount() {
+		return this.rejected.sum();
+	}
+
+	/**
+	 * The number of hashes that were computed by the calling thread because the queue
+	 * was full
+	 * @return the number of hashes computed by the calling thread
+	 */
+	public long getCallerRunsCount() {
+		return this.callerRuns.sum();
+	}
+
+	/**
+	 * The number of hashes that are waiting for a thread
+	 * @return the number of pending hashes
+	 */
+	public int getQueueSize() {
+		return this.executor.getQueue().size();
+	}
+
+	/**
+	 * The total time that the computed hashes spent waiting for a thread
+	 * @return the total queue time
+	 */
+	public Duration getTotalQueueTime() {
+		return Duration.ofNanos(this.queueNanos.sum());
+	}
+
+	/**
+	 * The longest time that a computed hash spent waiting for a thread
+	 * @return the maximum queue time
+	 */
+	public Duration getMaxQueueTime() {
+		return Duration.ofNanos(this.maxQueueNanos.get());
+	}
+
+	/**
+	 * The total time spent computing hashes
+	 * @return the total hash time
+	 */
+	public Duration getTotalHashTime() {
+		return Duration.ofNanos(this.hashNanos.sum());
+	}
+
+	private <T> CompletableFuture<T> submit(Supplier<T> hash) {
+		HashTask<T> task = new HashTask<>(hash);
+		try {
+			this.executor.execute(task);
+		}
+		catch (RejectedExecutionException ex) {
+			reject(task, ex);
+		}
+		return task.future;
+	}
+
+	private void reject(HashTask<?> task, RejectedExecutionException ex) {
+		if (this.rejectionPolicy == RejectionPolicy.CALLER_RUNS && !this.executor.isShutdown()) {
+			if (!isVirtual(Thread.currentThread())) {
+				this.callerRuns.increment();
+				task.run();
+				return;
+			}
+			try {
+				this.executor.getQueue().put(task);
+			}
+			catch (InterruptedException interrupted) {
+				Thread.currentThread().interrupt();
+				task.future.completeExceptionally(interrupted);
+				return;
+			}
+			// The workers may have terminated since the shutdown check, leaving the hash
+			// in the queue forever
+			if (!this.executor.isShutdown() || !this.executor.getQueue().remove(task)) {
+				return;
+			}
+		}
+		this.rejected.increment();
+		task.future.completeExceptionally(ex);
+	}
+
+	private boolean isHashingThread() {
+		Thread thread = Thread.currentThread();
+		return thread instanceof HashingThread && ((HashingThread) thread).encoder == this;
+	}
+
+	private static <T> T await(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw ex;
+		}
+	}
+
+	static boolean isVirtual(Thread thread) {
+		if (IS_VIRTUAL == null) {
+			return false;
+		}
+		try {
+			return (boolean) IS_VIRTUAL.invokeExact(thread);
+		}
+		catch (Throwable ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * {@code Thread#isVirtual()}, which is only available as of Java 21
+	 */
+	private static MethodHandle isVirtualMethod() {
+		try {
+			return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual",
+					MethodType.methodType(boolean.class));
+		}
+		catch (ReflectiveOperationException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * What happens to a hash when the queue is full
+	 */
+	public enum RejectionPolicy {
+
+		/**
+		 * The hash fails with a {@link RejectedExecutionException}
+		 */
+		ABORT,
+
+		/**
+		 * The hash is computed by the calling thread, unless it is a virtual thread, which
+		 * waits for room in the queue instead
+		 */
+		CALLER_RUNS
+
+	}
+
+	private final class HashTask<T> implements Runnable {
+
+		private final Supplier<T> hash;
+
+		private final CompletableFuture<T> future = new CompletableFuture<>();
+
+		private final long submittedAt = System.nanoTime();
+
+		private HashTask(Supplier<T> hash) {
+			this.hash = hash;
+		}
+
+		@Override
+		public void run() {
+			if (this.future.isDone()) {
+				// Cancelled by the caller while queued
+				return;
+			}
+			long start = System.nanoTime();
+			long queued = start - this.submittedAt;
+			ExecutorPasswordEncoder.this.queueNanos.add(queued);
+			ExecutorPasswordEncoder.this.maxQueueNanos.accumulate(queued);
+			try {
+				this.future.complete(this.hash.get());
+			}
+			catch (RuntimeException | Error ex) {
+				this.future.completeExceptionally(ex);
+			}
+			finally {
+				ExecutorPasswordEncoder.this.hashNanos.add(System.nanoTime() - start);
+				ExecutorPasswordEncoder.this.completed.increment();
+			}
+		}
+
+	}
+
+	private static final class HashingThread extends Thread {
+
+		private final ExecutorPasswordEncoder encoder;
+
+		private HashingThread(ExecutorPasswordEncoder encoder, Runnable runnable, String name) {
+			super(runnable, name);
+			this.encoder = encoder;
+			setDaemon(true);
+		}
+
+	}
+
+}
@@ -46,6 +46,16 @@ public class KeyGeneratorsTests {
 		assertThat(Arrays.equals(key, key2)).isFalse();
 	}
 
+	@Test
+	public void prefetchingSecureRandomCustomLength() {
+		BytesKeyGenerator keyGenerator = KeyGenerators.prefetchingSecureRandom(21);
+		assertThat(keyGenerator.getKeyLength()).isEqualTo(21);
+		byte[] key = keyGenerator.generateKey();
+		assertThat(key).hasSize(21);
+		byte[] key2 = keyGenerator.generateKey();
+		assertThat(Arrays.equals(key, key2)).isFalse();
+	}
+
 	@Test
 	public void shared() {
 		BytesKeyGenerator keyGenerator = KeyGenerators.shared(21);
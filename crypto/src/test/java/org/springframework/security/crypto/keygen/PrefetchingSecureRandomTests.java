@@ -0,0 +1,127 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.crypto.keygen;
+
+import java.io.ByteArrayOutputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.crypto.codec.Hex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link PrefetchingSecureRandom}
+ */
+public class PrefetchingSecureRandomTests {
+
+	@Test
+	public void constructorWhenInvalidThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new PrefetchingSecureRandom(0, 64, Runnable::run));
+		assertThatIllegalArgumentException().isThrownBy(() -> new PrefetchingSecureRandom(1, 0, Runnable::run));
+		assertThatIllegalArgumentException().isThrownBy(() -> new PrefetchingSecureRandom(1, 64, null));
+	}
+
+	@Test
+	public void nextBytesWhenSpanningBuffersThenRefilledInBackground() {
+		AtomicInteger refills = new AtomicInteger();
+		PrefetchingSecureRandom random = new PrefetchingSecureRandom(1, 64, (task) -> {
+			refills.incrementAndGet();
+			task.run();
+		});
+		Set<String> values = new HashSet<>();
+		for (int i = 0; i < 100; i++) {
+			byte[] bytes = new byte[24];
+			random.nextBytes(bytes);
+			values.add(new String(Hex.encode(bytes)));
+		}
+		assertThat(values).hasSize(100);
+		assertThat(refills.get()).isGreaterThan(1);
+	}
+
+	@Test
+	public void nextBytesWhenLargerThanBufferThenFilled() {
+		PrefetchingSecureRandom random = new PrefetchingSecureRandom(1, 16, Runnable::run);
+		byte[] bytes = new byte[1024];
+		random.nextBytes(bytes);
+		assertThat(bytes).isNotEqualTo(new byte[1024]);
+	}
+
+	@Test
+	public void nextBytesWhenRefillRejectedThenFilledByCaller() {
+		PrefetchingSecureRandom random = new PrefetchingSecureRandom(1, 16, (task) -> {
+			throw new RejectedExecutionException();
+		});
+		byte[] first = new byte[16];
+		byte[] second = new byte[16];
+		random.nextBytes(first);
+		random.nextBytes(second);
+		assertThat(first).isNotEqualTo(second);
+	}
+
+	@Test
+	public void nextLongWhenConcurrentThenDistinctValues() throws Exception {
+		PrefetchingSecureRandom random = new PrefetchingSecureRandom();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<List<Long>>> futures = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				futures.add(executor.submit(() -> {
+					List<Long> values = new ArrayList<>();
+					for (int j = 0; j < 1000; j++) {
+						values.add(random.nextLong());
+					}
+					return values;
+				}));
+			}
+			Set<Long> values = new HashSet<>();
+			for (Future<List<Long>> future : futures) {
+				values.addAll(future.get());
+			}
+			assertThat(values).hasSize(8000);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void writeObjectThenNotSerializableException() throws Exception {
+		ObjectOutputStream out = new ObjectOutputStream(new ByteArrayOutputStream());
+		assertThatExceptionOfType(NotSerializableException.class)
+				.isThrownBy(() -> out.writeObject(new PrefetchingSecureRandom()));
+	}
+
+	@Test
+	public void getSharedInstanceThenSameInstance() {
+		assertThat(PrefetchingSecureRandom.getSharedInstance()).isSameAs(PrefetchingSecureRandom.getSharedInstance());
+	}
+
+}
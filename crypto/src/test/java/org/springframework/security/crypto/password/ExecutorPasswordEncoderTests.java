@@ -0,0 +1,175 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.crypto.password;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link ExecutorPasswordEncoder}
+ */
+public class ExecutorPasswordEncoderTests {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private final CountDownLatch started = new CountDownLatch(1);
+
+	private ExecutorPasswordEncoder encoder;
+
+	@AfterEach
+	public void cleanup() {
+		this.release.countDown();
+		if (this.encoder != null) {
+			this.encoder.close();
+		}
+	}
+
+	@Test
+	public void constructorWhenInvalidThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new ExecutorPasswordEncoder(null));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new ExecutorPasswordEncoder(new ThreadNamePasswordEncoder(), 0, 1));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new ExecutorPasswordEncoder(new ThreadNamePasswordEncoder(), 1, 0));
+	}
+
+	@Test
+	public void encodeAndMatchesThenComputedOnPool() throws Exception {
+		this.encoder = new ExecutorPasswordEncoder(new ThreadNamePasswordEncoder(), 2, 10);
+		String encoded = this.encoder.encode("password");
+		assertThat(encoded).startsWith("password-encoder-");
+		assertThat(this.encoder.matches("password", encoded)).isTrue();
+		assertThat(this.encoder.encodeAsync("password").get()).startsWith("password-encoder-");
+		assertThat(this.encoder.matchesAsync("password", "other").get()).isFalse();
+		assertThat(this.encoder.getCompletedCount()).isEqualTo(4);
+		assertThat(this.encoder.getTotalHashTime()).isPositive();
+	}
+
+	@Test
+	public void matchesWhenDelegateFailsThenException() {
+		this.encoder = new ExecutorPasswordEncoder(new ThreadNamePasswordEncoder(), 1, 1);
+		assertThatIllegalArgumentException().isThrownBy(() -> this.encoder.matches("password", null));
+	}
+
+	@Test
+	public void matchesAsyncWhenQueueFullThenRejected() throws Exception {
+		this.encoder = new ExecutorPasswordEncoder(new BlockingPasswordEncoder(), 1, 1);
+		CompletableFuture<Boolean> running = this.encoder.matchesAsync("password", "password");
+		assertThat(this.started.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<Boolean> queued = this.encoder.matchesAsync("password", "password");
+		CompletableFuture<Boolean> rejected = this.encoder.matchesAsync("password", "password");
+		assertThat(this.encoder.getQueueSize()).isEqualTo(1);
+		assertThatExceptionOfType(ExecutionException.class).isThrownBy(rejected::get)
+				.withCauseInstanceOf(RejectedExecutionException.class);
+		assertThatExceptionOfType(RejectedExecutionException.class)
+				.isThrownBy(() -> this.encoder.matches("password", "password"));
+		assertThat(this.encoder.getRejectedCount()).isEqualTo(2);
+		this.release.countDown();
+		assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(this.encoder.getMaxQueueTime()).isPositive();
+	}
+
+	@Test
+	public void matchesAsyncWhenQueueFullAndCallerRunsThenComputedByCaller() throws Exception {
+		this.encoder = new ExecutorPasswordEncoder(new BlockingPasswordEncoder(), 1, 1);
+		this.encoder.setRejectionPolicy(ExecutorPasswordEncoder.RejectionPolicy.CALLER_RUNS);
+		this.encoder.matchesAsync("password", "password");
+		assertThat(this.started.await(5, TimeUnit.SECONDS)).isTrue();
+		this.encoder.matchesAsync("password", "password");
+		CompletableFuture<Boolean> callerRuns = this.encoder.matchesAsync("password", "password");
+		assertThat(callerRuns).isCompletedWithValue(true);
+		assertThat(this.encoder.getCallerRunsCount()).isEqualTo(1);
+		assertThat(this.encoder.getRejectedCount()).isZero();
+	}
+
+	@Test
+	public void encodeAsyncWhenClosedThenRejected() {
+		this.encoder = new ExecutorPasswordEncoder(new ThreadNamePasswordEncoder(), 1, 1);
+		this.encoder.close();
+		assertThat(this.encoder.encodeAsync("password")).isCompletedExceptionally();
+	}
+
+	@Test
+	public void upgradeEncodingThenDelegated() {
+		this.encoder = new ExecutorPasswordEncoder(new ThreadNamePasswordEncoder(), 1, 1);
+		assertThat(this.encoder.upgradeEncoding("password-encoder-1")).isTrue();
+	}
+
+	/**
+	 * Encodes a password as the name of the thread that encoded it
+	 */
+	private static final class ThreadNamePasswordEncoder implements PasswordEncoder {
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			return Thread.currentThread().getName();
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			if (encodedPassword == null) {
+				throw new IllegalArgumentException("encodedPassword cannot be null");
+			}
+			return encodedPassword.startsWith("password-encoder-");
+		}
+
+		@Override
+		public boolean upgradeEncoding(String encodedPassword) {
+			return true;
+		}
+
+	}
+
+	/**
+	 * Matches any password, blocking the threads of the pool until released
+	 */
+	private final class BlockingPasswordEncoder implements PasswordEncoder {
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			return rawPassword.toString();
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			if (!Thread.currentThread().getName().startsWith("password-encoder-")) {
+				return true;
+			}
+			ExecutorPasswordEncoderTests.this.started.countDown();
+			try {
+				return ExecutorPasswordEncoderTests.this.release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.client.serializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
+import org.springframework.security.serializer.AuthenticationCodec;
+import org.springframework.security.serializer.AuthenticationCodecInput;
+import org.springframework.security.serializer.AuthenticationCodecModule;
+import org.springframework.security.serializer.AuthenticationCodecOutput;
+import org.springframework.security.serializer.AuthenticationTypeCodec;
+
+/**
+ * The {@link AuthenticationCodecModule} of {@code spring-security-oauth2-client}, which
+ * supports {@link OAuth2AuthenticationToken}, {@link DefaultOAuth2User},
+ * {@link DefaultOidcUser}, {@link OAuth2UserAuthority}, {@link OidcUserAuthority},
+ * {@link OidcIdToken} and {@link OidcUserInfo}. It is registered by default by
+ * {@link AuthenticationCodec}.
+ *
+ * @since 6.1
+ */
+public final class OAuth2ClientAuthenticationCodecModule implements AuthenticationCodecModule {
+
+	@Override
+	public List<AuthenticationTypeCodec<?>> getTypeCodecs() {
+		return Arrays.asList(new OAuth2AuthenticationTokenCodec(), new DefaultOAuth2UserCodec(),
+				new DefaultOidcUserCodec(), new OAuth2UserAuthorityCodec(), new OidcUserAuthorityCodec(),
+				new OidcIdTokenCodec(), new OidcUserInfoCodec());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> readClaims(AuthenticationCodecInput input) throws IOException {
+		return input.readObject(Map.class);
+	}
+
+	/**
+	 * Returns the key of the attribute that holds the name of the user. It is not exposed
+	 * by {@link DefaultOAuth2User}, but any attribute whose value is the name results in
+	 * an equal {@link DefaultOAuth2User}.
+	 */
+	private static String getNameAttributeKey(OAuth2User user) throws IOException {
+		String name = user.getName();
+		for (Map.Entry<String, Object> attribute : user.getAttributes().entrySet()) {
+			if (attribute.getValue() != null && name.equals(attribute.getValue().toString())) {
+				return attribute.getKey();
+			}
+		}
+		throw new IOException("No attribute holds the name of " + user);
+	}
+
+	private static final class OAuth2AuthenticationTokenCodec
+			implements AuthenticationTypeCodec<OAuth2AuthenticationToken> {
+
+		@Override
+		public int getTypeId() {
+			return 32;
+		}
+
+		@Override
+		public Class<OAuth2AuthenticationToken> getType() {
+			return OAuth2AuthenticationToken.class;
+		}
+
+		@Override
+		public void write(OAuth2AuthenticationToken value, AuthenticationCodecOutput output) throws IOException {
+			output.writeObject(value.getPrincipal());
+			output.writeAuthorities(value.getAuthorities());
+			output.writeString(value.getAuthorizedClientRegistrationId());
+			output.writeObject(value.getDetails());
+		}
+
+		@Override
+		public OAuth2AuthenticationToken read(AuthenticationCodecInput input) throws IOException {
+			OAuth2User principal = input.readObject(OAuth2User.class);
+			OAuth2AuthenticationToken token = new OAuth2AuthenticationToken(principal, input.readAuthorities(),
+					input.readString());
+			token.setDetails(input.readObject());
+			return token;
+		}
+
+	}
+
+	private static final class DefaultOAuth2UserCodec implements AuthenticationTypeCodec<DefaultOAuth2User> {
+
+		@Override
+		public int getTypeId() {
+			return 33;
+		}
+
+		@Override
+		public Class<DefaultOAuth2User> getType() {
+			return DefaultOAuth2User.class;
+		}
+
+		@Override
+		public void write(DefaultOAuth2User value, AuthenticationCodecOutput output) throws IOException {
+			output.writeAuthorities(value.getAuthorities());
+			output.writeObject(value.getAttributes());
+			output.writeString(getNameAttributeKey(value));
+		}
+
+		@Override
+		public DefaultOAuth2User read(AuthenticationCodecInput input) throws IOException {
+			return new DefaultOAuth2User(input.readAuthorities(), readClaims(input), input.readString());
+		}
+
+	}
+
+	private static final class DefaultOidcUserCodec implements AuthenticationTypeCodec<DefaultOidcUser> {
+
+		@Override
+		public int getTypeId() {
+			return 34;
+		}
+
+		@Override
+		public Class<DefaultOidcUser> getType() {
+			return DefaultOidcUser.class;
+		}
+
+		@Override
+		public void write(DefaultOidcUser value, AuthenticationCodecOutput output) throws IOException {
+			output.writeAuthorities(value.getAuthorities());
+			output.writeObject(value.getIdToken());
+			output.writeObject(value.getUserInfo());
+			output.writeString(getNameAttributeKey(value));
+		}
+
+		@Override
+		public DefaultOidcUser read(AuthenticationCodecInput input) throws IOException {
+			return new DefaultOidcUser(input.readAuthorities(), input.readObject(OidcIdToken.class),
+					input.readObject(OidcUserInfo.class), input.readString());
+		}
+
+	}
+
+	private static final class OAuth2UserAuthorityCodec implements AuthenticationTypeCodec<OAuth2UserAuthority> {
+
+		@Override
+		public int getTypeId() {
+			return 35;
+		}
+
+		@Override
+		public Class<OAuth2UserAuthority> getType() {
+			return OAuth2UserAuthority.class;
+		}
+
+		@Override
+		public void write(OAuth2UserAuthority value, AuthenticationCodecOutput output) throws IOException {
+			output.writeString(value.getAuthority());
+			output.writeObject(value.getAttributes());
+		}
+
+		@Override
+		public OAuth2UserAuthority read(AuthenticationCodecInput input) throws IOException {
+			return new OAuth2UserAuthority(input.readString(), readClaims(input));
+		}
+
+	}
+
+	private static final class OidcUserAuthorityCodec implements AuthenticationTypeCodec<OidcUserAuthority> {
+
+		@Override
+		public int getTypeId() {
+			return 36;
+		}
+
+		@Override
+		public Class<OidcUserAuthority> getType() {
+			return OidcUserAuthority.class;
+		}
+
+		@Override
+		public void write(OidcUserAuthority value, AuthenticationCodecOutput output) throws IOException {
+			output.writeString(value.getAuthority());
+			output.writeObject(value.getIdToken());
+			output.writeObject(value.getUserInfo());
+		}
+
+		@Override
+		public OidcUserAuthority read(AuthenticationCodecInput input) throws IOException {
+			return new OidcUserAuthority(input.readString(), input.readObject(OidcIdToken.class),
+					input.readObject(OidcUserInfo.class));
+		}
+
+	}
+
+	private static final class OidcIdTokenCodec implements AuthenticationTypeCodec<OidcIdToken> {
+
+		@Override
+		public int getTypeId() {
+			return 37;
+		}
+
+		@Override
+		public Class<OidcIdToken> getType() {
+			return OidcIdToken.class;
+		}
+
+		@Override
+		public void write(OidcIdToken value, AuthenticationCodecOutput output) throws IOException {
+			output.writeString(value.getTokenValue());
+			output.writeObject(value.getIssuedAt());
+			output.writeObject(value.getExpiresAt());
+			output.writeObject(value.getClaims());
+		}
+
+		@Override
+		public OidcIdToken read(AuthenticationCodecInput input) throws IOException {
+			return new OidcIdToken(input.readString(), input.readObject(Instant.class),
+					input.readObject(Instant.class), readClaims(input));
+		}
+
+	}
+
+	private static final class OidcUserInfoCodec implements AuthenticationTypeCodec<OidcUserInfo> {
+
+		@Override
+		public int getTypeId() {
+			return 38;
+		}
+
+		@Override
+		public Class<OidcUserInfo> getType() {
+			return OidcUserInfo.class;
+		}
+
+		@Override
+		public void write(OidcUserInfo value, AuthenticationCodecOutput output) throws IOException {
+			output.writeObject(value.getClaims());
+		}
+
+		@Override
+		public OidcUserInfo read(AuthenticationCodecInput input) throws IOException {
+			return new OidcUserInfo(readClaims(input));
+		}
+
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.client.serializer;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.client.authentication.TestOAuth2AuthenticationTokens;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+import org.springframework.security.oauth2.core.oidc.user.TestOidcUsers;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
+import org.springframework.security.serializer.AuthenticationCodec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link OAuth2ClientAuthenticationCodecModule}
+ */
+public class OAuth2ClientAuthenticationCodecModuleTests {
+
+	private final AuthenticationCodec codec = new AuthenticationCodec(
+			Arrays.asList(new OAuth2ClientAuthenticationCodecModule()));
+
+	@Test
+	public void serializeWhenOidcAuthenticationThenRoundTrips() throws Exception {
+		OAuth2AuthenticationToken authentication = TestOAuth2AuthenticationTokens.oidcAuthenticated();
+		OAuth2AuthenticationToken result = roundTrip(authentication);
+		assertThat(result).isEqualTo(authentication);
+		DefaultOidcUser principal = (DefaultOidcUser) result.getPrincipal();
+		DefaultOidcUser expected = (DefaultOidcUser) authentication.getPrincipal();
+		assertThat(principal.getName()).isEqualTo(expected.getName());
+		assertThat(principal.getIdToken().getClaims()).isEqualTo(expected.getIdToken().getClaims());
+		assertThat(principal.getUserInfo()).isEqualTo(expected.getUserInfo());
+		assertThat(result.getAuthorizedClientRegistrationId())
+				.isEqualTo(authentication.getAuthorizedClientRegistrationId());
+	}
+
+	@Test
+	public void serializeWhenOAuth2AuthenticationThenRoundTrips() throws Exception {
+		OAuth2AuthenticationToken authentication = TestOAuth2AuthenticationTokens.authenticated();
+		OAuth2AuthenticationToken result = roundTrip(authentication);
+		assertThat(result).isEqualTo(authentication);
+		assertThat(result.getPrincipal()).isInstanceOf(DefaultOAuth2User.class);
+		assertThat(result.getName()).isEqualTo(authentication.getName());
+	}
+
+	@Test
+	public void serializeWhenUserAuthoritiesThenRoundTrips() throws Exception {
+		DefaultOidcUser user = TestOidcUsers.create();
+		OAuth2UserAuthority oauth2 = new OAuth2UserAuthority("OAUTH2_USER",
+				Collections.singletonMap("sub", "subject"));
+		OidcUserAuthority oidc = new OidcUserAuthority(user.getIdToken(), user.getUserInfo());
+		assertThat(this.codec.deserializeFromByteArray(this.codec.serializeToByteArray(oauth2))).isEqualTo(oauth2);
+		assertThat(this.codec.deserializeFromByteArray(this.codec.serializeToByteArray(oidc))).isEqualTo(oidc);
+	}
+
+	@Test
+	public void serializeWhenOidcAuthenticationThenSmallerThanJavaSerialization() throws Exception {
+		SecurityContext context = new SecurityContextImpl(TestOAuth2AuthenticationTokens.oidcAuthenticated());
+		byte[] bytes = this.codec.serializeToByteArray(context);
+		byte[] java = new DefaultSerializer().serializeToByteArray(context);
+		assertThat(bytes.length).isLessThan(java.length / 2);
+	}
+
+	private OAuth2AuthenticationToken roundTrip(OAuth2AuthenticationToken authentication) throws Exception {
+		return (OAuth2AuthenticationToken) this.codec
+				.deserializeFromByteArray(this.codec.serializeToByteArray(authentication));
+	}
+
+}
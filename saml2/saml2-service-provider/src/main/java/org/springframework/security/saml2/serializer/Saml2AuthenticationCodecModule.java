@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.saml2.serializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.saml2.provider.service.authentication.DefaultSaml2AuthenticatedPrincipal;
+import org.springframework.security.saml2.provider.service.authentication.Saml2Authentication;
+import org.springframework.security.serializer.AuthenticationCodec;
+import org.springframework.security.serializer.AuthenticationCodecInput;
+import org.springframework.security.serializer.AuthenticationCodecModule;
+import org.springframework.security.serializer.AuthenticationCodecOutput;
+import org.springframework.security.serializer.AuthenticationTypeCodec;
+
+/**
+ * The {@link AuthenticationCodecModule} of {@code spring-security-saml2-service-provider},
+ * which supports {@link Saml2Authentication} and
+ * {@link DefaultSaml2AuthenticatedPrincipal}. It is registered by default by
+ * {@link AuthenticationCodec}.
+ *
+ * @since 6.1
+ */
+public final class Saml2AuthenticationCodecModule implements AuthenticationCodecModule {
+
+	@Override
+	public List<AuthenticationTypeCodec<?>> getTypeCodecs() {
+		return Arrays.asList(new Saml2AuthenticationCodec(), new DefaultSaml2AuthenticatedPrincipalCodec());
+	}
+
+	private static final class Saml2AuthenticationCodec implements AuthenticationTypeCodec<Saml2Authentication> {
+
+		@Override
+		public int getTypeId() {
+			return 48;
+		}
+
+		@Override
+		public Class<Saml2Authentication> getType() {
+			return Saml2Authentication.class;
+		}
+
+		@Override
+		public void write(Saml2Authentication value, AuthenticationCodecOutput output) throws IOException {
+			output.writeObject(value.getPrincipal());
+			output.writeString(value.getSaml2Response());
+			output.writeAuthorities(value.getAuthorities());
+			output.writeObject(value.getDetails());
+		}
+
+		@Override
+		public Saml2Authentication read(AuthenticationCodecInput input) throws IOException {
+			AuthenticatedPrincipal principal = input.readObject(AuthenticatedPrincipal.class);
+			Saml2Authentication authentication = new Saml2Authentication(principal, input.readString(),
+					input.readAuthorities());
+			authentication.setDetails(input.readObject());
+			return authentication;
+		}
+
+	}
+
+	private static final class DefaultSaml2AuthenticatedPrincipalCodec
+			implements AuthenticationTypeCodec<DefaultSaml2AuthenticatedPrincipal> {
+
+		@Override
+		public int getTypeId() {
+			return 49;
+		}
+
+		@Override
+		public Class<DefaultSaml2AuthenticatedPrincipal> getType() {
+			return DefaultSaml2AuthenticatedPrincipal.class;
+		}
+
+		@Override
+		public void write(DefaultSaml2AuthenticatedPrincipal value, AuthenticationCodecOutput output)
+				throws IOException {
+			output.writeString(value.getName());
+			output.writeObject(value.getAttributes());
+			output.writeObject(value.getSessionIndexes());
+			output.writeString(value.getRelyingPartyRegistrationId());
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public DefaultSaml2AuthenticatedPrincipal read(AuthenticationCodecInput input) throws IOException {
+			String name = input.readString();
+			Map<String, List<Object>> attributes = input.readObject(Map.class);
+			List<String> sessionIndexes = input.readObject(List.class);
+			DefaultSaml2AuthenticatedPrincipal principal = new DefaultSaml2AuthenticatedPrincipal(name, attributes,
+					sessionIndexes);
+			String registrationId = input.readString();
+			if (registrationId != null) {
+				principal.setRelyingPartyRegistrationId(registrationId);
+			}
+			return principal;
+		}
+
+	}
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.saml2.serializer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.saml2.provider.service.authentication.DefaultSaml2AuthenticatedPrincipal;
+import org.springframework.security.saml2.provider.service.authentication.Saml2Authentication;
+import org.springframework.security.serializer.AuthenticationCodec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link Saml2AuthenticationCodecModule}
+ */
+public class Saml2AuthenticationCodecModuleTests {
+
+	private final AuthenticationCodec codec = new AuthenticationCodec(
+			Arrays.asList(new Saml2AuthenticationCodecModule()));
+
+	@Test
+	public void serializeWhenSaml2AuthenticationThenRoundTrips() throws Exception {
+		Map<String, List<Object>> attributes = new LinkedHashMap<>();
+		attributes.put("email", Arrays.asList("user@example.org"));
+		attributes.put("groups", Arrays.asList("admins", "users"));
+		DefaultSaml2AuthenticatedPrincipal principal = new DefaultSaml2AuthenticatedPrincipal("user", attributes,
+				Arrays.asList("index"));
+		principal.setRelyingPartyRegistrationId("registration-id");
+		Saml2Authentication authentication = new Saml2Authentication(principal, "<samlp:Response/>",
+				AuthorityUtils.createAuthorityList("ROLE_USER"));
+		Saml2Authentication result = roundTrip(authentication);
+		assertThat(result.getSaml2Response()).isEqualTo(authentication.getSaml2Response());
+		assertThat(result.getAuthorities()).isEqualTo(authentication.getAuthorities());
+		assertThat(result.isAuthenticated()).isTrue();
+		assertThat(result.getPrincipal()).usingRecursiveComparison().isEqualTo(principal);
+	}
+
+	@Test
+	public void serializeWhenNoRegistrationIdThenRoundTrips() throws Exception {
+		DefaultSaml2AuthenticatedPrincipal principal = new DefaultSaml2AuthenticatedPrincipal("user",
+				Collections.emptyMap());
+		Saml2Authentication authentication = new Saml2Authentication(principal, "<samlp:Response/>",
+				AuthorityUtils.NO_AUTHORITIES);
+		DefaultSaml2AuthenticatedPrincipal result = (DefaultSaml2AuthenticatedPrincipal) roundTrip(authentication)
+				.getPrincipal();
+		assertThat(result.getName()).isEqualTo("user");
+		assertThat(result.getRelyingPartyRegistrationId()).isNull();
+	}
+
+	private Saml2Authentication roundTrip(Saml2Authentication authentication) throws Exception {
+		return (Saml2Authentication) this.codec
+				.deserializeFromByteArray(this.codec.serializeToByteArray(authentication));
+	}
+
+}
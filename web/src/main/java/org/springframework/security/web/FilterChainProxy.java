@@ -17,6 +17,7 @@
 package org.springframework.security.web;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -42,7 +43,9 @@ import org.springframework.security.web.firewall.RequestRejectedHandler;
 import org.springframework.security.web.firewall.StrictHttpFirewall;
 import org.springframework.security.web.util.ThrowableAnalyzer;
 import org.springframework.security.web.util.UrlUtils;
+import org.springframework.security.web.util.matcher.PathPrefixRequestMatcherIndex;
 import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcherResultCache;
 import org.springframework.util.Assert;
 import org.springframework.web.filter.DelegatingFilterProxy;
 import org.springframework.web.filter.GenericFilterBean;
@@ -152,6 +155,12 @@ public class FilterChainProxy extends GenericFilterBean {
 
 	private List<SecurityFilterChain> filterChains;
 
+	private PathPrefixRequestMatcherIndex filterChainIndex;
+
+	private boolean requestMatcherResultCacheEnabled;
+
+	private RequestMatcher bypassRequestMatcher;
+
 	private FilterChainValidator filterChainValidator = new NullFilterChainValidator();
 
 	private HttpFirewall firewall = new StrictHttpFirewall();
@@ -181,6 +190,13 @@ public class FilterChainProxy extends GenericFilterBean {
 	@Override
 	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
 			throws IOException, ServletException {
+		if (this.bypassRequestMatcher != null && this.bypassRequestMatcher.matches((HttpServletRequest) request)) {
+			if (logger.isTraceEnabled()) {
+				logger.trace(LogMessage.of(() -> "Bypassing security for " + requestLine((HttpServletRequest) request)));
+			}
+			chain.doFilter(request, response);
+			return;
+		}
 		boolean clearContext = request.getAttribute(FILTER_APPLIED) == null;
 		if (!clearContext) {
 			doFilterInternal(request, response, chain);
@@ -210,6 +226,21 @@ public class FilterChainProxy extends GenericFilterBean {
 			throws IOException, ServletException {
 		FirewalledRequest firewallRequest = this.firewall.getFirewalledRequest((HttpServletRequest) request);
 		HttpServletResponse firewallResponse = this.firewall.getFirewalledResponse((HttpServletResponse) response);
+		if (!this.requestMatcherResultCacheEnabled) {
+			doFilterInternal(firewallRequest, firewallResponse, chain);
+			return;
+		}
+		RequestMatcherResultCache previous = RequestMatcherResultCache.bind(firewallRequest);
+		try {
+			doFilterInternal(firewallRequest, firewallResponse, chain);
+		}
+		finally {
+			RequestMatcherResultCache.unbind(firewallRequest, previous);
+		}
+	}
+
+	private void doFilterInternal(FirewalledRequest firewallRequest, HttpServletResponse firewallResponse,
+			FilterChain chain) throws IOException, ServletException {
 		List<Filter> filters = getFilters(firewallRequest);
 		if (filters == null || filters.size() == 0) {
 			if (logger.isTraceEnabled()) {
@@ -239,6 +270,9 @@ public class FilterChainProxy extends GenericFilterBean {
 	 * @return an ordered array of Filters defining the filter chain
 	 */
 	private List<Filter> getFilters(HttpServletRequest request) {
+		if (this.filterChainIndex != null) {
+			return getIndexedFilters(request);
+		}
 		int count = 0;
 		for (SecurityFilterChain chain : this.filterChains) {
 			if (logger.isTraceEnabled()) {
@@ -252,6 +286,21 @@ public class FilterChainProxy extends GenericFilterBean {
 		return null;
 	}
 
+	private List<Filter> getIndexedFilters(HttpServletRequest request) {
+		int[] candidates = this.filterChainIndex.getCandidates(request);
+		for (int i = 0; i < candidates.length; i++) {
+			SecurityFilterChain chain = this.filterChains.get(candidates[i]);
+			if (logger.isTraceEnabled()) {
+				logger.trace(LogMessage.format("Trying to match request against %s (%d/%d)", chain, i + 1,
+						candidates.length));
+			}
+			if (chain.matches(request)) {
+				return chain.getFilters();
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Convenience method, mainly for testing.
 	 * @param url the URL
@@ -280,6 +329,66 @@ public class FilterChainProxy extends GenericFilterBean {
 		this.securityContextHolderStrategy = securityContextHolderStrategy;
 	}
 
+	/**
+	 * Whether to select the {@link SecurityFilterChain} for each request through a
+	 * {@link PathPrefixRequestMatcherIndex} instead of trying every chain in order.
+	 *
+	 * <p>
+	 * The request matchers of {@link DefaultSecurityFilterChain}s that are plain
+	 * {@link org.springframework.security.web.util.matcher.AntPathRequestMatcher}s are
+	 * indexed by their literal path prefix, so that only the chains which may match the
+	 * request are tried. Any other chain is still tried for every request. In both cases
+	 * the first matching chain in declaration order is selected. This is useful when
+	 * there are many filter chains. The default is {@code false}.
+	 * @param filterChainIndexEnabled whether to index the filter chains
+	 * @since 6.1
+	 */
+	public void setFilterChainIndexEnabled(boolean filterChainIndexEnabled) {
+		if (!filterChainIndexEnabled) {
+			this.filterChainIndex = null;
+			return;
+		}
+		Assert.notNull(this.filterChains, "filterChains cannot be null");
+		List<RequestMatcher> requestMatchers = new ArrayList<>(this.filterChains.size());
+		for (SecurityFilterChain chain : this.filterChains) {
+			if (chain instanceof DefaultSecurityFilterChain) {
+				requestMatchers.add(((DefaultSecurityFilterChain) chain).getRequestMatcher());
+			}
+			else {
+				requestMatchers.add(chain::matches);
+			}
+		}
+		this.filterChainIndex = new PathPrefixRequestMatcherIndex(requestMatchers);
+	}
+
+	/**
+	 * Whether to remember the results of {@link RequestMatcher}s for the duration of each
+	 * dispatch, so that equal matchers used by different filters only evaluate the
+	 * request once. See {@link RequestMatcherResultCache} for the matchers which support
+	 * it. The default is {@code false}.
+	 * @param requestMatcherResultCacheEnabled whether to remember the results of
+	 * {@link RequestMatcher}s
+	 * @since 6.1
+	 */
+	public void setRequestMatcherResultCacheEnabled(boolean requestMatcherResultCacheEnabled) {
+		this.requestMatcherResultCacheEnabled = requestMatcherResultCacheEnabled;
+	}
+
+	/**
+	 * Sets the {@link RequestMatcher} for the requests which should skip Spring Security
+	 * entirely. Matching requests are passed to the original {@link FilterChain} before
+	 * the {@link HttpFirewall} is applied and before any {@link SecurityFilterChain} is
+	 * looked up, so nothing is allocated for them. This is meant for paths such as static
+	 * resources and health checks, typically with a
+	 * {@link org.springframework.security.web.util.matcher.BypassPathRequestMatcher}. The
+	 * default is {@code null}, which means that no request skips Spring Security.
+	 * @param bypassRequestMatcher the {@link RequestMatcher} for the requests to bypass
+	 * @since 6.1
+	 */
+	public void setBypassRequestMatcher(RequestMatcher bypassRequestMatcher) {
+		this.bypassRequestMatcher = bypassRequestMatcher;
+	}
+
 	/**
 	 * Used (internally) to specify a validation strategy for the filters in each
 	 * configured chain.
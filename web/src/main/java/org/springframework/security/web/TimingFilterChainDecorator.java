@@ -0,0 +1,241 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.log.LogMessage;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link org.springframework.security.web.FilterChainProxy.FilterChainDecorator} that
+ * records how long each security filter takes, without creating any observation.
+ *
+ * <p>
+ * The time recorded for a filter excludes the time spent in the rest of the chain, so it
+ * only accounts for the filter's own work. Each measurement costs a pair of
+ * {@link System#nanoTime()} calls and is recorded into a histogram with fixed,
+ * power-of-two buckets that is allocated once per filter type. The histograms are
+ * exported to the {@link MeterRegistry} as:
+ *
+ * <ul>
+ * <li>{@code spring.security.filter.duration} - a {@link FunctionTimer} with the count
+ * and total time of each filter</li>
+ * <li>{@code spring.security.filter.duration.max} - a {@link TimeGauge} with the longest
+ * time seen for each filter</li>
+ * <li>{@code spring.security.filter.duration.buckets} - a cumulative
+ * {@link FunctionCounter} for each bucket, tagged with its upper bound in seconds as
+ * {@code le}</li>
+ * </ul>
+ *
+ * All meters are tagged with the simple class name of the filter as {@code filter}.
+ *
+ * @since 6.1
+ * @see ObservationFilterChainDecorator
+ */
+public final class TimingFilterChainDecorator implements FilterChainProxy.FilterChainDecorator {
+
+	private static final Log logger = LogFactory.getLog(FilterChainProxy.class);
+
+	static final String DURATION_METER_NAME = "spring.security.filter.duration";
+
+	private final MeterRegistry registry;
+
+	private final Map<Filter, FilterTimer> timersByFilter = new ConcurrentHashMap<>();
+
+	private final Map<String, FilterTimer> timersByName = new ConcurrentHashMap<>();
+
+	public TimingFilterChainDecorator(MeterRegistry registry) {
+		Assert.notNull(registry, "registry cannot be null");
+		this.registry = registry;
+	}
+
+	@Override
+	public FilterChain decorate(FilterChain original) {
+		return original;
+	}
+
+	@Override
+	public FilterChain decorate(FilterChain original, List<Filter> filters) {
+		return new TimingFilterChain(this, original, filters);
+	}
+
+	private FilterTimer timer(Filter filter) {
+		FilterTimer timer = this.timersByFilter.get(filter);
+		if (timer != null) {
+			return timer;
+		}
+		return this.timersByFilter.computeIfAbsent(filter, (f) -> this.timersByName
+				.computeIfAbsent(f.getClass().getSimpleName(), (name) -> new FilterTimer(name, this.registry)));
+	}
+
+	private static final class TimingFilterChain implements FilterChain {
+
+		private final TimingFilterChainDecorator decorator;
+
+		private final FilterChain originalChain;
+
+		private final List<Filter> additionalFilters;
+
+		private final int size;
+
+		private int currentPosition = 0;
+
+		/**
+		 * The time spent downstream of the filter that is currently returning
+		 */
+		private long downstreamNanos;
+
+		private TimingFilterChain(TimingFilterChainDecorator decorator, FilterChain chain,
+				List<Filter> additionalFilters) {
+			this.decorator = decorator;
+			this.originalChain = chain;
+			this.additionalFilters = additionalFilters;
+			this.size = additionalFilters.size();
+		}
+
+		@Override
+		public void doFilter(ServletRequest request, ServletResponse response) throws IOException, ServletException {
+			if (this.currentPosition == this.size) {
+				long start = System.nanoTime();
+				try {
+					this.originalChain.doFilter(request, response);
+				}
+				finally {
+					this.downstreamNanos = System.nanoTime() - start;
+				}
+				return;
+			}
+			this.currentPosition++;
+			Filter nextFilter = this.additionalFilters.get(this.currentPosition - 1);
+			if (logger.isTraceEnabled()) {
+				String name = nextFilter.getClass().getSimpleName();
+				logger.trace(LogMessage.format("Invoking %s (%d/%d)", name, this.currentPosition, this.size));
+			}
+			FilterTimer timer = this.decorator.timer(nextFilter);
+			this.downstreamNanos = 0;
+			long start = System.nanoTime();
+			try {
+				nextFilter.doFilter(request, response, this);
+			}
+			finally {
+				long elapsed = System.nanoTime() - start;
+				timer.record(elapsed - this.downstreamNanos);
+				this.downstreamNanos = elapsed;
+			}
+		}
+
+	}
+
+	/**
+	 * A histogram of filter durations, with one bucket for each power of two nanoseconds
+	 * from {@code 2^10} (about 1 microsecond) to {@code 2^30} (about 1 second), plus an
+	 * overflow bucket
+	 */
+	static final class FilterTimer {
+
+		private static final int MIN_EXPONENT = 10;
+
+		private static final int MAX_EXPONENT = 30;
+
+		static final int BUCKET_COUNT = MAX_EXPONENT - MIN_EXPONENT + 2;
+
+		private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+		private final LongAdder count = new LongAdder();
+
+		private final LongAdder totalNanos = new LongAdder();
+
+		private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+		FilterTimer(String name, MeterRegistry registry) {
+			FunctionTimer.builder(DURATION_METER_NAME, this, FilterTimer::count, FilterTimer::totalNanos,
+					TimeUnit.NANOSECONDS).tag("filter", name).description("The time spent in each security filter")
+					.register(registry);
+			TimeGauge.builder(DURATION_METER_NAME + ".max", this, TimeUnit.NANOSECONDS, FilterTimer::maxNanos)
+					.tag("filter", name).register(registry);
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				int bucket = i;
+				FunctionCounter.builder(DURATION_METER_NAME + ".buckets", this, (t) -> t.cumulativeCount(bucket))
+						.tag("filter", name).tag("le", upperBound(bucket)).register(registry);
+			}
+		}
+
+		void record(long nanos) {
+			this.buckets.incrementAndGet(bucket(nanos));
+			this.count.increment();
+			this.totalNanos.add(nanos);
+			this.maxNanos.accumulate(nanos);
+		}
+
+		long count() {
+			return this.count.sum();
+		}
+
+		double totalNanos() {
+			return this.totalNanos.sum();
+		}
+
+		double maxNanos() {
+			return this.maxNanos.get();
+		}
+
+		long cumulativeCount(int bucket) {
+			long sum = 0;
+			for (int i = 0; i <= bucket; i++) {
+				sum += this.buckets.get(i);
+			}
+			return sum;
+		}
+
+		static int bucket(long nanos) {
+			if (nanos <= (1L << MIN_EXPONENT)) {
+				return 0;
+			}
+			int exponent = 64 - Long.numberOfLeadingZeros(nanos - 1);
+			return Math.min(exponent, MAX_EXPONENT + 1) - MIN_EXPONENT;
+		}
+
+		private static String upperBound(int bucket) {
+			if (bucket == BUCKET_COUNT - 1) {
+				return "+Inf";
+			}
+			return String.valueOf((1L << (MIN_EXPONENT + bucket)) / 1e9);
+		}
+
+	}
+
+}
@@ -29,6 +29,7 @@ import org.springframework.core.log.LogMessage;
 import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.web.util.matcher.PathPrefixRequestMatcherIndex;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher.MatchResult;
 import org.springframework.security.web.util.matcher.RequestMatcherEntry;
@@ -50,10 +51,22 @@ public final class RequestMatcherDelegatingAuthorizationManager implements Autho
 
 	private final List<RequestMatcherEntry<AuthorizationManager<RequestAuthorizationContext>>> mappings;
 
+	private final PathPrefixRequestMatcherIndex index;
+
 	private RequestMatcherDelegatingAuthorizationManager(
-			List<RequestMatcherEntry<AuthorizationManager<RequestAuthorizationContext>>> mappings) {
+			List<RequestMatcherEntry<AuthorizationManager<RequestAuthorizationContext>>> mappings, boolean compiled) {
 		Assert.notEmpty(mappings, "mappings cannot be empty");
-		this.mappings = mappings;
+		this.mappings = new ArrayList<>(mappings);
+		this.index = compiled ? createIndex(this.mappings) : null;
+	}
+
+	private static PathPrefixRequestMatcherIndex createIndex(
+			List<RequestMatcherEntry<AuthorizationManager<RequestAuthorizationContext>>> mappings) {
+		List<RequestMatcher> matchers = new ArrayList<>(mappings.size());
+		for (RequestMatcherEntry<AuthorizationManager<RequestAuthorizationContext>> mapping : mappings) {
+			matchers.add(mapping.getRequestMatcher());
+		}
+		return new PathPrefixRequestMatcherIndex(matchers);
 	}
 
 	/**
@@ -70,21 +83,27 @@ public final class RequestMatcherDelegatingAuthorizationManager implements Autho
 		if (this.logger.isTraceEnabled()) {
 			this.logger.trace(LogMessage.format("Authorizing %s", request));
 		}
-		for (RequestMatcherEntry<AuthorizationManager<RequestAuthorizationContext>> mapping : this.mappings) {
-
+		int[] candidates = (this.index != null) ? this.index.getCandidates(request) : null;
+		int size = (candidates != null) ? candidates.length : this.mappings.size();
+		for (int i = 0; i < size; i++) {
+			RequestMatcherEntry<AuthorizationManager<RequestAuthorizationContext>> mapping = this.mappings
+					.get((candidates != null) ? candidates[i] : i);
 			RequestMatcher matcher = mapping.getRequestMatcher();
 			MatchResult matchResult = matcher.matcher(request);
 			if (matchResult.isMatch()) {
 				AuthorizationManager<RequestAuthorizationContext> manager = mapping.getEntry();
 				if (this.logger.isTraceEnabled()) {
-					this.logger.trace(LogMessage.format("Checking authorization on %s using %s", request, manager));
+					this.logger.trace(LogMessage.format("Checking authorization on %s using %s (evaluated %d/%d)",
+							request, manager, i + 1, this.mappings.size()));
 				}
 				return manager.check(authentication,
 						new RequestAuthorizationContext(request, matchResult.getVariables()));
 			}
 		}
 		if (this.logger.isTraceEnabled()) {
-			this.logger.trace(LogMessage.of(() -> "Denying request since did not find matching RequestMatcher"));
+			this.logger.trace(LogMessage.format(
+					"Denying request since did not find matching RequestMatcher (evaluated %d/%d)", size,
+					this.mappings.size()));
 		}
 		return DENY;
 	}
@@ -104,6 +123,8 @@ public final class RequestMatcherDelegatingAuthorizationManager implements Autho
 
 		private final List<RequestMatcherEntry<AuthorizationManager<RequestAuthorizationContext>>> mappings = new ArrayList<>();
 
+		private boolean compiled;
+
 		/**
 		 * Maps a {@link RequestMatcher} to an {@link AuthorizationManager}.
 		 * @param matcher the {@link RequestMatcher} to use
@@ -132,12 +153,28 @@ public final class RequestMatcherDelegatingAuthorizationManager implements Autho
 			return this;
 		}
 
+		/**
+		 * Whether to compile the path-based {@link RequestMatcher}s into a
+		 * {@link PathPrefixRequestMatcherIndex} keyed by HTTP method and literal path
+		 * prefix. When compiled, only the {@link RequestMatcher}s that may match a given
+		 * request are evaluated, still in the order they were added. The number of
+		 * evaluated {@link RequestMatcher}s is logged at trace level. The default is
+		 * {@code false}.
+		 * @param compiled whether to compile the mappings
+		 * @return the {@link Builder} for further customizations
+		 * @since 6.1
+		 */
+		public Builder compiled(boolean compiled) {
+			this.compiled = compiled;
+			return this;
+		}
+
 		/**
 		 * Creates a {@link RequestMatcherDelegatingAuthorizationManager} instance.
 		 * @return the {@link RequestMatcherDelegatingAuthorizationManager} instance
 		 */
 		public RequestMatcherDelegatingAuthorizationManager build() {
-			return new RequestMatcherDelegatingAuthorizationManager(this.mappings);
+			return new RequestMatcherDelegatingAuthorizationManager(this.mappings, this.compiled);
 		}
 
 	}
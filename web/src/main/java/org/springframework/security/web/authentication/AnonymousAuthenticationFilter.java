@@ -32,7 +32,9 @@ import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.authentication.AuthenticationDetailsSource;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.SpringSecurityCoreVersion;
 import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.CopyOnWriteSecurityContext;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextHolderStrategy;
@@ -61,6 +63,8 @@ public class AnonymousAuthenticationFilter extends GenericFilterBean implements
 
 	private List<GrantedAuthority> authorities;
 
+	private SecurityContext sharedAnonymousContext;
+
 	/**
 	 * Creates a filter with a principal named "anonymousUser" and the single authority
 	 * "ROLE_ANONYMOUS".
@@ -111,6 +115,13 @@ public class AnonymousAuthenticationFilter extends GenericFilterBean implements
 	private SecurityContext defaultWithAnonymous(HttpServletRequest request, SecurityContext currentContext) {
 		Authentication currentAuthentication = currentContext.getAuthentication();
 		if (currentAuthentication == null) {
+			SecurityContext sharedAnonymousContext = this.sharedAnonymousContext;
+			if (sharedAnonymousContext != null) {
+				if (this.logger.isTraceEnabled()) {
+					this.logger.trace("Set SecurityContextHolder to shared anonymous SecurityContext");
+				}
+				return sharedAnonymousContext;
+			}
 			Authentication anonymous = createAuthentication(request);
 			if (this.logger.isTraceEnabled()) {
 				this.logger.trace(LogMessage.of(() -> "Set SecurityContextHolder to " + anonymous));
@@ -138,6 +149,29 @@ public class AnonymousAuthenticationFilter extends GenericFilterBean implements
 		return token;
 	}
 
+	/**
+	 * Whether to use the same anonymous {@link SecurityContext} for every request, rather
+	 * than creating a new {@link SecurityContext} and {@link Authentication} for each
+	 * request. The default is {@code false}.
+	 * <p>
+	 * The shared {@link SecurityContext} is a {@link CopyOnWriteSecurityContext}, so
+	 * calling {@link SecurityContext#setAuthentication(Authentication)} on it sets a new
+	 * {@link SecurityContext} for the current thread only. Its {@link Authentication}
+	 * has no details, and cannot be changed. {@link #createAuthentication} and the
+	 * {@link AuthenticationDetailsSource} are not used.
+	 * @param shareAnonymousContext whether to share the anonymous
+	 * {@link SecurityContext}
+	 * @since 6.1
+	 */
+	public void setShareAnonymousContext(boolean shareAnonymousContext) {
+		this.sharedAnonymousContext = shareAnonymousContext ? createSharedAnonymousContext() : null;
+	}
+
+	private SecurityContext createSharedAnonymousContext() {
+		return new CopyOnWriteSecurityContext(this.securityContextHolderStrategy,
+				new SharedAnonymousAuthenticationToken(this.key, this.principal, this.authorities));
+	}
+
 	public void setAuthenticationDetailsSource(
 			AuthenticationDetailsSource<HttpServletRequest, ?> authenticationDetailsSource) {
 		Assert.notNull(authenticationDetailsSource, "AuthenticationDetailsSource required");
@@ -153,6 +187,9 @@ public class AnonymousAuthenticationFilter extends GenericFilterBean implements
 	public void setSecurityContextHolderStrategy(SecurityContextHolderStrategy securityContextHolderStrategy) {
 		Assert.notNull(securityContextHolderStrategy, "securityContextHolderStrategy cannot be null");
 		this.securityContextHolderStrategy = securityContextHolderStrategy;
+		if (this.sharedAnonymousContext != null) {
+			this.sharedAnonymousContext = createSharedAnonymousContext();
+		}
 	}
 
 	public Object getPrincipal() {
@@ -163,4 +200,39 @@ public class AnonymousAuthenticationFilter extends GenericFilterBean implements
 		return this.authorities;
 	}
 
+	/**
+	 * An {@link AnonymousAuthenticationToken} which is shared by all requests, and so
+	 * cannot be changed once created
+	 */
+	private static final class SharedAnonymousAuthenticationToken extends AnonymousAuthenticationToken {
+
+		private static final long serialVersionUID = SpringSecurityCoreVersion.SERIAL_VERSION_UID;
+
+		private final boolean initialized;
+
+		private SharedAnonymousAuthenticationToken(String key, Object principal, List<GrantedAuthority> authorities) {
+			super(key, principal, authorities);
+			this.initialized = true;
+		}
+
+		@Override
+		public void setAuthenticated(boolean authenticated) {
+			Assert.state(!this.initialized, "Cannot change a shared anonymous Authentication");
+			super.setAuthenticated(authenticated);
+		}
+
+		@Override
+		public void setDetails(Object details) {
+			Assert.state(!this.initialized, "Cannot change a shared anonymous Authentication");
+			super.setDetails(details);
+		}
+
+		@Override
+		public void eraseCredentials() {
+			// Left untouched since the token is shared by every request, and it holds no
+			// credentials: they are empty and the principal and details are not containers
+		}
+
+	}
+
 }
@@ -18,21 +18,53 @@ package org.springframework.security.web.authentication.rememberme;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.log.LogMessage;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.jdbc.core.support.JdbcDaoSupport;
+import org.springframework.util.Assert;
 
 /**
  * JDBC based persistent login token repository implementation.
+ * <p>
+ * By default, each operation is a statement against the database. Two optional modes
+ * reduce the load that remember-me logins put on the database, for example when all the
+ * users of an application log in again at once after a restart:
+ * <ul>
+ * <li>{@link #setTokenCacheSize(int)} caches the tokens read by
+ * {@link #getTokenForSeries(String)} for {@link #setTokenCacheTimeToLive(Duration)},
+ * keeping them up to date on {@link #updateToken(String, String, Date)}</li>
+ * <li>{@link #setUpdateInterval(Duration)} defers the updates of
+ * {@link #updateToken(String, String, Date)}, which are then written in JDBC batches by a
+ * background task. Until an update is written, {@link #getTokenForSeries(String)}
+ * returns the updated token.</li>
+ * </ul>
+ * Both modes keep the cookie theft detection of
+ * {@link PersistentTokenBasedRememberMeServices} correct as long as all the remember-me
+ * logins of a series are handled by this instance, since other instances would read the
+ * database without the pending updates, or keep a stale token in their cache. They are
+ * therefore meant for a single instance, or for instances that route each user to the
+ * same instance.
  *
  * @author Luke Taylor
  * @since 2.0
  */
-public class JdbcTokenRepositoryImpl extends JdbcDaoSupport implements PersistentTokenRepository {
+public class JdbcTokenRepositoryImpl extends JdbcDaoSupport implements PersistentTokenRepository, DisposableBean {
 
 	/** Default SQL for creating the database table to store the tokens */
 	public static final String CREATE_TABLE_SQL = "create table persistent_logins (username varchar(64) not null, series varchar(64) primary key, "
@@ -50,6 +82,17 @@ public class JdbcTokenRepositoryImpl extends JdbcDaoSupport implements Persisten
 	/** The default SQL used by <tt>removeUserTokens</tt> */
 	public static final String DEF_REMOVE_USER_TOKENS_SQL = "delete from persistent_logins where username = ?";
 
+	/**
+	 * The maximum number of deferred updates, beyond which updates are written
+	 * immediately
+	 */
+	private static final int MAX_PENDING_UPDATES = 10000;
+
+	/**
+	 * The number of times a deferred update is written before it is dropped
+	 */
+	private static final int MAX_UPDATE_ATTEMPTS = 3;
+
 	private String tokensBySeriesSql = DEF_TOKEN_BY_SERIES_SQL;
 
 	private String insertTokenSql = DEF_INSERT_TOKEN_SQL;
@@ -60,6 +103,28 @@ public class JdbcTokenRepositoryImpl extends JdbcDaoSupport implements Persisten
 
 	private boolean createTableOnStartup;
 
+	private int tokenCacheSize;
+
+	private Duration tokenCacheTimeToLive = Duration.ofMinutes(1);
+
+	private Clock clock = Clock.systemUTC();
+
+	private final Map<String, CachedToken> tokenCache = new ConcurrentHashMap<>();
+
+	private final LongAdder cacheHits = new LongAdder();
+
+	private final LongAdder cacheMisses = new LongAdder();
+
+	private final Map<String, PendingUpdate> pendingUpdates = new ConcurrentHashMap<>();
+
+	private volatile boolean deferUpdates;
+
+	private ScheduledExecutorService updateExecutor;
+
+	private boolean ownsUpdateExecutor;
+
+	private ScheduledFuture<?> updateTask;
+
 	@Override
 	protected void initDao() {
 		if (this.createTableOnStartup) {
@@ -75,7 +140,17 @@ public class JdbcTokenRepositoryImpl extends JdbcDaoSupport implements Persisten
 
 	@Override
 	public void updateToken(String series, String tokenValue, Date lastUsed) {
-		getJdbcTemplate().update(this.updateTokenSql, tokenValue, lastUsed, series);
+		if (this.deferUpdates && (this.pendingUpdates.size() < MAX_PENDING_UPDATES
+				|| this.pendingUpdates.containsKey(series))) {
+			this.pendingUpdates.put(series, new PendingUpdate(tokenValue, lastUsed));
+		}
+		else {
+			getJdbcTemplate().update(this.updateTokenSql, tokenValue, lastUsed, series);
+		}
+		// Waits for a concurrent read-through of the series, which may cache the old token
+		this.tokenCache.computeIfPresent(series, (key, cached) -> new CachedToken(
+				new PersistentRememberMeToken(cached.token.getUsername(), series, tokenValue, lastUsed),
+				cached.expiresAt));
 	}
 
 	/**
@@ -89,6 +164,47 @@ public class JdbcTokenRepositoryImpl extends JdbcDaoSupport implements Persisten
 	 */
 	@Override
 	public PersistentRememberMeToken getTokenForSeries(String seriesId) {
+		if (this.tokenCacheSize == 0) {
+			return loadTokenForSeries(seriesId);
+		}
+		long now = this.clock.millis();
+		CachedToken cached = this.tokenCache.get(seriesId);
+		if (cached != null) {
+			if (!cached.isExpired(now)) {
+				this.cacheHits.increment();
+				return cached.token;
+			}
+			this.tokenCache.remove(seriesId, cached);
+		}
+		this.cacheMisses.increment();
+		if (this.tokenCache.size() >= this.tokenCacheSize) {
+			this.tokenCache.values().removeIf((token) -> token.isExpired(now));
+			if (this.tokenCache.size() >= this.tokenCacheSize) {
+				return loadTokenForSeries(seriesId);
+			}
+		}
+		long expiresAt = now + this.tokenCacheTimeToLive.toMillis();
+		CachedToken loaded = this.tokenCache.computeIfAbsent(seriesId, (key) -> {
+			PersistentRememberMeToken token = loadTokenForSeries(key);
+			return (token != null) ? new CachedToken(token, expiresAt) : null;
+		});
+		return (loaded != null) ? loaded.token : null;
+	}
+
+	/**
+	 * Loads the token from the database, with the pending update of its series if any.
+	 * The pending update is looked up first, since it is removed once written.
+	 */
+	private PersistentRememberMeToken loadTokenForSeries(String seriesId) {
+		PendingUpdate update = this.pendingUpdates.get(seriesId);
+		PersistentRememberMeToken token = selectTokenForSeries(seriesId);
+		if (token == null || update == null) {
+			return token;
+		}
+		return new PersistentRememberMeToken(token.getUsername(), seriesId, update.tokenValue, update.lastUsed);
+	}
+
+	private PersistentRememberMeToken selectTokenForSeries(String seriesId) {
 		try {
 			return getJdbcTemplate().queryForObject(this.tokensBySeriesSql, this::createRememberMeToken, seriesId);
 		}
@@ -113,6 +229,86 @@ public class JdbcTokenRepositoryImpl extends JdbcDaoSupport implements Persisten
 	@Override
 	public void removeUserTokens(String username) {
 		getJdbcTemplate().update(this.removeUserTokensSql, username);
+		this.tokenCache.values().removeIf((cached) -> username.equals(cached.token.getUsername()));
+	}
+
+	/**
+	 * Writes the pending updates in a single JDBC batch. If the batch fails, the updates
+	 * are written one by one, and those which still fail are retried by the next runs. An
+	 * update which fails 3 times is dropped, and its series evicted from the cache, so
+	 * that it cannot hold back the others forever.
+	 */
+	private void writePendingUpdates() {
+		List<Map.Entry<String, PendingUpdate>> updates = new ArrayList<>(this.pendingUpdates.entrySet());
+		if (updates.isEmpty()) {
+			return;
+		}
+		List<Object[]> batchArgs = new ArrayList<>(updates.size());
+		for (Map.Entry<String, PendingUpdate> update : updates) {
+			PendingUpdate value = update.getValue();
+			batchArgs.add(new Object[] { value.tokenValue, value.lastUsed, update.getKey() });
+		}
+		try {
+			getJdbcTemplate().batchUpdate(this.updateTokenSql, batchArgs);
+		}
+		catch (DataAccessException ex) {
+			this.logger.warn(LogMessage.format("Failed to update %d tokens in a batch, updating them one by one",
+					updates.size()), ex);
+			writePendingUpdatesOneByOne(updates);
+			return;
+		}
+		for (Map.Entry<String, PendingUpdate> update : updates) {
+			// Keeps the updates made since the batch was built
+			this.pendingUpdates.remove(update.getKey(), update.getValue());
+		}
+		this.logger.trace(LogMessage.format("Updated %d tokens", updates.size()));
+	}
+
+	private void writePendingUpdatesOneByOne(List<Map.Entry<String, PendingUpdate>> updates) {
+		for (Map.Entry<String, PendingUpdate> update : updates) {
+			PendingUpdate value = update.getValue();
+			try {
+				getJdbcTemplate().update(this.updateTokenSql, value.tokenValue, value.lastUsed, update.getKey());
+			}
+			catch (DataAccessException ex) {
+				retryOrDrop(update.getKey(), value, ex);
+				continue;
+			}
+			this.pendingUpdates.remove(update.getKey(), value);
+		}
+	}
+
+	private void retryOrDrop(String series, PendingUpdate update, DataAccessException ex) {
+		if (update.attempts + 1 < MAX_UPDATE_ATTEMPTS) {
+			this.logger.warn(LogMessage.format("Failed to update token for series %s, retrying later", series), ex);
+			this.pendingUpdates.replace(series, update, update.failed());
+			return;
+		}
+		this.logger.error(LogMessage.format("Failed to update token for series %s, dropping the update", series),
+				ex);
+		if (this.pendingUpdates.remove(series, update)) {
+			// The cached token would no longer match the database once it expires
+			this.tokenCache.remove(series);
+		}
+	}
+
+	/**
+	 * Writes the pending updates, and stops the background task started by
+	 * {@link #setUpdateInterval(Duration)}
+	 */
+	@Override
+	public void destroy() {
+		this.deferUpdates = false;
+		if (this.updateTask != null) {
+			this.updateTask.cancel(false);
+			this.updateTask = null;
+		}
+		if (this.ownsUpdateExecutor) {
+			this.updateExecutor.shutdown();
+		}
+		this.updateExecutor = null;
+		this.ownsUpdateExecutor = false;
+		writePendingUpdates();
 	}
 
 	/**
@@ -124,4 +320,150 @@ public class JdbcTokenRepositoryImpl extends JdbcDaoSupport implements Persisten
 		this.createTableOnStartup = createTableOnStartup;
 	}
 
+	/**
+	 * Sets the maximum number of tokens cached by {@link #getTokenForSeries(String)}. Once
+	 * the cache is full of tokens that have not expired, the tokens that are not in the
+	 * cache are read from the database without being cached. The tokens of a user are
+	 * evicted by {@link #removeUserTokens(String)}. The default is 0, which disables the
+	 * cache.
+	 * @param tokenCacheSize the maximum number of cached tokens
+	 * @since 6.1
+	 */
+	public void setTokenCacheSize(int tokenCacheSize) {
+		Assert.isTrue(tokenCacheSize >= 0, "tokenCacheSize cannot be negative");
+		this.tokenCacheSize = tokenCacheSize;
+		this.tokenCache.clear();
+	}
+
+	/**
+	 * Sets how long the tokens are cached by {@link #getTokenForSeries(String)}, so that
+	 * the series which are not used anymore, for example because the cookie expired, are
+	 * eventually evicted. The default is 1 minute.
+	 * @param tokenCacheTimeToLive the time to live of the cached tokens
+	 * @since 6.1
+	 * @see #setTokenCacheSize(int)
+	 */
+	public void setTokenCacheTimeToLive(Duration tokenCacheTimeToLive) {
+		Assert.notNull(tokenCacheTimeToLive, "tokenCacheTimeToLive cannot be null");
+		Assert.isTrue(!tokenCacheTimeToLive.isNegative() && !tokenCacheTimeToLive.isZero(),
+				"tokenCacheTimeToLive must be positive");
+		this.tokenCacheTimeToLive = tokenCacheTimeToLive;
+	}
+
+	/**
+	 * Sets the {@link Clock} used to expire the cached tokens. The default is
+	 * {@link Clock#systemUTC()}.
+	 * @param clock the {@link Clock} to use
+	 * @since 6.1
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Sets the interval at which the updates made by
+	 * {@link #updateToken(String, String, Date)} are written to the database, in a JDBC
+	 * batch executed by a dedicated daemon thread. Only the latest update of each series
+	 * is written. Once 10000 updates are pending, the updates of other series are written
+	 * immediately. The default is {@link Duration#ZERO}, which writes each update
+	 * immediately.
+	 * @param updateInterval the interval between two batches
+	 * @since 6.1
+	 */
+	public void setUpdateInterval(Duration updateInterval) {
+		setUpdateInterval(updateInterval, null);
+	}
+
+	/**
+	 * Sets the interval at which the updates made by
+	 * {@link #updateToken(String, String, Date)} are written to the database, in a JDBC
+	 * batch executed by the provided {@link ScheduledExecutorService}, which is not shut
+	 * down by {@link #destroy()}.
+	 * @param updateInterval the interval between two batches
+	 * @param executor the {@link ScheduledExecutorService} to write the batches on, or
+	 * {@code null} to use a dedicated daemon thread
+	 * @since 6.1
+	 * @see #setUpdateInterval(Duration)
+	 */
+	public void setUpdateInterval(Duration updateInterval, ScheduledExecutorService executor) {
+		Assert.notNull(updateInterval, "updateInterval cannot be null");
+		Assert.isTrue(!updateInterval.isNegative(), "updateInterval cannot be negative");
+		destroy();
+		if (updateInterval.isZero()) {
+			return;
+		}
+		this.ownsUpdateExecutor = executor == null;
+		this.updateExecutor = (executor != null) ? executor
+				: Executors.newSingleThreadScheduledExecutor((runnable) -> {
+					Thread thread = new Thread(runnable, "remember-me-token-update");
+					thread.setDaemon(true);
+					return thread;
+				});
+		long nanos = updateInterval.toNanos();
+		this.updateTask = this.updateExecutor.scheduleWithFixedDelay(this::writePendingUpdates, nanos, nanos,
+				TimeUnit.NANOSECONDS);
+		this.deferUpdates = true;
+	}
+
+	/**
+	 * The number of tokens found in the cache by {@link #getTokenForSeries(String)}
+	 * @return the number of cache hits
+	 * @since 6.1
+	 */
+	public long getCacheHitCount() {
+		return this.cacheHits.sum();
+	}
+
+	/**
+	 * The number of tokens read from the database by {@link #getTokenForSeries(String)}
+	 * while the cache is enabled
+	 * @return the number of cache misses
+	 * @since 6.1
+	 */
+	public long getCacheMissCount() {
+		return this.cacheMisses.sum();
+	}
+
+	private static final class CachedToken {
+
+		private final PersistentRememberMeToken token;
+
+		private final long expiresAt;
+
+		private CachedToken(PersistentRememberMeToken token, long expiresAt) {
+			this.token = token;
+			this.expiresAt = expiresAt;
+		}
+
+		private boolean isExpired(long now) {
+			return now >= this.expiresAt;
+		}
+
+	}
+
+	private static final class PendingUpdate {
+
+		private final String tokenValue;
+
+		private final Date lastUsed;
+
+		private final int attempts;
+
+		private PendingUpdate(String tokenValue, Date lastUsed) {
+			this(tokenValue, lastUsed, 0);
+		}
+
+		private PendingUpdate(String tokenValue, Date lastUsed, int attempts) {
+			this.tokenValue = tokenValue;
+			this.lastUsed = lastUsed;
+			this.attempts = attempts;
+		}
+
+		private PendingUpdate failed() {
+			return new PendingUpdate(this.tokenValue, this.lastUsed, this.attempts + 1);
+		}
+
+	}
+
 }
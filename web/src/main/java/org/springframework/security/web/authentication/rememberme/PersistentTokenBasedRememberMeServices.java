@@ -180,6 +180,19 @@ public class PersistentTokenBasedRememberMeServices extends AbstractRememberMeSe
 				response);
 	}
 
+	/**
+	 * Sets the {@link SecureRandom} used to generate the series and token values. The
+	 * default is a new {@link SecureRandom}, but a
+	 * {@link org.springframework.security.crypto.keygen.PrefetchingSecureRandom} avoids
+	 * contention when many tokens are generated concurrently.
+	 * @param secureRandom the {@link SecureRandom} to use
+	 * @since 6.1
+	 */
+	public void setSecureRandom(SecureRandom secureRandom) {
+		Assert.notNull(secureRandom, "secureRandom cannot be null");
+		this.random = secureRandom;
+	}
+
 	public void setSeriesLength(int seriesLength) {
 		this.seriesLength = seriesLength;
 	}
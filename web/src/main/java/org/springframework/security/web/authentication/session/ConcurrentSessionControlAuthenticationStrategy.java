@@ -30,6 +30,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.SpringSecurityMessageSource;
 import org.springframework.security.core.session.SessionInformation;
 import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.security.core.session.ShardedSessionRegistry;
 import org.springframework.security.web.authentication.AbstractAuthenticationProcessingFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.session.ConcurrentSessionFilter;
@@ -99,6 +100,11 @@ public class ConcurrentSessionControlAuthenticationStrategy
 			// We permit unlimited logins
 			return;
 		}
+		if (this.sessionRegistry instanceof ShardedSessionRegistry && ((ShardedSessionRegistry) this.sessionRegistry)
+				.getSessionCount(authentication.getPrincipal()) < allowedSessions) {
+			// Counted in constant time, without copying the sessions
+			return;
+		}
 		List<SessionInformation> sessions = this.sessionRegistry.getAllSessions(authentication.getPrincipal(), false);
 		int sessionCount = sessions.size();
 		if (sessionCount < allowedSessions) {
@@ -136,7 +142,8 @@ public class ConcurrentSessionControlAuthenticationStrategy
 	/**
 	 * Allows subclasses to customise behaviour when too many sessions are detected.
 	 * @param sessions either <code>null</code> or all unexpired sessions associated with
-	 * the principal
+	 * the principal, which a {@link ShardedSessionRegistry} returns from the least to the
+	 * most recently used
 	 * @param allowableSessions the number of concurrent sessions the user is allowed to
 	 * have
 	 * @param registry an instance of the <code>SessionRegistry</code> for subclass use
@@ -150,7 +157,9 @@ public class ConcurrentSessionControlAuthenticationStrategy
 							new Object[] { allowableSessions }, "Maximum sessions of {0} for this principal exceeded"));
 		}
 		// Determine least recently used sessions, and mark them for invalidation
-		sessions.sort(Comparator.comparing(SessionInformation::getLastRequest));
+		if (!(registry instanceof ShardedSessionRegistry)) {
+			sessions.sort(Comparator.comparing(SessionInformation::getLastRequest));
+		}
 		int maximumSessionsExceededBy = sessions.size() - allowableSessions + 1;
 		List<SessionInformation> sessionsToBeExpired = sessions.subList(0, maximumSessionsExceededBy);
 		for (SessionInformation session : sessionsToBeExpired) {
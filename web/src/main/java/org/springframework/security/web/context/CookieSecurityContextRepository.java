@@ -0,0 +1,426 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.context;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.log.LogMessage;
+import org.springframework.core.serializer.support.SerializationFailedException;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.security.core.context.DeferredSecurityContext;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.crypto.encrypt.BytesEncryptor;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * A {@link SecurityContextRepository} that stores the {@link SecurityContext} in
+ * encrypted cookies, so that no server-side storage, like an {@code HttpSession}, is
+ * needed to remember the authenticated user.
+ *
+ * <p>
+ * The {@link SecurityContext} is serialized, along with the time at which it expires,
+ * and encrypted with the first of the provided {@link BytesEncryptor}s. The result is
+ * Base64 encoded and, if it is too long for a single cookie, split across several
+ * cookies named after {@link #setCookieName(String)} followed by {@code _1},
+ * {@code _2}, and so on. When loading, each {@link BytesEncryptor} is tried in turn,
+ * which allows to rotate keys by adding a new {@link BytesEncryptor} at the beginning of
+ * the list and removing the oldest one once the cookies it encrypted have expired.
+ *
+ * <p>
+ * The {@link BytesEncryptor}s must provide authenticated encryption, like the ones
+ * created by
+ * {@link org.springframework.security.crypto.encrypt.Encryptors#stronger(CharSequence, CharSequence)}
+ * (AES-GCM), since the cookies are controlled by the client. Cookies which cannot be
+ * decrypted, or have expired, are ignored. As a second line of defense, the default
+ * deserializer only accepts the classes of the {@code java.lang}, {@code java.util} and
+ * {@code java.time} packages, {@link java.net.URI}, {@link java.net.URL}, and the classes
+ * of Spring Security, so a
+ * {@link SecurityContext} referencing other classes needs a
+ * {@link #setDeserializer(Converter) deserializer} which accepts them.
+ *
+ * <p>
+ * Since the cookies are written when {@link #saveContext} is invoked, the
+ * {@link SecurityContext} must be saved explicitly before the response is committed,
+ * which is what Spring Security does by default. This repository is typically used with
+ * a {@link SecurityContextHolderFilter} and a stateless session creation policy.
+ *
+ * @since 6.1
+ */
+public final class CookieSecurityContextRepository implements SecurityContextRepository {
+
+	/**
+	 * The default name of the cookie
+	 */
+	public static final String DEFAULT_COOKIE_NAME = "SECURITY_CONTEXT";
+
+	private static final byte VERSION = 1;
+
+	private static final int HEADER_LENGTH = 1 + Long.BYTES;
+
+	private static final int MAX_CHUNK_LENGTH = 3800;
+
+	private static final int MAX_CHUNKS = 10;
+
+	private static final ObjectInputFilter DESERIALIZATION_FILTER = ObjectInputFilter.Config
+			.createFilter("maxdepth=32;java.lang.*;java.util.*;java.time.*;java.net.URI;java.net.URL;"
+					+ "org.springframework.security.**;!*");
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private final List<BytesEncryptor> encryptors;
+
+	private SecurityContextHolderStrategy securityContextHolderStrategy = SecurityContextHolder
+			.getContextHolderStrategy();
+
+	private Converter<SecurityContext, byte[]> serializer = new SerializingConverter()::convert;
+
+	private Converter<byte[], SecurityContext> deserializer = CookieSecurityContextRepository::deserialize;
+
+	private Duration expiration = Duration.ofMinutes(30);
+
+	private Clock clock = Clock.systemUTC();
+
+	private String cookieName = DEFAULT_COOKIE_NAME;
+
+	private String cookiePath;
+
+	private String cookieDomain;
+
+	private Boolean secure;
+
+	private boolean cookieHttpOnly = true;
+
+	/**
+	 * Creates a new instance
+	 * @param encryptor the {@link BytesEncryptor} to encrypt and decrypt the cookies with
+	 */
+	public CookieSecurityContextRepository(BytesEncryptor encryptor) {
+		this(Collections.singletonList(encryptor));
+	}
+
+	/**
+	 * Creates a new instance
+	 * @param encryptors the {@link BytesEncryptor}s to decrypt the cookies with, in
+	 * order, the first one also being used to encrypt them
+	 */
+	public CookieSecurityContextRepository(List<BytesEncryptor> encryptors) {
+		Assert.notEmpty(encryptors, "encryptors cannot be empty");
+		Assert.noNullElements(encryptors, "encryptors cannot contain null elements");
+		this.encryptors = new ArrayList<>(encryptors);
+	}
+
+	@Override
+	@Deprecated
+	public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+		return loadDeferredContext(requestResponseHolder.getRequest()).get();
+	}
+
+	@Override
+	public DeferredSecurityContext loadDeferredContext(HttpServletRequest request) {
+		Supplier<SecurityContext> supplier = () -> readSecurityContext(request);
+		return new SupplierDeferredSecurityContext(supplier, this.securityContextHolderStrategy);
+	}
+
+	@Override
+	public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+		int existingChunks = countChunks(request.getCookies());
+		if (context == null || context.getAuthentication() == null) {
+			expireChunks(0, existingChunks, request, response);
+			return;
+		}
+		String value = encode(context);
+		int chunks = (value.length() + MAX_CHUNK_LENGTH - 1) / MAX_CHUNK_LENGTH;
+		if (chunks > MAX_CHUNKS) {
+			this.logger.warn(LogMessage.format("Did not save SecurityContext since it needs %d cookies, more than %d",
+					chunks, MAX_CHUNKS));
+			expireChunks(0, existingChunks, request, response);
+			return;
+		}
+		for (int i = 0; i < chunks; i++) {
+			String chunk = value.substring(i * MAX_CHUNK_LENGTH, Math.min(value.length(), (i + 1) * MAX_CHUNK_LENGTH));
+			response.addCookie(createCookie(chunkName(i), chunk, -1, request));
+		}
+		expireChunks(chunks, existingChunks, request, response);
+		this.logger.debug(LogMessage.format("Stored %s in %d cookies", context, chunks));
+	}
+
+	@Override
+	public boolean containsContext(HttpServletRequest request) {
+		return readSecurityContext(request) != null;
+	}
+
+	private SecurityContext readSecurityContext(HttpServletRequest request) {
+		String value = readCookies(request.getCookies());
+		if (value == null) {
+			this.logger.trace("Did not find SecurityContext in cookies");
+			return null;
+		}
+		byte[] payload = decrypt(value);
+		if (payload == null || payload.length < HEADER_LENGTH || payload[0] != VERSION) {
+			this.logger.debug("Did not load SecurityContext since the cookies could not be decrypted");
+			return null;
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(payload);
+		buffer.get();
+		long expiresAt = buffer.getLong();
+		if (this.clock.millis() >= expiresAt) {
+			this.logger.debug("Did not load SecurityContext since the cookies expired");
+			return null;
+		}
+		byte[] serialized = new byte[buffer.remaining()];
+		buffer.get(serialized);
+		try {
+			SecurityContext context = this.deserializer.convert(serialized);
+			this.logger.trace(LogMessage.format("Retrieved %s from cookies", context));
+			return context;
+		}
+		catch (RuntimeException ex) {
+			this.logger.debug("Did not load SecurityContext since it could not be deserialized", ex);
+			return null;
+		}
+	}
+
+	private static SecurityContext deserialize(byte[] bytes) {
+		try (ObjectInputStream in = new ConfigurableObjectInputStream(new ByteArrayInputStream(bytes),
+				ClassUtils.getDefaultClassLoader())) {
+			in.setObjectInputFilter(DESERIALIZATION_FILTER);
+			return (SecurityContext) in.readObject();
+		}
+		catch (IOException | ClassNotFoundException ex) {
+			throw new SerializationFailedException("Failed to deserialize SecurityContext", ex);
+		}
+	}
+
+	private String encode(SecurityContext context) {
+		byte[] serialized = this.serializer.convert(context);
+		long expiresAt = this.clock.millis() + this.expiration.toMillis();
+		ByteBuffer payload = ByteBuffer.allocate(HEADER_LENGTH + serialized.length);
+		payload.put(VERSION).putLong(expiresAt).put(serialized);
+		byte[] encrypted = this.encryptors.get(0).encrypt(payload.array());
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(encrypted);
+	}
+
+	private byte[] decrypt(String value) {
+		byte[] encrypted;
+		try {
+			encrypted = Base64.getUrlDecoder().decode(value);
+		}
+		catch (IllegalArgumentException ex) {
+			return null;
+		}
+		for (BytesEncryptor encryptor : this.encryptors) {
+			try {
+				return encryptor.decrypt(encrypted);
+			}
+			catch (RuntimeException ex) {
+				// try the next key
+			}
+		}
+		return null;
+	}
+
+	private String readCookies(Cookie[] cookies) {
+		if (cookies == null) {
+			return null;
+		}
+		String first = getCookieValue(cookies, chunkName(0));
+		if (!StringUtils.hasLength(first)) {
+			return null;
+		}
+		StringBuilder value = new StringBuilder(first);
+		for (int i = 1; i < MAX_CHUNKS; i++) {
+			String chunk = getCookieValue(cookies, chunkName(i));
+			if (!StringUtils.hasLength(chunk)) {
+				break;
+			}
+			value.append(chunk);
+		}
+		return value.toString();
+	}
+
+	private int countChunks(Cookie[] cookies) {
+		if (cookies == null) {
+			return 0;
+		}
+		int count = 0;
+		for (int i = 0; i < MAX_CHUNKS; i++) {
+			if (getCookieValue(cookies, chunkName(i)) != null) {
+				count = i + 1;
+			}
+		}
+		return count;
+	}
+
+	private static String getCookieValue(Cookie[] cookies, String name) {
+		for (Cookie cookie : cookies) {
+			if (name.equals(cookie.getName())) {
+				return cookie.getValue();
+			}
+		}
+		return null;
+	}
+
+	private void expireChunks(int from, int to, HttpServletRequest request, HttpServletResponse response) {
+		for (int i = from; i < to; i++) {
+			response.addCookie(createCookie(chunkName(i), "", 0, request));
+		}
+	}
+
+	private Cookie createCookie(String name, String value, int maxAge, HttpServletRequest request) {
+		Cookie cookie = new Cookie(name, value);
+		cookie.setSecure((this.secure != null) ? this.secure : request.isSecure());
+		cookie.setPath(StringUtils.hasLength(this.cookiePath) ? this.cookiePath : getRequestContext(request));
+		cookie.setMaxAge(maxAge);
+		cookie.setHttpOnly(this.cookieHttpOnly);
+		if (StringUtils.hasLength(this.cookieDomain)) {
+			cookie.setDomain(this.cookieDomain);
+		}
+		return cookie;
+	}
+
+	private String chunkName(int index) {
+		return (index != 0) ? this.cookieName + "_" + index : this.cookieName;
+	}
+
+	private String getRequestContext(HttpServletRequest request) {
+		String contextPath = request.getContextPath();
+		return (contextPath.length() > 0) ? contextPath : "/";
+	}
+
+	/**
+	 * Sets the {@link SecurityContextHolderStrategy} to use. The default action is to use
+	 * the {@link SecurityContextHolderStrategy} stored in {@link SecurityContextHolder}.
+	 * @param securityContextHolderStrategy the {@link SecurityContextHolderStrategy} to
+	 * use
+	 */
+	public void setSecurityContextHolderStrategy(SecurityContextHolderStrategy securityContextHolderStrategy) {
+		Assert.notNull(securityContextHolderStrategy, "securityContextHolderStrategy cannot be null");
+		this.securityContextHolderStrategy = securityContextHolderStrategy;
+	}
+
+	/**
+	 * Sets the {@link Converter} used to serialize the {@link SecurityContext} before it
+	 * is encrypted. The default uses Java serialization. A
+	 * {@link org.springframework.core.serializer.support.SerializingConverter} of an
+	 * {@link org.springframework.security.serializer.AuthenticationCodec} results in
+	 * much smaller cookies.
+	 * @param serializer the {@link Converter} to use
+	 */
+	public void setSerializer(Converter<SecurityContext, byte[]> serializer) {
+		Assert.notNull(serializer, "serializer cannot be null");
+		this.serializer = serializer;
+	}
+
+	/**
+	 * Sets the {@link Converter} used to deserialize the {@link SecurityContext} once it
+	 * is decrypted. The default uses Java serialization, restricted to the classes of the
+	 * JDK and of Spring Security listed in the class documentation.
+	 * @param deserializer the {@link Converter} to use
+	 */
+	public void setDeserializer(Converter<byte[], SecurityContext> deserializer) {
+		Assert.notNull(deserializer, "deserializer cannot be null");
+		this.deserializer = deserializer;
+	}
+
+	/**
+	 * Sets how long a saved {@link SecurityContext} remains valid. The default is 30
+	 * minutes.
+	 * @param expiration how long a saved {@link SecurityContext} remains valid
+	 */
+	public void setExpiration(Duration expiration) {
+		Assert.notNull(expiration, "expiration cannot be null");
+		Assert.isTrue(!expiration.isNegative() && !expiration.isZero(), "expiration must be positive");
+		this.expiration = expiration;
+	}
+
+	/**
+	 * Sets the {@link Clock} used to compute and check the expiration. The default is
+	 * {@link Clock#systemUTC()}.
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Sets the name of the cookie, which is also the prefix of the names of the
+	 * additional cookies. The default is {@link #DEFAULT_COOKIE_NAME}.
+	 * @param cookieName the name of the cookie
+	 */
+	public void setCookieName(String cookieName) {
+		Assert.hasText(cookieName, "cookieName cannot be empty");
+		this.cookieName = cookieName;
+	}
+
+	/**
+	 * Sets the path of the cookies. The default is the context path of the request.
+	 * @param cookiePath the path of the cookies
+	 */
+	public void setCookiePath(String cookiePath) {
+		this.cookiePath = cookiePath;
+	}
+
+	/**
+	 * Sets the domain of the cookies. By default, no domain is set.
+	 * @param cookieDomain the domain of the cookies
+	 */
+	public void setCookieDomain(String cookieDomain) {
+		this.cookieDomain = cookieDomain;
+	}
+
+	/**
+	 * Sets the secure flag of the cookies. By default, it depends on
+	 * {@link HttpServletRequest#isSecure()}.
+	 * @param secure the secure flag of the cookies
+	 */
+	public void setSecure(Boolean secure) {
+		this.secure = secure;
+	}
+
+	/**
+	 * Sets the HttpOnly attribute of the cookies. The default is {@code true}.
+	 * @param cookieHttpOnly whether the cookies are HttpOnly
+	 */
+	public void setCookieHttpOnly(boolean cookieHttpOnly) {
+		this.cookieHttpOnly = cookieHttpOnly;
+	}
+
+}
@@ -16,6 +16,10 @@
 
 package org.springframework.security.web.context;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 
 import jakarta.servlet.AsyncContext;
@@ -33,6 +37,7 @@ import org.springframework.core.log.LogMessage;
 import org.springframework.security.authentication.AuthenticationTrustResolver;
 import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.Transient;
 import org.springframework.security.core.context.DeferredSecurityContext;
 import org.springframework.security.core.context.SecurityContext;
@@ -90,6 +95,9 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 	 */
 	public static final String SPRING_SECURITY_CONTEXT_KEY = "SPRING_SECURITY_CONTEXT";
 
+	private static final String FINGERPRINT_ATTRIBUTE_PREFIX = HttpSessionSecurityContextRepository.class.getName()
+			.concat(".FINGERPRINT.");
+
 	protected final Log logger = LogFactory.getLog(this.getClass());
 
 	private SecurityContextHolderStrategy securityContextHolderStrategy = SecurityContextHolder
@@ -109,6 +117,10 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 
 	private AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
 
+	private boolean changeDetectionEnabled;
+
+	private final LongAdder avoidedWriteCount = new LongAdder();
+
 	/**
 	 * Gets the security context for the current request (if available) and returns it.
 	 * <p>
@@ -122,6 +134,7 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 		HttpServletResponse response = requestResponseHolder.getResponse();
 		HttpSession httpSession = request.getSession(false);
 		SecurityContext context = readSecurityContextFromSession(httpSession);
+		rememberFingerprint(request, httpSession, context);
 		if (context == null) {
 			context = generateNewContext();
 			if (this.logger.isTraceEnabled()) {
@@ -140,7 +153,12 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 
 	@Override
 	public DeferredSecurityContext loadDeferredContext(HttpServletRequest request) {
-		Supplier<SecurityContext> supplier = () -> readSecurityContextFromSession(request.getSession(false));
+		Supplier<SecurityContext> supplier = () -> {
+			HttpSession httpSession = request.getSession(false);
+			SecurityContext context = readSecurityContextFromSession(httpSession);
+			rememberFingerprint(request, httpSession, context);
+			return context;
+		};
 		return new SupplierDeferredSecurityContext(supplier, this.securityContextHolderStrategy);
 	}
 
@@ -204,6 +222,17 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 		return (SecurityContext) contextFromSession;
 	}
 
+	private void rememberFingerprint(HttpServletRequest request, HttpSession httpSession, SecurityContext context) {
+		if (this.changeDetectionEnabled && httpSession != null && context != null) {
+			request.setAttribute(getFingerprintAttributeName(),
+					new ContextFingerprint(httpSession.getId(), context));
+		}
+	}
+
+	private String getFingerprintAttributeName() {
+		return FINGERPRINT_ATTRIBUTE_PREFIX + this.springSecurityContextKey;
+	}
+
 	/**
 	 * By default, calls {@link SecurityContextHolder#createEmptyContext()} to obtain a
 	 * new context (there should be no context present in the holder when this method is
@@ -278,6 +307,40 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 		this.trustResolver = trustResolver;
 	}
 
+	/**
+	 * Whether to skip writing the {@link SecurityContext} to the {@link HttpSession} when
+	 * it has not changed since it was read from, or last written to, the
+	 * {@link HttpSession} during the current request.
+	 * <p>
+	 * By default, the {@link SecurityContext} is written whenever it, or its
+	 * {@link Authentication}, is a different instance, which with replicated or external
+	 * sessions means serializing and sending it again. When this is enabled, a
+	 * fingerprint made of the type, principal, credentials, details, authenticated flag
+	 * and authorities of the {@link Authentication} is taken when the
+	 * {@link SecurityContext} is read and written, and the write is skipped if the
+	 * fingerprint did not change and the {@link HttpSession} still holds a
+	 * {@link SecurityContext}. Note that changes made in place to the principal or
+	 * details objects are not detected. The number of skipped writes is available from
+	 * {@link #getAvoidedWriteCount()}.
+	 * @param changeDetectionEnabled whether to skip writing an unchanged
+	 * {@link SecurityContext}. The default is false.
+	 * @since 6.1
+	 */
+	public void setChangeDetectionEnabled(boolean changeDetectionEnabled) {
+		this.changeDetectionEnabled = changeDetectionEnabled;
+	}
+
+	/**
+	 * Returns the number of times that writing the {@link SecurityContext} to the
+	 * {@link HttpSession} was skipped because it had not changed.
+	 * @return the number of avoided writes
+	 * @since 6.1
+	 * @see #setChangeDetectionEnabled(boolean)
+	 */
+	public long getAvoidedWriteCount() {
+		return this.avoidedWriteCount.sum();
+	}
+
 	private static class SaveToSessionRequestWrapper extends HttpServletRequestWrapper {
 
 		private final SaveContextOnUpdateOrErrorResponseWrapper response;
@@ -392,8 +455,16 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 				// We may have a new session, so check also whether the context attribute
 				// is set SEC-1561
 				if (contextChanged(context) || httpSession.getAttribute(springSecurityContextKey) == null) {
+					if (isUnchangedInSession(context, httpSession)) {
+						HttpSessionSecurityContextRepository.this.avoidedWriteCount.increment();
+						if (this.logger.isTraceEnabled()) {
+							this.logger.trace(LogMessage.format("Did not store unchanged %s", context));
+						}
+						return;
+					}
 					httpSession.setAttribute(springSecurityContextKey, context);
 					this.isSaveContextInvoked = true;
+					rememberFingerprint(this.request, httpSession, context);
 					if (this.logger.isDebugEnabled()) {
 						this.logger.debug(LogMessage.format("Stored %s to HttpSession [%s]", context, httpSession));
 					}
@@ -401,6 +472,16 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 			}
 		}
 
+		private boolean isUnchangedInSession(SecurityContext context, HttpSession httpSession) {
+			if (!HttpSessionSecurityContextRepository.this.changeDetectionEnabled) {
+				return false;
+			}
+			String springSecurityContextKey = HttpSessionSecurityContextRepository.this.springSecurityContextKey;
+			Object fingerprint = this.request.getAttribute(getFingerprintAttributeName());
+			return fingerprint != null && httpSession.getAttribute(springSecurityContextKey) instanceof SecurityContext
+					&& fingerprint.equals(new ContextFingerprint(httpSession.getId(), context));
+		}
+
 		private boolean contextChanged(SecurityContext context) {
 			return this.isSaveContextInvoked || context != this.contextBeforeExecution
 					|| context.getAuthentication() != this.authBeforeExecution;
@@ -444,4 +525,66 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 
 	}
 
+	/**
+	 * The state of a {@link SecurityContext} that determines whether it needs to be
+	 * written to the {@link HttpSession} again.
+	 */
+	private static final class ContextFingerprint {
+
+		private final String sessionId;
+
+		private final Class<?> contextType;
+
+		private final Class<?> authenticationType;
+
+		private final Object principal;
+
+		private final Object credentials;
+
+		private final Object details;
+
+		private final boolean authenticated;
+
+		private final List<String> authorities;
+
+		private ContextFingerprint(String sessionId, SecurityContext context) {
+			Authentication authentication = context.getAuthentication();
+			this.sessionId = sessionId;
+			this.contextType = context.getClass();
+			this.authenticationType = (authentication != null) ? authentication.getClass() : null;
+			this.principal = (authentication != null) ? authentication.getPrincipal() : null;
+			this.credentials = (authentication != null) ? authentication.getCredentials() : null;
+			this.details = (authentication != null) ? authentication.getDetails() : null;
+			this.authenticated = authentication != null && authentication.isAuthenticated();
+			this.authorities = new ArrayList<>();
+			if (authentication != null && authentication.getAuthorities() != null) {
+				for (GrantedAuthority authority : authentication.getAuthorities()) {
+					this.authorities.add(authority.getAuthority());
+				}
+			}
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ContextFingerprint)) {
+				return false;
+			}
+			ContextFingerprint other = (ContextFingerprint) obj;
+			return this.authenticated == other.authenticated && Objects.equals(this.sessionId, other.sessionId)
+					&& this.contextType == other.contextType && this.authenticationType == other.authenticationType
+					&& Objects.equals(this.principal, other.principal)
+					&& Objects.equals(this.credentials, other.credentials)
+					&& Objects.equals(this.details, other.details) && this.authorities.equals(other.authorities);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.sessionId, this.principal, this.authorities);
+		}
+
+	}
+
 }
@@ -24,6 +24,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.springframework.security.core.context.ScopedValueSecurityContextHolderStrategy;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextHolderStrategy;
@@ -38,6 +39,10 @@ import org.springframework.web.filter.OncePerRequestFilter;
  * must be explicitly invoked to save the {@link SecurityContext}. This improves the
  * efficiency and provides better flexibility by allowing different authentication
  * mechanisms to choose individually if authentication should be persisted.
+ * <p>
+ * When a {@link ScopedValueSecurityContextHolderStrategy} is used, the
+ * {@link SecurityContext} is bound for the rest of the {@link FilterChain} instead of
+ * being set and cleared.
  *
  * @author Rob Winch
  * @since 5.7
@@ -64,6 +69,11 @@ public class SecurityContextHolderFilter extends OncePerRequestFilter {
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
 			throws ServletException, IOException {
 		Supplier<SecurityContext> deferredContext = this.securityContextRepository.loadDeferredContext(request);
+		if (this.securityContextHolderStrategy instanceof ScopedValueSecurityContextHolderStrategy) {
+			doFilterWhere((ScopedValueSecurityContextHolderStrategy) this.securityContextHolderStrategy,
+					deferredContext, request, response, filterChain);
+			return;
+		}
 		try {
 			this.securityContextHolderStrategy.setDeferredContext(deferredContext);
 			filterChain.doFilter(request, response);
@@ -73,6 +83,23 @@ public class SecurityContextHolderFilter extends OncePerRequestFilter {
 		}
 	}
 
+	private void doFilterWhere(ScopedValueSecurityContextHolderStrategy strategy,
+			Supplier<SecurityContext> deferredContext, HttpServletRequest request, HttpServletResponse response,
+			FilterChain filterChain) throws ServletException, IOException {
+		try {
+			strategy.callWhere(deferredContext, () -> {
+				filterChain.doFilter(request, response);
+				return null;
+			});
+		}
+		catch (ServletException | IOException | RuntimeException ex) {
+			throw ex;
+		}
+		catch (Exception ex) {
+			throw new ServletException(ex);
+		}
+	}
+
 	@Override
 	protected boolean shouldNotFilterErrorDispatch() {
 		return this.shouldNotFilterErrorDispatch;
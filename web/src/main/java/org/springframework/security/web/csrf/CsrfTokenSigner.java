@@ -0,0 +1,165 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.csrf;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.security.crypto.codec.Utf8;
+import org.springframework.util.Assert;
+
+/**
+ * Creates and verifies CSRF token values that are signed with HMAC-SHA256, so that they
+ * can be validated without keeping any server-side state.
+ * <p>
+ * A token value has the form {@code issuedAt.nonce.signature}, where {@code issuedAt} is
+ * the number of seconds since the epoch at which the token was created, {@code nonce} is
+ * a random value and {@code signature} is the HMAC of both along with a binding, such as
+ * the session id or the name of the principal. The binding itself is not part of the
+ * token, so a token is only valid when verified with the binding it was created with. A
+ * token is also no longer valid once the {@link #setTokenValidity(Duration) validity}
+ * has elapsed.
+ *
+ * @since 6.1
+ * @see SignedCookieCsrfTokenRepository
+ * @see org.springframework.security.web.server.csrf.SignedCookieServerCsrfTokenRepository
+ */
+public final class CsrfTokenSigner {
+
+	private static final String ALGORITHM = "HmacSHA256";
+
+	private static final int MINIMUM_SECRET_LENGTH = 32;
+
+	private static final int NONCE_LENGTH = 16;
+
+	private final SecretKeySpec key;
+
+	private SecureRandom secureRandom = new SecureRandom();
+
+	private Duration tokenValidity = Duration.ofHours(12);
+
+	private Clock clock = Clock.systemUTC();
+
+	/**
+	 * Creates a new instance
+	 * @param secret the secret used to sign the tokens, at least 32 bytes long. It must
+	 * be shared by all the instances of the application that verify the tokens
+	 */
+	public CsrfTokenSigner(byte[] secret) {
+		Assert.notNull(secret, "secret cannot be null");
+		Assert.isTrue(secret.length >= MINIMUM_SECRET_LENGTH,
+				() -> "secret must be at least " + MINIMUM_SECRET_LENGTH + " bytes long");
+		this.key = new SecretKeySpec(secret, ALGORITHM);
+	}
+
+	/**
+	 * Creates a new token value bound to the provided binding
+	 * @param binding the value the token is bound to, or an empty {@code String} if it is
+	 * not bound to anything
+	 * @return the token value
+	 */
+	public String createToken(String binding) {
+		Assert.notNull(binding, "binding cannot be null");
+		byte[] nonce = new byte[NONCE_LENGTH];
+		this.secureRandom.nextBytes(nonce);
+		String payload = this.clock.instant().getEpochSecond() + "."
+				+ Base64.getUrlEncoder().withoutPadding().encodeToString(nonce);
+		return payload + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(payload, binding));
+	}
+
+	/**
+	 * Verifies that the provided token value was created by a {@link CsrfTokenSigner}
+	 * sharing the same secret, for the provided binding, and is not expired
+	 * @param token the token value to verify
+	 * @param binding the value the token is expected to be bound to
+	 * @return true if the token is valid, false otherwise
+	 */
+	public boolean isValid(String token, String binding) {
+		if (token == null || binding == null) {
+			return false;
+		}
+		int signatureStart = token.lastIndexOf('.');
+		int nonceStart = token.indexOf('.');
+		if (nonceStart <= 0 || signatureStart <= nonceStart) {
+			return false;
+		}
+		long issuedAt;
+		byte[] signature;
+		try {
+			issuedAt = Long.parseLong(token.substring(0, nonceStart));
+			signature = Base64.getUrlDecoder().decode(token.substring(signatureStart + 1));
+		}
+		catch (IllegalArgumentException ex) {
+			return false;
+		}
+		long now = this.clock.instant().getEpochSecond();
+		if (issuedAt > now || now - issuedAt >= this.tokenValidity.getSeconds()) {
+			return false;
+		}
+		return MessageDigest.isEqual(signature, sign(token.substring(0, signatureStart), binding));
+	}
+
+	/**
+	 * Sets how long tokens are valid after they are created. The default is 12 hours.
+	 * @param tokenValidity the validity of the tokens
+	 */
+	public void setTokenValidity(Duration tokenValidity) {
+		Assert.notNull(tokenValidity, "tokenValidity cannot be null");
+		Assert.isTrue(tokenValidity.getSeconds() > 0, "tokenValidity must be at least one second");
+		this.tokenValidity = tokenValidity;
+	}
+
+	/**
+	 * Sets the {@link Clock} used to timestamp and expire the tokens. The default is
+	 * {@link Clock#systemUTC()}.
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Sets the {@link SecureRandom} used to generate the nonce of the tokens
+	 * @param secureRandom the {@link SecureRandom} to use
+	 */
+	public void setSecureRandom(SecureRandom secureRandom) {
+		Assert.notNull(secureRandom, "secureRandom cannot be null");
+		this.secureRandom = secureRandom;
+	}
+
+	private byte[] sign(String payload, String binding) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(this.key);
+			mac.update(Utf8.encode(payload));
+			mac.update((byte) 0);
+			return mac.doFinal(Utf8.encode(binding));
+		}
+		catch (GeneralSecurityException ex) {
+			throw new IllegalStateException("Unable to sign the CSRF token", ex);
+		}
+	}
+
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.csrf;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * A {@link CsrfTokenRepository} that persists the CSRF token in a cookie, like
+ * {@link CookieCsrfTokenRepository}, but whose tokens are signed by a
+ * {@link CsrfTokenSigner}. Unlike {@link HttpSessionCsrfTokenRepository}, it never
+ * creates or writes to the {@link HttpSession}, and unlike a plain double-submit cookie,
+ * a token is only loaded if it was signed with the application's secret, has not expired
+ * and is bound to the current user.
+ * <p>
+ * A token is bound to the name of the principal when the user is authenticated, and
+ * otherwise to the id of the existing {@link HttpSession}, if any. When loading, a token
+ * bound to either the current principal or the current session is accepted, so that a
+ * token created right after authentication, before the {@link SecurityContextHolder} is
+ * populated, remains valid. A token that is not valid is ignored, which causes a new
+ * token to be generated.
+ * <p>
+ * The token value is an opaque {@code String}, so this repository can be used with
+ * {@link XorCsrfTokenRequestAttributeHandler} and with deferred tokens.
+ *
+ * @since 6.1
+ */
+public final class SignedCookieCsrfTokenRepository implements CsrfTokenRepository {
+
+	private static final String PRINCIPAL_BINDING_PREFIX = "principal:";
+
+	private static final String SESSION_BINDING_PREFIX = "session:";
+
+	private static final String CSRF_TOKEN_REMOVED_ATTRIBUTE_NAME = SignedCookieCsrfTokenRepository.class.getName()
+			.concat(".REMOVED");
+
+	private final CsrfTokenSigner signer;
+
+	private SecurityContextHolderStrategy securityContextHolderStrategy = SecurityContextHolder
+			.getContextHolderStrategy();
+
+	private AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+	private String parameterName = CookieCsrfTokenRepository.DEFAULT_CSRF_PARAMETER_NAME;
+
+	private String headerName = CookieCsrfTokenRepository.DEFAULT_CSRF_HEADER_NAME;
+
+	private String cookieName = CookieCsrfTokenRepository.DEFAULT_CSRF_COOKIE_NAME;
+
+	private boolean cookieHttpOnly = true;
+
+	private String cookiePath;
+
+	private String cookieDomain;
+
+	private Boolean secure;
+
+	/**
+	 * Creates a new instance
+	 * @param signer the {@link CsrfTokenSigner} used to sign and verify the tokens
+	 */
+	public SignedCookieCsrfTokenRepository(CsrfTokenSigner signer) {
+		Assert.notNull(signer, "signer cannot be null");
+		this.signer = signer;
+	}
+
+	@Override
+	public CsrfToken generateToken(HttpServletRequest request) {
+		return new DefaultCsrfToken(this.headerName, this.parameterName, this.signer.createToken(getBinding(request)));
+	}
+
+	@Override
+	public void saveToken(CsrfToken token, HttpServletRequest request, HttpServletResponse response) {
+		String tokenValue = (token != null) ? token.getToken() : "";
+		Cookie cookie = new Cookie(this.cookieName, tokenValue);
+		cookie.setSecure((this.secure != null) ? this.secure : request.isSecure());
+		cookie.setPath(StringUtils.hasLength(this.cookiePath) ? this.cookiePath : getRequestContext(request));
+		cookie.setMaxAge((token != null) ? -1 : 0);
+		cookie.setHttpOnly(this.cookieHttpOnly);
+		if (StringUtils.hasLength(this.cookieDomain)) {
+			cookie.setDomain(this.cookieDomain);
+		}
+		response.addCookie(cookie);
+		if (!StringUtils.hasLength(tokenValue)) {
+			request.setAttribute(CSRF_TOKEN_REMOVED_ATTRIBUTE_NAME, Boolean.TRUE);
+		}
+		else {
+			request.removeAttribute(CSRF_TOKEN_REMOVED_ATTRIBUTE_NAME);
+		}
+	}
+
+	@Override
+	public CsrfToken loadToken(HttpServletRequest request) {
+		if (Boolean.TRUE.equals(request.getAttribute(CSRF_TOKEN_REMOVED_ATTRIBUTE_NAME))) {
+			return null;
+		}
+		Cookie cookie = WebUtils.getCookie(request, this.cookieName);
+		if (cookie == null || !StringUtils.hasLength(cookie.getValue())) {
+			return null;
+		}
+		String token = cookie.getValue();
+		if (!isBound(token, request)) {
+			return null;
+		}
+		return new DefaultCsrfToken(this.headerName, this.parameterName, token);
+	}
+
+	private boolean isBound(String token, HttpServletRequest request) {
+		String principalBinding = getPrincipalBinding();
+		String sessionBinding = getSessionBinding(request);
+		if (principalBinding == null && sessionBinding == null) {
+			return this.signer.isValid(token, "");
+		}
+		return (principalBinding != null && this.signer.isValid(token, principalBinding))
+				|| (sessionBinding != null && this.signer.isValid(token, sessionBinding));
+	}
+
+	private String getBinding(HttpServletRequest request) {
+		String principalBinding = getPrincipalBinding();
+		if (principalBinding != null) {
+			return principalBinding;
+		}
+		String sessionBinding = getSessionBinding(request);
+		return (sessionBinding != null) ? sessionBinding : "";
+	}
+
+	private String getPrincipalBinding() {
+		Authentication authentication = this.securityContextHolderStrategy.getContext().getAuthentication();
+		if (authentication == null || !authentication.isAuthenticated()
+				|| this.trustResolver.isAnonymous(authentication)) {
+			return null;
+		}
+		return PRINCIPAL_BINDING_PREFIX + authentication.getName();
+	}
+
+	private String getSessionBinding(HttpServletRequest request) {
+		HttpSession session = request.getSession(false);
+		return (session != null) ? SESSION_BINDING_PREFIX + session.getId() : null;
+	}
+
+	private String getRequestContext(HttpServletRequest request) {
+		String contextPath = request.getContextPath();
+		return (contextPath.length() > 0) ? contextPath : "/";
+	}
+
+	/**
+	 * Sets the {@link SecurityContextHolderStrategy} to use. The default action is to use
+	 * the {@link SecurityContextHolderStrategy} stored in {@link SecurityContextHolder}.
+	 */
+	public void setSecurityContextHolderStrategy(SecurityContextHolderStrategy securityContextHolderStrategy) {
+		Assert.notNull(securityContextHolderStrategy, "securityContextHolderStrategy cannot be null");
+		this.securityContextHolderStrategy = securityContextHolderStrategy;
+	}
+
+	/**
+	 * Sets the name of the HTTP request parameter that should be used to provide a token.
+	 * @param parameterName the name of the HTTP request parameter that should be used to
+	 * provide a token
+	 */
+	public void setParameterName(String parameterName) {
+		Assert.notNull(parameterName, "parameterName cannot be null");
+		this.parameterName = parameterName;
+	}
+
+	/**
+	 * Sets the name of the HTTP header that should be used to provide the token.
+	 * @param headerName the name of the HTTP header that should be used to provide the
+	 * token
+	 */
+	public void setHeaderName(String headerName) {
+		Assert.notNull(headerName, "headerName cannot be null");
+		this.headerName = headerName;
+	}
+
+	/**
+	 * Sets the name of the cookie that the expected CSRF token is saved to and read from.
+	 * @param cookieName the name of the cookie that the expected CSRF token is saved to
+	 * and read from
+	 */
+	public void setCookieName(String cookieName) {
+		Assert.notNull(cookieName, "cookieName cannot be null");
+		this.cookieName = cookieName;
+	}
+
+	/**
+	 * Sets the HttpOnly attribute on the cookie containing the CSRF token. Defaults to
+	 * <code>true</code>.
+	 * @param cookieHttpOnly <code>true</code> sets the HttpOnly attribute,
+	 * <code>false</code> does not set it
+	 */
+	public void setCookieHttpOnly(boolean cookieHttpOnly) {
+		this.cookieHttpOnly = cookieHttpOnly;
+	}
+
+	/**
+	 * Set the path that the Cookie will be created with. This will override the default
+	 * functionality which uses the request context as the path.
+	 * @param path the path to use
+	 */
+	public void setCookiePath(String path) {
+		this.cookiePath = path;
+	}
+
+	/**
+	 * Sets the domain of the cookie that the expected CSRF token is saved to and read
+	 * from.
+	 * @param cookieDomain the domain of the cookie that the expected CSRF token is saved
+	 * to and read from
+	 */
+	public void setCookieDomain(String cookieDomain) {
+		this.cookieDomain = cookieDomain;
+	}
+
+	/**
+	 * Sets secure flag of the cookie that the expected CSRF token is saved to and read
+	 * from. By default secure flag depends on {@link ServletRequest#isSecure()}
+	 * @param secure the secure flag of the cookie that the expected CSRF token is saved
+	 * to and read from
+	 */
+	public void setSecure(Boolean secure) {
+		this.secure = secure;
+	}
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.firewall;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Validates the URL components of a request against the blocklists of a
+ * {@link StrictHttpFirewall} with a single scan over each component, without allocating.
+ * <p>
+ * Each component is scanned once for blocklisted strings, using a lookup table indexed
+ * by the first character of the blocklisted strings, for {@code .} and {@code ..}
+ * segments, and, for the request URI, for characters that are not printable ASCII. This
+ * validator only tells whether a request definitely passes. Requests which do not pass
+ * should be validated again by {@link StrictHttpFirewall} in order to be rejected with
+ * the appropriate message.
+ *
+ * @since 6.1
+ */
+final class SinglePassUrlValidator {
+
+	private final Blocklist encodedBlocklist;
+
+	private final Blocklist decodedBlocklist;
+
+	private final int version;
+
+	SinglePassUrlValidator(Collection<String> encodedBlocklist, Collection<String> decodedBlocklist, int version) {
+		this.encodedBlocklist = new Blocklist(encodedBlocklist);
+		this.decodedBlocklist = new Blocklist(decodedBlocklist);
+		this.version = version;
+	}
+
+	/**
+	 * The version of the blocklists that this validator was created from
+	 * @return the version of the blocklists
+	 */
+	int getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * Whether the request URI, context path, servlet path and path info of the request
+	 * contain no blocklisted string, are normalized and, for the request URI, only
+	 * contain printable ASCII characters
+	 * @param request the request to validate
+	 * @return true if the request passes, false if it should be validated again
+	 */
+	boolean isValid(HttpServletRequest request) {
+		return isValid(request.getRequestURI(), this.encodedBlocklist, true)
+				&& isValid(request.getContextPath(), this.encodedBlocklist, false)
+				&& isValid(request.getServletPath(), this.decodedBlocklist, false)
+				&& isValid(request.getPathInfo(), this.decodedBlocklist, false);
+	}
+
+	private static boolean isValid(String value, Blocklist blocklist, boolean printableAsciiOnly) {
+		if (value == null) {
+			return true;
+		}
+		if (blocklist.containsEmpty) {
+			return false;
+		}
+		int length = value.length();
+		int segmentStart = 0;
+		for (int i = 0; i < length; i++) {
+			char ch = value.charAt(i);
+			if (printableAsciiOnly && (ch < ' ' || ch > '~')) {
+				return false;
+			}
+			if (blocklist.startsAt(value, i, ch)) {
+				return false;
+			}
+			if (ch == '/') {
+				if (isDotSegment(value, segmentStart, i)) {
+					return false;
+				}
+				segmentStart = i + 1;
+			}
+		}
+		return !isDotSegment(value, segmentStart, length);
+	}
+
+	private static boolean isDotSegment(String value, int start, int end) {
+		int length = end - start;
+		if (length == 1) {
+			return value.charAt(start) == '.';
+		}
+		if (length == 2) {
+			return value.charAt(start) == '.' && value.charAt(start + 1) == '.';
+		}
+		return false;
+	}
+
+	/**
+	 * The strings of a blocklist, indexed by their first character
+	 */
+	private static final class Blocklist {
+
+		private static final int ASCII = 128;
+
+		private final String[][] asciiTable = new String[ASCII][];
+
+		private final String[] nonAscii;
+
+		private final boolean containsEmpty;
+
+		private Blocklist(Collection<String> values) {
+			List<List<String>> ascii = new ArrayList<>(ASCII);
+			for (int i = 0; i < ASCII; i++) {
+				ascii.add(new ArrayList<>());
+			}
+			List<String> nonAscii = new ArrayList<>();
+			boolean containsEmpty = false;
+			for (String value : values) {
+				if (value.isEmpty()) {
+					containsEmpty = true;
+				}
+				else if (value.charAt(0) < ASCII) {
+					ascii.get(value.charAt(0)).add(value);
+				}
+				else {
+					nonAscii.add(value);
+				}
+			}
+			for (int i = 0; i < ASCII; i++) {
+				List<String> candidates = ascii.get(i);
+				this.asciiTable[i] = candidates.isEmpty() ? null : candidates.toArray(new String[0]);
+			}
+			this.nonAscii = nonAscii.toArray(new String[0]);
+			this.containsEmpty = containsEmpty;
+		}
+
+		private boolean startsAt(String value, int index, char ch) {
+			if (ch < ASCII) {
+				String[] candidates = this.asciiTable[ch];
+				if (candidates == null) {
+					return false;
+				}
+				for (String candidate : candidates) {
+					if (value.startsWith(candidate, index)) {
+						return true;
+					}
+				}
+				return false;
+			}
+			for (String candidate : this.nonAscii) {
+				if (candidate.charAt(0) == ch && value.startsWith(candidate, index)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+	}
+
+}
@@ -21,11 +21,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -116,19 +116,22 @@ public class StrictHttpFirewall implements HttpFirewall {
 	private static final List<String> FORBIDDEN_PARAGRAPH_SEPARATOR = Collections
 			.unmodifiableList(Arrays.asList("\u2029"));
 
-	private Set<String> encodedUrlBlocklist = new HashSet<>();
+	private Set<String> encodedUrlBlocklist = new BlocklistSet();
 
-	private Set<String> decodedUrlBlocklist = new HashSet<>();
+	private Set<String> decodedUrlBlocklist = new BlocklistSet();
+
+	private volatile int blocklistVersion;
+
+	private boolean singlePassValidation;
+
+	private volatile SinglePassUrlValidator singlePassUrlValidator;
 
 	private Set<String> allowedHttpMethods = createDefaultAllowedHttpMethods();
 
 	private Predicate<String> allowedHostnames = (hostname) -> true;
 
-	private static final Pattern ASSIGNED_AND_NOT_ISO_CONTROL_PATTERN = Pattern
-			.compile("[\\p{IsAssigned}&&[^\\p{IsControl}]]*");
-
 	private static final Predicate<String> ASSIGNED_AND_NOT_ISO_CONTROL_PREDICATE = (
-			s) -> ASSIGNED_AND_NOT_ISO_CONTROL_PATTERN.matcher(s).matches();
+			s) -> isAssignedAndNotIsoControl(s);
 
 	private Predicate<String> allowedHeaderNames = ASSIGNED_AND_NOT_ISO_CONTROL_PREDICATE;
 
@@ -489,6 +492,26 @@ public class StrictHttpFirewall implements HttpFirewall {
 		this.allowedHostnames = allowedHostnames;
 	}
 
+	/**
+	 * <p>
+	 * Determines if the URL of each request should be validated with a single scan over
+	 * each of its components. The request URI, context path, servlet path and path info
+	 * are each checked in one pass, using a lookup table built from the current
+	 * blocklists, and nothing is allocated for requests that pass other than the
+	 * {@link FirewalledRequest}. Requests that do not pass are validated again as usual,
+	 * so the same requests are rejected, with the same messages, as when this is
+	 * disabled.
+	 * </p>
+	 * <p>
+	 * The default is false.
+	 * </p>
+	 * @param singlePassValidation whether to validate the URL in a single pass
+	 * @since 6.1
+	 */
+	public void setSinglePassValidation(boolean singlePassValidation) {
+		this.singlePassValidation = singlePassValidation;
+	}
+
 	private void urlBlocklistsAddAll(Collection<String> values) {
 		this.encodedUrlBlocklist.addAll(values);
 		this.decodedUrlBlocklist.addAll(values);
@@ -501,6 +524,9 @@ public class StrictHttpFirewall implements HttpFirewall {
 
 	@Override
 	public FirewalledRequest getFirewalledRequest(HttpServletRequest request) throws RequestRejectedException {
+		if (this.singlePassValidation && isValidInSinglePass(request)) {
+			return new StrictFirewalledRequest(request);
+		}
 		rejectForbiddenHttpMethod(request);
 		rejectedBlocklistedUrls(request);
 		rejectedUntrustedHosts(request);
@@ -511,6 +537,28 @@ public class StrictHttpFirewall implements HttpFirewall {
 		return new StrictFirewalledRequest(request);
 	}
 
+	private boolean isValidInSinglePass(HttpServletRequest request) {
+		if (this.allowedHttpMethods != ALLOW_ANY_HTTP_METHOD
+				&& !this.allowedHttpMethods.contains(request.getMethod())) {
+			return false;
+		}
+		String serverName = request.getServerName();
+		if (serverName != null && !this.allowedHostnames.test(serverName)) {
+			return false;
+		}
+		return getSinglePassUrlValidator().isValid(request);
+	}
+
+	private SinglePassUrlValidator getSinglePassUrlValidator() {
+		SinglePassUrlValidator validator = this.singlePassUrlValidator;
+		int version = this.blocklistVersion;
+		if (validator == null || validator.getVersion() != version) {
+			validator = new SinglePassUrlValidator(this.encodedUrlBlocklist, this.decodedUrlBlocklist, version);
+			this.singlePassUrlValidator = validator;
+		}
+		return validator;
+	}
+
 	private void rejectNonPrintableAsciiCharactersInFieldName(String toCheck, String propertyName) {
 		if (!containsOnlyPrintableAsciiCharacters(toCheck)) {
 			throw new RequestRejectedException(String.format(
@@ -618,6 +666,18 @@ public class StrictHttpFirewall implements HttpFirewall {
 		return true;
 	}
 
+	private static boolean isAssignedAndNotIsoControl(String value) {
+		int length = value.length();
+		for (int i = 0; i < length;) {
+			int codePoint = value.codePointAt(i);
+			if (!Character.isDefined(codePoint) || Character.isISOControl(codePoint)) {
+				return false;
+			}
+			i += Character.charCount(codePoint);
+		}
+		return true;
+	}
+
 	private static boolean valueContains(String value, String contains) {
 		return value != null && value.contains(contains);
 	}
@@ -681,6 +741,66 @@ public class StrictHttpFirewall implements HttpFirewall {
 		return getDecodedUrlBlocklist();
 	}
 
+	/**
+	 * A {@link HashSet} which keeps track of changes made to the blocklists, including
+	 * through {@link #getEncodedUrlBlocklist()} and {@link #getDecodedUrlBlocklist()}, so
+	 * that the {@link SinglePassUrlValidator} can be recreated.
+	 */
+	private final class BlocklistSet extends HashSet<String> {
+
+		@Override
+		public boolean add(String value) {
+			boolean added = super.add(value);
+			StrictHttpFirewall.this.blocklistVersion++;
+			return added;
+		}
+
+		@Override
+		public boolean remove(Object value) {
+			boolean removed = super.remove(value);
+			StrictHttpFirewall.this.blocklistVersion++;
+			return removed;
+		}
+
+		@Override
+		public void clear() {
+			super.clear();
+			StrictHttpFirewall.this.blocklistVersion++;
+		}
+
+		@Override
+		public boolean removeIf(Predicate<? super String> filter) {
+			boolean removed = super.removeIf(filter);
+			StrictHttpFirewall.this.blocklistVersion++;
+			return removed;
+		}
+
+		@Override
+		public Iterator<String> iterator() {
+			Iterator<String> iterator = super.iterator();
+			return new Iterator<String>() {
+
+				@Override
+				public boolean hasNext() {
+					return iterator.hasNext();
+				}
+
+				@Override
+				public String next() {
+					return iterator.next();
+				}
+
+				@Override
+				public void remove() {
+					iterator.remove();
+					StrictHttpFirewall.this.blocklistVersion++;
+				}
+
+			};
+		}
+
+	}
+
 	/**
 	 * Strict {@link FirewalledRequest}.
 	 */
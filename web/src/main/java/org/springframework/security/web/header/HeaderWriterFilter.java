@@ -28,6 +28,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.springframework.security.web.header.writers.PrecomputedHeadersWriter;
 import org.springframework.security.web.util.OnCommittedResponseWrapper;
 import org.springframework.util.Assert;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -50,6 +51,11 @@ public class HeaderWriterFilter extends OncePerRequestFilter {
 	 */
 	private final List<HeaderWriter> headerWriters;
 
+	/**
+	 * The {@link HeaderWriter}s that are actually invoked, which may be precomputed.
+	 */
+	private List<HeaderWriter> effectiveHeaderWriters;
+
 	/**
 	 * Indicates whether to write the headers at the beginning of the request.
 	 */
@@ -63,6 +69,7 @@ public class HeaderWriterFilter extends OncePerRequestFilter {
 	public HeaderWriterFilter(List<HeaderWriter> headerWriters) {
 		Assert.notEmpty(headerWriters, "headerWriters cannot be null or empty");
 		this.headerWriters = headerWriters;
+		this.effectiveHeaderWriters = headerWriters;
 	}
 
 	@Override
@@ -95,7 +102,7 @@ public class HeaderWriterFilter extends OncePerRequestFilter {
 	}
 
 	void writeHeaders(HttpServletRequest request, HttpServletResponse response) {
-		for (HeaderWriter writer : this.headerWriters) {
+		for (HeaderWriter writer : this.effectiveHeaderWriters) {
 			writer.writeHeaders(request, response);
 		}
 	}
@@ -110,6 +117,22 @@ public class HeaderWriterFilter extends OncePerRequestFilter {
 		this.shouldWriteHeadersEagerly = shouldWriteHeadersEagerly;
 	}
 
+	/**
+	 * Whether to compute the headers which do not depend on the request once, instead of
+	 * invoking each {@link HeaderWriter} for every request. The
+	 * {@link PrecomputableHeaderWriter}s that do not depend on the request are folded
+	 * into {@link PrecomputedHeadersWriter}s, which write all of their headers in a single
+	 * loop, while any other {@link HeaderWriter} is still invoked for every request. The
+	 * headers are computed when this method is invoked, so the {@link HeaderWriter}s
+	 * should be fully configured by then.
+	 * @param precomputeHeaders whether to precompute the headers. The default is false.
+	 * @since 6.1
+	 */
+	public void setPrecomputeHeaders(boolean precomputeHeaders) {
+		this.effectiveHeaderWriters = precomputeHeaders ? PrecomputedHeadersWriter.precompute(this.headerWriters)
+				: this.headerWriters;
+	}
+
 	class HeaderWriterResponse extends OnCommittedResponseWrapper {
 
 		private final HttpServletRequest request;
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.header;
+
+import java.util.List;
+
+/**
+ * A {@link HeaderWriter} whose headers may not depend on the request, so that they can
+ * be computed once, at configuration time, and written by a
+ * {@link org.springframework.security.web.header.writers.PrecomputedHeadersWriter}.
+ *
+ * <p>
+ * Implementations that override {@link #writeHeaders} in a way that changes which
+ * headers are written must also override {@link #getPrecomputedHeaders()}.
+ *
+ * @since 6.1
+ * @see org.springframework.security.web.header.writers.PrecomputedHeadersWriter
+ */
+public interface PrecomputableHeaderWriter extends HeaderWriter {
+
+	/**
+	 * Returns the headers that {@link #writeHeaders} writes for every request, given the
+	 * current configuration of this writer. Unless {@link #isOverwrite()} is true, each
+	 * header is only written when the response does not contain it yet.
+	 * @return the headers, possibly empty, or {@code null} if the headers depend on the
+	 * request
+	 */
+	List<Header> getPrecomputedHeaders();
+
+	/**
+	 * Whether the headers replace the ones that the response already contains
+	 * @return true if the headers replace the existing ones, false if they are only
+	 * written when absent. The default is false.
+	 */
+	default boolean isOverwrite() {
+		return false;
+	}
+
+}
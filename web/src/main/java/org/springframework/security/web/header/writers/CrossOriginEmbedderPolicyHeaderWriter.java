@@ -16,10 +16,14 @@
 
 package org.springframework.security.web.header.writers;
 
+import java.util.Collections;
+import java.util.List;
+
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
-import org.springframework.security.web.header.HeaderWriter;
+import org.springframework.security.web.header.Header;
+import org.springframework.security.web.header.PrecomputableHeaderWriter;
 import org.springframework.util.Assert;
 
 /**
@@ -31,7 +35,7 @@ import org.springframework.util.Assert;
  * "https://developer.mozilla.org/en-US/docs/Web/HTTP/Headers/Cross-Origin-Embedder-Policy">
  * Cross-Origin-Embedder-Policy</a>
  */
-public final class CrossOriginEmbedderPolicyHeaderWriter implements HeaderWriter {
+public final class CrossOriginEmbedderPolicyHeaderWriter implements PrecomputableHeaderWriter {
 
 	private static final String EMBEDDER_POLICY = "Cross-Origin-Embedder-Policy";
 
@@ -54,6 +58,13 @@ public final class CrossOriginEmbedderPolicyHeaderWriter implements HeaderWriter
 		}
 	}
 
+	@Override
+	public List<Header> getPrecomputedHeaders() {
+		return (this.policy != null)
+				? Collections.singletonList(new Header(EMBEDDER_POLICY, this.policy.getPolicy()))
+				: Collections.emptyList();
+	}
+
 	public enum CrossOriginEmbedderPolicy {
 
 		UNSAFE_NONE("unsafe-none"),
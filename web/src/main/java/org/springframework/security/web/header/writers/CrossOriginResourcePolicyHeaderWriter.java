@@ -16,10 +16,14 @@
 
 package org.springframework.security.web.header.writers;
 
+import java.util.Collections;
+import java.util.List;
+
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
-import org.springframework.security.web.header.HeaderWriter;
+import org.springframework.security.web.header.Header;
+import org.springframework.security.web.header.PrecomputableHeaderWriter;
 import org.springframework.util.Assert;
 
 /**
@@ -31,7 +35,7 @@ import org.springframework.util.Assert;
  * "https://developer.mozilla.org/en-US/docs/Web/HTTP/Headers/Cross-Origin-Resource-Policy">
  * Cross-Origin-Resource-Policy</a>
  */
-public final class CrossOriginResourcePolicyHeaderWriter implements HeaderWriter {
+public final class CrossOriginResourcePolicyHeaderWriter implements PrecomputableHeaderWriter {
 
 	private static final String RESOURCE_POLICY = "Cross-Origin-Resource-Policy";
 
@@ -54,6 +58,13 @@ public final class CrossOriginResourcePolicyHeaderWriter implements HeaderWriter
 		}
 	}
 
+	@Override
+	public List<Header> getPrecomputedHeaders() {
+		return (this.policy != null)
+				? Collections.singletonList(new Header(RESOURCE_POLICY, this.policy.getPolicy()))
+				: Collections.emptyList();
+	}
+
 	public enum CrossOriginResourcePolicy {
 
 		SAME_SITE("same-site"),
@@ -16,10 +16,14 @@
 
 package org.springframework.security.web.header.writers;
 
+import java.util.Collections;
+import java.util.List;
+
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
-import org.springframework.security.web.header.HeaderWriter;
+import org.springframework.security.web.header.Header;
+import org.springframework.security.web.header.PrecomputableHeaderWriter;
 import org.springframework.util.Assert;
 
 /**
@@ -36,7 +40,7 @@ import org.springframework.util.Assert;
  * @author Ankur Pathak
  * @since 5.1
  */
-public final class FeaturePolicyHeaderWriter implements HeaderWriter {
+public final class FeaturePolicyHeaderWriter implements PrecomputableHeaderWriter {
 
 	private static final String FEATURE_POLICY_HEADER = "Feature-Policy";
 
@@ -59,6 +63,12 @@ public final class FeaturePolicyHeaderWriter implements HeaderWriter {
 		}
 	}
 
+	@Override
+	public List<Header> getPrecomputedHeaders() {
+		return (this.policyDirectives != null)
+				? Collections.singletonList(new Header(FEATURE_POLICY_HEADER, this.policyDirectives)) : null;
+	}
+
 	/**
 	 * Set the security policy directive(s) to be used in the response header.
 	 * @param policyDirectives the security policy directive(s)
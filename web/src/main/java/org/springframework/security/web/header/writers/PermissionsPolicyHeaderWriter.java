@@ -16,10 +16,14 @@
 
 package org.springframework.security.web.header.writers;
 
+import java.util.Collections;
+import java.util.List;
+
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
-import org.springframework.security.web.header.HeaderWriter;
+import org.springframework.security.web.header.Header;
+import org.springframework.security.web.header.PrecomputableHeaderWriter;
 import org.springframework.util.Assert;
 
 /**
@@ -35,7 +39,7 @@ import org.springframework.util.Assert;
  * @author Christophe Gilles
  * @since 5.5
  */
-public final class PermissionsPolicyHeaderWriter implements HeaderWriter {
+public final class PermissionsPolicyHeaderWriter implements PrecomputableHeaderWriter {
 
 	private static final String PERMISSIONS_POLICY_HEADER = "Permissions-Policy";
 
@@ -74,6 +78,12 @@ public final class PermissionsPolicyHeaderWriter implements HeaderWriter {
 		}
 	}
 
+	@Override
+	public List<Header> getPrecomputedHeaders() {
+		return (this.policy != null) ? Collections.singletonList(new Header(PERMISSIONS_POLICY_HEADER, this.policy))
+				: null;
+	}
+
 	@Override
 	public String toString() {
 		return getClass().getName() + " [policy=" + this.policy + "]";
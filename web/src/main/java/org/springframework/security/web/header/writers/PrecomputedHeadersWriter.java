@@ -0,0 +1,143 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.header.writers;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.security.web.header.Header;
+import org.springframework.security.web.header.HeaderWriter;
+import org.springframework.security.web.header.PrecomputableHeaderWriter;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * A {@link HeaderWriter} that writes headers which were computed up front, in a single
+ * loop over arrays of names and values.
+ *
+ * <p>
+ * {@link #precompute(List)} folds the {@link PrecomputableHeaderWriter}s whose headers
+ * do not depend on the request into instances of this class, leaving any other
+ * {@link HeaderWriter}, like {@link HstsHeaderWriter} or
+ * {@link DelegatingRequestMatcherHeaderWriter}, as is. Since the headers are computed
+ * once, changes made to the original writers afterwards are not taken into account.
+ *
+ * @since 6.1
+ */
+public final class PrecomputedHeadersWriter implements HeaderWriter {
+
+	private final String[] names;
+
+	private final String[][] values;
+
+	private final boolean[] overwrite;
+
+	private PrecomputedHeadersWriter(List<Header> headers, List<Boolean> overwrite) {
+		int size = headers.size();
+		this.names = new String[size];
+		this.values = new String[size][];
+		this.overwrite = new boolean[size];
+		for (int i = 0; i < size; i++) {
+			Header header = headers.get(i);
+			this.names[i] = header.getName();
+			this.values[i] = header.getValues().toArray(new String[0]);
+			this.overwrite[i] = overwrite.get(i);
+		}
+	}
+
+	/**
+	 * Replaces each run of consecutive {@link PrecomputableHeaderWriter}s that do not
+	 * depend on the request with a single {@link PrecomputedHeadersWriter}. The headers
+	 * are written in the same order, and with the same precedence, as by the original
+	 * writers.
+	 * @param headerWriters the {@link HeaderWriter}s to precompute
+	 * @return the resulting {@link HeaderWriter}s
+	 */
+	public static List<HeaderWriter> precompute(List<HeaderWriter> headerWriters) {
+		Assert.notNull(headerWriters, "headerWriters cannot be null");
+		List<HeaderWriter> result = new ArrayList<>();
+		List<Header> headers = new ArrayList<>();
+		List<Boolean> overwrite = new ArrayList<>();
+		for (HeaderWriter headerWriter : headerWriters) {
+			List<Header> precomputed = (headerWriter instanceof PrecomputableHeaderWriter)
+					? ((PrecomputableHeaderWriter) headerWriter).getPrecomputedHeaders() : null;
+			if (precomputed == null) {
+				if (!headers.isEmpty()) {
+					result.add(new PrecomputedHeadersWriter(headers, overwrite));
+					headers = new ArrayList<>();
+					overwrite = new ArrayList<>();
+				}
+				result.add(headerWriter);
+				continue;
+			}
+			for (Header header : precomputed) {
+				headers.add(header);
+				overwrite.add(((PrecomputableHeaderWriter) headerWriter).isOverwrite());
+			}
+		}
+		if (!headers.isEmpty()) {
+			result.add(new PrecomputedHeadersWriter(headers, overwrite));
+		}
+		return result;
+	}
+
+	/**
+	 * Whether the class of the writer overrides {@link HeaderWriter#writeHeaders}, in
+	 * which case its headers may differ from the ones it would precompute
+	 * @param headerWriter the {@link HeaderWriter} to check
+	 * @param declaringClass the class which declares the precomputed implementation
+	 * @return true if a subclass of the declaring class overrides the method
+	 */
+	static boolean isWriteHeadersOverridden(HeaderWriter headerWriter, Class<?> declaringClass) {
+		Method method = ClassUtils.getMethod(headerWriter.getClass(), "writeHeaders", HttpServletRequest.class,
+				HttpServletResponse.class);
+		return method.getDeclaringClass() != declaringClass;
+	}
+
+	@Override
+	public void writeHeaders(HttpServletRequest request, HttpServletResponse response) {
+		for (int i = 0; i < this.names.length; i++) {
+			String name = this.names[i];
+			String[] values = this.values[i];
+			if (this.overwrite[i]) {
+				response.setHeader(name, values[0]);
+				for (int j = 1; j < values.length; j++) {
+					response.addHeader(name, values[j]);
+				}
+			}
+			else if (!response.containsHeader(name)) {
+				for (String value : values) {
+					response.addHeader(name, value);
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		List<String> names = new ArrayList<>();
+		for (String name : this.names) {
+			names.add(name);
+		}
+		return getClass().getSimpleName() + " " + names;
+	}
+
+}
@@ -18,12 +18,15 @@ package org.springframework.security.web.header.writers;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.springframework.security.web.header.Header;
 import org.springframework.security.web.header.HeaderWriter;
+import org.springframework.security.web.header.PrecomputableHeaderWriter;
 import org.springframework.util.Assert;
 
 /**
@@ -55,7 +58,7 @@ import org.springframework.util.Assert;
  * @author Ankur Pathak
  * @since 4.2
  */
-public class ReferrerPolicyHeaderWriter implements HeaderWriter {
+public class ReferrerPolicyHeaderWriter implements PrecomputableHeaderWriter {
 
 	private static final String REFERRER_POLICY_HEADER = "Referrer-Policy";
 
@@ -98,6 +101,18 @@ public class ReferrerPolicyHeaderWriter implements HeaderWriter {
 		}
 	}
 
+	/**
+	 * Returns the headers to precompute, or {@code null} for a subclass which overrides
+	 * {@link #writeHeaders}, since it may write other headers.
+	 */
+	@Override
+	public List<Header> getPrecomputedHeaders() {
+		if (PrecomputedHeadersWriter.isWriteHeadersOverridden(this, ReferrerPolicyHeaderWriter.class)) {
+			return null;
+		}
+		return Collections.singletonList(new Header(REFERRER_POLICY_HEADER, this.policy.getPolicy()));
+	}
+
 	public enum ReferrerPolicy {
 
 		NO_REFERRER("no-referrer"),
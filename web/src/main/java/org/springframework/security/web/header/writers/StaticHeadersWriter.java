@@ -23,7 +23,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.security.web.header.Header;
-import org.springframework.security.web.header.HeaderWriter;
+import org.springframework.security.web.header.PrecomputableHeaderWriter;
 import org.springframework.util.Assert;
 
 /**
@@ -34,7 +34,7 @@ import org.springframework.util.Assert;
  * @author Ankur Pathak
  * @since 3.2
  */
-public class StaticHeadersWriter implements HeaderWriter {
+public class StaticHeadersWriter implements PrecomputableHeaderWriter {
 
 	private final List<Header> headers;
 
@@ -67,6 +67,18 @@ public class StaticHeadersWriter implements HeaderWriter {
 		}
 	}
 
+	/**
+	 * Returns the headers to precompute, or {@code null} for a subclass which overrides
+	 * {@link #writeHeaders}, since it may write other headers.
+	 */
+	@Override
+	public List<Header> getPrecomputedHeaders() {
+		if (PrecomputedHeadersWriter.isWriteHeadersOverridden(this, StaticHeadersWriter.class)) {
+			return null;
+		}
+		return this.headers;
+	}
+
 	@Override
 	public String toString() {
 		return getClass().getName() + " [headers=" + this.headers + "]";
@@ -16,10 +16,14 @@
 
 package org.springframework.security.web.header.writers;
 
+import java.util.Collections;
+import java.util.List;
+
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
-import org.springframework.security.web.header.HeaderWriter;
+import org.springframework.security.web.header.Header;
+import org.springframework.security.web.header.PrecomputableHeaderWriter;
 import org.springframework.util.Assert;
 
 /**
@@ -32,7 +36,7 @@ import org.springframework.util.Assert;
  * @author Daniel Garnier-Moiroux
  * @since 3.2
  */
-public final class XXssProtectionHeaderWriter implements HeaderWriter {
+public final class XXssProtectionHeaderWriter implements PrecomputableHeaderWriter {
 
 	private static final String XSS_PROTECTION_HEADER = "X-XSS-Protection";
 
@@ -52,6 +56,11 @@ public final class XXssProtectionHeaderWriter implements HeaderWriter {
 		}
 	}
 
+	@Override
+	public List<Header> getPrecomputedHeaders() {
+		return Collections.singletonList(new Header(XSS_PROTECTION_HEADER, this.headerValue.toString()));
+	}
+
 	/**
 	 * Sets the value of the X-XSS-PROTECTION header.
 	 * <p>
@@ -16,10 +16,14 @@
 
 package org.springframework.security.web.header.writers.frameoptions;
 
+import java.util.Collections;
+import java.util.List;
+
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
-import org.springframework.security.web.header.HeaderWriter;
+import org.springframework.security.web.header.Header;
+import org.springframework.security.web.header.PrecomputableHeaderWriter;
 import org.springframework.util.Assert;
 
 /**
@@ -32,7 +36,7 @@ import org.springframework.util.Assert;
  * @since 3.2
  * @see AllowFromStrategy
  */
-public final class XFrameOptionsHeaderWriter implements HeaderWriter {
+public final class XFrameOptionsHeaderWriter implements PrecomputableHeaderWriter {
 
 	public static final String XFRAME_OPTIONS_HEADER = "X-Frame-Options";
 
@@ -104,6 +108,19 @@ public final class XFrameOptionsHeaderWriter implements HeaderWriter {
 		}
 	}
 
+	@Override
+	public List<Header> getPrecomputedHeaders() {
+		if (XFrameOptionsMode.ALLOW_FROM.equals(this.frameOptionsMode)) {
+			return null;
+		}
+		return Collections.singletonList(new Header(XFRAME_OPTIONS_HEADER, this.frameOptionsMode.getMode()));
+	}
+
+	@Override
+	public boolean isOverwrite() {
+		return true;
+	}
+
 	/**
 	 * The possible values for the X-Frame-Options header.
 	 *
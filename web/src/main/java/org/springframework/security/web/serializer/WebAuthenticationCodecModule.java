@@ -0,0 +1,70 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.serializer;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.security.serializer.AuthenticationCodec;
+import org.springframework.security.serializer.AuthenticationCodecInput;
+import org.springframework.security.serializer.AuthenticationCodecModule;
+import org.springframework.security.serializer.AuthenticationCodecOutput;
+import org.springframework.security.serializer.AuthenticationTypeCodec;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/**
+ * The {@link AuthenticationCodecModule} of {@code spring-security-web}, which supports
+ * {@link WebAuthenticationDetails}. It is registered by default by
+ * {@link AuthenticationCodec}.
+ *
+ * @since 6.1
+ */
+public final class WebAuthenticationCodecModule implements AuthenticationCodecModule {
+
+	@Override
+	public List<AuthenticationTypeCodec<?>> getTypeCodecs() {
+		return Collections.singletonList(new WebAuthenticationDetailsCodec());
+	}
+
+	private static final class WebAuthenticationDetailsCodec
+			implements AuthenticationTypeCodec<WebAuthenticationDetails> {
+
+		@Override
+		public int getTypeId() {
+			return 16;
+		}
+
+		@Override
+		public Class<WebAuthenticationDetails> getType() {
+			return WebAuthenticationDetails.class;
+		}
+
+		@Override
+		public void write(WebAuthenticationDetails value, AuthenticationCodecOutput output) throws IOException {
+			output.writeString(value.getRemoteAddress());
+			output.writeString(value.getSessionId());
+		}
+
+		@Override
+		public WebAuthenticationDetails read(AuthenticationCodecInput input) throws IOException {
+			return new WebAuthenticationDetails(input.readString(), input.readString());
+		}
+
+	}
+
+}
@@ -16,17 +16,23 @@
 
 package org.springframework.security.web.server.authentication;
 
+import java.net.InetSocketAddress;
+import java.time.Duration;
 import java.util.function.Function;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import reactor.core.publisher.Mono;
 
+import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.core.log.LogMessage;
+import org.springframework.security.authentication.AuthenticationAttemptLimiter;
+import org.springframework.security.authentication.AuthenticationAttemptsExceededException;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.ReactiveAuthenticationManagerResolver;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.SpringSecurityMessageSource;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextImpl;
 import org.springframework.security.web.server.WebFilterExchange;
@@ -86,6 +92,12 @@ public class AuthenticationWebFilter implements WebFilter {
 
 	private ServerWebExchangeMatcher requiresAuthenticationMatcher = ServerWebExchangeMatchers.anyExchange();
 
+	private AuthenticationAttemptLimiter authenticationAttemptLimiter;
+
+	private Duration rejectionDelay = Duration.ZERO;
+
+	private MessageSourceAccessor messages = SpringSecurityMessageSource.getAccessor();
+
 	/**
 	 * Creates an instance
 	 * @param authenticationManager the authentication manager to use
@@ -117,6 +129,11 @@ public class AuthenticationWebFilter implements WebFilter {
 	}
 
 	private Mono<Void> authenticate(ServerWebExchange exchange, WebFilterChain chain, Authentication token) {
+		if (!isAdmitted(exchange, token)) {
+			Mono<Void> rejected = Mono.error(() -> new AuthenticationAttemptsExceededException(this.messages.getMessage(
+					"AdmissionControlAuthenticationManager.attemptsExceeded", "Too many authentication attempts")));
+			return this.rejectionDelay.isZero() ? rejected : Mono.delay(this.rejectionDelay).then(rejected);
+		}
 		return this.authenticationManagerResolver.resolve(exchange)
 				.flatMap((authenticationManager) -> authenticationManager.authenticate(token))
 				.switchIfEmpty(Mono.defer(
@@ -127,6 +144,19 @@ public class AuthenticationWebFilter implements WebFilter {
 						(ex) -> logger.debug(LogMessage.format("Authentication failed: %s", ex.getMessage())));
 	}
 
+	private boolean isAdmitted(ServerWebExchange exchange, Authentication token) {
+		if (this.authenticationAttemptLimiter == null) {
+			return true;
+		}
+		InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+		String client = (remoteAddress != null) ? remoteAddress.getHostString() : null;
+		if (this.authenticationAttemptLimiter.tryAcquire(client, token.getName())) {
+			return true;
+		}
+		logger.debug(LogMessage.format("Rejecting authentication attempt from %s for %s", client, token.getName()));
+		return false;
+	}
+
 	protected Mono<Void> onAuthenticationSuccess(Authentication authentication, WebFilterExchange webFilterExchange) {
 		ServerWebExchange exchange = webFilterExchange.getExchange();
 		SecurityContextImpl securityContext = new SecurityContextImpl();
@@ -187,6 +217,33 @@ public class AuthenticationWebFilter implements WebFilter {
 		this.authenticationConverter = authenticationConverter;
 	}
 
+	/**
+	 * Sets the {@link AuthenticationAttemptLimiter} used to reject the authentication
+	 * attempts exceeding its limits for the remote address or the username of the
+	 * request, before they reach the {@link ReactiveAuthenticationManager}. Rejected
+	 * attempts fail with an {@link AuthenticationAttemptsExceededException}. The default
+	 * is {@code null}, which does not limit the attempts.
+	 * @param authenticationAttemptLimiter the {@link AuthenticationAttemptLimiter} to use
+	 * @since 6.1
+	 */
+	public void setAuthenticationAttemptLimiter(AuthenticationAttemptLimiter authenticationAttemptLimiter) {
+		this.authenticationAttemptLimiter = authenticationAttemptLimiter;
+	}
+
+	/**
+	 * Sets how long the attempts rejected by the
+	 * {@link #setAuthenticationAttemptLimiter(AuthenticationAttemptLimiter)
+	 * AuthenticationAttemptLimiter} are held before failing, without blocking any thread.
+	 * The default is {@link Duration#ZERO}.
+	 * @param rejectionDelay the delay before failing a rejected attempt
+	 * @since 6.1
+	 */
+	public void setRejectionDelay(Duration rejectionDelay) {
+		Assert.notNull(rejectionDelay, "rejectionDelay cannot be null");
+		Assert.isTrue(!rejectionDelay.isNegative(), "rejectionDelay cannot be negative");
+		this.rejectionDelay = rejectionDelay;
+	}
+
 	/**
 	 * Sets the failure handler used when authentication fails. The default is to prompt
 	 * for basic authentication.
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.server.csrf;
+
+import java.security.Principal;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.http.HttpCookie;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.csrf.CsrfTokenSigner;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebSession;
+
+/**
+ * A {@link ServerCsrfTokenRepository} that persists the CSRF token in a cookie, like
+ * {@link CookieServerCsrfTokenRepository}, but whose tokens are signed by a
+ * {@link CsrfTokenSigner}. Unlike {@link WebSessionServerCsrfTokenRepository}, it never
+ * starts or writes to the {@link WebSession}, and unlike a plain double-submit cookie, a
+ * token is only loaded if it was signed with the application's secret, has not expired
+ * and is bound to the current user.
+ * <p>
+ * A token is bound to the name of the principal when the user is authenticated, and
+ * otherwise to the id of the {@link WebSession} if it was started. When loading, a
+ * token bound to either the current principal or the current session is accepted. A
+ * token that is not valid is ignored, which causes a new token to be generated.
+ * <p>
+ * The token value is an opaque {@code String}, so this repository can be used with
+ * {@link XorServerCsrfTokenRequestAttributeHandler}.
+ *
+ * @since 6.1
+ * @see org.springframework.security.web.csrf.SignedCookieCsrfTokenRepository
+ */
+public final class SignedCookieServerCsrfTokenRepository implements ServerCsrfTokenRepository {
+
+	private static final String PRINCIPAL_BINDING_PREFIX = "principal:";
+
+	private static final String SESSION_BINDING_PREFIX = "session:";
+
+	private final CsrfTokenSigner signer;
+
+	private AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+	private String parameterName = CookieServerCsrfTokenRepository.DEFAULT_CSRF_PARAMETER_NAME;
+
+	private String headerName = CookieServerCsrfTokenRepository.DEFAULT_CSRF_HEADER_NAME;
+
+	private String cookieName = CookieServerCsrfTokenRepository.DEFAULT_CSRF_COOKIE_NAME;
+
+	private boolean cookieHttpOnly = true;
+
+	private String cookiePath;
+
+	private String cookieDomain;
+
+	private Boolean secure;
+
+	/**
+	 * Creates a new instance
+	 * @param signer the {@link CsrfTokenSigner} used to sign and verify the tokens
+	 */
+	public SignedCookieServerCsrfTokenRepository(CsrfTokenSigner signer) {
+		Assert.notNull(signer, "signer cannot be null");
+		this.signer = signer;
+	}
+
+	@Override
+	public Mono<CsrfToken> generateToken(ServerWebExchange exchange) {
+		// @formatter:off
+		return getPrincipalBinding(exchange)
+				.switchIfEmpty(getSessionBinding(exchange))
+				.defaultIfEmpty("")
+				.map((binding) -> createCsrfToken(this.signer.createToken(binding)));
+		// @formatter:on
+	}
+
+	@Override
+	public Mono<Void> saveToken(ServerWebExchange exchange, CsrfToken token) {
+		return Mono.fromRunnable(() -> {
+			String tokenValue = (token != null) ? token.getToken() : "";
+			// @formatter:off
+			ResponseCookie cookie = ResponseCookie
+					.from(this.cookieName, tokenValue)
+					.domain(this.cookieDomain)
+					.httpOnly(this.cookieHttpOnly)
+					.maxAge(!tokenValue.isEmpty() ? -1 : 0)
+					.path((this.cookiePath != null) ? this.cookiePath : getRequestContext(exchange.getRequest()))
+					.secure((this.secure != null) ? this.secure : (exchange.getRequest().getSslInfo() != null))
+					.build();
+			// @formatter:on
+			exchange.getResponse().addCookie(cookie);
+		});
+	}
+
+	@Override
+	public Mono<CsrfToken> loadToken(ServerWebExchange exchange) {
+		HttpCookie csrfCookie = exchange.getRequest().getCookies().getFirst(this.cookieName);
+		if ((csrfCookie == null) || !StringUtils.hasText(csrfCookie.getValue())) {
+			return Mono.empty();
+		}
+		String token = csrfCookie.getValue();
+		// @formatter:off
+		return getPrincipalBinding(exchange)
+				.concatWith(getSessionBinding(exchange))
+				.collectList()
+				.filter((bindings) -> bindings.isEmpty() ? this.signer.isValid(token, "")
+						: bindings.stream().anyMatch((binding) -> this.signer.isValid(token, binding)))
+				.map((bindings) -> createCsrfToken(token));
+		// @formatter:on
+	}
+
+	private Mono<String> getPrincipalBinding(ServerWebExchange exchange) {
+		return exchange.getPrincipal().filter(this::isAuthenticated)
+				.map((principal) -> PRINCIPAL_BINDING_PREFIX + principal.getName());
+	}
+
+	private boolean isAuthenticated(Principal principal) {
+		if (!(principal instanceof Authentication)) {
+			return true;
+		}
+		Authentication authentication = (Authentication) principal;
+		return authentication.isAuthenticated() && !this.trustResolver.isAnonymous(authentication);
+	}
+
+	private Mono<String> getSessionBinding(ServerWebExchange exchange) {
+		return exchange.getSession().filter(WebSession::isStarted)
+				.map((session) -> SESSION_BINDING_PREFIX + session.getId());
+	}
+
+	/**
+	 * Sets the HttpOnly attribute on the cookie containing the CSRF token
+	 * @param cookieHttpOnly True to mark the cookie as http only. False otherwise.
+	 */
+	public void setCookieHttpOnly(boolean cookieHttpOnly) {
+		this.cookieHttpOnly = cookieHttpOnly;
+	}
+
+	/**
+	 * Sets the cookie name
+	 * @param cookieName The cookie name
+	 */
+	public void setCookieName(String cookieName) {
+		Assert.hasLength(cookieName, "cookieName can't be null");
+		this.cookieName = cookieName;
+	}
+
+	/**
+	 * Sets the parameter name
+	 * @param parameterName The parameter name
+	 */
+	public void setParameterName(String parameterName) {
+		Assert.hasLength(parameterName, "parameterName can't be null");
+		this.parameterName = parameterName;
+	}
+
+	/**
+	 * Sets the header name
+	 * @param headerName The header name
+	 */
+	public void setHeaderName(String headerName) {
+		Assert.hasLength(headerName, "headerName can't be null");
+		this.headerName = headerName;
+	}
+
+	/**
+	 * Sets the cookie path
+	 * @param cookiePath The cookie path
+	 */
+	public void setCookiePath(String cookiePath) {
+		this.cookiePath = cookiePath;
+	}
+
+	/**
+	 * Sets the cookie domain
+	 * @param cookieDomain The cookie domain
+	 */
+	public void setCookieDomain(String cookieDomain) {
+		this.cookieDomain = cookieDomain;
+	}
+
+	/**
+	 * Sets the cookie secure flag. If not set, the value depends on
+	 * {@link ServerHttpRequest#getSslInfo()}.
+	 * @param secure The value for the secure flag
+	 */
+	public void setSecure(boolean secure) {
+		this.secure = secure;
+	}
+
+	private CsrfToken createCsrfToken(String tokenValue) {
+		return new DefaultCsrfToken(this.headerName, this.parameterName, tokenValue);
+	}
+
+	private String getRequestContext(ServerHttpRequest request) {
+		String contextPath = request.getPath().contextPath().value();
+		return StringUtils.hasLength(contextPath) ? contextPath : "/";
+	}
+
+}
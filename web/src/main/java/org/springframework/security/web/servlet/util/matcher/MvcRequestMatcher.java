@@ -23,6 +23,7 @@ import jakarta.servlet.http.HttpServletRequest;
 
 import org.springframework.http.HttpMethod;
 import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcherResultCache;
 import org.springframework.security.web.util.matcher.RequestVariablesExtractor;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
@@ -69,6 +70,10 @@ public class MvcRequestMatcher implements RequestMatcher, RequestVariablesExtrac
 		if (notMatchMethodOrServletPath(request)) {
 			return false;
 		}
+		return RequestMatcherResultCache.matches(request, this, this::matchesMapping);
+	}
+
+	private boolean matchesMapping(HttpServletRequest request) {
 		MatchableHandlerMapping mapping = getMapping(request);
 		if (mapping == null) {
 			return this.defaultMatcher.matches(request);
@@ -102,6 +107,10 @@ public class MvcRequestMatcher implements RequestMatcher, RequestVariablesExtrac
 	}
 
 	private MatchableHandlerMapping getMapping(HttpServletRequest request) {
+		return RequestMatcherResultCache.get(request, this.introspector, this::getMatchableHandlerMapping);
+	}
+
+	private MatchableHandlerMapping getMatchableHandlerMapping(HttpServletRequest request) {
 		try {
 			return this.introspector.getMatchableHandlerMapping(request);
 		}
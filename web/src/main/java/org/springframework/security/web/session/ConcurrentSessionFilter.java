@@ -17,7 +17,9 @@
 package org.springframework.security.web.session;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -60,6 +62,13 @@ import org.springframework.web.filter.GenericFilterBean;
  * {@link org.springframework.security.web.session.HttpSessionEventPublisher} registered
  * in <code>web.xml</code>.
  * </p>
+ * <p>
+ * Since refreshing the last request time is a write to the <code>SessionRegistry</code>
+ * on every request, it can be coalesced with
+ * {@link #setLastRequestRefreshInterval(Duration, ScheduledExecutorService)}. The
+ * sessions that received a request are then refreshed in batches by a background task,
+ * at most once per interval.
+ * </p>
  *
  * @author Ben Alex
  * @author Eddú Meléndez
@@ -81,6 +90,8 @@ public class ConcurrentSessionFilter extends GenericFilterBean {
 
 	private SessionInformationExpiredStrategy sessionInformationExpiredStrategy;
 
+	private LastRequestRefreshBuffer lastRequestRefreshBuffer;
+
 	public ConcurrentSessionFilter(SessionRegistry sessionRegistry) {
 		Assert.notNull(sessionRegistry, "SessionRegistry required");
 		this.sessionRegistry = sessionRegistry;
@@ -137,6 +148,9 @@ public class ConcurrentSessionFilter extends GenericFilterBean {
 			if (info != null) {
 				if (info.isExpired()) {
 					// Expired - abort processing
+					if (this.lastRequestRefreshBuffer != null) {
+						this.lastRequestRefreshBuffer.remove(info.getSessionId());
+					}
 					this.logger.debug(LogMessage
 							.of(() -> "Requested session ID " + request.getRequestedSessionId() + " has expired."));
 					doLogout(request, response);
@@ -145,12 +159,35 @@ public class ConcurrentSessionFilter extends GenericFilterBean {
 					return;
 				}
 				// Non-expired - update last request date/time
-				this.sessionRegistry.refreshLastRequest(info.getSessionId());
+				refreshLastRequest(info.getSessionId());
 			}
 		}
 		chain.doFilter(request, response);
 	}
 
+	private void refreshLastRequest(String sessionId) {
+		LastRequestRefreshBuffer buffer = this.lastRequestRefreshBuffer;
+		if (buffer != null) {
+			buffer.refresh(sessionId);
+		}
+		else {
+			this.sessionRegistry.refreshLastRequest(sessionId);
+		}
+	}
+
+	/**
+	 * Refreshes the last request time of the sessions that are still pending, and cancels
+	 * the background task scheduled by
+	 * {@link #setLastRequestRefreshInterval(Duration, ScheduledExecutorService)}
+	 */
+	@Override
+	public void destroy() {
+		if (this.lastRequestRefreshBuffer != null) {
+			this.lastRequestRefreshBuffer.close();
+			this.lastRequestRefreshBuffer = null;
+		}
+	}
+
 	/**
 	 * Determine the URL for expiration
 	 * @param request the HttpServletRequest
@@ -208,6 +245,58 @@ public class ConcurrentSessionFilter extends GenericFilterBean {
 		this.redirectStrategy = redirectStrategy;
 	}
 
+	/**
+	 * Sets the interval at which the last request time of the sessions is written to the
+	 * {@link SessionRegistry}. Instead of calling
+	 * {@link SessionRegistry#refreshLastRequest(String)} on every request, the sessions
+	 * that received a request are refreshed in a batch by a task scheduled on the
+	 * provided {@link ScheduledExecutorService}, so each session is written at most once
+	 * per interval. Since the refresh records the time of the batch rather than the time
+	 * of the request, the last request time of a session is at most one interval behind
+	 * before the batch, and at most one interval ahead after it. The default is
+	 * {@link Duration#ZERO}, which refreshes the session on every request.
+	 *
+	 * <p>
+	 * The executor is not shut down by {@link #destroy()}, and its lifecycle must be
+	 * managed by the caller, since this filter is usually not destroyed by the container.
+	 * The refreshes that are pending when the executor is shut down are lost.
+	 * @param interval the interval between two refreshes of the same session
+	 * @param executor the {@link ScheduledExecutorService} to refresh the pending
+	 * sessions on
+	 * @since 6.1
+	 */
+	public void setLastRequestRefreshInterval(Duration interval, ScheduledExecutorService executor) {
+		Assert.notNull(interval, "interval cannot be null");
+		Assert.isTrue(!interval.isNegative(), "interval cannot be negative");
+		Assert.notNull(executor, "executor cannot be null");
+		destroy();
+		if (!interval.isZero()) {
+			this.lastRequestRefreshBuffer = new LastRequestRefreshBuffer(this.sessionRegistry, interval, executor);
+		}
+	}
+
+	/**
+	 * The number of calls to {@link SessionRegistry#refreshLastRequest(String)} that were
+	 * saved because the session was already pending a refresh
+	 * @return the number of suppressed refreshes
+	 * @since 6.1
+	 */
+	public long getSuppressedLastRequestRefreshCount() {
+		LastRequestRefreshBuffer buffer = this.lastRequestRefreshBuffer;
+		return (buffer != null) ? buffer.getSuppressedCount() : 0;
+	}
+
+	/**
+	 * The number of calls to {@link SessionRegistry#refreshLastRequest(String)} made by
+	 * the background task
+	 * @return the number of flushed refreshes
+	 * @since 6.1
+	 */
+	public long getFlushedLastRequestRefreshCount() {
+		LastRequestRefreshBuffer buffer = this.lastRequestRefreshBuffer;
+		return (buffer != null) ? buffer.getFlushedCount() : 0;
+	}
+
 	/**
 	 * A {@link SessionInformationExpiredStrategy} that writes an error message to the
 	 * response body.
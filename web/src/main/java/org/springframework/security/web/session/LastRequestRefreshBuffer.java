@@ -0,0 +1,124 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.session;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.log.LogMessage;
+import org.springframework.security.core.session.SessionRegistry;
+
+/**
+ * Coalesces the {@link SessionRegistry#refreshLastRequest(String)} calls made by
+ * {@link ConcurrentSessionFilter}. The identifiers of the sessions that received a
+ * request are collected in a set, which is drained at a fixed interval by a task running
+ * on a {@link ScheduledExecutorService}. Each session is therefore refreshed at most once
+ * per interval, at the time of the flush rather than the time of its last request.
+ *
+ * @since 6.1
+ */
+final class LastRequestRefreshBuffer {
+
+	private static final Log logger = LogFactory.getLog(LastRequestRefreshBuffer.class);
+
+	private final SessionRegistry sessionRegistry;
+
+	private final ScheduledFuture<?> flushTask;
+
+	private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+	private final LongAdder suppressed = new LongAdder();
+
+	private final LongAdder flushed = new LongAdder();
+
+	LastRequestRefreshBuffer(SessionRegistry sessionRegistry, Duration interval, ScheduledExecutorService executor) {
+		this.sessionRegistry = sessionRegistry;
+		long nanos = interval.toNanos();
+		this.flushTask = executor.scheduleWithFixedDelay(this::flush, nanos, nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records a request for the session, which is refreshed by the next flush
+	 * @param sessionId the session identifier
+	 */
+	void refresh(String sessionId) {
+		if (!this.pending.add(sessionId)) {
+			this.suppressed.increment();
+		}
+	}
+
+	/**
+	 * Discards the pending refresh of the session, if any
+	 * @param sessionId the session identifier
+	 */
+	void remove(String sessionId) {
+		this.pending.remove(sessionId);
+	}
+
+	/**
+	 * Refreshes the last request time of every pending session
+	 */
+	void flush() {
+		Iterator<String> sessionIds = this.pending.iterator();
+		int count = 0;
+		while (sessionIds.hasNext()) {
+			String sessionId = sessionIds.next();
+			sessionIds.remove();
+			try {
+				this.sessionRegistry.refreshLastRequest(sessionId);
+				count++;
+			}
+			catch (RuntimeException ex) {
+				logger.warn(LogMessage.format("Failed to refresh the last request of session %s", sessionId), ex);
+			}
+		}
+		this.flushed.add(count);
+		if (count > 0 && logger.isTraceEnabled()) {
+			logger.trace(LogMessage.format("Refreshed the last request of %d sessions", count));
+		}
+	}
+
+	/**
+	 * Stops the periodic flush, then refreshes the sessions that are still pending
+	 */
+	void close() {
+		this.flushTask.cancel(false);
+		flush();
+	}
+
+	long getSuppressedCount() {
+		return this.suppressed.sum();
+	}
+
+	long getFlushedCount() {
+		return this.flushed.sum();
+	}
+
+	int getPendingCount() {
+		return this.pending.size();
+	}
+
+}
@@ -186,6 +186,14 @@ public final class AntPathRequestMatcher implements RequestMatcher, RequestVaria
 		if (this.pattern.equals(MATCH_ALL)) {
 			return true;
 		}
+		if (this.urlPathHelper != null) {
+			// equal matchers may resolve the path differently, so the result is not shared
+			return matchesPath(request);
+		}
+		return RequestMatcherResultCache.matches(request, this, this::matchesPath);
+	}
+
+	private boolean matchesPath(HttpServletRequest request) {
 		String url = getRequestPath(request);
 		return this.matcher.matches(url);
 	}
@@ -224,6 +232,18 @@ public final class AntPathRequestMatcher implements RequestMatcher, RequestVaria
 		return this.pattern;
 	}
 
+	HttpMethod getHttpMethod() {
+		return this.httpMethod;
+	}
+
+	boolean isCaseSensitive() {
+		return this.caseSensitive;
+	}
+
+	boolean hasUrlPathHelper() {
+		return this.urlPathHelper != null;
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (!(obj instanceof AntPathRequestMatcher)) {
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util.matcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.util.Assert;
+
+/**
+ * A {@link RequestMatcher} for paths that need no security at all, like static resources
+ * or health checks, which is cheap enough to be evaluated before any other processing of
+ * the request.
+ * <p>
+ * Each pattern is either an exact path, like {@code /actuator/health}, or a path followed
+ * by {@code /**}, like {@code /static/**}, which matches the path itself and anything
+ * below it. Patterns are compared with the request URI, after the context path, without
+ * creating any object.
+ * <p>
+ * Since this matcher is meant to be used before the
+ * {@link org.springframework.security.web.firewall.HttpFirewall}, it only matches requests
+ * whose URI solely consists of unreserved characters ({@code A-Z a-z 0-9 - . _ ~}) and
+ * {@code /}, and contains neither empty, {@code .} nor {@code ..} segments. Any other
+ * request, like one with an encoded character or a path parameter, does not match.
+ *
+ * @since 6.1
+ */
+public final class BypassPathRequestMatcher implements RequestMatcher {
+
+	private static final String PREFIX_SUFFIX = "/**";
+
+	private final String[] exactPaths;
+
+	private final String[] prefixes;
+
+	/**
+	 * Creates a new instance
+	 * @param patterns the patterns of the paths to match
+	 */
+	public BypassPathRequestMatcher(Collection<String> patterns) {
+		Assert.notNull(patterns, "patterns cannot be null");
+		List<String> exactPaths = new ArrayList<>();
+		List<String> prefixes = new ArrayList<>();
+		for (String pattern : patterns) {
+			Assert.hasText(pattern, "patterns cannot contain empty values");
+			if (pattern.endsWith(PREFIX_SUFFIX)) {
+				String prefix = pattern.substring(0, pattern.length() - PREFIX_SUFFIX.length());
+				Assert.isTrue(prefix.isEmpty() || isSafePath(prefix, 0),
+						() -> "pattern " + pattern + " must be a path made of unreserved characters followed by /**");
+				prefixes.add(prefix);
+			}
+			else {
+				Assert.isTrue(isSafePath(pattern, 0),
+						() -> "pattern " + pattern + " must be a path made of unreserved characters");
+				exactPaths.add(pattern);
+			}
+		}
+		this.exactPaths = exactPaths.toArray(new String[0]);
+		this.prefixes = prefixes.toArray(new String[0]);
+	}
+
+	@Override
+	public boolean matches(HttpServletRequest request) {
+		String requestURI = request.getRequestURI();
+		if (requestURI == null) {
+			return false;
+		}
+		String contextPath = request.getContextPath();
+		int start = (contextPath != null) ? contextPath.length() : 0;
+		if (start > 0 && !requestURI.startsWith(contextPath)) {
+			return false;
+		}
+		if (!isSafePath(requestURI, start)) {
+			return false;
+		}
+		int length = requestURI.length() - start;
+		for (String exactPath : this.exactPaths) {
+			if (exactPath.length() == length && requestURI.startsWith(exactPath, start)) {
+				return true;
+			}
+		}
+		for (String prefix : this.prefixes) {
+			if (requestURI.startsWith(prefix, start)
+					&& (length == prefix.length() || requestURI.charAt(start + prefix.length()) == '/')) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Whether the path, from the provided index, starts with a {@code /}, only contains
+	 * unreserved characters and {@code /}, and has no empty, {@code .} or {@code ..}
+	 * segment
+	 */
+	private static boolean isSafePath(String path, int start) {
+		int length = path.length();
+		if (start >= length || path.charAt(start) != '/') {
+			return false;
+		}
+		int segmentStart = start + 1;
+		for (int i = segmentStart; i <= length; i++) {
+			char ch = (i < length) ? path.charAt(i) : '/';
+			if (ch == '/') {
+				int segmentLength = i - segmentStart;
+				if (segmentLength == 0 && i < length) {
+					return false;
+				}
+				if (segmentLength == 1 && path.charAt(segmentStart) == '.') {
+					return false;
+				}
+				if (segmentLength == 2 && path.charAt(segmentStart) == '.' && path.charAt(segmentStart + 1) == '.') {
+					return false;
+				}
+				segmentStart = i + 1;
+			}
+			else if (!isUnreserved(ch)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isUnreserved(char ch) {
+		return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9') || ch == '-'
+				|| ch == '.' || ch == '_' || ch == '~';
+	}
+
+	@Override
+	public String toString() {
+		List<String> patterns = new ArrayList<>();
+		for (String exactPath : this.exactPaths) {
+			patterns.add(exactPath);
+		}
+		for (String prefix : this.prefixes) {
+			patterns.add(prefix + PREFIX_SUFFIX);
+		}
+		return "Bypass " + patterns;
+	}
+
+}
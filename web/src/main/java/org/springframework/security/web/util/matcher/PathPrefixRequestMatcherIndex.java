@@ -0,0 +1,240 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util.matcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * An index over an ordered list of {@link RequestMatcher}s which narrows down, for a
+ * given request, the positions of the matchers that could possibly match it.
+ * <p>
+ * {@link AntPathRequestMatcher}s that are case-sensitive, use the default path
+ * resolution ({@code servletPath + pathInfo}) and have an absolute pattern are placed in
+ * a trie keyed by the literal path segments that precede the first wildcard of their
+ * pattern, and by their HTTP method. {@link AnyRequestMatcher} is placed at the root of
+ * the trie. Any other {@link RequestMatcher} is considered opaque and is a candidate for
+ * every request.
+ * <p>
+ * The candidate positions are returned in ascending order, so callers that evaluate
+ * them one after the other keep the same first-match semantics as a linear scan of the
+ * original list. The candidates of every trie node are computed up front, which means
+ * that looking them up only costs a walk over the segments of the request path.
+ *
+ * @since 6.1
+ */
+public final class PathPrefixRequestMatcherIndex {
+
+	private static final int[] NO_CANDIDATES = new int[0];
+
+	private final Node root;
+
+	private final int size;
+
+	private final int indexed;
+
+	/**
+	 * Creates an index over the provided {@link RequestMatcher}s. The positions returned
+	 * by {@link #getCandidates(HttpServletRequest)} refer to this list.
+	 * @param requestMatchers the {@link RequestMatcher}s to index, in declaration order
+	 */
+	public PathPrefixRequestMatcherIndex(List<? extends RequestMatcher> requestMatchers) {
+		Assert.notNull(requestMatchers, "requestMatchers cannot be null");
+		this.size = requestMatchers.size();
+		this.root = new Node();
+		List<Integer> opaque = new ArrayList<>();
+		int indexed = 0;
+		for (int position = 0; position < requestMatchers.size(); position++) {
+			RequestMatcher requestMatcher = requestMatchers.get(position);
+			Assert.notNull(requestMatcher, "requestMatchers cannot contain null values");
+			if (requestMatcher instanceof AnyRequestMatcher) {
+				this.root.add(position, null);
+				indexed++;
+			}
+			else if (isIndexable(requestMatcher)) {
+				AntPathRequestMatcher antMatcher = (AntPathRequestMatcher) requestMatcher;
+				Node node = this.root;
+				for (String segment : literalSegments(antMatcher.getPattern())) {
+					node = node.children.computeIfAbsent(segment, (key) -> new Node());
+				}
+				node.add(position, antMatcher.getHttpMethod());
+				indexed++;
+			}
+			else {
+				opaque.add(position);
+			}
+		}
+		this.indexed = indexed;
+		this.root.compile(opaque, new ArrayList<>());
+	}
+
+	/**
+	 * Returns the positions of the {@link RequestMatcher}s that may match the provided
+	 * request, in ascending order. Any {@link RequestMatcher} whose position is not
+	 * returned is guaranteed not to match the request.
+	 * @param request the request
+	 * @return the candidate positions; callers must not modify the returned array
+	 */
+	public int[] getCandidates(HttpServletRequest request) {
+		Node node = this.root;
+		String path = getRequestPath(request);
+		int length = (path != null) ? path.length() : 0;
+		int start = 0;
+		while (start < length && !node.children.isEmpty()) {
+			int end = path.indexOf('/', start);
+			if (end == -1) {
+				end = length;
+			}
+			if (end > start) {
+				Node child = node.children.get(path.substring(start, end));
+				if (child == null) {
+					break;
+				}
+				node = child;
+			}
+			start = end + 1;
+		}
+		return node.getCandidates(request.getMethod());
+	}
+
+	/**
+	 * The number of {@link RequestMatcher}s that this index was created with
+	 * @return the number of {@link RequestMatcher}s
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * The number of {@link RequestMatcher}s that are narrowed down by this index, as
+	 * opposed to the opaque ones that are candidates for every request
+	 * @return the number of indexed {@link RequestMatcher}s
+	 */
+	public int getIndexedCount() {
+		return this.indexed;
+	}
+
+	private static boolean isIndexable(RequestMatcher requestMatcher) {
+		if (!(requestMatcher instanceof AntPathRequestMatcher)) {
+			return false;
+		}
+		AntPathRequestMatcher antMatcher = (AntPathRequestMatcher) requestMatcher;
+		return antMatcher.isCaseSensitive() && !antMatcher.hasUrlPathHelper()
+				&& antMatcher.getPattern().startsWith("/");
+	}
+
+	/**
+	 * Returns the segments of the pattern which precede its first wildcard. Since
+	 * {@link org.springframework.util.AntPathMatcher} compares these literally to the
+	 * leading non-empty segments of the path, only requests whose path starts with them
+	 * can match.
+	 */
+	private static List<String> literalSegments(String pattern) {
+		List<String> segments = new ArrayList<>();
+		for (String segment : StringUtils.tokenizeToStringArray(pattern, "/", false, true)) {
+			if (segment.indexOf('*') != -1 || segment.indexOf('?') != -1 || segment.indexOf('{') != -1) {
+				break;
+			}
+			segments.add(segment);
+		}
+		return segments;
+	}
+
+	private static String getRequestPath(HttpServletRequest request) {
+		String url = request.getServletPath();
+		String pathInfo = request.getPathInfo();
+		if (pathInfo != null) {
+			url = StringUtils.hasLength(url) ? url + pathInfo : pathInfo;
+		}
+		return url;
+	}
+
+	private static int[] toArray(Set<Integer> positions) {
+		if (positions.isEmpty()) {
+			return NO_CANDIDATES;
+		}
+		return positions.stream().sorted().mapToInt(Integer::intValue).toArray();
+	}
+
+	private static final class Node {
+
+		private final Map<String, Node> children = new HashMap<>();
+
+		private final List<Integer> anyMethod = new ArrayList<>();
+
+		private final Map<HttpMethod, List<Integer>> byMethod = new HashMap<>();
+
+		private int[] all = NO_CANDIDATES;
+
+		private int[] anyMethodCandidates = NO_CANDIDATES;
+
+		private Map<HttpMethod, int[]> byMethodCandidates = Collections.emptyMap();
+
+		private void add(int position, HttpMethod method) {
+			if (method == null) {
+				this.anyMethod.add(position);
+			}
+			else {
+				this.byMethod.computeIfAbsent(method, (key) -> new ArrayList<>()).add(position);
+			}
+		}
+
+		private void compile(List<Integer> inheritedAnyMethod,
+				List<Map.Entry<HttpMethod, Integer>> inheritedByMethod) {
+			List<Integer> anyMethod = new ArrayList<>(inheritedAnyMethod);
+			anyMethod.addAll(this.anyMethod);
+			List<Map.Entry<HttpMethod, Integer>> byMethod = new ArrayList<>(inheritedByMethod);
+			this.byMethod.forEach((method, positions) -> positions
+					.forEach((position) -> byMethod.add(Map.entry(method, position))));
+			Set<Integer> all = new LinkedHashSet<>(anyMethod);
+			Map<HttpMethod, Set<Integer>> candidates = new HashMap<>();
+			for (Map.Entry<HttpMethod, Integer> entry : byMethod) {
+				all.add(entry.getValue());
+				candidates.computeIfAbsent(entry.getKey(), (key) -> new LinkedHashSet<>(anyMethod))
+						.add(entry.getValue());
+			}
+			this.all = toArray(all);
+			this.anyMethodCandidates = toArray(new LinkedHashSet<>(anyMethod));
+			Map<HttpMethod, int[]> byMethodCandidates = new HashMap<>();
+			candidates.forEach((method, positions) -> byMethodCandidates.put(method, toArray(positions)));
+			this.byMethodCandidates = byMethodCandidates;
+			for (Node child : this.children.values()) {
+				child.compile(anyMethod, byMethod);
+			}
+		}
+
+		private int[] getCandidates(String method) {
+			if (!StringUtils.hasText(method)) {
+				return this.all;
+			}
+			return this.byMethodCandidates.getOrDefault(HttpMethod.valueOf(method), this.anyMethodCandidates);
+		}
+
+	}
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util.matcher;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Remembers, for the duration of a single dispatch, the results of evaluating
+ * {@link RequestMatcher}s against the current request.
+ * <p>
+ * Many security filters carry their own {@link RequestMatcher}, and equal matchers end up
+ * being evaluated several times against the same request. Once a cache is bound to the
+ * request with {@link #bind(HttpServletRequest)}, typically by
+ * {@link org.springframework.security.web.FilterChainProxy}, matchers that support it
+ * (such as {@link AntPathRequestMatcher} and
+ * {@link org.springframework.security.web.servlet.util.matcher.MvcRequestMatcher}) only
+ * evaluate the request the first time and then reuse the result. When no cache is bound,
+ * they evaluate the request every time.
+ * <p>
+ * Results are keyed by the provided key, which is usually the matcher itself, so equal
+ * matchers share their result. The results of {@link #matches} and the values of
+ * {@link #get} are kept apart, so the same key can be used for both. They are discarded whenever the request URI, servlet path
+ * or path info of the request change, for example when path stripping is deactivated
+ * at the end of the security filter chain.
+ *
+ * @since 6.1
+ */
+public final class RequestMatcherResultCache {
+
+	private static final String ATTRIBUTE_NAME = RequestMatcherResultCache.class.getName();
+
+	private static final Object NULL = new Object();
+
+	private final Map<Object, Boolean> results = new HashMap<>();
+
+	private final Map<Object, Object> values = new HashMap<>();
+
+	private String requestURI;
+
+	private String servletPath;
+
+	private String pathInfo;
+
+	private RequestMatcherResultCache(HttpServletRequest request) {
+		remember(request);
+	}
+
+	/**
+	 * Binds a new, empty cache to the request, replacing the current one if any
+	 * @param request the request
+	 * @return the cache that was previously bound to the request, possibly {@code null},
+	 * to be passed to {@link #unbind(HttpServletRequest, RequestMatcherResultCache)}
+	 */
+	public static RequestMatcherResultCache bind(HttpServletRequest request) {
+		RequestMatcherResultCache previous = (RequestMatcherResultCache) request.getAttribute(ATTRIBUTE_NAME);
+		request.setAttribute(ATTRIBUTE_NAME, new RequestMatcherResultCache(request));
+		return previous;
+	}
+
+	/**
+	 * Unbinds the cache that is bound to the request and binds the provided one instead
+	 * @param request the request
+	 * @param previous the cache returned by {@link #bind(HttpServletRequest)}, possibly
+	 * {@code null}
+	 */
+	public static void unbind(HttpServletRequest request, RequestMatcherResultCache previous) {
+		if (previous != null) {
+			request.setAttribute(ATTRIBUTE_NAME, previous);
+		}
+		else {
+			request.removeAttribute(ATTRIBUTE_NAME);
+		}
+	}
+
+	/**
+	 * Returns whether the request matches, evaluating the request only if no result was
+	 * remembered for this key yet
+	 * @param request the request
+	 * @param key the key of the result, usually the {@link RequestMatcher} itself
+	 * @param match evaluates the request
+	 * @return the result of {@code match}
+	 */
+	public static boolean matches(HttpServletRequest request, Object key, Predicate<HttpServletRequest> match) {
+		RequestMatcherResultCache cache = getCache(request);
+		if (cache == null) {
+			return match.test(request);
+		}
+		Boolean result = cache.results.get(key);
+		if (result == null) {
+			result = match.test(request);
+			cache.results.put(key, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a value computed from the request, computing it only if no value was
+	 * remembered for this key yet. This is useful to share intermediate results between
+	 * matchers, like the handler mapping that matches the request.
+	 * @param request the request
+	 * @param key the key of the value
+	 * @param compute computes the value, possibly {@code null}
+	 * @param <T> the type of the value
+	 * @return the result of {@code compute}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T get(HttpServletRequest request, Object key, Function<HttpServletRequest, T> compute) {
+		RequestMatcherResultCache cache = getCache(request);
+		if (cache == null) {
+			return compute.apply(request);
+		}
+		Object value = cache.values.get(key);
+		if (value == null) {
+			value = compute.apply(request);
+			cache.values.put(key, (value != null) ? value : NULL);
+		}
+		return (value != NULL) ? (T) value : null;
+	}
+
+	private static RequestMatcherResultCache getCache(HttpServletRequest request) {
+		RequestMatcherResultCache cache = (RequestMatcherResultCache) request.getAttribute(ATTRIBUTE_NAME);
+		if (cache != null && !cache.isCurrent(request)) {
+			cache.results.clear();
+			cache.values.clear();
+			cache.remember(request);
+		}
+		return cache;
+	}
+
+	private boolean isCurrent(HttpServletRequest request) {
+		return Objects.equals(this.requestURI, request.getRequestURI())
+				&& Objects.equals(this.servletPath, request.getServletPath())
+				&& Objects.equals(this.pathInfo, request.getPathInfo());
+	}
+
+	private void remember(HttpServletRequest request) {
+		this.requestURI = request.getRequestURI();
+		this.servletPath = request.getServletPath();
+		this.pathInfo = request.getPathInfo();
+	}
+
+}
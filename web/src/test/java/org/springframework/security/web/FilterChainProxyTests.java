@@ -48,7 +48,11 @@ import org.springframework.security.web.firewall.FirewalledRequest;
 import org.springframework.security.web.firewall.HttpFirewall;
 import org.springframework.security.web.firewall.RequestRejectedException;
 import org.springframework.security.web.firewall.RequestRejectedHandler;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
+import org.springframework.security.web.util.matcher.BypassPathRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcherResultCache;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -196,6 +200,40 @@ public class FilterChainProxyTests {
 		verify(fwr).reset();
 	}
 
+	@Test
+	public void doFilterWhenFilterChainIndexEnabledThenFirstMatchingChainInvoked() throws Exception {
+		Filter apiFilter = mock(Filter.class);
+		Filter adminFilter = mock(Filter.class);
+		Filter defaultFilter = mock(Filter.class);
+		given(this.matcher.matches(any())).willReturn(false);
+		this.fcp = new FilterChainProxy(Arrays.asList(
+				new DefaultSecurityFilterChain(AntPathRequestMatcher.antMatcher("/api/**"), apiFilter),
+				new DefaultSecurityFilterChain(this.matcher, this.filter),
+				new DefaultSecurityFilterChain(AntPathRequestMatcher.antMatcher("/admin/**"), adminFilter),
+				new DefaultSecurityFilterChain(AnyRequestMatcher.INSTANCE, defaultFilter)));
+		this.fcp.setFilterChainIndexEnabled(true);
+		this.request.setServletPath("/admin/users");
+		this.fcp.doFilter(this.request, this.response, this.chain);
+		verify(this.matcher).matches(any());
+		verify(adminFilter).doFilter(any(), any(), any());
+		verifyNoMoreInteractions(apiFilter, defaultFilter, this.filter);
+	}
+
+	@Test
+	public void getFiltersWhenFilterChainIndexEnabledThenSameAsLinearScan() {
+		Filter apiFilter = mock(Filter.class);
+		Filter defaultFilter = mock(Filter.class);
+		this.fcp = new FilterChainProxy(Arrays.asList(
+				new DefaultSecurityFilterChain(AntPathRequestMatcher.antMatcher("/api/**"), apiFilter),
+				new DefaultSecurityFilterChain(AnyRequestMatcher.INSTANCE, defaultFilter)));
+		this.fcp.setFilterChainIndexEnabled(true);
+		assertThat(this.fcp.getFilters("/api/users")).containsExactly(apiFilter);
+		assertThat(this.fcp.getFilters("/other")).containsExactly(defaultFilter);
+		this.fcp.setFilterChainIndexEnabled(false);
+		assertThat(this.fcp.getFilters("/api/users")).containsExactly(apiFilter);
+		assertThat(this.fcp.getFilters("/other")).containsExactly(defaultFilter);
+	}
+
 	@Test
 	public void doFilterClearsSecurityContextHolder() throws Exception {
 		given(this.matcher.matches(any(HttpServletRequest.class))).willReturn(true);
@@ -430,6 +468,43 @@ public class FilterChainProxyTests {
 		assertFilterChainObservation(contexts.next(), "after", 3);
 	}
 
+	@Test
+	public void doFilterWhenRequestMatcherResultCacheEnabledThenFiltersShareResults() throws Exception {
+		RequestMatcher counting = mock(RequestMatcher.class);
+		given(counting.matches(any())).willReturn(true);
+		Filter matching = (request, response, chain) -> {
+			RequestMatcherResultCache.matches((HttpServletRequest) request, "key", counting::matches);
+			chain.doFilter(request, response);
+		};
+		given(this.matcher.matches(any())).willReturn(true);
+		FilterChainProxy fcp = new FilterChainProxy(new DefaultSecurityFilterChain(this.matcher, matching, matching));
+		fcp.setRequestMatcherResultCacheEnabled(true);
+		fcp.doFilter(this.request, this.response, this.chain);
+		verify(counting).matches(any());
+		verify(this.chain).doFilter(any(), any());
+		assertThat(this.request.getAttributeNames().hasMoreElements()).isFalse();
+	}
+
+	@Test
+	public void doFilterWhenBypassRequestMatcherMatchesThenOriginalChainInvoked() throws Exception {
+		HttpFirewall firewall = mock(HttpFirewall.class);
+		this.fcp.setFirewall(firewall);
+		this.fcp.setBypassRequestMatcher(new BypassPathRequestMatcher(Arrays.asList("/static/**")));
+		this.request.setRequestURI("/static/app.js");
+		this.fcp.doFilter(this.request, this.response, this.chain);
+		verify(this.chain).doFilter(this.request, this.response);
+		verifyNoMoreInteractions(firewall, this.matcher, this.filter);
+	}
+
+	@Test
+	public void doFilterWhenBypassRequestMatcherDoesNotMatchThenSecured() throws Exception {
+		given(this.matcher.matches(any())).willReturn(true);
+		this.fcp.setBypassRequestMatcher(new BypassPathRequestMatcher(Arrays.asList("/static/**")));
+		this.request.setRequestURI("/api/static/app.js");
+		this.fcp.doFilter(this.request, this.response, this.chain);
+		verify(this.filter).doFilter(any(), any(), any());
+	}
+
 	static void assertFilterChainObservation(Observation.Context context, String filterSection, int chainPosition) {
 		assertThat(context).isInstanceOf(ObservationFilterChainDecorator.FilterChainObservationContext.class);
 		ObservationFilterChainDecorator.FilterChainObservationContext filterChainObservationContext = (ObservationFilterChainDecorator.FilterChainObservationContext) context;
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.csrf.CsrfFilter;
+import org.springframework.security.web.header.HeaderWriterFilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link TimingFilterChainDecorator}
+ */
+public class TimingFilterChainDecoratorTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final TimingFilterChainDecorator decorator = new TimingFilterChainDecorator(this.registry);
+
+	@Test
+	public void constructorWhenNullRegistryThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new TimingFilterChainDecorator(null));
+	}
+
+	@Test
+	public void decorateWhenNoFiltersThenOriginalChain() {
+		FilterChain chain = mock(FilterChain.class);
+		assertThat(this.decorator.decorate(chain)).isSameAs(chain);
+	}
+
+	@Test
+	public void decorateWhenFiltersThenRecordsEachFilter() throws Exception {
+		Filter first = proceeding(mock(HeaderWriterFilter.class));
+		Filter second = proceeding(mock(CsrfFilter.class));
+		FilterChain chain = mock(FilterChain.class);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.decorator.decorate(chain, Arrays.asList(first, second)).doFilter(request, response);
+		this.decorator.decorate(chain, Arrays.asList(first, second)).doFilter(request, response);
+		verify(chain, times(2)).doFilter(request, response);
+		FunctionTimer firstTimer = timer(first);
+		FunctionTimer secondTimer = timer(second);
+		assertThat(firstTimer.count()).isEqualTo(2);
+		assertThat(secondTimer.count()).isEqualTo(2);
+		assertThat(firstTimer.totalTime(TimeUnit.NANOSECONDS)).isPositive();
+		assertThat(this.registry.find(TimingFilterChainDecorator.DURATION_METER_NAME + ".buckets")
+				.tag("filter", first.getClass().getSimpleName()).tag("le", "+Inf").functionCounter().count())
+						.isEqualTo(2);
+	}
+
+	@Test
+	public void decorateWhenFilterThrowsThenStillRecorded() throws Exception {
+		Filter filter = mock(CsrfFilter.class);
+		willThrow(new IllegalStateException()).given(filter).doFilter(any(), any(), any());
+		FilterChain chain = this.decorator.decorate(mock(FilterChain.class), Arrays.asList(filter));
+		assertThatExceptionOfType(IllegalStateException.class)
+				.isThrownBy(() -> chain.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse()));
+		assertThat(timer(filter).count()).isEqualTo(1);
+	}
+
+	@Test
+	public void bucketWhenNanosThenPowerOfTwoUpperBound() {
+		assertThat(TimingFilterChainDecorator.FilterTimer.bucket(0)).isEqualTo(0);
+		assertThat(TimingFilterChainDecorator.FilterTimer.bucket(1024)).isEqualTo(0);
+		assertThat(TimingFilterChainDecorator.FilterTimer.bucket(1025)).isEqualTo(1);
+		assertThat(TimingFilterChainDecorator.FilterTimer.bucket(2048)).isEqualTo(1);
+		assertThat(TimingFilterChainDecorator.FilterTimer.bucket(1L << 30)).isEqualTo(20);
+		assertThat(TimingFilterChainDecorator.FilterTimer.bucket(Long.MAX_VALUE))
+				.isEqualTo(TimingFilterChainDecorator.FilterTimer.BUCKET_COUNT - 1);
+	}
+
+	private FunctionTimer timer(Filter filter) {
+		return this.registry.find(TimingFilterChainDecorator.DURATION_METER_NAME)
+				.tag("filter", filter.getClass().getSimpleName()).functionTimer();
+	}
+
+	private static Filter proceeding(Filter filter) throws Exception {
+		willAnswer((invocation) -> {
+			((FilterChain) invocation.getArgument(2)).doFilter(invocation.getArgument(0), invocation.getArgument(1));
+			return null;
+		}).given(filter).doFilter(any(), any(), any());
+		return filter;
+	}
+
+}
@@ -20,17 +20,27 @@ import java.util.function.Supplier;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.http.HttpMethod;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.authorization.AuthorityAuthorizationManager;
 import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.servlet.util.matcher.MvcRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.AnyRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcherEntry;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 /**
  * Tests for {@link RequestMatcherDelegatingAuthorizationManager}.
@@ -120,4 +130,29 @@ public class RequestMatcherDelegatingAuthorizationManagerTests {
 				.withMessage("mappingsConsumer cannot be null");
 	}
 
+	@Test
+	public void checkWhenCompiledThenDelegatesFirstMatchingManager() {
+		RequestMatcher opaque = mock(RequestMatcher.class);
+		given(opaque.matcher(any())).willReturn(RequestMatcher.MatchResult.notMatch());
+		RequestMatcher admin = spy(AntPathRequestMatcher.antMatcher("/admin/**"));
+		RequestMatcherDelegatingAuthorizationManager manager = RequestMatcherDelegatingAuthorizationManager.builder()
+				.add(admin, (a, o) -> new AuthorizationDecision(false))
+				.add(AntPathRequestMatcher.antMatcher(HttpMethod.POST, "/api/**"),
+						(a, o) -> new AuthorizationDecision(false))
+				.add(opaque, (a, o) -> new AuthorizationDecision(false))
+				.add(AntPathRequestMatcher.antMatcher("/api/{id}"),
+						(a, o) -> new AuthorizationDecision("1".equals(o.getVariables().get("id"))))
+				.add(AnyRequestMatcher.INSTANCE, (a, o) -> new AuthorizationDecision(true)).compiled(true).build();
+		Supplier<Authentication> authentication = () -> new TestingAuthenticationToken("user", "password", "ROLE_USER");
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/1");
+		request.setServletPath("/api/1");
+		assertThat(manager.check(authentication, request).isGranted()).isTrue();
+		request.setServletPath("/api/2");
+		assertThat(manager.check(authentication, request).isGranted()).isFalse();
+		request.setServletPath("/other");
+		assertThat(manager.check(authentication, request).isGranted()).isTrue();
+		verify(opaque, times(3)).matcher(any());
+		verifyNoInteractions(admin);
+	}
+
 }
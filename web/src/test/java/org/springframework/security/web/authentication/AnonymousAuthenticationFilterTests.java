@@ -32,9 +32,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.MockSecurityContextHolderStrategy;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.CopyOnWriteSecurityContext;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextHolderStrategy;
@@ -42,6 +44,7 @@ import org.springframework.security.core.context.SecurityContextImpl;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
@@ -149,6 +152,60 @@ public class AnonymousAuthenticationFilterTests {
 		verify(originalSupplier, times(1)).get();
 	}
 
+	@Test
+	public void doFilterWhenShareAnonymousContextThenSameContextForEachRequest() throws Exception {
+		AnonymousAuthenticationFilter filter = new AnonymousAuthenticationFilter("qwerty", "anonymousUsername",
+				AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+		filter.setShareAnonymousContext(true);
+		filter.afterPropertiesSet();
+		executeFilterInContainerSimulator(mock(FilterConfig.class), filter, new MockHttpServletRequest(),
+				new MockHttpServletResponse(), new MockFilterChain(true));
+		SecurityContext first = SecurityContextHolder.getContext();
+		SecurityContextHolder.clearContext();
+		executeFilterInContainerSimulator(mock(FilterConfig.class), filter, new MockHttpServletRequest(),
+				new MockHttpServletResponse(), new MockFilterChain(true));
+		SecurityContext second = SecurityContextHolder.getContext();
+		assertThat(second).isSameAs(first).isInstanceOf(CopyOnWriteSecurityContext.class);
+		Authentication anonymous = second.getAuthentication();
+		assertThat(anonymous).isInstanceOf(AnonymousAuthenticationToken.class);
+		assertThat(anonymous.getPrincipal()).isEqualTo("anonymousUsername");
+		assertThat(anonymous.getDetails()).isNull();
+		assertThat(anonymous.isAuthenticated()).isTrue();
+		assertThatIllegalStateException().isThrownBy(() -> anonymous.setAuthenticated(false));
+	}
+
+	@Test
+	public void doFilterWhenShareAnonymousContextAndSetAuthenticationThenCopied() throws Exception {
+		AnonymousAuthenticationFilter filter = new AnonymousAuthenticationFilter("qwerty", "anonymousUsername",
+				AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+		filter.setShareAnonymousContext(true);
+		filter.afterPropertiesSet();
+		executeFilterInContainerSimulator(mock(FilterConfig.class), filter, new MockHttpServletRequest(),
+				new MockHttpServletResponse(), new MockFilterChain(true));
+		SecurityContext shared = SecurityContextHolder.getContext();
+		Authentication user = new TestingAuthenticationToken("user", "password", "ROLE_A");
+		SecurityContextHolder.getContext().setAuthentication(user);
+		assertThat(SecurityContextHolder.getContext()).isNotSameAs(shared);
+		assertThat(SecurityContextHolder.getContext().getAuthentication()).isSameAs(user);
+		assertThat(shared.getAuthentication()).isInstanceOf(AnonymousAuthenticationToken.class);
+	}
+
+	@Test
+	public void setSecurityContextHolderStrategyWhenShareAnonymousContextThenCopiesSetOnStrategy() throws Exception {
+		SecurityContextHolderStrategy strategy = new MockSecurityContextHolderStrategy(SecurityContextImpl::new);
+		AnonymousAuthenticationFilter filter = new AnonymousAuthenticationFilter("qwerty", "anonymousUsername",
+				AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+		filter.setShareAnonymousContext(true);
+		filter.setSecurityContextHolderStrategy(strategy);
+		filter.afterPropertiesSet();
+		executeFilterInContainerSimulator(mock(FilterConfig.class), filter, new MockHttpServletRequest(),
+				new MockHttpServletResponse(), new MockFilterChain(true));
+		Authentication user = new TestingAuthenticationToken("user", "password", "ROLE_A");
+		strategy.getContext().setAuthentication(user);
+		assertThat(strategy.getContext().getAuthentication()).isSameAs(user);
+		assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+	}
+
 	private class MockFilterChain implements FilterChain {
 
 		private boolean expectToProceed;
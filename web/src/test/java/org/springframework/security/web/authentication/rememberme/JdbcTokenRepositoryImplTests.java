@@ -17,10 +17,16 @@
 package org.springframework.security.web.authentication.rememberme;
 
 import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.logging.Log;
 import org.junit.jupiter.api.AfterAll;
@@ -40,6 +46,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -185,4 +192,141 @@ public class JdbcTokenRepositoryImplTests {
 		verify(template).update(anyString(), anyString(), eq(lastUsed), anyString());
 	}
 
+	@Test
+	public void getTokenForSeriesWhenTokenCacheThenDatabaseReadOnce() {
+		insertToken("joesseries", "joeuser", "atoken");
+		this.repo.setTokenCacheSize(10);
+		assertThat(this.repo.getTokenForSeries("joesseries").getTokenValue()).isEqualTo("atoken");
+		this.template.update("update persistent_logins set token = 'othertoken'");
+		assertThat(this.repo.getTokenForSeries("joesseries").getTokenValue()).isEqualTo("atoken");
+		assertThat(this.repo.getCacheHitCount()).isEqualTo(1);
+		assertThat(this.repo.getCacheMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void getTokenForSeriesWhenTokenCacheFullThenNotCached() {
+		insertToken("joesseries", "joeuser", "atoken");
+		insertToken("janesseries", "janeuser", "atoken");
+		this.repo.setTokenCacheSize(1);
+		this.repo.getTokenForSeries("joesseries");
+		this.repo.getTokenForSeries("janesseries");
+		this.template.update("update persistent_logins set token = 'othertoken'");
+		assertThat(this.repo.getTokenForSeries("joesseries").getTokenValue()).isEqualTo("atoken");
+		assertThat(this.repo.getTokenForSeries("janesseries").getTokenValue()).isEqualTo("othertoken");
+	}
+
+	@Test
+	public void getTokenForSeriesWhenCachedTokenExpiredThenDatabaseRead() {
+		insertToken("joesseries", "joeuser", "atoken");
+		Instant now = Instant.now();
+		this.repo.setTokenCacheSize(10);
+		this.repo.setClock(Clock.fixed(now, ZoneOffset.UTC));
+		this.repo.getTokenForSeries("joesseries");
+		this.template.update("update persistent_logins set token = 'othertoken'");
+		this.repo.setClock(Clock.fixed(now.plus(Duration.ofMinutes(1)), ZoneOffset.UTC));
+		assertThat(this.repo.getTokenForSeries("joesseries").getTokenValue()).isEqualTo("othertoken");
+		assertThat(this.repo.getCacheMissCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void getTokenForSeriesWhenTokenCacheFullOfExpiredTokensThenExpiredTokensEvicted() {
+		insertToken("joesseries", "joeuser", "atoken");
+		insertToken("janesseries", "janeuser", "atoken");
+		Instant now = Instant.now();
+		this.repo.setTokenCacheSize(1);
+		this.repo.setTokenCacheTimeToLive(Duration.ofSeconds(30));
+		this.repo.setClock(Clock.fixed(now, ZoneOffset.UTC));
+		this.repo.getTokenForSeries("joesseries");
+		this.repo.setClock(Clock.fixed(now.plus(Duration.ofSeconds(30)), ZoneOffset.UTC));
+		this.repo.getTokenForSeries("janesseries");
+		this.template.update("update persistent_logins set token = 'othertoken'");
+		assertThat(this.repo.getTokenForSeries("janesseries").getTokenValue()).isEqualTo("atoken");
+	}
+
+	@Test
+	public void updateTokenWhenTokenCacheThenCachedTokenUpdated() {
+		insertToken("joesseries", "joeuser", "atoken");
+		this.repo.setTokenCacheSize(10);
+		this.repo.getTokenForSeries("joesseries");
+		Date lastUsed = new Date();
+		this.repo.updateToken("joesseries", "newtoken", lastUsed);
+		PersistentRememberMeToken token = this.repo.getTokenForSeries("joesseries");
+		assertThat(token.getUsername()).isEqualTo("joeuser");
+		assertThat(token.getTokenValue()).isEqualTo("newtoken");
+		assertThat(token.getDate()).isEqualTo(lastUsed);
+		assertThat(this.template.queryForObject("select token from persistent_logins", String.class))
+				.isEqualTo("newtoken");
+	}
+
+	@Test
+	public void removeUserTokensWhenTokenCacheThenCachedTokensEvicted() {
+		insertToken("joesseries", "joeuser", "atoken");
+		this.repo.setTokenCacheSize(10);
+		this.repo.getTokenForSeries("joesseries");
+		this.repo.removeUserTokens("joeuser");
+		assertThat(this.repo.getTokenForSeries("joesseries")).isNull();
+	}
+
+	@Test
+	public void updateTokenWhenUpdateIntervalThenWrittenInBatch() {
+		insertToken("joesseries", "joeuser", "atoken");
+		insertToken("janesseries", "janeuser", "atoken");
+		ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+		this.repo.setUpdateInterval(Duration.ofSeconds(5), executor);
+		ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+		verify(executor).scheduleWithFixedDelay(task.capture(), anyLong(), eq(TimeUnit.SECONDS.toNanos(5)),
+				eq(TimeUnit.NANOSECONDS));
+		this.repo.updateToken("joesseries", "firsttoken", new Date());
+		this.repo.updateToken("joesseries", "newtoken", new Date());
+		this.repo.updateToken("janesseries", "newtoken", new Date());
+		assertThat(this.template.queryForList("select token from persistent_logins", String.class))
+				.containsOnly("atoken");
+		assertThat(this.repo.getTokenForSeries("joesseries").getTokenValue()).isEqualTo("newtoken");
+		task.getValue().run();
+		assertThat(this.template.queryForList("select token from persistent_logins", String.class))
+				.containsOnly("newtoken");
+		assertThat(this.repo.getTokenForSeries("joesseries").getTokenValue()).isEqualTo("newtoken");
+	}
+
+	@Test
+	public void updateTokenWhenBatchFailsThenUpdatesWrittenOneByOne() {
+		insertToken("joesseries", "joeuser", "atoken");
+		insertToken("janesseries", "janeuser", "atoken");
+		this.repo.setTokenCacheSize(10);
+		ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+		this.repo.setUpdateInterval(Duration.ofSeconds(5), executor);
+		ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+		verify(executor).scheduleWithFixedDelay(task.capture(), anyLong(), anyLong(), eq(TimeUnit.NANOSECONDS));
+		String invalidToken = "a".repeat(501);
+		this.repo.getTokenForSeries("janesseries");
+		this.repo.updateToken("joesseries", "newtoken", new Date());
+		this.repo.updateToken("janesseries", invalidToken, new Date());
+		task.getValue().run();
+		assertThat(this.template.queryForObject("select token from persistent_logins where series = 'joesseries'",
+				String.class)).isEqualTo("newtoken");
+		assertThat(this.repo.getTokenForSeries("janesseries").getTokenValue()).isEqualTo(invalidToken);
+		task.getValue().run();
+		assertThat(this.repo.getTokenForSeries("janesseries").getTokenValue()).isEqualTo(invalidToken);
+		task.getValue().run();
+		assertThat(this.repo.getTokenForSeries("janesseries").getTokenValue()).isEqualTo("atoken");
+	}
+
+	@Test
+	public void destroyWhenUpdateIntervalThenPendingUpdatesWritten() {
+		insertToken("joesseries", "joeuser", "atoken");
+		this.repo.setUpdateInterval(Duration.ofHours(1));
+		this.repo.updateToken("joesseries", "newtoken", new Date());
+		this.repo.destroy();
+		assertThat(this.template.queryForObject("select token from persistent_logins", String.class))
+				.isEqualTo("newtoken");
+		this.repo.updateToken("joesseries", "othertoken", new Date());
+		assertThat(this.template.queryForObject("select token from persistent_logins", String.class))
+				.isEqualTo("othertoken");
+	}
+
+	private void insertToken(String series, String username, String token) {
+		this.template.update("insert into persistent_logins (series, username, token, last_used) values (?,?,?,?)",
+				series, username, token, new Date());
+	}
+
 }
@@ -16,9 +16,12 @@
 
 package org.springframework.security.web.authentication.session;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -34,6 +37,7 @@ import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.session.SessionInformation;
 import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.security.core.session.ShardedSessionRegistry;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -149,4 +153,75 @@ public class ConcurrentSessionControlAuthenticationStrategyTests {
 		assertThatIllegalArgumentException().isThrownBy(() -> this.strategy.setMessageSource(null));
 	}
 
+	@Test
+	public void onAuthenticationWhenShardedSessionRegistryThenLeastRecentlyUsedSessionExpired() {
+		ShardedSessionRegistry registry = new ShardedSessionRegistry();
+		registry.registerNewSession("1", this.authentication.getPrincipal());
+		registry.registerNewSession("2", this.authentication.getPrincipal());
+		registry.refreshLastRequest("1");
+		ConcurrentSessionControlAuthenticationStrategy strategy = new ConcurrentSessionControlAuthenticationStrategy(
+				registry);
+		strategy.setMaximumSessions(3);
+		strategy.onAuthentication(this.authentication, this.request, this.response);
+		assertThat(registry.getSessionCount(this.authentication.getPrincipal())).isEqualTo(2);
+		strategy.setMaximumSessions(2);
+		strategy.onAuthentication(this.authentication, this.request, this.response);
+		assertThat(registry.getSessionInformation("2").isExpired()).isTrue();
+		assertThat(registry.getSessionInformation("1").isExpired()).isFalse();
+		assertThat(registry.getSessionCount(this.authentication.getPrincipal())).isEqualTo(1);
+	}
+
+	@Test
+	public void onAuthenticationWhenShardedSessionRegistryAndExceededByTwoThenTwoLeastRecentlyUsedSessionsExpired() {
+		ShardedSessionRegistry registry = new ShardedSessionRegistry();
+		registry.registerNewSession("1", this.authentication.getPrincipal());
+		registry.registerNewSession("2", this.authentication.getPrincipal());
+		registry.registerNewSession("3", this.authentication.getPrincipal());
+		registry.refreshLastRequest("1");
+		ConcurrentSessionControlAuthenticationStrategy strategy = new ConcurrentSessionControlAuthenticationStrategy(
+				registry);
+		strategy.setMaximumSessions(2);
+		strategy.onAuthentication(this.authentication, this.request, this.response);
+		assertThat(registry.getSessionInformation("2").isExpired()).isTrue();
+		assertThat(registry.getSessionInformation("3").isExpired()).isTrue();
+		assertThat(registry.getSessionInformation("1").isExpired()).isFalse();
+	}
+
+	@Test
+	public void onAuthenticationWhenShardedSessionRegistryAndMaximumWithRegisteredSessionThenNotExpired() {
+		ShardedSessionRegistry registry = new ShardedSessionRegistry();
+		MockHttpSession session = new MockHttpSession(new MockServletContext());
+		registry.registerNewSession("1", this.authentication.getPrincipal());
+		registry.registerNewSession(session.getId(), this.authentication.getPrincipal());
+		this.request.setSession(session);
+		ConcurrentSessionControlAuthenticationStrategy strategy = new ConcurrentSessionControlAuthenticationStrategy(
+				registry);
+		strategy.setMaximumSessions(2);
+		strategy.onAuthentication(this.authentication, this.request, this.response);
+		assertThat(registry.getSessionCount(this.authentication.getPrincipal())).isEqualTo(2);
+	}
+
+	@Test
+	public void onAuthenticationWhenShardedSessionRegistryThenAllowableSessionsExceededGivenAllSessions() {
+		ShardedSessionRegistry registry = new ShardedSessionRegistry();
+		registry.registerNewSession("1", this.authentication.getPrincipal());
+		registry.registerNewSession("2", this.authentication.getPrincipal());
+		registry.registerNewSession("3", this.authentication.getPrincipal());
+		List<SessionInformation> exceeded = new ArrayList<>();
+		ConcurrentSessionControlAuthenticationStrategy strategy = new ConcurrentSessionControlAuthenticationStrategy(
+				registry) {
+
+			@Override
+			protected void allowableSessionsExceeded(List<SessionInformation> sessions, int allowableSessions,
+					SessionRegistry sessionRegistry) {
+				sessions.sort(Comparator.comparing(SessionInformation::getSessionId).reversed());
+				exceeded.addAll(sessions);
+			}
+
+		};
+		strategy.setMaximumSessions(2);
+		strategy.onAuthentication(this.authentication, this.request, this.response);
+		assertThat(exceeded).extracting(SessionInformation::getSessionId).containsExactly("3", "2", "1");
+	}
+
 }
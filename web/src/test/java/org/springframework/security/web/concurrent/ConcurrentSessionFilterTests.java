@@ -16,13 +16,18 @@
 
 package org.springframework.security.web.concurrent;
 
+import java.time.Duration;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import org.springframework.mock.web.MockFilterChain;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -45,11 +50,14 @@ import org.springframework.security.web.session.SimpleRedirectSessionInformation
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
@@ -301,4 +309,93 @@ public class ConcurrentSessionFilterTests {
 		assertThatIllegalArgumentException().isThrownBy(() -> filter.setLogoutHandlers(new LogoutHandler[0]));
 	}
 
+	@Test
+	public void setLastRequestRefreshIntervalWhenNegativeThenException() {
+		ConcurrentSessionFilter filter = new ConcurrentSessionFilter(new SessionRegistryImpl());
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> filter.setLastRequestRefreshInterval(Duration.ofSeconds(-1),
+						mock(ScheduledExecutorService.class)));
+	}
+
+	@Test
+	public void setLastRequestRefreshIntervalWhenNullExecutorThenException() {
+		ConcurrentSessionFilter filter = new ConcurrentSessionFilter(new SessionRegistryImpl());
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> filter.setLastRequestRefreshInterval(Duration.ofSeconds(30), null));
+	}
+
+	@Test
+	public void doFilterWhenLastRequestRefreshIntervalThenRefreshesCoalesced() throws Exception {
+		SessionRegistry registry = mock(SessionRegistry.class);
+		given(registry.getSessionInformation(anyString())).willAnswer(
+				(invocation) -> new SessionInformation("user", invocation.getArgument(0), new Date()));
+		ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+		ConcurrentSessionFilter filter = new ConcurrentSessionFilter(registry);
+		filter.setLastRequestRefreshInterval(Duration.ofSeconds(30), executor);
+		ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+		verify(executor).scheduleWithFixedDelay(flush.capture(), anyLong(), eq(TimeUnit.SECONDS.toNanos(30)),
+				eq(TimeUnit.NANOSECONDS));
+		MockHttpSession session = new MockHttpSession();
+		MockHttpSession other = new MockHttpSession();
+		for (int i = 0; i < 3; i++) {
+			doFilter(filter, session);
+		}
+		doFilter(filter, other);
+		verify(registry, never()).refreshLastRequest(anyString());
+		assertThat(filter.getSuppressedLastRequestRefreshCount()).isEqualTo(2);
+		flush.getValue().run();
+		verify(registry).refreshLastRequest(session.getId());
+		verify(registry).refreshLastRequest(other.getId());
+		assertThat(filter.getFlushedLastRequestRefreshCount()).isEqualTo(2);
+		flush.getValue().run();
+		verify(registry, times(2)).refreshLastRequest(anyString());
+	}
+
+	@Test
+	public void destroyWhenLastRequestRefreshIntervalThenPendingRefreshesFlushed() throws Exception {
+		SessionRegistry registry = mock(SessionRegistry.class);
+		given(registry.getSessionInformation(anyString()))
+				.willReturn(new SessionInformation("user", "sessionId", new Date()));
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		try {
+			ConcurrentSessionFilter filter = new ConcurrentSessionFilter(registry);
+			filter.setLastRequestRefreshInterval(Duration.ofHours(1), executor);
+			doFilter(filter, new MockHttpSession(null, "sessionId"));
+			verify(registry, never()).refreshLastRequest(anyString());
+			filter.destroy();
+			verify(registry).refreshLastRequest("sessionId");
+			assertThat(executor.isShutdown()).isFalse();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void doFilterWhenExpiredThenPendingRefreshDiscarded() throws Exception {
+		SessionRegistry registry = mock(SessionRegistry.class);
+		SessionInformation information = new SessionInformation("user", "sessionId", new Date());
+		given(registry.getSessionInformation(anyString())).willReturn(information);
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		try {
+			ConcurrentSessionFilter filter = new ConcurrentSessionFilter(registry);
+			filter.setLastRequestRefreshInterval(Duration.ofHours(1), executor);
+			MockHttpSession session = new MockHttpSession(null, "sessionId");
+			doFilter(filter, session);
+			information.expireNow();
+			doFilter(filter, session);
+			filter.destroy();
+			verify(registry, never()).refreshLastRequest(anyString());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void doFilter(ConcurrentSessionFilter filter, MockHttpSession session) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setSession(session);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+	}
+
 }
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.context;
+
+import java.math.BigInteger;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.crypto.encrypt.BytesEncryptor;
+import org.springframework.security.crypto.encrypt.Encryptors;
+import org.springframework.security.crypto.keygen.KeyGenerators;
+import org.springframework.security.serializer.AuthenticationCodec;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.security.web.serializer.WebAuthenticationCodecModule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link CookieSecurityContextRepository}
+ */
+public class CookieSecurityContextRepositoryTests {
+
+	private final BytesEncryptor encryptor = encryptor();
+
+	private final CookieSecurityContextRepository repository = new CookieSecurityContextRepository(this.encryptor);
+
+	@Test
+	public void constructorWhenEmptyThenException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new CookieSecurityContextRepository(Arrays.asList()));
+	}
+
+	@Test
+	public void loadDeferredContextWhenNoCookieThenEmptyContext() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		assertThat(this.repository.containsContext(request)).isFalse();
+		assertThat(this.repository.loadDeferredContext(request).get().getAuthentication()).isNull();
+	}
+
+	@Test
+	public void saveContextWhenAuthenticatedThenLoaded() {
+		SecurityContext context = authenticated("user");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.repository.saveContext(context, new MockHttpServletRequest(), response);
+		Cookie cookie = response.getCookie(CookieSecurityContextRepository.DEFAULT_COOKIE_NAME);
+		assertThat(cookie.isHttpOnly()).isTrue();
+		assertThat(cookie.getPath()).isEqualTo("/");
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setCookies(response.getCookies());
+		assertThat(this.repository.containsContext(request)).isTrue();
+		assertThat(this.repository.loadDeferredContext(request).get()).isEqualTo(context);
+	}
+
+	@Test
+	public void saveContextWhenAuthenticationCodecThenSmallerAndLoaded() {
+		UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken
+				.authenticated("user", null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+		authentication.setDetails(new WebAuthenticationDetails("127.0.0.1", null));
+		SecurityContext context = new SecurityContextImpl(authentication);
+		MockHttpServletResponse javaResponse = new MockHttpServletResponse();
+		this.repository.saveContext(context, new MockHttpServletRequest(), javaResponse);
+		AuthenticationCodec codec = new AuthenticationCodec(Arrays.asList(new WebAuthenticationCodecModule()));
+		DeserializingConverter deserializer = new DeserializingConverter(codec);
+		this.repository.setSerializer(new SerializingConverter(codec)::convert);
+		this.repository.setDeserializer((bytes) -> (SecurityContext) deserializer.convert(bytes));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.repository.saveContext(context, new MockHttpServletRequest(), response);
+		Cookie cookie = response.getCookie(CookieSecurityContextRepository.DEFAULT_COOKIE_NAME);
+		Cookie javaCookie = javaResponse.getCookie(CookieSecurityContextRepository.DEFAULT_COOKIE_NAME);
+		assertThat(cookie.getValue().length()).isLessThan(javaCookie.getValue().length() / 4);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setCookies(response.getCookies());
+		assertThat(this.repository.loadDeferredContext(request).get()).isEqualTo(context);
+	}
+
+	@Test
+	public void saveContextWhenLargeThenChunked() {
+		char[] name = new char[10000];
+		Arrays.fill(name, 'a');
+		SecurityContext context = authenticated(new String(name));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.repository.saveContext(context, new MockHttpServletRequest(), response);
+		assertThat(response.getCookies().length).isGreaterThan(1);
+		assertThat(response.getCookies()).allMatch((cookie) -> cookie.getValue().length() <= 3800);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setCookies(response.getCookies());
+		assertThat(this.repository.loadDeferredContext(request).get()).isEqualTo(context);
+	}
+
+	@Test
+	public void saveContextWhenFewerChunksThenStaleChunksExpired() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setCookies(new Cookie("SECURITY_CONTEXT", "a"), new Cookie("SECURITY_CONTEXT_1", "b"));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.repository.saveContext(authenticated("user"), request, response);
+		assertThat(response.getCookie("SECURITY_CONTEXT").getMaxAge()).isEqualTo(-1);
+		assertThat(response.getCookie("SECURITY_CONTEXT_1").getMaxAge()).isZero();
+	}
+
+	@Test
+	public void saveContextWhenEmptyThenCookiesExpired() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setCookies(new Cookie("SECURITY_CONTEXT", "a"));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.repository.saveContext(new SecurityContextImpl(), request, response);
+		assertThat(response.getCookie("SECURITY_CONTEXT").getMaxAge()).isZero();
+	}
+
+	@Test
+	public void loadDeferredContextWhenExpiredThenEmptyContext() {
+		Instant now = Instant.now();
+		this.repository.setExpiration(Duration.ofMinutes(5));
+		this.repository.setClock(Clock.fixed(now, ZoneOffset.UTC));
+		MockHttpServletRequest request = save(this.repository, authenticated("user"));
+		this.repository.setClock(Clock.fixed(now.plus(Duration.ofMinutes(5)), ZoneOffset.UTC));
+		assertThat(this.repository.loadDeferredContext(request).get().getAuthentication()).isNull();
+	}
+
+	@Test
+	public void loadDeferredContextWhenTamperedThenEmptyContext() {
+		MockHttpServletRequest request = save(this.repository, authenticated("user"));
+		Cookie cookie = request.getCookies()[0];
+		char[] value = cookie.getValue().toCharArray();
+		value[value.length / 2] = (value[value.length / 2] != 'A') ? 'A' : 'B';
+		request.setCookies(new Cookie(cookie.getName(), new String(value)));
+		assertThat(this.repository.loadDeferredContext(request).get().getAuthentication()).isNull();
+	}
+
+	@Test
+	public void loadDeferredContextWhenClassNotAllowedThenEmptyContext() {
+		SecurityContext context = new SecurityContextImpl(
+				new TestingAuthenticationToken(BigInteger.ONE, "password", "ROLE_USER"));
+		MockHttpServletRequest request = save(this.repository, context);
+		assertThat(this.repository.loadDeferredContext(request).get().getAuthentication()).isNull();
+	}
+
+	@Test
+	public void loadDeferredContextWhenKeyRotatedThenPreviousKeyAccepted() {
+		SecurityContext context = authenticated("user");
+		MockHttpServletRequest request = save(this.repository, context);
+		CookieSecurityContextRepository rotated = new CookieSecurityContextRepository(
+				Arrays.asList(encryptor(), this.encryptor));
+		assertThat(rotated.loadDeferredContext(request).get()).isEqualTo(context);
+		CookieSecurityContextRepository unknown = new CookieSecurityContextRepository(encryptor());
+		assertThat(unknown.loadDeferredContext(request).get().getAuthentication()).isNull();
+	}
+
+	private static MockHttpServletRequest save(CookieSecurityContextRepository repository, SecurityContext context) {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		repository.saveContext(context, new MockHttpServletRequest(), response);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setCookies(response.getCookies());
+		return request;
+	}
+
+	private static SecurityContext authenticated(String name) {
+		return new SecurityContextImpl(new TestingAuthenticationToken(name, "password", "ROLE_USER"));
+	}
+
+	private static BytesEncryptor encryptor() {
+		return Encryptors.stronger("password", KeyGenerators.string().generateKey());
+	}
+
+}
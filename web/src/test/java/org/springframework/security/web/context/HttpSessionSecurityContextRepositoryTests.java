@@ -755,6 +755,88 @@ public class HttpSessionSecurityContextRepositoryTests {
 		return securityContext;
 	}
 
+	@Test
+	public void saveContextWhenChangeDetectionEnabledAndEquivalentContextThenNotWritten() {
+		HttpSessionSecurityContextRepository repo = new HttpSessionSecurityContextRepository();
+		repo.setChangeDetectionEnabled(true);
+		SecurityContext original = new SecurityContextImpl(
+				new TestingAuthenticationToken("someone", "passwd", "ROLE_A"));
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.getSession().setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, original);
+		HttpRequestResponseHolder holder = new HttpRequestResponseHolder(request, new MockHttpServletResponse());
+		repo.loadContext(holder);
+		SecurityContext equivalent = new SecurityContextImpl(
+				new TestingAuthenticationToken("someone", "passwd", "ROLE_A"));
+		repo.saveContext(equivalent, holder.getRequest(), holder.getResponse());
+		assertThat(request.getSession().getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY))
+				.isSameAs(original);
+		assertThat(repo.getAvoidedWriteCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void saveContextWhenChangeDetectionEnabledAndDeferredContextThenNotWritten() {
+		HttpSessionSecurityContextRepository repo = new HttpSessionSecurityContextRepository();
+		repo.setChangeDetectionEnabled(true);
+		SecurityContext original = new SecurityContextImpl(this.testToken);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		request.getSession().setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, original);
+		repo.loadDeferredContext(request).get();
+		repo.saveContext(new SecurityContextImpl(this.testToken), request, response);
+		assertThat(request.getSession().getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY))
+				.isSameAs(original);
+		assertThat(repo.getAvoidedWriteCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void saveContextWhenChangeDetectionEnabledAndAuthoritiesChangedThenWritten() {
+		HttpSessionSecurityContextRepository repo = new HttpSessionSecurityContextRepository();
+		repo.setChangeDetectionEnabled(true);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.getSession().setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+				new SecurityContextImpl(new TestingAuthenticationToken("someone", "passwd", "ROLE_A")));
+		HttpRequestResponseHolder holder = new HttpRequestResponseHolder(request, new MockHttpServletResponse());
+		repo.loadContext(holder);
+		SecurityContext changed = new SecurityContextImpl(
+				new TestingAuthenticationToken("someone", "passwd", "ROLE_A", "ROLE_B"));
+		repo.saveContext(changed, holder.getRequest(), holder.getResponse());
+		assertThat(request.getSession().getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY))
+				.isSameAs(changed);
+		assertThat(repo.getAvoidedWriteCount()).isZero();
+	}
+
+	@Test
+	public void saveContextWhenChangeDetectionEnabledAndSessionIdChangedThenWritten() {
+		HttpSessionSecurityContextRepository repo = new HttpSessionSecurityContextRepository();
+		repo.setChangeDetectionEnabled(true);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.getSession().setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+				new SecurityContextImpl(this.testToken));
+		HttpRequestResponseHolder holder = new HttpRequestResponseHolder(request, new MockHttpServletResponse());
+		repo.loadContext(holder);
+		request.changeSessionId();
+		SecurityContext context = new SecurityContextImpl(this.testToken);
+		repo.saveContext(context, holder.getRequest(), holder.getResponse());
+		assertThat(request.getSession().getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY))
+				.isSameAs(context);
+		assertThat(repo.getAvoidedWriteCount()).isZero();
+	}
+
+	@Test
+	public void saveContextWhenChangeDetectionDisabledThenEquivalentContextWritten() {
+		HttpSessionSecurityContextRepository repo = new HttpSessionSecurityContextRepository();
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.getSession().setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+				new SecurityContextImpl(this.testToken));
+		HttpRequestResponseHolder holder = new HttpRequestResponseHolder(request, new MockHttpServletResponse());
+		repo.loadContext(holder);
+		SecurityContext context = new SecurityContextImpl(this.testToken);
+		repo.saveContext(context, holder.getRequest(), holder.getResponse());
+		assertThat(request.getSession().getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY))
+				.isSameAs(context);
+		assertThat(repo.getAvoidedWriteCount()).isZero();
+	}
+
 	@Transient
 	private static class SomeTransientAuthentication extends AbstractAuthenticationToken {
 
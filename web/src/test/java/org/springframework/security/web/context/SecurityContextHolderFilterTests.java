@@ -16,6 +16,7 @@
 
 package org.springframework.security.web.context;
 
+import java.io.IOException;
 import java.util.function.Supplier;
 
 import jakarta.servlet.FilterChain;
@@ -32,12 +33,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import org.springframework.security.authentication.TestAuthentication;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ScopedValueSecurityContextHolderStrategy;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextHolderStrategy;
 import org.springframework.security.core.context.SecurityContextImpl;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
 
@@ -103,6 +106,38 @@ class SecurityContextHolderFilterTests {
 		verify(this.strategy).clearContext();
 	}
 
+	@Test
+	void doFilterWhenScopedValueSecurityContextHolderStrategyThenBoundForChain() throws Exception {
+		Authentication authentication = TestAuthentication.authenticatedUser();
+		SecurityContext expectedContext = new SecurityContextImpl(authentication);
+		ScopedValueSecurityContextHolderStrategy strategy = new ScopedValueSecurityContextHolderStrategy();
+		given(this.repository.loadDeferredContext(this.requestArg.capture()))
+				.willReturn(new SupplierDeferredSecurityContext(() -> expectedContext, strategy));
+		FilterChain filterChain = (request, response) -> assertThat(strategy.getContext()).isEqualTo(expectedContext);
+
+		this.filter.setSecurityContextHolderStrategy(strategy);
+		this.filter.doFilter(this.request, this.response, filterChain);
+
+		assertThat(strategy.getContext()).isEqualTo(strategy.createEmptyContext());
+		strategy.clearContext();
+	}
+
+	@Test
+	void doFilterWhenScopedValueSecurityContextHolderStrategyAndChainFailsThenPropagates() {
+		ScopedValueSecurityContextHolderStrategy strategy = new ScopedValueSecurityContextHolderStrategy();
+		given(this.repository.loadDeferredContext(this.requestArg.capture()))
+				.willReturn(new SupplierDeferredSecurityContext(SecurityContextImpl::new, strategy));
+		IOException failure = new IOException("failed");
+		FilterChain filterChain = (request, response) -> {
+			throw failure;
+		};
+
+		this.filter.setSecurityContextHolderStrategy(strategy);
+
+		assertThatIOException().isThrownBy(() -> this.filter.doFilter(this.request, this.response, filterChain))
+				.isSameAs(failure);
+	}
+
 	@Test
 	void shouldNotFilterErrorDispatchWhenDefault() {
 		assertThat(this.filter.shouldNotFilterErrorDispatch()).isFalse();
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.csrf;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link CsrfTokenSigner}
+ */
+public class CsrfTokenSignerTests {
+
+	private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes();
+
+	private final CsrfTokenSigner signer = new CsrfTokenSigner(SECRET);
+
+	@Test
+	public void constructorWhenSecretTooShortThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new CsrfTokenSigner(null));
+		assertThatIllegalArgumentException().isThrownBy(() -> new CsrfTokenSigner(new byte[31]));
+	}
+
+	@Test
+	public void isValidWhenSameBindingThenTrue() {
+		String token = this.signer.createToken("session:1");
+		assertThat(this.signer.isValid(token, "session:1")).isTrue();
+		assertThat(new CsrfTokenSigner(SECRET).isValid(token, "session:1")).isTrue();
+		assertThat(this.signer.createToken("session:1")).isNotEqualTo(token);
+	}
+
+	@Test
+	public void isValidWhenOtherBindingThenFalse() {
+		String token = this.signer.createToken("session:1");
+		assertThat(this.signer.isValid(token, "session:2")).isFalse();
+		assertThat(this.signer.isValid(token, "")).isFalse();
+		assertThat(this.signer.isValid(token, null)).isFalse();
+	}
+
+	@Test
+	public void isValidWhenOtherSecretThenFalse() {
+		String token = this.signer.createToken("");
+		CsrfTokenSigner other = new CsrfTokenSigner("fedcba9876543210fedcba9876543210".getBytes());
+		assertThat(other.isValid(token, "")).isFalse();
+	}
+
+	@Test
+	public void isValidWhenTamperedThenFalse() {
+		String token = this.signer.createToken("");
+		int firstDot = token.indexOf('.');
+		long issuedAt = Long.parseLong(token.substring(0, firstDot));
+		assertThat(this.signer.isValid((issuedAt + 1) + token.substring(firstDot), "")).isFalse();
+		assertThat(this.signer.isValid(token.substring(0, token.lastIndexOf('.') + 1) + "AAAA", "")).isFalse();
+		assertThat(this.signer.isValid("not-a-token", "")).isFalse();
+		assertThat(this.signer.isValid("x.y.!!", "")).isFalse();
+		assertThat(this.signer.isValid(null, "")).isFalse();
+	}
+
+	@Test
+	public void isValidWhenExpiredThenFalse() {
+		Instant now = Instant.parse("2023-01-01T00:00:00Z");
+		this.signer.setTokenValidity(Duration.ofMinutes(30));
+		this.signer.setClock(Clock.fixed(now, ZoneOffset.UTC));
+		String token = this.signer.createToken("");
+		this.signer.setClock(Clock.fixed(now.plus(Duration.ofMinutes(29)), ZoneOffset.UTC));
+		assertThat(this.signer.isValid(token, "")).isTrue();
+		this.signer.setClock(Clock.fixed(now.plus(Duration.ofMinutes(30)), ZoneOffset.UTC));
+		assertThat(this.signer.isValid(token, "")).isFalse();
+		this.signer.setClock(Clock.fixed(now.minusSeconds(1), ZoneOffset.UTC));
+		assertThat(this.signer.isValid(token, "")).isFalse();
+	}
+
+	@Test
+	public void setTokenValidityWhenInvalidThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.signer.setTokenValidity(null));
+		assertThatIllegalArgumentException().isThrownBy(() -> this.signer.setTokenValidity(Duration.ZERO));
+	}
+
+}
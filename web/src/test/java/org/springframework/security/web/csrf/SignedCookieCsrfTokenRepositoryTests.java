@@ -0,0 +1,159 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.csrf;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link SignedCookieCsrfTokenRepository}
+ */
+public class SignedCookieCsrfTokenRepositoryTests {
+
+	private final CsrfTokenSigner signer = new CsrfTokenSigner("0123456789abcdef0123456789abcdef".getBytes());
+
+	private final SignedCookieCsrfTokenRepository repository = new SignedCookieCsrfTokenRepository(this.signer);
+
+	@AfterEach
+	public void cleanup() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	public void constructorWhenNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new SignedCookieCsrfTokenRepository(null));
+	}
+
+	@Test
+	public void saveTokenThenCookieAndNoSession() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		CsrfToken token = this.repository.generateToken(request);
+		this.repository.saveToken(token, request, response);
+		Cookie cookie = response.getCookie(CookieCsrfTokenRepository.DEFAULT_CSRF_COOKIE_NAME);
+		assertThat(cookie.getValue()).isEqualTo(token.getToken());
+		assertThat(cookie.isHttpOnly()).isTrue();
+		assertThat(cookie.getMaxAge()).isEqualTo(-1);
+		assertThat(token.getHeaderName()).isEqualTo(CookieCsrfTokenRepository.DEFAULT_CSRF_HEADER_NAME);
+		assertThat(token.getParameterName()).isEqualTo(CookieCsrfTokenRepository.DEFAULT_CSRF_PARAMETER_NAME);
+		assertThat(request.getSession(false)).isNull();
+	}
+
+	@Test
+	public void loadTokenWhenSignedTokenThenLoaded() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		CsrfToken token = this.repository.generateToken(request);
+		request.setCookies(new Cookie(CookieCsrfTokenRepository.DEFAULT_CSRF_COOKIE_NAME, token.getToken()));
+		assertThat(this.repository.loadToken(request).getToken()).isEqualTo(token.getToken());
+	}
+
+	@Test
+	public void loadTokenWhenNotSignedThenNull() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setCookies(new Cookie(CookieCsrfTokenRepository.DEFAULT_CSRF_COOKIE_NAME, "forged"));
+		assertThat(this.repository.loadToken(request)).isNull();
+	}
+
+	@Test
+	public void loadTokenWhenRemovedThenNull() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		CsrfToken token = this.repository.generateToken(request);
+		request.setCookies(new Cookie(CookieCsrfTokenRepository.DEFAULT_CSRF_COOKIE_NAME, token.getToken()));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.repository.saveToken(null, request, response);
+		assertThat(response.getCookie(CookieCsrfTokenRepository.DEFAULT_CSRF_COOKIE_NAME).getMaxAge()).isZero();
+		assertThat(this.repository.loadToken(request)).isNull();
+	}
+
+	@Test
+	public void loadTokenWhenBoundToOtherSessionThenNull() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.getSession();
+		CsrfToken token = this.repository.generateToken(request);
+		MockHttpServletRequest other = new MockHttpServletRequest();
+		other.getSession();
+		other.setCookies(new Cookie(CookieCsrfTokenRepository.DEFAULT_CSRF_COOKIE_NAME, token.getToken()));
+		assertThat(this.repository.loadToken(other)).isNull();
+		request.setCookies(new Cookie(CookieCsrfTokenRepository.DEFAULT_CSRF_COOKIE_NAME, token.getToken()));
+		assertThat(this.repository.loadToken(request)).isNotNull();
+	}
+
+	@Test
+	public void loadTokenWhenBoundToPrincipalThenOnlyLoadedForPrincipal() {
+		SecurityContextHolder.getContext()
+				.setAuthentication(new TestingAuthenticationToken("user", "password", "ROLE_USER"));
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		CsrfToken token = this.repository.generateToken(request);
+		request.setCookies(new Cookie(CookieCsrfTokenRepository.DEFAULT_CSRF_COOKIE_NAME, token.getToken()));
+		assertThat(this.repository.loadToken(request)).isNotNull();
+		SecurityContextHolder.getContext()
+				.setAuthentication(new TestingAuthenticationToken("attacker", "password", "ROLE_USER"));
+		assertThat(this.repository.loadToken(request)).isNull();
+		SecurityContextHolder.clearContext();
+		assertThat(this.repository.loadToken(request)).isNull();
+	}
+
+	@Test
+	public void loadTokenWhenAnonymousThenBoundToSession() {
+		SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken("key", "anonymous",
+				AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.getSession();
+		CsrfToken token = this.repository.generateToken(request);
+		request.setCookies(new Cookie(CookieCsrfTokenRepository.DEFAULT_CSRF_COOKIE_NAME, token.getToken()));
+		SecurityContextHolder.clearContext();
+		assertThat(this.repository.loadToken(request)).isNotNull();
+	}
+
+	@Test
+	public void doFilterWhenXorMaskedTokenThenValidated() throws Exception {
+		CsrfFilter filter = new CsrfFilter(this.repository);
+		filter.setRequestHandler(new XorCsrfTokenRequestAttributeHandler());
+		MockHttpServletRequest get = new MockHttpServletRequest("GET", "/");
+		MockHttpServletResponse getResponse = new MockHttpServletResponse();
+		filter.doFilter(get, getResponse, mock(FilterChain.class));
+		CsrfToken masked = (CsrfToken) get.getAttribute(CsrfToken.class.getName());
+		String maskedToken = masked.getToken();
+		Cookie cookie = getResponse.getCookie(CookieCsrfTokenRepository.DEFAULT_CSRF_COOKIE_NAME);
+		assertThat(cookie).isNotNull();
+		assertThat(maskedToken).isNotEqualTo(cookie.getValue());
+		assertThat(get.getSession(false)).isNull();
+		MockHttpServletRequest post = new MockHttpServletRequest("POST", "/");
+		post.setCookies(cookie);
+		post.setParameter(masked.getParameterName(), maskedToken);
+		FilterChain chain = mock(FilterChain.class);
+		filter.doFilter(post, new MockHttpServletResponse(), chain);
+		verify(chain).doFilter(any(), any());
+		assertThat(post.getSession(false)).isNull();
+	}
+
+}
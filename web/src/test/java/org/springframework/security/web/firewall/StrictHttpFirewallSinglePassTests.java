@@ -0,0 +1,171 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.firewall;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Differential tests which check that {@link StrictHttpFirewall} makes the same
+ * decisions with {@link StrictHttpFirewall#setSinglePassValidation(boolean)} as without
+ * it.
+ */
+public class StrictHttpFirewallSinglePassTests {
+
+	private static final List<String> FRAGMENTS = Arrays.asList("", "/", "/", "/", "a", "path", ".", "..", "%2e",
+			"%2E", ";", "%3b", "%3B", "%2f", "%2F", "//", "\\", "%5c", "%5C", "\0", "%00", "\n", "%0a", "%0A", "\r",
+			"%0d", "%0D", "%25", "%", " ", " ", "é", "\u0007", "\u007f", "~", "x;y", "%2f%2F");
+
+	private static final List<String> METHODS = Arrays.asList("GET", "POST", "TRACE", "get");
+
+	private static final int SAMPLES = 20000;
+
+	@Test
+	public void getFirewalledRequestWhenDefaultsThenSameDecisions() {
+		assertSameDecisions((firewall) -> {
+		});
+	}
+
+	@Test
+	public void getFirewalledRequestWhenRelaxedThenSameDecisions() {
+		assertSameDecisions((firewall) -> {
+			firewall.setAllowSemicolon(true);
+			firewall.setAllowUrlEncodedSlash(true);
+			firewall.setAllowUrlEncodedDoubleSlash(true);
+			firewall.setAllowUrlEncodedPeriod(true);
+			firewall.setAllowBackSlash(true);
+			firewall.setAllowUrlEncodedPercent(true);
+			firewall.setAllowUrlEncodedLineSeparator(true);
+			firewall.setUnsafeAllowAnyHttpMethod(true);
+		});
+	}
+
+	@Test
+	public void getFirewalledRequestWhenCustomBlocklistsThenSameDecisions() {
+		assertSameDecisions((firewall) -> {
+			firewall.getEncodedUrlBlocklist().add("path");
+			firewall.getDecodedUrlBlocklist().add("é");
+			firewall.getDecodedUrlBlocklist().remove("%");
+			firewall.setAllowedHostnames("localhost"::equals);
+		});
+	}
+
+	@Test
+	public void getFirewalledRequestWhenBlocklistChangedAfterFirstRequestThenSameDecisions() {
+		StrictHttpFirewall firewall = new StrictHttpFirewall();
+		firewall.setSinglePassValidation(true);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/path");
+		request.setServletPath("/path");
+		assertThat(outcome(firewall, request)).isEqualTo("accepted");
+		firewall.getDecodedUrlBlocklist().add("path");
+		assertThat(outcome(firewall, request)).isNotEqualTo("accepted");
+		firewall.getDecodedUrlBlocklist().removeIf("path"::equals);
+		assertThat(outcome(firewall, request)).isEqualTo("accepted");
+	}
+
+	@Test
+	public void getHeaderWhenNamesThenSameDecisionsAsPattern() {
+		Pattern pattern = Pattern.compile("[\\p{IsAssigned}&&[^\\p{IsControl}]]*");
+		StrictHttpFirewall firewall = new StrictHttpFirewall();
+		Random random = new Random(0);
+		for (int i = 0; i < SAMPLES; i++) {
+			StringBuilder name = new StringBuilder("h");
+			for (int j = random.nextInt(4); j > 0; j--) {
+				name.append(randomCharacter(random));
+			}
+			MockHttpServletRequest request = new MockHttpServletRequest();
+			FirewalledRequest firewalled = firewall.getFirewalledRequest(request);
+			boolean allowed;
+			try {
+				firewalled.getHeader(name.toString());
+				allowed = true;
+			}
+			catch (RequestRejectedException ex) {
+				allowed = false;
+			}
+			assertThat(allowed).describedAs(name.toString()).isEqualTo(pattern.matcher(name).matches());
+		}
+	}
+
+	private static char randomCharacter(Random random) {
+		switch (random.nextInt(5)) {
+		case 0:
+			return (char) random.nextInt(0x100);
+		case 1:
+			return (char) (0xD800 + random.nextInt(0x800));
+		case 2:
+			return (char) (0x0370 + random.nextInt(0x20));
+		case 3:
+			return (char) (0xFFF0 + random.nextInt(0x10));
+		default:
+			return (char) random.nextInt(0x10000);
+		}
+	}
+
+	private static void assertSameDecisions(Consumer<StrictHttpFirewall> customizer) {
+		StrictHttpFirewall firewall = new StrictHttpFirewall();
+		customizer.accept(firewall);
+		StrictHttpFirewall singlePass = new StrictHttpFirewall();
+		customizer.accept(singlePass);
+		singlePass.setSinglePassValidation(true);
+		Random random = new Random(0);
+		for (int i = 0; i < SAMPLES; i++) {
+			MockHttpServletRequest request = new MockHttpServletRequest(METHODS.get(random.nextInt(METHODS.size())),
+					randomPath(random));
+			request.setContextPath(random.nextInt(4) == 0 ? randomPath(random) : "");
+			request.setServletPath(randomPath(random));
+			request.setPathInfo(random.nextBoolean() ? randomPath(random) : null);
+			request.setServerName(random.nextInt(10) == 0 ? "example.org" : "localhost");
+			assertThat(outcome(singlePass, request)).describedAs(describe(request))
+					.isEqualTo(outcome(firewall, request));
+		}
+	}
+
+	private static String randomPath(Random random) {
+		StringBuilder path = new StringBuilder();
+		for (int i = random.nextInt(5); i > 0; i--) {
+			path.append(FRAGMENTS.get(random.nextInt(FRAGMENTS.size())));
+		}
+		return path.toString();
+	}
+
+	private static String outcome(StrictHttpFirewall firewall, MockHttpServletRequest request) {
+		try {
+			firewall.getFirewalledRequest(request);
+			return "accepted";
+		}
+		catch (RequestRejectedException ex) {
+			return ex.getMessage();
+		}
+	}
+
+	private static String describe(MockHttpServletRequest request) {
+		return request.getMethod() + " requestURI=" + request.getRequestURI() + " contextPath="
+				+ request.getContextPath() + " servletPath=" + request.getServletPath() + " pathInfo="
+				+ request.getPathInfo() + " serverName=" + request.getServerName();
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.header.writers;
+
+import java.util.Arrays;
+import java.util.List;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.header.HeaderWriter;
+import org.springframework.security.web.header.writers.frameoptions.XFrameOptionsHeaderWriter;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link PrecomputedHeadersWriter}
+ */
+public class PrecomputedHeadersWriterTests {
+
+	@Test
+	public void precomputeWhenNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> PrecomputedHeadersWriter.precompute(null));
+	}
+
+	@Test
+	public void precomputeWhenRequestIndependentWritersThenFoldedInOrder() {
+		CacheControlHeadersWriter cacheControl = new CacheControlHeadersWriter();
+		HstsHeaderWriter hsts = new HstsHeaderWriter();
+		DelegatingRequestMatcherHeaderWriter delegating = new DelegatingRequestMatcherHeaderWriter(
+				AnyRequestMatcher.INSTANCE, new StaticHeadersWriter("X-Custom", "value"));
+		List<HeaderWriter> writers = PrecomputedHeadersWriter.precompute(Arrays.asList(cacheControl,
+				new XContentTypeOptionsHeaderWriter(), hsts, new XFrameOptionsHeaderWriter(),
+				new XXssProtectionHeaderWriter(), delegating, new CrossOriginOpenerPolicyHeaderWriter()));
+		assertThat(writers).hasSize(5);
+		assertThat(writers.get(0)).isSameAs(cacheControl);
+		assertThat(writers.get(1)).isInstanceOf(PrecomputedHeadersWriter.class);
+		assertThat(writers.get(2)).isSameAs(hsts);
+		assertThat(writers.get(3)).isInstanceOf(PrecomputedHeadersWriter.class);
+		assertThat(writers.get(4)).isSameAs(delegating);
+	}
+
+	@Test
+	public void precomputeWhenSubclassOverridesWriteHeadersThenNotFolded() {
+		StaticHeadersWriter staticHeaders = new StaticHeadersWriter("X-Custom", "value") {
+
+			@Override
+			public void writeHeaders(HttpServletRequest request, HttpServletResponse response) {
+				response.setHeader("X-Custom", request.getRequestURI());
+			}
+
+		};
+		ReferrerPolicyHeaderWriter referrerPolicy = new ReferrerPolicyHeaderWriter() {
+
+			@Override
+			public void writeHeaders(HttpServletRequest request, HttpServletResponse response) {
+				response.setHeader("Referrer-Policy", request.getRequestURI());
+			}
+
+		};
+		List<HeaderWriter> writers = PrecomputedHeadersWriter
+				.precompute(Arrays.asList(staticHeaders, new XContentTypeOptionsHeaderWriter(), referrerPolicy));
+		assertThat(writers).hasSize(3);
+		assertThat(writers.get(0)).isSameAs(staticHeaders);
+		assertThat(writers.get(1)).isInstanceOf(PrecomputedHeadersWriter.class);
+		assertThat(writers.get(2)).isSameAs(referrerPolicy);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/path");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		writers.forEach((writer) -> writer.writeHeaders(request, response));
+		assertThat(response.getHeader("X-Custom")).isEqualTo("/path");
+		assertThat(response.getHeader("Referrer-Policy")).isEqualTo("/path");
+	}
+
+	@Test
+	public void precomputeWhenSubclassDoesNotOverrideWriteHeadersThenFolded() {
+		StaticHeadersWriter staticHeaders = new StaticHeadersWriter("X-Custom", "value") {
+		};
+		List<HeaderWriter> writers = PrecomputedHeadersWriter
+				.precompute(Arrays.asList(staticHeaders, new XContentTypeOptionsHeaderWriter()));
+		assertThat(writers).hasSize(1);
+		assertThat(writers.get(0)).isInstanceOf(PrecomputedHeadersWriter.class);
+	}
+
+	@Test
+	public void writeHeadersThenSameHeadersAsOriginalWriters() {
+		ContentSecurityPolicyHeaderWriter csp = new ContentSecurityPolicyHeaderWriter("default-src 'self'");
+		csp.setReportOnly(true);
+		List<HeaderWriter> original = Arrays.asList(new CacheControlHeadersWriter(),
+				new XContentTypeOptionsHeaderWriter(), new HstsHeaderWriter(), new XFrameOptionsHeaderWriter(),
+				new XXssProtectionHeaderWriter(), new ReferrerPolicyHeaderWriter(), csp,
+				new StaticHeadersWriter("X-Multiple", "one", "two"), new StaticHeadersWriter("X-Multiple", "three"),
+				new PermissionsPolicyHeaderWriter("geolocation=(self)"));
+		List<HeaderWriter> precomputed = PrecomputedHeadersWriter.precompute(original);
+		for (boolean secure : Arrays.asList(true, false)) {
+			for (String existing : Arrays.asList(null, "X-Frame-Options", "Referrer-Policy", "X-Multiple")) {
+				MockHttpServletRequest request = new MockHttpServletRequest();
+				request.setSecure(secure);
+				MockHttpServletResponse expected = response(existing);
+				MockHttpServletResponse actual = response(existing);
+				original.forEach((writer) -> writer.writeHeaders(request, expected));
+				precomputed.forEach((writer) -> writer.writeHeaders(request, actual));
+				assertThat(actual.getHeaderNames()).containsExactlyElementsOf(expected.getHeaderNames());
+				for (String name : expected.getHeaderNames()) {
+					assertThat(actual.getHeaders(name)).describedAs(name)
+							.containsExactlyElementsOf(expected.getHeaders(name));
+				}
+			}
+		}
+	}
+
+	private static MockHttpServletResponse response(String existingHeader) {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		if (existingHeader != null) {
+			response.setHeader(existingHeader, "existing");
+		}
+		return response;
+	}
+
+}
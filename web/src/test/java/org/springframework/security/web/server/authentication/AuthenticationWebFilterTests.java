@@ -16,18 +16,23 @@
 
 package org.springframework.security.web.server.authentication;
 
+import java.time.Duration;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 
+import org.springframework.security.authentication.AuthenticationAttemptLimiter;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.ReactiveAuthenticationManagerResolver;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.test.web.reactive.server.WebTestClientBuilder;
 import org.springframework.security.web.server.context.ServerSecurityContextRepository;
 import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
@@ -188,6 +193,36 @@ public class AuthenticationWebFilterTests {
 		verifyNoMoreInteractions(this.failureHandler);
 	}
 
+	@Test
+	public void filterWhenAuthenticationAttemptsExceededThenUnauthorizedWithoutAuthenticating() {
+		given(this.authenticationManager.authenticate(any()))
+				.willReturn(Mono.just(new TestingAuthenticationToken("test", "this", "ROLE")));
+		this.filter = new AuthenticationWebFilter(this.authenticationManager);
+		this.filter.setAuthenticationAttemptLimiter(new AuthenticationAttemptLimiter(100, 1, Duration.ofMinutes(1)));
+		WebTestClient client = WebTestClientBuilder.bindToWebFilters(this.filter).build();
+		client.get().uri("/").headers((headers) -> headers.setBasicAuth("test", "this")).exchange().expectStatus()
+				.isOk();
+		client.get().uri("/").headers((headers) -> headers.setBasicAuth("test", "this")).exchange().expectStatus()
+				.isUnauthorized();
+		verify(this.authenticationManager).authenticate(any());
+	}
+
+	@Test
+	public void filterWhenAuthenticationAttemptsExceededThenFailureHandlerInvokedWithMessage() {
+		given(this.authenticationManager.authenticate(any()))
+				.willReturn(Mono.just(new TestingAuthenticationToken("test", "this", "ROLE")));
+		given(this.failureHandler.onAuthenticationFailure(any(), any())).willReturn(Mono.empty());
+		this.filter = new AuthenticationWebFilter(this.authenticationManager);
+		this.filter.setAuthenticationFailureHandler(this.failureHandler);
+		this.filter.setAuthenticationAttemptLimiter(new AuthenticationAttemptLimiter(100, 1, Duration.ofMinutes(1)));
+		WebTestClient client = WebTestClientBuilder.bindToWebFilters(this.filter).build();
+		client.get().uri("/").headers((headers) -> headers.setBasicAuth("test", "this")).exchange();
+		client.get().uri("/").headers((headers) -> headers.setBasicAuth("test", "this")).exchange();
+		ArgumentCaptor<AuthenticationException> exception = ArgumentCaptor.forClass(AuthenticationException.class);
+		verify(this.failureHandler).onAuthenticationFailure(any(), exception.capture());
+		assertThat(exception.getValue()).hasMessage("Too many authentication attempts");
+	}
+
 	@Test
 	public void filterWhenConvertAndAuthenticationEmptyThenServerError() {
 		Mono<Authentication> authentication = Mono.just(new TestingAuthenticationToken("test", "this", "ROLE_USER"));
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.server.csrf;
+
+import java.security.Principal;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.http.HttpCookie;
+import org.springframework.http.ResponseCookie;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.web.csrf.CsrfTokenSigner;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebSession;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link SignedCookieServerCsrfTokenRepository}
+ */
+public class SignedCookieServerCsrfTokenRepositoryTests {
+
+	private final CsrfTokenSigner signer = new CsrfTokenSigner("0123456789abcdef0123456789abcdef".getBytes());
+
+	private final SignedCookieServerCsrfTokenRepository repository = new SignedCookieServerCsrfTokenRepository(
+			this.signer);
+
+	@Test
+	public void constructorWhenNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new SignedCookieServerCsrfTokenRepository(null));
+	}
+
+	@Test
+	public void saveTokenThenCookieAndSessionNotStarted() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+		CsrfToken token = this.repository.generateToken(exchange).block();
+		this.repository.saveToken(exchange, token).block();
+		ResponseCookie cookie = exchange.getResponse().getCookies()
+				.getFirst(CookieServerCsrfTokenRepository.DEFAULT_CSRF_COOKIE_NAME);
+		assertThat(cookie.getValue()).isEqualTo(token.getToken());
+		assertThat(cookie.isHttpOnly()).isTrue();
+		assertThat(exchange.getSession().map(WebSession::isStarted).block()).isFalse();
+	}
+
+	@Test
+	public void loadTokenWhenSignedTokenThenLoaded() {
+		String token = this.repository
+				.generateToken(MockServerWebExchange.from(MockServerHttpRequest.get("/"))).block().getToken();
+		MockServerWebExchange exchange = exchangeWithCookie(token);
+		assertThat(this.repository.loadToken(exchange).block().getToken()).isEqualTo(token);
+	}
+
+	@Test
+	public void loadTokenWhenNotSignedThenEmpty() {
+		assertThat(this.repository.loadToken(exchangeWithCookie("forged")).block()).isNull();
+		assertThat(this.repository.loadToken(MockServerWebExchange.from(MockServerHttpRequest.get("/"))).block())
+				.isNull();
+	}
+
+	@Test
+	public void loadTokenWhenBoundToPrincipalThenOnlyLoadedForPrincipal() {
+		TestingAuthenticationToken user = new TestingAuthenticationToken("user", "password", "ROLE_USER");
+		String token = this.repository
+				.generateToken(withPrincipal(MockServerWebExchange.from(MockServerHttpRequest.get("/")), user))
+				.block().getToken();
+		assertThat(this.repository.loadToken(withPrincipal(exchangeWithCookie(token), user)).block()).isNotNull();
+		TestingAuthenticationToken attacker = new TestingAuthenticationToken("attacker", "password", "ROLE_USER");
+		assertThat(this.repository.loadToken(withPrincipal(exchangeWithCookie(token), attacker)).block()).isNull();
+		assertThat(this.repository.loadToken(exchangeWithCookie(token)).block()).isNull();
+	}
+
+	@Test
+	public void loadTokenWhenXorMaskedThenResolvesToSignedToken() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+		CsrfToken token = this.repository.generateToken(exchange).block();
+		XorServerCsrfTokenRequestAttributeHandler handler = new XorServerCsrfTokenRequestAttributeHandler();
+		handler.handle(exchange, Mono.just(token));
+		Mono<CsrfToken> masked = exchange.getAttribute(CsrfToken.class.getName());
+		String maskedToken = masked.block().getToken();
+		MockServerWebExchange post = MockServerWebExchange.from(MockServerHttpRequest.post("/")
+				.cookie(new HttpCookie(CookieServerCsrfTokenRepository.DEFAULT_CSRF_COOKIE_NAME, token.getToken()))
+				.header(token.getHeaderName(), maskedToken));
+		CsrfToken loaded = this.repository.loadToken(post).block();
+		assertThat(handler.resolveCsrfTokenValue(post, loaded).block()).isEqualTo(loaded.getToken());
+	}
+
+	private static MockServerWebExchange exchangeWithCookie(String token) {
+		return MockServerWebExchange.from(MockServerHttpRequest.get("/")
+				.cookie(new HttpCookie(CookieServerCsrfTokenRepository.DEFAULT_CSRF_COOKIE_NAME, token)));
+	}
+
+	private static ServerWebExchange withPrincipal(ServerWebExchange exchange, Principal principal) {
+		return exchange.mutate().principal(Mono.just(principal)).build();
+	}
+
+}
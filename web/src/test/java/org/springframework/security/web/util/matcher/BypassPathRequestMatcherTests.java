@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util.matcher;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link BypassPathRequestMatcher}
+ */
+public class BypassPathRequestMatcherTests {
+
+	private final BypassPathRequestMatcher matcher = new BypassPathRequestMatcher(
+			Arrays.asList("/static/**", "/actuator/health"));
+
+	@Test
+	public void constructorWhenNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new BypassPathRequestMatcher(null));
+	}
+
+	@Test
+	public void constructorWhenWildcardInPathThenException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new BypassPathRequestMatcher(Collections.singletonList("/static/*.js")));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new BypassPathRequestMatcher(Collections.singletonList("/**/static")));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new BypassPathRequestMatcher(Collections.singletonList("static/**")));
+	}
+
+	@Test
+	public void matchesWhenPrefixThenMatchesPathAndBelow() {
+		assertThat(this.matcher.matches(request("", "/static"))).isTrue();
+		assertThat(this.matcher.matches(request("", "/static/"))).isTrue();
+		assertThat(this.matcher.matches(request("", "/static/css/app.css"))).isTrue();
+		assertThat(this.matcher.matches(request("", "/staticx"))).isFalse();
+		assertThat(this.matcher.matches(request("", "/other/static/app.css"))).isFalse();
+	}
+
+	@Test
+	public void matchesWhenExactThenMatchesPathOnly() {
+		assertThat(this.matcher.matches(request("", "/actuator/health"))).isTrue();
+		assertThat(this.matcher.matches(request("", "/actuator/health/db"))).isFalse();
+		assertThat(this.matcher.matches(request("", "/actuator"))).isFalse();
+	}
+
+	@Test
+	public void matchesWhenContextPathThenComparedAfterContextPath() {
+		assertThat(this.matcher.matches(request("/app", "/app/static/app.js"))).isTrue();
+		assertThat(this.matcher.matches(request("/app", "/static/app.js"))).isFalse();
+		assertThat(this.matcher.matches(request("/app", "/appstatic/app.js"))).isFalse();
+	}
+
+	@Test
+	public void matchesWhenUnsafeUriThenDoesNotMatch() {
+		assertThat(this.matcher.matches(request("", "/static/../admin"))).isFalse();
+		assertThat(this.matcher.matches(request("", "/static/./app.js"))).isFalse();
+		assertThat(this.matcher.matches(request("", "/static//app.js"))).isFalse();
+		assertThat(this.matcher.matches(request("", "/static/%2e%2e/admin"))).isFalse();
+		assertThat(this.matcher.matches(request("", "/static;x=y/app.js"))).isFalse();
+		assertThat(this.matcher.matches(request("", "/static/..;/admin"))).isFalse();
+		assertThat(this.matcher.matches(request("", "/static\\..\\admin"))).isFalse();
+		assertThat(this.matcher.matches(request("", "static/app.js"))).isFalse();
+	}
+
+	@Test
+	public void matchesWhenMatchAllThenMatchesSafeUris() {
+		BypassPathRequestMatcher matcher = new BypassPathRequestMatcher(Collections.singletonList("/**"));
+		assertThat(matcher.matches(request("", "/"))).isTrue();
+		assertThat(matcher.matches(request("", "/a/b"))).isTrue();
+		assertThat(matcher.matches(request("", "/a/../b"))).isFalse();
+	}
+
+	private static MockHttpServletRequest request(String contextPath, String requestURI) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", requestURI);
+		request.setContextPath(contextPath);
+		return request;
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util.matcher;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
+/**
+ * Tests for {@link PathPrefixRequestMatcherIndex}
+ */
+public class PathPrefixRequestMatcherIndexTests {
+
+	@Test
+	public void constructorWhenNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new PathPrefixRequestMatcherIndex(null));
+	}
+
+	@Test
+	public void getCandidatesWhenLiteralPrefixThenOnlyMatchingPrefixes() {
+		PathPrefixRequestMatcherIndex index = new PathPrefixRequestMatcherIndex(
+				Arrays.asList(antMatcher("/api/**"), antMatcher("/admin/**"), antMatcher("/api/users/*")));
+		assertThat(index.getIndexedCount()).isEqualTo(3);
+		assertThat(index.getCandidates(request("GET", "/api/users/1"))).containsExactly(0, 2);
+		assertThat(index.getCandidates(request("GET", "/api"))).containsExactly(0);
+		assertThat(index.getCandidates(request("GET", "/admin/x"))).containsExactly(1);
+		assertThat(index.getCandidates(request("GET", "/other"))).isEmpty();
+	}
+
+	@Test
+	public void getCandidatesWhenOpaqueMatchersThenAlwaysCandidatesInOrder() {
+		RequestMatcher opaque = mock(RequestMatcher.class);
+		PathPrefixRequestMatcherIndex index = new PathPrefixRequestMatcherIndex(
+				Arrays.asList(antMatcher("/api/**"), opaque, antMatcher("/admin/**"), AnyRequestMatcher.INSTANCE));
+		assertThat(index.getIndexedCount()).isEqualTo(3);
+		assertThat(index.getCandidates(request("GET", "/api/x"))).containsExactly(0, 1, 3);
+		assertThat(index.getCandidates(request("GET", "/admin/x"))).containsExactly(1, 2, 3);
+		assertThat(index.getCandidates(request("GET", "/"))).containsExactly(1, 3);
+	}
+
+	@Test
+	public void getCandidatesWhenWildcardInFirstSegmentThenRootCandidate() {
+		PathPrefixRequestMatcherIndex index = new PathPrefixRequestMatcherIndex(
+				Arrays.asList(antMatcher("/**/x"), antMatcher("/a?i/**"), antMatcher("/{id}"), antMatcher("/**")));
+		assertThat(index.getCandidates(request("GET", "/anything"))).containsExactly(0, 1, 2, 3);
+	}
+
+	@Test
+	public void getCandidatesWhenHttpMethodThenKeyedByMethod() {
+		PathPrefixRequestMatcherIndex index = new PathPrefixRequestMatcherIndex(
+				Arrays.asList(antMatcher(HttpMethod.POST, "/api/**"), antMatcher(HttpMethod.GET, "/api/**"),
+						antMatcher("/api/**"), antMatcher(HttpMethod.GET)));
+		assertThat(index.getCandidates(request("GET", "/api/x"))).containsExactly(1, 2, 3);
+		assertThat(index.getCandidates(request("POST", "/api/x"))).containsExactly(0, 2);
+		assertThat(index.getCandidates(request("DELETE", "/api/x"))).containsExactly(2);
+		assertThat(index.getCandidates(request("", "/api/x"))).containsExactly(0, 1, 2, 3);
+	}
+
+	@Test
+	public void getCandidatesWhenCaseInsensitiveOrRelativeThenOpaque() {
+		PathPrefixRequestMatcherIndex index = new PathPrefixRequestMatcherIndex(
+				Arrays.asList(new AntPathRequestMatcher("/API/**", null, false), new AntPathRequestMatcher("api/**")));
+		assertThat(index.getIndexedCount()).isEqualTo(0);
+		assertThat(index.getCandidates(request("GET", "/other"))).containsExactly(0, 1);
+	}
+
+	@Test
+	public void getCandidatesWhenEmptySegmentsThenIgnored() {
+		PathPrefixRequestMatcherIndex index = new PathPrefixRequestMatcherIndex(
+				Arrays.asList(antMatcher("/api/v1/**")));
+		MockHttpServletRequest request = request("GET", "/api/");
+		request.setPathInfo("/v1/users");
+		assertThat(index.getCandidates(request)).containsExactly(0);
+	}
+
+	@Test
+	public void getCandidatesThenSameAsLinearScan() {
+		List<RequestMatcher> matchers = Arrays.asList(antMatcher("/api/v1/**"), antMatcher(HttpMethod.GET, "/api/*"),
+				antMatcher("/api/v1/users/{id}"), new RegexRequestMatcher("/api/v2/.*", null), antMatcher("/static/**"),
+				antMatcher("/api/**"), AnyRequestMatcher.INSTANCE);
+		PathPrefixRequestMatcherIndex index = new PathPrefixRequestMatcherIndex(matchers);
+		for (String method : Arrays.asList("GET", "POST")) {
+			for (String path : Arrays.asList("/api/v1/users/1", "/api/v1", "/api/x", "/api/v2/a", "/static/app.js",
+					"/staticx", "/", "")) {
+				MockHttpServletRequest request = request(method, path);
+				assertThat(firstMatch(matchers, index.getCandidates(request), request))
+						.isEqualTo(firstMatch(matchers, request));
+			}
+		}
+	}
+
+	private static int firstMatch(List<RequestMatcher> matchers, int[] candidates, MockHttpServletRequest request) {
+		for (int candidate : candidates) {
+			if (matchers.get(candidate).matches(request)) {
+				return candidate;
+			}
+		}
+		return -1;
+	}
+
+	private static int firstMatch(List<RequestMatcher> matchers, MockHttpServletRequest request) {
+		for (int i = 0; i < matchers.size(); i++) {
+			if (matchers.get(i).matches(request)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static MockHttpServletRequest request(String method, String servletPath) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, servletPath);
+		request.setServletPath(servletPath);
+		return request;
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util.matcher;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
+/**
+ * Tests for {@link RequestMatcherResultCache}
+ */
+public class RequestMatcherResultCacheTests {
+
+	private final MockHttpServletRequest request = request("/api/users");
+
+	private final AtomicInteger evaluations = new AtomicInteger();
+
+	private final Predicate<HttpServletRequest> match = (request) -> {
+		this.evaluations.incrementAndGet();
+		return true;
+	};
+
+	@Test
+	public void matchesWhenNotBoundThenEvaluatesEveryTime() {
+		RequestMatcherResultCache.matches(this.request, "key", this.match);
+		RequestMatcherResultCache.matches(this.request, "key", this.match);
+		assertThat(this.evaluations).hasValue(2);
+	}
+
+	@Test
+	public void matchesWhenBoundThenEqualKeysEvaluateOnce() {
+		RequestMatcherResultCache.bind(this.request);
+		assertThat(RequestMatcherResultCache.matches(this.request, antMatcher("/api/**"), this.match)).isTrue();
+		assertThat(RequestMatcherResultCache.matches(this.request, antMatcher("/api/**"), this.match)).isTrue();
+		RequestMatcherResultCache.matches(this.request, antMatcher("/other/**"), this.match);
+		assertThat(this.evaluations).hasValue(2);
+	}
+
+	@Test
+	public void matchesWhenPathChangedThenEvaluatesAgain() {
+		RequestMatcherResultCache.bind(this.request);
+		RequestMatcherResultCache.matches(this.request, "key", this.match);
+		this.request.setPathInfo("/1");
+		RequestMatcherResultCache.matches(this.request, "key", this.match);
+		RequestMatcherResultCache.matches(this.request, "key", this.match);
+		assertThat(this.evaluations).hasValue(2);
+	}
+
+	@Test
+	public void getWhenSameKeyAsMatchesThenKeptApart() {
+		RequestMatcherResultCache.bind(this.request);
+		assertThat(RequestMatcherResultCache.matches(this.request, "key", this.match)).isTrue();
+		assertThat(RequestMatcherResultCache.get(this.request, "key", (request) -> "value")).isEqualTo("value");
+		assertThat(RequestMatcherResultCache.matches(this.request, "key", this.match)).isTrue();
+		assertThat(this.evaluations).hasValue(1);
+	}
+
+	@Test
+	public void unbindWhenPreviousThenPreviousRestored() {
+		RequestMatcherResultCache outer = RequestMatcherResultCache.bind(this.request);
+		assertThat(outer).isNull();
+		RequestMatcherResultCache.matches(this.request, "key", this.match);
+		RequestMatcherResultCache previous = RequestMatcherResultCache.bind(this.request);
+		RequestMatcherResultCache.matches(this.request, "key", this.match);
+		RequestMatcherResultCache.unbind(this.request, previous);
+		RequestMatcherResultCache.matches(this.request, "key", this.match);
+		assertThat(this.evaluations).hasValue(2);
+		RequestMatcherResultCache.unbind(this.request, outer);
+		assertThat(this.request.getAttributeNames().hasMoreElements()).isFalse();
+	}
+
+	@Test
+	public void getWhenNullThenRemembered() {
+		RequestMatcherResultCache.bind(this.request);
+		Object first = RequestMatcherResultCache.get(this.request, "key", (request) -> {
+			this.evaluations.incrementAndGet();
+			return null;
+		});
+		Object second = RequestMatcherResultCache.get(this.request, "key", (request) -> {
+			this.evaluations.incrementAndGet();
+			return null;
+		});
+		assertThat(first).isNull();
+		assertThat(second).isNull();
+		assertThat(this.evaluations).hasValue(1);
+	}
+
+	@Test
+	public void antPathRequestMatcherWhenBoundThenSameResults() {
+		RequestMatcherResultCache.bind(this.request);
+		assertThat(antMatcher("/api/**").matches(this.request)).isTrue();
+		assertThat(antMatcher("/api/**").matches(this.request)).isTrue();
+		assertThat(antMatcher("/other/**").matches(this.request)).isFalse();
+		this.request.setServletPath("/other/x");
+		assertThat(antMatcher("/api/**").matches(this.request)).isFalse();
+		assertThat(antMatcher("/other/**").matches(this.request)).isTrue();
+	}
+
+	private static MockHttpServletRequest request(String servletPath) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", servletPath);
+		request.setServletPath(servletPath);
+		return request;
+	}
+
+}